@@ -21,8 +21,10 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Matchers.isA;
@@ -59,6 +61,7 @@ import org.apache.geode.distributed.internal.ClusterDistributionManager;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.distributed.internal.membership.adapter.ServiceConfig;
 import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipViewDelta;
 import org.apache.geode.distributed.internal.membership.gms.GMSUtil;
 import org.apache.geode.distributed.internal.membership.gms.MemberIdentifierFactoryImpl;
 import org.apache.geode.distributed.internal.membership.gms.Services;
@@ -450,6 +453,44 @@ public class GMSJoinLeaveJUnitTest {
     Assert.assertNotEquals(gmsJoinLeave.getView(), olderNetView);
   }
 
+  @Test
+  public void testViewDeltaIsAppliedToCurrentView() throws IOException {
+    initMocks();
+    prepareAndInstallView(mockMembers[0], createMemberList(mockMembers[0], gmsJoinLeaveMemberId));
+    GMSMembershipView newView = new GMSMembershipView(mockMembers[0], 2,
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1]));
+    reset(messenger);
+
+    InstallViewMessage installViewMessage = getInstallViewMessage(null,
+        GMSMembershipViewDelta.create(gmsJoinLeave.getView(), newView), false);
+    gmsJoinLeave.processMessage(installViewMessage);
+
+    assertEquals(newView, gmsJoinLeave.getView());
+    verify(messenger).send(argThat(m -> m instanceof ViewAckMessage
+        && !((ViewAckMessage) m).isFullViewRequest()));
+  }
+
+  @Test
+  public void testViewDeltaWithUnknownBaseRequestsFullView() throws IOException {
+    initMocks();
+    prepareAndInstallView(mockMembers[0], createMemberList(mockMembers[0], gmsJoinLeaveMemberId));
+    GMSMembershipView unknownBase = new GMSMembershipView(mockMembers[0], 2,
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1]));
+    GMSMembershipView newView = new GMSMembershipView(mockMembers[0], 3,
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1], mockMembers[2]));
+    GMSMembershipView currentView = gmsJoinLeave.getView();
+    reset(messenger);
+
+    InstallViewMessage installViewMessage = getInstallViewMessage(null,
+        GMSMembershipViewDelta.create(unknownBase, newView), true);
+    gmsJoinLeave.processMessage(installViewMessage);
+
+    assertEquals(currentView, gmsJoinLeave.getView());
+    assertNull(gmsJoinLeave.getPreparedView());
+    verify(messenger).send(argThat(m -> m instanceof ViewAckMessage
+        && ((ViewAckMessage) m).isFullViewRequest() && ((ViewAckMessage) m).getViewId() == 3));
+  }
+
   @Test
   public void testForceDisconnectedFromNewView() throws IOException {
     initMocks(true);// enabledNetworkPartition;
@@ -837,6 +878,15 @@ public class GMSJoinLeaveJUnitTest {
     return installViewMessage;
   }
 
+  /** returns a message carrying only the delta, as it is received from another member */
+  private InstallViewMessage getInstallViewMessage(GMSMembershipView view,
+      GMSMembershipViewDelta delta, boolean preparing) {
+    InstallViewMessage installViewMessage =
+        new InstallViewMessage(view, delta, credentials, preparing);
+    installViewMessage.setSender(gmsJoinLeaveMemberId);
+    return installViewMessage;
+  }
+
   @Test
   public void testNetworkPartitionDetected() throws IOException {
     initMocks(true);
@@ -66,6 +66,7 @@ import org.jgroups.util.UUID;
 import org.junit.After;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
 
 import org.apache.geode.ForcedDisconnectException;
 import org.apache.geode.GemFireIOException;
@@ -90,6 +91,7 @@ import org.apache.geode.distributed.internal.membership.gms.interfaces.MessageHa
 import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordinatorRequest;
 import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordinatorResponse;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
@@ -287,11 +289,11 @@ public class JGroupsMessengerJUnitTest {
       boolean enableMcast = (i == 1);
       initMocks(enableMcast);
       MemberIdentifier mbr = createAddress(8888);
-      HeartbeatMessage msg =
-          mock(HeartbeatMessage.class);
+      HeartbeatRequestMessage msg =
+          mock(HeartbeatRequestMessage.class);
       when(msg.getRecipients()).thenReturn(Collections.singletonList(mbr));
       when(msg.getMulticast()).thenReturn(enableMcast);
-      when(msg.getDSFID()).thenReturn((int) DataSerializableFixedID.HEARTBEAT_RESPONSE);
+      when(msg.getDSFID()).thenReturn((int) DataSerializableFixedID.HEARTBEAT_REQUEST);
 
       // for code coverage we need to test with both a SerializationException and
       // an IOException. The former is wrapped in a GemfireIOException while the
@@ -429,11 +431,11 @@ public class JGroupsMessengerJUnitTest {
       boolean enableMcast = (i == 1);
       initMocks(enableMcast);
       MemberIdentifier mbr = createAddress(8888);
-      HeartbeatMessage msg =
-          mock(HeartbeatMessage.class);
+      HeartbeatRequestMessage msg =
+          mock(HeartbeatRequestMessage.class);
       when(msg.getRecipients()).thenReturn(Collections.singletonList(mbr));
       when(msg.getMulticast()).thenReturn(enableMcast);
-      when(msg.getDSFID()).thenReturn((int) DataSerializableFixedID.HEARTBEAT_RESPONSE);
+      when(msg.getDSFID()).thenReturn((int) DataSerializableFixedID.HEARTBEAT_REQUEST);
       interceptor.collectMessages = true;
       try {
         messenger.sendUnreliably(msg);
@@ -450,6 +452,44 @@ public class JGroupsMessengerJUnitTest {
     }
   }
 
+  @Test
+  public void testHeartbeatIsSentInFixedLayout() throws Exception {
+    initMocks(false);
+    MemberIdentifier mbr = createAddress(8888);
+    HeartbeatMessage msg = new HeartbeatMessage(-1);
+    msg.setRecipient(mbr);
+    interceptor.collectMessages = true;
+
+    messenger.sendUnreliably(msg);
+
+    assertEquals(1, interceptor.collectedMessages.size());
+    Message jmsg = interceptor.collectedMessages.get(0);
+    assertTrue(jmsg.isFlagSet(Message.Flag.NO_RELIABILITY));
+    assertTrue(messenger.heartbeatCodec.isHeartbeat(jmsg.getRawBuffer(), jmsg.getOffset(),
+        jmsg.getLength()));
+  }
+
+  @Test
+  public void testHeartbeatInFixedLayoutDeliveredToHandler() throws Exception {
+    initMocks(false);
+    MessageHandler mh = mock(MessageHandler.class);
+    messenger.addHandler(HeartbeatMessage.class, mh);
+    MemberIdentifier sender = createAddress(8888);
+    GMSMembershipView v = new GMSMembershipView(messenger.getMemberID());
+    v.add(sender);
+    messenger.installView(v);
+
+    Message jmsg = new Message();
+    jmsg.setSrc(messenger.jgAddress);
+    jmsg.setBuffer(messenger.heartbeatCodec.encode(12, sender));
+    interceptor.up(new Event(Event.MSG, jmsg));
+
+    ArgumentCaptor<HeartbeatMessage> captor = ArgumentCaptor.forClass(HeartbeatMessage.class);
+    verify(mh).processMessage(captor.capture());
+    assertEquals(12, captor.getValue().getRequestId());
+    assertEquals(sender, captor.getValue().getSender());
+  }
+
   @Test
   public void testMessageDeliveredToHandler() throws Exception {
     doTestMessageDeliveredToHandler(false);
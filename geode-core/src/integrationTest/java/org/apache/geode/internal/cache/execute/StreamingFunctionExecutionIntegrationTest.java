@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import static org.apache.geode.cache.RegionShortcut.PARTITION;
+import static org.apache.geode.distributed.ConfigurationProperties.START_LOCATOR;
+import static org.apache.geode.internal.AvailablePortHelper.getRandomAvailableTCPPort;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.test.junit.categories.FunctionServiceTest;
+
+/**
+ * Integration tests for {@link StreamingResultCollector} with a function executed on the data store
+ * of a cluster member.
+ */
+@Category({FunctionServiceTest.class})
+public class StreamingFunctionExecutionIntegrationTest {
+
+  private static final int RESULT_COUNT = 1000;
+
+  private static final AtomicInteger resultsSent = new AtomicInteger();
+  private static final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private static volatile CountDownLatch functionDone;
+
+  private Cache cache;
+  private Region<String, String> region;
+
+  @Before
+  public void setUp() {
+    resultsSent.set(0);
+    failure.set(null);
+    functionDone = new CountDownLatch(1);
+
+    Properties config = new Properties();
+    config.setProperty(START_LOCATOR, "localhost[" + getRandomAvailableTCPPort() + "]");
+    cache = new CacheFactory(config).create();
+    region = cache.<String, String>createRegionFactory(PARTITION).create("region");
+    region.put("key", "value");
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void closingIteratorPartwayStopsTheExecution() throws Exception {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    FunctionService.onRegion(region).withCollector(collector).execute(new StreamingFunction());
+
+    try (StreamingResultCollector.ResultIterator iterator = collector.getResult()) {
+      for (int i = 0; i < 5; i++) {
+        assertThat(iterator.next()).isEqualTo(i);
+      }
+    }
+
+    await().until(() -> functionDone.getCount() == 0);
+    assertThat(failure.get()).isInstanceOf(FunctionException.class);
+    assertThat(resultsSent.get()).isLessThan(RESULT_COUNT);
+  }
+
+  @Test
+  public void iteratorConsumedToTheEndReturnsAllResults() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    FunctionService.onRegion(region).withCollector(collector).execute(new StreamingFunction());
+
+    int count = 0;
+    try (StreamingResultCollector.ResultIterator iterator = collector.getResult()) {
+      while (iterator.hasNext()) {
+        assertThat(iterator.next()).isEqualTo(count++);
+      }
+    }
+
+    assertThat(count).isEqualTo(RESULT_COUNT);
+    assertThat(failure.get()).isNull();
+  }
+
+  private static class StreamingFunction implements Function<Object> {
+    @Override
+    public void execute(FunctionContext<Object> context) {
+      try {
+        for (int i = 0; i < RESULT_COUNT - 1; i++) {
+          context.getResultSender().sendResult(i);
+          resultsSent.incrementAndGet();
+        }
+        context.getResultSender().lastResult(RESULT_COUNT - 1);
+      } catch (RuntimeException e) {
+        failure.set(e);
+        throw e;
+      } finally {
+        functionDone.countDown();
+      }
+    }
+
+    @Override
+    public String getId() {
+      return StreamingFunction.class.getName();
+    }
+  }
+}
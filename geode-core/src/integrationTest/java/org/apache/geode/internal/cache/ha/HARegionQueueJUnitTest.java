@@ -242,6 +242,48 @@ public class HARegionQueueJUnitTest {
     }
   }
 
+  /**
+   * tests that a durable queue's batch peek returns what it has once the time to wait has passed,
+   * and returns as soon as a late event fills the batch
+   */
+  @Test
+  public void testDurablePeekBatchWaitsForEvents() throws Exception {
+    HARegionQueue regionQueue = HARegionQueue.getHARegionQueueInstance(testName.getMethodName(),
+        cache, HARegionQueue.BLOCKING_HA_QUEUE, true, disabledClock());
+    regionQueue.put(new ConflatableObject("key1", "value1", new EventID(new byte[] {1}, 1, 1),
+        false, testName.getMethodName()));
+
+    long startTime = System.currentTimeMillis();
+    List batch = regionQueue.peekBatch(2, 300);
+    long totalTime = System.currentTimeMillis() - startTime;
+
+    assertThat(batch.size(), is(1));
+    assertThat(totalTime, greaterThanOrEqualTo(300L));
+
+    regionQueue.put(new ConflatableObject("key2", "value2", new EventID(new byte[] {1}, 1, 2),
+        false, testName.getMethodName()));
+    Thread producer = new Thread(() -> {
+      try {
+        Thread.sleep(500);
+        regionQueue.put(new ConflatableObject("key3", "value3",
+            new EventID(new byte[] {1}, 1, 3), false, testName.getMethodName()));
+      } catch (Exception e) {
+        errorCollector.addError(e);
+      }
+    });
+    producer.start();
+
+    startTime = System.currentTimeMillis();
+    batch = regionQueue.peekBatch(2, 60 * 1000);
+    totalTime = System.currentTimeMillis() - startTime;
+
+    assertThat(batch.size(), is(2));
+    if (totalTime >= 30 * 1000) {
+      fail("Batch peek did not return when its batch was filled");
+    }
+    ThreadUtils.join(producer, 60 * 1000);
+  }
+
   /**
    * tests whether expiry of entry in the region queue occurs as expected
    */
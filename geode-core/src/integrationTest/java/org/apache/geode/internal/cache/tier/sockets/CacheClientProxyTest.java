@@ -15,6 +15,8 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,15 +27,28 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.Rule;
 import org.junit.Test;
 
+import org.apache.geode.cache.RegionShortcut;
 import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.internal.cache.EnumListenerEvent;
+import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.ha.HAContainerMap;
+import org.apache.geode.internal.cache.ha.HAEventLog;
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.net.SocketCloser;
 import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.internal.statistics.StatisticsClock;
@@ -86,6 +101,133 @@ public class CacheClientProxyTest {
     assertNull(proxy._remoteHostAddress);
   }
 
+  @Test
+  public void dispatcherSendsQueuedEventsOnceInOneBatch() throws Exception {
+    int eventBatchSize = CacheClientProxy.EVENT_BATCH_SIZE;
+    CacheClientProxy.EVENT_BATCH_SIZE = 10;
+    CacheClientProxy proxy = null;
+    try {
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      proxy = createProxyWithDispatcher(output, "batchingClientQueue");
+      CacheClientProxy.MessageDispatcher dispatcher = proxy._messageDispatcher;
+      ClientProxyMembershipID proxyID = proxy.getProxyID();
+      byte[] memberId = new byte[] {1, 2, 3};
+      for (int i = 0; i < 3; i++) {
+        dispatcher.enqueueMessage(new ClientDataSerializerMessage(
+            EnumListenerEvent.AFTER_REGISTER_DATASERIALIZER, new byte[0][], proxyID,
+            new EventID(memberId, 1, i), new Class[0][]));
+      }
+
+      proxy._isPaused = false;
+      dispatcher.start();
+
+      await().until(() -> output.size() > 0 && dispatcher._messageQueue.isEmpty());
+      dispatcher.stopDispatching(false);
+      await().until(() -> !dispatcher.isAlive());
+
+      // the events are sent once, in one batch, even though the client has not acknowledged them
+      ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+      Message batch = receive(input);
+      assertThat(input.available()).isZero();
+      assertThat(batch.getMessageType()).isEqualTo(MessageType.CLIENT_EVENT_BATCH);
+      List<Message> events = ClientEventBatch.unpack(batch);
+      assertThat(events).hasSize(3);
+      for (int i = 0; i < 3; i++) {
+        assertThat(events.get(i).getMessageType())
+            .isEqualTo(MessageType.REGISTER_DATASERIALIZERS);
+        assertThat(((EventID) events.get(i).getPart(0).getObject()).getSequenceID())
+            .isEqualTo(i);
+      }
+    } finally {
+      CacheClientProxy.EVENT_BATCH_SIZE = eventBatchSize;
+      if (proxy != null) {
+        proxy.close();
+      }
+    }
+  }
+
+  @Test
+  public void dispatcherSkipsEventWhoseLoggedValueIsReleasedAfterPeek() throws Exception {
+    CacheClientProxy proxy = null;
+    HAEventLog log = new HAEventLog(null, 1024);
+    try {
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      proxy = createProxyWithDispatcher(output, "releasedValueClientQueue");
+      CacheClientProxy.MessageDispatcher dispatcher = proxy._messageDispatcher;
+      proxy._isPaused = false;
+      LocalRegion region =
+          (LocalRegion) serverRule.getCache().createRegionFactory(RegionShortcut.REPLICATE)
+              .create("data");
+      byte[] memberId = new byte[] {1, 2, 3};
+      ClientUpdateMessageImpl removed = new ClientUpdateMessageImpl(
+          EnumListenerEvent.AFTER_CREATE, region, "removed", new byte[] {1}, (byte) 0x00, null,
+          proxy.getProxyID(), new EventID(memberId, 1, 0));
+      ClientUpdateMessageImpl live = new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_CREATE,
+          region, "live", new byte[] {2}, (byte) 0x00, null, proxy.getProxyID(),
+          new EventID(memberId, 1, 1));
+      assertThat(removed.moveValueToLog(log)).isTrue();
+      assertThat(live.moveValueToLog(log)).isTrue();
+
+      // the queue removes the event after the dispatcher peeked it, releasing its logged value
+      removed.releaseLoggedValue();
+
+      assertThat(dispatcher.dispatchMessage(removed)).isTrue();
+      assertThat(output.size()).isZero();
+
+      assertThat(dispatcher.dispatchBatch(Arrays.asList(removed, live))).isTrue();
+      ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+      Message batch = receive(input);
+      assertThat(input.available()).isZero();
+      List<Message> events = ClientEventBatch.unpack(batch);
+      assertThat(events).hasSize(1);
+      assertThat(events.get(0).getMessageType()).isEqualTo(MessageType.LOCAL_CREATE);
+      assertThat(events.get(0).getPart(1).getString()).isEqualTo("live");
+      assertThat(events.get(0).getPart(3).getSerializedForm()).containsExactly(2);
+    } finally {
+      if (proxy != null) {
+        proxy.close();
+      }
+      log.close();
+    }
+  }
+
+  private CacheClientProxy createProxyWithDispatcher(ByteArrayOutputStream output,
+      String haRegionName) throws Exception {
+    final InternalCache cache = serverRule.getCache();
+    final CacheClientNotifier ccn = mock(CacheClientNotifier.class);
+    when(ccn.getCache()).thenReturn(cache);
+    when(ccn.getAcceptorStats()).thenReturn(mock(CacheServerStats.class));
+    when(ccn.getSocketCloser()).thenReturn(mock(SocketCloser.class));
+    when(ccn.getHaContainer()).thenReturn(new HAContainerMap(new ConcurrentHashMap()));
+    when(ccn.getMaximumMessageCount()).thenReturn(100);
+    when(ccn.getMessageTimeToLive()).thenReturn(180);
+
+    final Socket socket = mock(Socket.class);
+    final InetAddress address = mock(InetAddress.class);
+    when(socket.getInetAddress()).thenReturn(address);
+    when(address.getHostAddress()).thenReturn("localhost");
+    when(socket.getOutputStream()).thenReturn(output);
+
+    final ClientProxyMembershipID proxyID = mock(ClientProxyMembershipID.class);
+    final DistributedMember member = cache.getDistributedSystem().getDistributedMember();
+    when(proxyID.getDistributedMember()).thenReturn(member);
+    when(proxyID.getHARegionName()).thenReturn(haRegionName);
+
+    CacheClientProxy proxy = new CacheClientProxy(ccn, socket, proxyID, true,
+        Handshake.CONFLATION_DEFAULT, Version.CURRENT, 1L, true, null, null,
+        mock(StatisticsClock.class));
+    proxy.initializeMessageDispatcher();
+    return proxy;
+  }
+
+  private Message receive(ByteArrayInputStream input) throws Exception {
+    Message message = new Message(0, Version.CURRENT);
+    message.setComms(mock(Socket.class), input, null,
+        ByteBuffer.allocate(8192), mock(MessageStats.class));
+    message.receive();
+    return message;
+  }
+
   @Test
   public void closeSocket1000Times() {
     // run it for 1000 times to introduce conflicts between threads
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+import static org.apache.geode.internal.statistics.StatArchiveFormat.NANOS_PER_MILLI;
+import static org.apache.geode.internal.statistics.TestStatArchiveWriter.WRITER_INITIAL_DATE_MILLIS;
+import static org.apache.geode.internal.statistics.TestStatArchiveWriter.WRITER_PREVIOUS_TIMESTAMP_NANOS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestName;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.test.junit.categories.StatisticsTest;
+
+/**
+ * Integration tests for {@link ColumnarStatArchiveWriter} and {@link ColumnarStatArchiveReader}.
+ */
+@Category({StatisticsTest.class})
+public class ColumnarStatArchiveWriterReaderIntegrationTest {
+
+  private static final long SAMPLE_INC_NANOS = NANOS_PER_MILLI * 1000;
+
+  private TestStatisticsManager manager;
+  private SampleCollector sampleCollector;
+  private StatArchiveDescriptor archiveDescriptor;
+  private File archiveFile;
+  private long sampleTimeNanos;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public TestName testName = new TestName();
+
+  @Before
+  public void setUp() throws Exception {
+    this.archiveFile = new File(this.temporaryFolder.getRoot(),
+        this.testName.getMethodName() + ColumnarStatArchiveFormat.COLUMNAR_ARCHIVE_EXTENSION);
+    this.manager = new TestStatisticsManager(1, getClass().getSimpleName() + "_"
+        + this.testName.getMethodName(), WRITER_INITIAL_DATE_MILLIS);
+    this.sampleCollector = new SampleCollector(new TestStatisticsSampler(this.manager));
+    this.archiveDescriptor = new StatArchiveDescriptor.Builder()
+        .setArchiveName(this.archiveFile.getAbsolutePath()).setSystemId(1)
+        .setSystemStartTime(WRITER_INITIAL_DATE_MILLIS)
+        .setSystemDirectoryPath(this.testName.getMethodName())
+        .setProductDescription(getClass().getSimpleName()).build();
+    this.sampleTimeNanos = WRITER_PREVIOUS_TIMESTAMP_NANOS;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    StatisticsTypeFactoryImpl.clear();
+  }
+
+  @Test
+  public void createSelectsColumnarWriterForColumnarExtension() {
+    StatArchiver archiver = StatArchiver.create(this.archiveDescriptor);
+    try {
+      assertThat(archiver).isInstanceOf(ColumnarStatArchiveWriter.class);
+    } finally {
+      archiver.close();
+    }
+  }
+
+  @Test
+  public void readsValuesAndTimeStampsAcrossBlocks() throws Exception {
+    ColumnarStatArchiveWriter writer = createWriter(10);
+    StatisticsType type = this.manager.createType("ST1", "ST1",
+        new StatisticDescriptor[] {this.manager.createLongCounter("long_counter", "d1", "u1"),
+            this.manager.createDoubleGauge("double_gauge", "d2", "u2")});
+    Statistics stats = this.manager.createAtomicStatistics(type, "st1_1", 1);
+
+    for (int i = 0; i < 25; i++) {
+      stats.incLong("long_counter", i * 1000L);
+      stats.setDouble("double_gauge", i * 0.5);
+      sample();
+    }
+    writer.close();
+
+    try (ColumnarStatArchiveReader reader = new ColumnarStatArchiveReader(this.archiveFile)) {
+      assertThat(reader.getBlockCount()).isEqualTo(3);
+      assertThat(reader.getStartTimeStamp()).isEqualTo(WRITER_INITIAL_DATE_MILLIS);
+      assertThat(reader.getProductVersion()).isEqualTo(getClass().getSimpleName());
+      assertThat(reader.getInstances()).hasSize(1);
+      ColumnarStatArchiveReader.InstanceInfo instance = reader.getInstances().iterator().next();
+      assertThat(instance.getName()).isEqualTo("st1_1");
+      assertThat(instance.getType().getName()).isEqualTo("ST1");
+
+      ColumnarStatArchiveReader.Series counter =
+          reader.readSeries(instance, "long_counter", Long.MIN_VALUE, Long.MAX_VALUE);
+      ColumnarStatArchiveReader.Series gauge =
+          reader.readSeries(instance, "double_gauge", Long.MIN_VALUE, Long.MAX_VALUE);
+      assertThat(counter.size()).isEqualTo(25);
+      assertThat(gauge.size()).isEqualTo(25);
+      long total = 0;
+      for (int i = 0; i < 25; i++) {
+        total += i * 1000L;
+        assertThat(counter.getValues()[i]).isEqualTo(total);
+        assertThat(gauge.getValues()[i]).isEqualTo(i * 0.5);
+        assertThat(counter.getTimeStamps()[i])
+            .isEqualTo(WRITER_INITIAL_DATE_MILLIS + (i + 1) * 1000L);
+      }
+      assertThat(reader.getFirstSampleTime()).isEqualTo(counter.getTimeStamps()[0]);
+      assertThat(reader.getLastSampleTime()).isEqualTo(counter.getTimeStamps()[24]);
+    }
+  }
+
+  @Test
+  public void readsOnlyTheRequestedTimeRange() throws Exception {
+    ColumnarStatArchiveWriter writer = createWriter(10);
+    StatisticsType type = this.manager.createType("ST1", "ST1",
+        new StatisticDescriptor[] {this.manager.createIntGauge("int_gauge", "d1", "u1")});
+    Statistics stats = this.manager.createAtomicStatistics(type, "st1_1", 1);
+    for (int i = 0; i < 30; i++) {
+      stats.setInt("int_gauge", i);
+      sample();
+    }
+    writer.close();
+
+    try (ColumnarStatArchiveReader reader = new ColumnarStatArchiveReader(this.archiveFile)) {
+      ColumnarStatArchiveReader.InstanceInfo instance = reader.getInstances().iterator().next();
+      long start = WRITER_INITIAL_DATE_MILLIS + 8 * 1000L;
+      long end = WRITER_INITIAL_DATE_MILLIS + 12 * 1000L;
+
+      ColumnarStatArchiveReader.Series series =
+          reader.readSeries(instance, "int_gauge", start, end);
+
+      assertThat(series.getValues()).containsExactly(7, 8, 9, 10, 11);
+      assertThat(series.getTimeStamps()).containsExactly(start, start + 1000, start + 2000,
+          start + 3000, start + 4000);
+    }
+  }
+
+  @Test
+  public void alignsInstancesCreatedAndClosedWithinBlock() throws Exception {
+    ColumnarStatArchiveWriter writer = createWriter(10);
+    StatisticsType type = this.manager.createType("ST1", "ST1",
+        new StatisticDescriptor[] {this.manager.createLongGauge("long_gauge", "d1", "u1")});
+    Statistics first = this.manager.createAtomicStatistics(type, "first", 1);
+    first.setLong("long_gauge", 1);
+    sample();
+    sample();
+    Statistics second = this.manager.createAtomicStatistics(type, "second", 2);
+    second.setLong("long_gauge", -5);
+    sample();
+    first.close();
+    sample();
+    sample();
+    writer.close();
+
+    try (ColumnarStatArchiveReader reader = new ColumnarStatArchiveReader(this.archiveFile)) {
+      assertThat(reader.getInstances()).hasSize(2);
+      for (ColumnarStatArchiveReader.InstanceInfo instance : reader.getInstances()) {
+        ColumnarStatArchiveReader.Series series =
+            reader.readSeries(instance, "long_gauge", Long.MIN_VALUE, Long.MAX_VALUE);
+        if (instance.getName().equals("first")) {
+          assertThat(series.getValues()).containsExactly(1, 1, 1);
+          assertThat(series.getTimeStamps()[0]).isEqualTo(WRITER_INITIAL_DATE_MILLIS + 1000);
+        } else {
+          assertThat(series.getValues()).containsExactly(-5, -5, -5);
+          assertThat(series.getTimeStamps()[0]).isEqualTo(WRITER_INITIAL_DATE_MILLIS + 3000);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void readsBlocksOfArchiveStillBeingWritten() throws Exception {
+    ColumnarStatArchiveWriter writer = createWriter(5);
+    StatisticsType type = this.manager.createType("ST1", "ST1",
+        new StatisticDescriptor[] {this.manager.createLongCounter("long_counter", "d1", "u1")});
+    Statistics stats = this.manager.createAtomicStatistics(type, "st1_1", 1);
+    for (int i = 0; i < 12; i++) {
+      stats.incLong("long_counter", 1);
+      sample();
+    }
+
+    try (ColumnarStatArchiveReader reader = new ColumnarStatArchiveReader(this.archiveFile)) {
+      assertThat(reader.getBlockCount()).isEqualTo(2);
+      ColumnarStatArchiveReader.Series series = reader.readSeries(
+          reader.getInstances().iterator().next(), "long_counter", Long.MIN_VALUE,
+          Long.MAX_VALUE);
+      assertThat(series.size()).isEqualTo(10);
+      assertThat(series.getValues()[9]).isEqualTo(10);
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void readSeriesThrowsForUnknownStatistic() throws Exception {
+    ColumnarStatArchiveWriter writer = createWriter(5);
+    StatisticsType type = this.manager.createType("ST1", "ST1",
+        new StatisticDescriptor[] {this.manager.createLongCounter("long_counter", "d1", "u1")});
+    this.manager.createAtomicStatistics(type, "st1_1", 1);
+    sample();
+    writer.close();
+
+    try (ColumnarStatArchiveReader reader = new ColumnarStatArchiveReader(this.archiveFile)) {
+      assertThatThrownBy(() -> reader.readSeries(reader.getInstances().iterator().next(),
+          "missing", Long.MIN_VALUE, Long.MAX_VALUE))
+              .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  public void closeDeletesArchiveWithoutSamples() {
+    ColumnarStatArchiveWriter writer = createWriter(5);
+    assertThat(this.archiveFile).exists();
+
+    writer.close();
+
+    assertThat(this.archiveFile).doesNotExist();
+  }
+
+  private ColumnarStatArchiveWriter createWriter(int blockSamples) {
+    ColumnarStatArchiveWriter writer =
+        new TestColumnarStatArchiveWriter(this.archiveDescriptor, blockSamples);
+    this.sampleCollector.addSampleHandler(writer);
+    return writer;
+  }
+
+  private void sample() {
+    this.sampleTimeNanos += SAMPLE_INC_NANOS;
+    this.sampleCollector.sample(this.sampleTimeNanos);
+  }
+
+  private static class TestColumnarStatArchiveWriter extends ColumnarStatArchiveWriter {
+    TestColumnarStatArchiveWriter(StatArchiveDescriptor archiveDescriptor, int blockSamples) {
+      super(archiveDescriptor, blockSamples);
+      initialize(WRITER_PREVIOUS_TIMESTAMP_NANOS);
+    }
+
+    @Override
+    protected long initInitialDate() {
+      return WRITER_INITIAL_DATE_MILLIS;
+    }
+
+    @Override
+    protected TimeZone getTimeZone() {
+      return TestStatArchiveWriter.WRITER_TIME_ZONE;
+    }
+
+    @Override
+    protected String getOSInfo() {
+      return TestStatArchiveWriter.WRITER_OS_INFO;
+    }
+
+    @Override
+    protected String getMachineInfo() {
+      return TestStatArchiveWriter.WRITER_MACHINE_INFO;
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+
+/**
+ * Compares the hit ratio and throughput of the LRU and TinyLFU eviction lists on a workload that
+ * mixes skewed reads of a hot set with scans that read every key once. A miss loads the value into
+ * the region, evicting another entry. The hit ratio is hits / (hits + misses) of the secondary
+ * results.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class EvictionHitRatioBenchmark {
+  private static final int KEY_SPACE = 1_000_000;
+
+  @Param({"10000", "100000"})
+  public int maxEntries;
+
+  @Param({"false", "true"})
+  public String useTinyLfu;
+
+  @Param({"0", "25"})
+  public int scanPercentage;
+
+  Cache cache;
+  Region<Integer, String> region;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_TINY_LFU, useTinyLfu);
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(maxEntries, EvictionAction.LOCAL_DESTROY))
+        .create("testRegion");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+    System.clearProperty("geode." + SystemPropertyHelper.EVICTION_TINY_LFU);
+  }
+
+  @State(Scope.Thread)
+  public static class Workload {
+    Random random = new Random(42);
+    int nextScanKey;
+
+    int nextKey(int maxEntries, int scanPercentage) {
+      if (random.nextInt(100) < scanPercentage) {
+        nextScanKey = (nextScanKey + 1) % KEY_SPACE;
+        return nextScanKey;
+      }
+      // skewed towards a hot set about half the size of the region
+      double skewed = Math.pow(random.nextDouble(), 3);
+      return (int) (skewed * maxEntries * 4);
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class HitCounters {
+    public long hits;
+    public long misses;
+
+    @Setup(Level.Iteration)
+    public void clean() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String getOrLoad(Workload workload, HitCounters counters) {
+    Integer key = workload.nextKey(maxEntries, scanPercentage);
+    String value = region.get(key);
+    if (value != null) {
+      counters.hits++;
+      return value;
+    }
+    counters.misses++;
+    region.put(key, "value");
+    return null;
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messenger;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jgroups.util.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.distributed.internal.membership.gms.GMSMemberData;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.api.MemberIdentifier;
+import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.internal.serialization.BufferDataOutputStream;
+import org.apache.geode.internal.serialization.DSFIDSerializer;
+import org.apache.geode.internal.serialization.Version;
+
+/**
+ * Compares encoding and decoding heartbeats as serialized membership messages, the way
+ * JGroupsMessenger sends most messages, with the fixed layout of {@link GMSHeartbeatCodec}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class HeartbeatEncodingBenchmark {
+
+  private final DSFIDSerializer serializer = InternalDataSerializer.getDSFIDSerializer();
+  private final GMSHeartbeatCodec codec = new GMSHeartbeatCodec();
+  private MemberIdentifier sender;
+  private byte[] serializedHeartbeat;
+  private byte[] encodedHeartbeat;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    List<MemberIdentifier> members = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      MemberIdentifier mbr = new InternalDistributedMember(SocketCreator.getLocalHost(), 1000 + i);
+      mbr.setVmViewId(1);
+      mbr.getMemberData().setUUID(UUID.randomUUID());
+      members.add(mbr);
+    }
+    sender = members.get(50);
+    codec.installView(new GMSMembershipView(members.get(0), 1, members));
+    serializedHeartbeat = serializeHeartbeat();
+    encodedHeartbeat = codec.encode(-1, sender);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] serializeHeartbeat() throws IOException {
+    BufferDataOutputStream out = new BufferDataOutputStream(Version.CURRENT);
+    Version.writeOrdinal(out, Version.CURRENT.ordinal(), true);
+    out.writeBoolean(false);
+    sender.getMemberData().writeEssentialData(out, serializer.createSerializationContext(out));
+    serializer.getObjectSerializer().writeObject(new HeartbeatMessage(-1), out);
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public HeartbeatMessage deserializeHeartbeat() throws Exception {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(serializedHeartbeat));
+    Version.readOrdinal(in);
+    in.readBoolean();
+    GMSMemberData info = new GMSMemberData();
+    info.readEssentialData(in, serializer.createDeserializationContext(in));
+    HeartbeatMessage result = serializer.getObjectDeserializer().readObject(in);
+    result.setSender(new InternalDistributedMember(info));
+    return result;
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] encodeHeartbeat() {
+    return codec.encode(-1, sender);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public HeartbeatMessage decodeHeartbeat() {
+    HeartbeatMessage result = new HeartbeatMessage(codec.getRequestId(encodedHeartbeat, 0));
+    result.setSender(codec.getSender(encodedHeartbeat, 0));
+    return result;
+  }
+}
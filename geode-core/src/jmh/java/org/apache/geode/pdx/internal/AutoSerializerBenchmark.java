@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.serialization.ByteArrayDataInput;
+import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.AutoSerializableManager.AutoClassInfo;
+import org.apache.geode.pdx.internal.AutoSerializableManager.PdxFieldWrapper;
+
+/**
+ * Compares writing and reading the fields of an auto serialized class with its
+ * {@link PdxFieldWrapper}s and with a {@link GeneratedPdxSerializer}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Measurement(iterations = 10)
+@Warmup(iterations = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AutoSerializerBenchmark {
+  /** DSCODE, length and type id */
+  private static final int HEADER_SIZE = 9;
+
+  private final ByteArrayDataInput dataInput = new ByteArrayDataInput();
+  private AutoClassInfo classInfo;
+  private GeneratedPdxSerializer generated;
+  private PdxType pdxType;
+  private Domain domain;
+  private byte[] serializedBytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ReflectionBasedAutoSerializer serializer =
+        new ReflectionBasedAutoSerializer(Domain.class.getName());
+    classInfo = ((AutoSerializableManager) serializer.getManager()).getClassInfo(Domain.class);
+    generated = GeneratedPdxSerializer.create(Domain.class, classInfo.getFields());
+    if (generated == null) {
+      throw new IllegalStateException("could not generate a serializer for " + Domain.class);
+    }
+    domain = new Domain();
+
+    pdxType = new PdxType(Domain.class.getName(), true);
+    PdxWriterImpl writer = new PdxWriterImpl(pdxType, null, new PdxOutputStream());
+    for (PdxFieldWrapper field : classInfo.getFields()) {
+      field.serialize(writer, domain, false);
+    }
+    pdxType.initialize(writer);
+    serializedBytes = reflectiveWrite();
+  }
+
+  @Benchmark
+  public byte[] reflectiveWrite() {
+    PdxOutputStream out = new PdxOutputStream();
+    PdxWriterImpl writer = new PdxWriterImpl(pdxType, out);
+    for (PdxFieldWrapper field : classInfo.getFields()) {
+      field.serialize(writer, domain, true);
+    }
+    writer.completeByteStreamGeneration();
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] generatedWrite() {
+    PdxOutputStream out = new PdxOutputStream();
+    PdxWriterImpl writer = new PdxWriterImpl(pdxType, out);
+    generated.write(writer, domain);
+    writer.completeByteStreamGeneration();
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public Object reflectiveRead() throws IOException {
+    PdxReaderImpl reader = newReader();
+    Domain result = new Domain();
+    for (PdxFieldWrapper field : classInfo.getFields()) {
+      field.orderedDeserialize(reader, result);
+    }
+    return result;
+  }
+
+  @Benchmark
+  public Object generatedRead() throws IOException {
+    PdxReaderImpl reader = newReader();
+    Domain result = new Domain();
+    generated.orderedRead(reader, result);
+    return result;
+  }
+
+  private PdxReaderImpl newReader() throws IOException {
+    dataInput.initialize(serializedBytes, Version.CURRENT);
+    dataInput.skipBytes(HEADER_SIZE);
+    return new PdxReaderImpl(pdxType, dataInput, serializedBytes.length - HEADER_SIZE);
+  }
+
+  public static class Domain {
+    private int id = 37;
+    private long timestamp = 1234567890L;
+    private int quantity = 12;
+    private double price = 99.95;
+    private boolean active = true;
+    private short flags = 3;
+    private char grade = 'A';
+    private String name = "benchmark";
+    private String description = "a domain object with a mix of field types";
+    private String category = "jmh";
+  }
+}
@@ -22,6 +22,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.cache.PutAllPartialResultException;
 import org.apache.geode.internal.cache.TXManagerImpl;
@@ -33,6 +34,8 @@ import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.serialization.ByteArrayDataInput;
 import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.internal.tracing.OperationTracer;
+import org.apache.geode.internal.tracing.TraceStage;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -87,13 +90,32 @@ public abstract class AbstractOp implements Op {
     }
     getMessage().setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(),
         cnx.getCommBuffer(), cnx.getStats());
+    long traceStart = OperationTracer.startSpan();
+    getMessage().setTraceId(traceStart == 0 ? 0 : getTraceIdFor(cnx));
     try {
       sendMessage(cnx);
     } finally {
       getMessage().unsetComms();
+      OperationTracer.endSpan(TraceStage.CLIENT_SEND, traceStart);
     }
   }
 
+  /**
+   * Returns the trace id of the current operation if the server of the given connection knows how
+   * to read it, otherwise zero.
+   */
+  private static long getTraceIdFor(Connection cnx) {
+    Endpoint endpoint = cnx.getEndpoint();
+    if (endpoint == null || !(endpoint.getMemberId() instanceof InternalDistributedMember)) {
+      return 0;
+    }
+    InternalDistributedMember server = (InternalDistributedMember) endpoint.getMemberId();
+    if (server.getVersionObject().compareTo(Version.GEODE_1_12_0) < 0) {
+      return 0;
+    }
+    return OperationTracer.currentTraceId();
+  }
+
   /** returns the class name w/o package information. useful in logging */
   public String getShortClassName() {
     String cname = getClass().getName();
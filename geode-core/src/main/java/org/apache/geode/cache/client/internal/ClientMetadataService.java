@@ -129,6 +129,57 @@ public class ClientMetadataService {
     if (prAdvisor == null) {
       return null;
     }
+    int bucketId = getBucketId(region, prAdvisor, operation, key, value, callbackArg);
+    if (bucketId == -1) {
+      return null;
+    }
+
+    ServerLocation bucketServerLocation = getServerLocation(region, operation, bucketId);
+    ServerLocation location = null;
+    if (bucketServerLocation != null) {
+      location =
+          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort());
+    }
+    return location;
+  }
+
+  /**
+   * Returns the location of the server hosting the primary of the bucket of the given key, or null
+   * if it is not known. A client transaction is hosted by this server, so that the operations of
+   * the transaction on the key, and on the same routing object in colocated regions, are performed
+   * by the server that owns the data. If the metadata of the region has not been fetched yet, it is
+   * fetched by the calling thread, which has to be free to use any server of the pool.
+   */
+  public ServerLocation getTransactionHostLocation(InternalRegion region, Operation operation,
+      Object key, Object value, Object callbackArg) {
+    final String regionFullPath = region.getFullPath();
+    if (this.nonPRs.contains(regionFullPath)) {
+      return null;
+    }
+    ClientPartitionAdvisor prAdvisor = this.getClientPartitionAdvisor(regionFullPath);
+    if (prAdvisor == null) {
+      getClientPRMetadata(region);
+      prAdvisor = this.getClientPartitionAdvisor(regionFullPath);
+      if (prAdvisor == null) {
+        return null;
+      }
+    }
+    int bucketId = getBucketId(region, prAdvisor, operation, key, value, callbackArg);
+    if (bucketId == -1) {
+      return null;
+    }
+    ServerLocation primary = getPrimaryServerLocation(region, bucketId);
+    if (primary == null) {
+      return null;
+    }
+    return new ServerLocation(primary.getHostName(), primary.getPort());
+  }
+
+  /**
+   * Returns the id of the bucket of the given key, or -1 if it is not known.
+   */
+  private int getBucketId(Region region, ClientPartitionAdvisor prAdvisor, Operation operation,
+      Object key, Object value, Object callbackArg) {
     int totalNumberOfBuckets = prAdvisor.getTotalNumBuckets();
 
     final PartitionResolver resolver = getResolver(region, key, callbackArg);
@@ -160,22 +211,11 @@ public class ClientMetadataService {
                 prms));
       } else {
         bucketId = prAdvisor.assignFixedBucketId(region, partition, resolveKey);
-        if (bucketId == -1) {
-          return null;
-        }
-
       }
     } else {
       bucketId = PartitionedRegionHelper.getHashKey(resolveKey, totalNumberOfBuckets);
     }
-
-    ServerLocation bucketServerLocation = getServerLocation(region, operation, bucketId);
-    ServerLocation location = null;
-    if (bucketServerLocation != null) {
-      location =
-          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort());
-    }
-    return location;
+    return bucketId;
   }
 
   private ServerLocation getServerLocation(Region region, Operation operation, int bucketId) {
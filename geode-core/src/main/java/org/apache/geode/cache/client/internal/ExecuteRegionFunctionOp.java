@@ -41,6 +41,7 @@ import org.apache.geode.internal.cache.execute.InternalFunctionException;
 import org.apache.geode.internal.cache.execute.InternalFunctionInvocationTargetException;
 import org.apache.geode.internal.cache.execute.MemberMappedArgument;
 import org.apache.geode.internal.cache.execute.ServerRegionFunctionExecutor;
+import org.apache.geode.internal.cache.execute.StreamingResultCollector;
 import org.apache.geode.internal.cache.execute.metrics.FunctionStatsManager;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
@@ -387,6 +388,7 @@ public class ExecuteRegionFunctionOp {
               } else {
                 DistributedMember memberID =
                     (DistributedMember) ((ArrayList) resultResponse).get(1);
+                StreamingResultCollector.awaitCapacity(resultCollector);
                 resultCollector.addResult(memberID, result);
                 FunctionStatsManager
                     .getFunctionStats(functionId, executor.getRegion().getSystem())
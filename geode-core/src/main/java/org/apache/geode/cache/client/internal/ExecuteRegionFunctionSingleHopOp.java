@@ -44,6 +44,7 @@ import org.apache.geode.internal.cache.execute.InternalFunctionException;
 import org.apache.geode.internal.cache.execute.InternalFunctionInvocationTargetException;
 import org.apache.geode.internal.cache.execute.MemberMappedArgument;
 import org.apache.geode.internal.cache.execute.ServerRegionFunctionExecutor;
+import org.apache.geode.internal.cache.execute.StreamingResultCollector;
 import org.apache.geode.internal.cache.execute.metrics.FunctionStatsManager;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
@@ -317,6 +318,7 @@ public class ExecuteRegionFunctionSingleHopOp {
                 exception = new ServerOperationException(s, (Throwable) result);
               } else {
                 DistributedMember memberID = (DistributedMember) ((List) resultResponse).get(1);
+                StreamingResultCollector.awaitCapacity(resultCollector);
                 resultCollector.addResult(memberID, result);
                 FunctionStatsManager
                     .getFunctionStats(functionId, executor.getRegion().getSystem())
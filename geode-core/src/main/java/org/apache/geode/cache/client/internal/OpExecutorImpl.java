@@ -57,6 +57,8 @@ import org.apache.geode.internal.cache.tier.BatchException;
 import org.apache.geode.internal.cache.tier.sockets.MessageTooLargeException;
 import org.apache.geode.internal.cache.wan.BatchException70;
 import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.tracing.OperationTracer;
+import org.apache.geode.internal.tracing.TraceStage;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.security.AuthenticationRequiredException;
 import org.apache.geode.security.GemFireSecurityException;
@@ -110,6 +112,15 @@ public class OpExecutorImpl implements ExecutablePool {
 
   @Override
   public Object execute(Op op, int retries) {
+    long traceStart = OperationTracer.startTrace();
+    try {
+      return executeWithRetries(op, retries);
+    } finally {
+      OperationTracer.endTrace(TraceStage.CLIENT_OPERATION, traceStart);
+    }
+  }
+
+  private Object executeWithRetries(Op op, int retries) {
     if (serverAffinity.get()) {
       ServerLocation loc = affinityServerLocation.get();
       if (loc == null) {
@@ -285,6 +296,16 @@ public class OpExecutorImpl implements ExecutablePool {
   @Override
   public Object executeOn(ServerLocation p_server, Op op, boolean accessed,
       boolean onlyUseExistingCnx) {
+    long traceStart = OperationTracer.startTrace();
+    try {
+      return executeOnLocation(p_server, op, accessed, onlyUseExistingCnx);
+    } finally {
+      OperationTracer.endTrace(TraceStage.CLIENT_OPERATION, traceStart);
+    }
+  }
+
+  private Object executeOnLocation(ServerLocation p_server, Op op, boolean accessed,
+      boolean onlyUseExistingCnx) {
     ServerLocation server = p_server;
     if (serverAffinity.get()) {
       ServerLocation affinityserver = affinityServerLocation.get();
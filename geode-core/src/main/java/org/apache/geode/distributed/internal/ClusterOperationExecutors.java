@@ -14,12 +14,7 @@
  */
 package org.apache.geode.distributed.internal;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.SynchronousQueue;
@@ -34,12 +29,14 @@ import org.apache.geode.SystemFailure;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.distributed.internal.membership.gms.messages.ViewAckMessage;
 import org.apache.geode.internal.logging.CoreLoggingExecutors;
+import org.apache.geode.internal.logging.VirtualThreadFactory;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 import org.apache.geode.internal.monitoring.ThreadsMonitoringImpl;
 import org.apache.geode.internal.monitoring.ThreadsMonitoringImplDummy;
 import org.apache.geode.internal.tcp.Connection;
 import org.apache.geode.internal.tcp.ConnectionTable;
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 public class ClusterOperationExecutors implements OperationExecutors {
@@ -72,6 +69,12 @@ public class ClusterOperationExecutors implements OperationExecutors {
       Math.max(Runtime.getRuntime().availableProcessors() * 4, 16));
 
 
+  /**
+   * Whether the pooled executors run their tasks in virtual threads. The serial executors keep
+   * their platform threads so that messages from a sender are still processed in order.
+   */
+  private static final boolean USE_VIRTUAL_THREADS = VirtualThreadFactory.isEnabled();
+
   private static final int INCOMING_QUEUE_LIMIT =
       Integer.getInteger("DistributionManager.INCOMING_QUEUE_LIMIT", 80000);
 
@@ -163,12 +166,6 @@ public class ClusterOperationExecutors implements OperationExecutors {
    */
   private ExecutorService viewThread;
 
-  /**
-   * If using a throttling queue for the serialThread, we cache the queue here so we can see if
-   * delivery would block
-   */
-  private ThrottlingMemLinkedQueueWithDMStats<Runnable> serialQueue;
-
   /**
    * Thread Monitor mechanism to monitor system threads
    *
@@ -176,7 +173,8 @@ public class ClusterOperationExecutors implements OperationExecutors {
    */
   private ThreadsMonitoring threadMonitor;
 
-  private SerialQueuedExecutorPool serialQueuedExecutorPool;
+  /** Message processing executor for serial, ordered, messages of each sender */
+  private SenderOrderedExecutor serialPooledExecutor;
 
 
   ClusterOperationExecutors(DistributionStats stats,
@@ -205,8 +203,16 @@ public class ClusterOperationExecutors implements OperationExecutors {
       // when TCP/IP is disabled we can't throttle the serial queue or we run the risk of
       // distributed deadlock when we block the UDP reader thread
       boolean throttlingDisabled = system.getConfig().getDisableTcp();
-      serialQueuedExecutorPool =
-          new SerialQueuedExecutorPool(stats, throttlingDisabled, threadMonitor);
+      serialPooledExecutor = new SenderOrderedExecutor(
+          new LoggingThreadFactory("Pooled Serial Message Processor ", thread -> {
+            stats.incSerialPooledThreadStarts();
+            stats.incSerialPooledThread();
+          }, this::doSerialPooledThread),
+          MAX_SERIAL_QUEUE_THREAD, stats.getSerialPooledProcessorHelper(),
+          stats.getSerialQueueHelper(), threadMonitor,
+          sender -> new SenderQueueStats(system, String.valueOf(sender)),
+          throttlingDisabled ? 0 : SERIAL_QUEUE_BYTE_LIMIT, SERIAL_QUEUE_THROTTLE,
+          SERIAL_QUEUE_SIZE_LIMIT, SERIAL_QUEUE_SIZE_THROTTLE);
     }
 
     {
@@ -214,11 +220,10 @@ public class ClusterOperationExecutors implements OperationExecutors {
       if (SERIAL_QUEUE_BYTE_LIMIT == 0) {
         poolQueue = new OverflowQueueWithDMStats<>(stats.getSerialQueueHelper());
       } else {
-        serialQueue =
+        poolQueue =
             new ThrottlingMemLinkedQueueWithDMStats<>(TOTAL_SERIAL_QUEUE_BYTE_LIMIT,
                 TOTAL_SERIAL_QUEUE_THROTTLE, SERIAL_QUEUE_SIZE_LIMIT, SERIAL_QUEUE_SIZE_THROTTLE,
                 stats.getSerialQueueHelper());
-        poolQueue = serialQueue;
       }
       serialThread = CoreLoggingExecutors.newSerialThreadPool("Serial Message Processor",
           thread -> stats.incSerialThreadStarts(),
@@ -232,29 +237,36 @@ public class ClusterOperationExecutors implements OperationExecutors {
             thread -> stats.incViewThreadStarts(), this::doViewThread,
             stats.getViewProcessorHelper(), threadMonitor);
 
-    threadPool =
-        CoreLoggingExecutors.newThreadPoolWithFeedStatistics("Pooled Message Processor ",
-            thread -> stats.incProcessingThreadStarts(), this::doProcessingThread,
-            MAX_THREADS, stats.getNormalPoolHelper(), threadMonitor,
-            INCOMING_QUEUE_LIMIT, stats.getOverflowQueueHelper());
+    if (USE_VIRTUAL_THREADS) {
+      logger.info("Using virtual threads for message processing and function execution");
+      threadPool = CoreLoggingExecutors.newVirtualThreadPool("Pooled Message Processor ",
+          thread -> stats.incProcessingThreadStarts(), this::doProcessingThread,
+          MAX_THREADS, stats.getNormalPoolHelper(), threadMonitor,
+          stats.getOverflowQueueHelper());
+      highPriorityPool = CoreLoggingExecutors.newVirtualThreadPool(
+          "Pooled High Priority Message Processor ",
+          thread -> stats.incHighPriorityThreadStarts(), this::doHighPriorityThread,
+          MAX_THREADS, stats.getHighPriorityPoolHelper(), threadMonitor,
+          stats.getHighPriorityQueueHelper());
+      waitingPool = CoreLoggingExecutors.newVirtualThreadPool(
+          "Pooled Waiting Message Processor ",
+          thread -> stats.incWaitingThreadStarts(), this::doWaitingThread,
+          MAX_WAITING_THREADS, stats.getWaitingPoolHelper(), threadMonitor,
+          stats.getWaitingQueueHelper());
+    } else {
+      threadPool =
+          CoreLoggingExecutors.newThreadPoolWithFeedStatistics("Pooled Message Processor ",
+              thread -> stats.incProcessingThreadStarts(), this::doProcessingThread,
+              MAX_THREADS, stats.getNormalPoolHelper(), threadMonitor,
+              INCOMING_QUEUE_LIMIT, stats.getOverflowQueueHelper());
 
-    highPriorityPool = CoreLoggingExecutors.newThreadPoolWithFeedStatistics(
-        "Pooled High Priority Message Processor ",
-        thread -> stats.incHighPriorityThreadStarts(), this::doHighPriorityThread,
-        MAX_THREADS, stats.getHighPriorityPoolHelper(), threadMonitor,
-        INCOMING_QUEUE_LIMIT, stats.getHighPriorityQueueHelper());
+      highPriorityPool = CoreLoggingExecutors.newThreadPoolWithFeedStatistics(
+          "Pooled High Priority Message Processor ",
+          thread -> stats.incHighPriorityThreadStarts(), this::doHighPriorityThread,
+          MAX_THREADS, stats.getHighPriorityPoolHelper(), threadMonitor,
+          INCOMING_QUEUE_LIMIT, stats.getHighPriorityQueueHelper());
 
-    {
-      BlockingQueue<Runnable> poolQueue;
-      if (MAX_WAITING_THREADS == Integer.MAX_VALUE) {
-        // no need for a queue since we have infinite threads
-        poolQueue = new SynchronousQueue<>();
-      } else {
-        poolQueue = new OverflowQueueWithDMStats<>(stats.getWaitingQueueHelper());
-      }
-      waitingPool = CoreLoggingExecutors.newThreadPool("Pooled Waiting Message Processor ",
-          thread -> stats.incWaitingThreadStarts(), this::doWaitingThread,
-          MAX_WAITING_THREADS, stats.getWaitingPoolHelper(), threadMonitor, poolQueue);
+      waitingPool = createWaitingPool();
     }
 
     // should this pool using the waiting pool stats?
@@ -265,7 +277,13 @@ public class ClusterOperationExecutors implements OperationExecutors {
             MAX_PR_META_DATA_CLEANUP_THREADS, stats.getWaitingPoolHelper(), threadMonitor,
             0, stats.getWaitingQueueHelper());
 
-    if (MAX_PR_THREADS > 1) {
+    if (MAX_PR_THREADS > 1 && USE_VIRTUAL_THREADS) {
+      partitionedRegionPool = CoreLoggingExecutors.newVirtualThreadPool(
+          "PartitionedRegion Message Processor",
+          thread -> stats.incPartitionedRegionThreadStarts(), this::doPartitionRegionThread,
+          MAX_PR_THREADS, stats.getPartitionedRegionPoolHelper(), threadMonitor,
+          stats.getPartitionedRegionQueueHelper());
+    } else if (MAX_PR_THREADS > 1) {
       partitionedRegionPool =
           CoreLoggingExecutors.newThreadPoolWithFeedStatistics(
               "PartitionedRegion Message Processor",
@@ -279,7 +297,17 @@ public class ClusterOperationExecutors implements OperationExecutors {
           stats.getPartitionedRegionPoolHelper(), threadMonitor,
           INCOMING_QUEUE_LIMIT, stats.getPartitionedRegionQueueHelper());
     }
-    if (MAX_FE_THREADS > 1) {
+    if (MAX_FE_THREADS > 1 && USE_VIRTUAL_THREADS) {
+      // Not capped at MAX_FE_THREADS: a function may wait for a function it executes, or for its
+      // caller to consume results, and a queued task could then wait forever for a permit held by
+      // a parked thread. Every execution gets a virtual thread of its own at once instead, as a
+      // nested execution does when the platform thread pool is full.
+      functionExecutionPool = CoreLoggingExecutors.newVirtualThreadPool(
+          FUNCTION_EXECUTION_PROCESSOR_THREAD_PREFIX,
+          thread -> stats.incFunctionExecutionThreadStarts(), this::doFunctionExecutionThread,
+          Integer.MAX_VALUE, stats.getFunctionExecutionPoolHelper(), threadMonitor,
+          stats.getFunctionExecutionQueueHelper());
+    } else if (MAX_FE_THREADS > 1) {
       functionExecutionPool =
           CoreLoggingExecutors.newFunctionThreadPoolWithFeedStatistics(
               FUNCTION_EXECUTION_PROCESSOR_THREAD_PREFIX,
@@ -296,6 +324,29 @@ public class ClusterOperationExecutors implements OperationExecutors {
     }
   }
 
+  private ExecutorService createWaitingPool() {
+    BlockingQueue<Runnable> poolQueue;
+    if (MAX_WAITING_THREADS == Integer.MAX_VALUE) {
+      // no need for a queue since we have infinite threads
+      poolQueue = new SynchronousQueue<>();
+    } else {
+      poolQueue = new OverflowQueueWithDMStats<>(stats.getWaitingQueueHelper());
+    }
+    return CoreLoggingExecutors.newThreadPool("Pooled Waiting Message Processor ",
+        thread -> stats.incWaitingThreadStarts(), this::doWaitingThread,
+        MAX_WAITING_THREADS, stats.getWaitingPoolHelper(), threadMonitor, poolQueue);
+  }
+
+  /**
+   * Returns the number of threads that are running tasks in the given pool.
+   */
+  static int getActiveCount(ExecutorService executor) {
+    if (executor instanceof VirtualThreadExecutorWithDMStats) {
+      return ((VirtualThreadExecutorWithDMStats) executor).getActiveCount();
+    }
+    return ((ThreadPoolExecutor) executor).getActiveCount();
+  }
+
   /**
    * Returns the executor for the given type of processor.
    */
@@ -362,19 +413,57 @@ public class ClusterOperationExecutors implements OperationExecutors {
 
   private Executor getSerialExecutor(InternalDistributedMember sender) {
     if (MULTI_SERIAL_EXECUTORS) {
-      return serialQueuedExecutorPool.getThrottledSerialExecutor(sender);
+      throttleSerialQueues();
+      return serialPooledExecutor.getExecutor(sender);
     } else {
       return serialThread;
     }
   }
 
-  /** returns the serialThread's queue if throttling is being used, null if not */
+  /**
+   * Applies throttling based on the total serial queue size before a serial message is queued.
+   * This doesn't block the processing of the queued messages.
+   */
+  private void throttleSerialQueues() {
+    // Get the total serial queue size.
+    long totalSerialQueueMemSize = stats.getInternalSerialQueueBytes();
+
+    // for tcp socket reader threads, this code throttles the thread
+    // to keep the sender-side from overwhelming the receiver.
+    // UDP readers are throttled in the FC protocol, which queries
+    // the queue to see if it should throttle
+    if (totalSerialQueueMemSize > TOTAL_SERIAL_QUEUE_THROTTLE
+        && !DistributionMessage.isPreciousThread()) {
+      do {
+        boolean interrupted = Thread.interrupted();
+        try {
+          float throttlePercent = (float) (totalSerialQueueMemSize - TOTAL_SERIAL_QUEUE_THROTTLE)
+              / (float) (TOTAL_SERIAL_QUEUE_BYTE_LIMIT - TOTAL_SERIAL_QUEUE_THROTTLE);
+          int sleep = (int) (100.0 * throttlePercent);
+          sleep = Math.max(sleep, 1);
+          Thread.sleep(sleep);
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        } finally {
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        stats.getSerialQueueHelper().incThrottleCount();
+      } while (stats.getInternalSerialQueueBytes() >= TOTAL_SERIAL_QUEUE_BYTE_LIMIT);
+    }
+  }
+
+  /**
+   * Returns the executor of the serial messages of the given sender, or null if none of its
+   * messages have been queued.
+   */
   @Override
-  public OverflowQueueWithDMStats<Runnable> getSerialQueue(InternalDistributedMember sender) {
+  public Executor getSerialQueueExecutor(InternalDistributedMember sender) {
     if (MULTI_SERIAL_EXECUTORS) {
-      return serialQueuedExecutorPool.getSerialQueue(sender);
+      return serialPooledExecutor.getExistingExecutor(sender);
     } else {
-      return serialQueue;
+      return serialThread;
     }
   }
 
@@ -458,6 +547,16 @@ public class ClusterOperationExecutors implements OperationExecutors {
     }
   }
 
+  private void doSerialPooledThread(Runnable command) {
+    ConnectionTable.threadWantsSharedResources();
+    Connection.makeReaderThread();
+    try {
+      command.run();
+    } finally {
+      ConnectionTable.releaseThreadsSockets();
+    }
+  }
+
   private void doSerialThread(Runnable command) {
     stats.incNumSerialThreads(1);
     try {
@@ -507,8 +606,8 @@ public class ClusterOperationExecutors implements OperationExecutors {
       // handled...
       es.shutdown();
     }
-    if (serialQueuedExecutorPool != null) {
-      serialQueuedExecutorPool.shutdown();
+    if (serialPooledExecutor != null) {
+      serialPooledExecutor.shutdown();
     }
     es = functionExecutionThread;
     if (es != null) {
@@ -562,14 +661,16 @@ public class ClusterOperationExecutors implements OperationExecutors {
       }
     }
 
-    serialQueuedExecutorPool.awaitTermination(remaining, TimeUnit.MILLISECONDS);
+    if (serialPooledExecutor != null) {
+      serialPooledExecutor.awaitTermination(remaining, TimeUnit.MILLISECONDS);
+    }
   }
 
   private boolean executorAlive(ExecutorService tpe, String name) {
     if (tpe == null) {
       return false;
     } else {
-      int ac = ((ThreadPoolExecutor) tpe).getActiveCount();
+      int ac = getActiveCount(tpe);
       // boolean result = tpe.getActiveCount() > 0;
       if (ac > 0) {
         if (logger.isDebugEnabled()) {
@@ -601,6 +702,10 @@ public class ClusterOperationExecutors implements OperationExecutors {
         stillAlive = true;
         culprits.append(" view thread;");
       }
+      if (serialPooledExecutor != null && serialPooledExecutor.isActive()) {
+        stillAlive = true;
+        culprits.append(" pooled serial threads;");
+      }
       if (executorAlive(partitionedRegionThread, "partitioned region thread")) {
         stillAlive = true;
         culprits.append(" partitioned region thread;");
@@ -654,6 +759,9 @@ public class ClusterOperationExecutors implements OperationExecutors {
     if (viewThread != null) {
       viewThread.shutdownNow();
     }
+    if (serialPooledExecutor != null) {
+      serialPooledExecutor.shutdownNow();
+    }
     if (functionExecutionThread != null) {
       functionExecutionThread.shutdownNow();
     }
@@ -681,242 +789,8 @@ public class ClusterOperationExecutors implements OperationExecutors {
   }
 
   public void handleManagerDeparture(InternalDistributedMember theId) {
-    if (serialQueuedExecutorPool != null) {
-      serialQueuedExecutorPool.handleMemberDeparture(theId);
-    }
-  }
-
-  /**
-   * This class is used for DM's multi serial executor. The serial messages are managed/executed by
-   * multiple serial thread. This class takes care of executing messages related to a sender using
-   * the same thread.
-   */
-  private static class SerialQueuedExecutorPool {
-    /** To store the serial threads */
-    final ConcurrentMap<Integer, ExecutorService> serialQueuedExecutorMap =
-        new ConcurrentHashMap<>(MAX_SERIAL_QUEUE_THREAD);
-
-    /** To store the queue associated with thread */
-    final Map<Integer, OverflowQueueWithDMStats<Runnable>> serialQueuedMap =
-        new HashMap<>(MAX_SERIAL_QUEUE_THREAD);
-
-    /** Holds mapping between sender to the serial thread-id */
-    final Map<InternalDistributedMember, Integer> senderToSerialQueueIdMap = new HashMap<>();
-
-    /**
-     * Holds info about unused thread, a thread is marked unused when the member associated with it
-     * has left distribution system.
-     */
-    final ArrayList<Integer> threadMarkedForUse = new ArrayList<>();
-
-    final DistributionStats stats;
-
-    final boolean throttlingDisabled;
-
-    final ThreadsMonitoring threadMonitoring;
-
-    SerialQueuedExecutorPool(DistributionStats stats,
-        boolean throttlingDisabled, ThreadsMonitoring tMonitoring) {
-      this.stats = stats;
-      this.throttlingDisabled = throttlingDisabled;
-      threadMonitoring = tMonitoring;
-    }
-
-    /*
-     * Returns an id of the thread in serialQueuedExecutorMap, thats mapped to the given seder.
-     *
-     *
-     * @param createNew boolean flag to indicate whether to create a new id, if id doesnot exists.
-     */
-    private Integer getQueueId(InternalDistributedMember sender, boolean createNew) {
-      // Create a new Id.
-      Integer queueId;
-
-      synchronized (senderToSerialQueueIdMap) {
-        // Check if there is a executor associated with this sender.
-        queueId = senderToSerialQueueIdMap.get(sender);
-
-        if (!createNew || queueId != null) {
-          return queueId;
-        }
-
-        // Create new.
-        // Check if any threads are availabe that is marked for Use.
-        if (!threadMarkedForUse.isEmpty()) {
-          queueId = threadMarkedForUse.remove(0);
-        }
-        // If Map is full, use the threads in round-robin fashion.
-        if (queueId == null) {
-          queueId = (serialQueuedExecutorMap.size() + 1) % MAX_SERIAL_QUEUE_THREAD;
-        }
-        senderToSerialQueueIdMap.put(sender, queueId);
-      }
-      return queueId;
-    }
-
-    /*
-     * Returns the queue associated with this sender. Used in FlowControl for throttling (based on
-     * queue size).
-     */
-    OverflowQueueWithDMStats<Runnable> getSerialQueue(InternalDistributedMember sender) {
-      Integer queueId = getQueueId(sender, false);
-      if (queueId == null) {
-        return null;
-      }
-      return serialQueuedMap.get(queueId);
-    }
-
-    /*
-     * Returns the serial queue executor, before returning the thread this applies throttling, based
-     * on the total serial queue size (total - sum of all the serial queue size). The throttling is
-     * applied during put event, this doesnt block the extract operation on the queue.
-     *
-     */
-    ExecutorService getThrottledSerialExecutor(
-        InternalDistributedMember sender) {
-      ExecutorService executor = getSerialExecutor(sender);
-
-      // Get the total serial queue size.
-      long totalSerialQueueMemSize = stats.getInternalSerialQueueBytes();
-
-      // for tcp socket reader threads, this code throttles the thread
-      // to keep the sender-side from overwhelming the receiver.
-      // UDP readers are throttled in the FC protocol, which queries
-      // the queue to see if it should throttle
-      if (stats.getInternalSerialQueueBytes() > TOTAL_SERIAL_QUEUE_THROTTLE
-          && !DistributionMessage.isPreciousThread()) {
-        do {
-          boolean interrupted = Thread.interrupted();
-          try {
-            float throttlePercent = (float) (totalSerialQueueMemSize - TOTAL_SERIAL_QUEUE_THROTTLE)
-                / (float) (TOTAL_SERIAL_QUEUE_BYTE_LIMIT - TOTAL_SERIAL_QUEUE_THROTTLE);
-            int sleep = (int) (100.0 * throttlePercent);
-            sleep = Math.max(sleep, 1);
-            Thread.sleep(sleep);
-          } catch (InterruptedException ex) {
-            interrupted = true;
-            // FIXME-InterruptedException
-            // Perhaps we should return null here?
-          } finally {
-            if (interrupted) {
-              Thread.currentThread().interrupt();
-            }
-          }
-          stats.getSerialQueueHelper().incThrottleCount();
-        } while (stats.getInternalSerialQueueBytes() >= TOTAL_SERIAL_QUEUE_BYTE_LIMIT);
-      }
-      return executor;
-    }
-
-    /*
-     * Returns the serial queue executor for the given sender.
-     */
-    ExecutorService getSerialExecutor(InternalDistributedMember sender) {
-      ExecutorService executor;
-      Integer queueId = getQueueId(sender, true);
-      if ((executor =
-          serialQueuedExecutorMap.get(queueId)) != null) {
-        return executor;
-      }
-      // If executor doesn't exists for this sender, create one.
-      executor = createSerialExecutor(queueId);
-
-      serialQueuedExecutorMap.put(queueId, executor);
-
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "Created Serial Queued Executor With queueId {}. Total number of live Serial Threads :{}",
-            queueId, serialQueuedExecutorMap.size());
-      }
-      stats.incSerialPooledThread();
-      return executor;
-    }
-
-    /*
-     * Creates a serial queue executor.
-     */
-    private ExecutorService createSerialExecutor(final Integer id) {
-
-      OverflowQueueWithDMStats<Runnable> poolQueue;
-
-      if (SERIAL_QUEUE_BYTE_LIMIT == 0 || throttlingDisabled) {
-        poolQueue = new OverflowQueueWithDMStats<>(stats.getSerialQueueHelper());
-      } else {
-        poolQueue = new ThrottlingMemLinkedQueueWithDMStats<>(SERIAL_QUEUE_BYTE_LIMIT,
-            SERIAL_QUEUE_THROTTLE, SERIAL_QUEUE_SIZE_LIMIT, SERIAL_QUEUE_SIZE_THROTTLE,
-            stats.getSerialQueueHelper());
-      }
-
-      serialQueuedMap.put(id, poolQueue);
-
-      return CoreLoggingExecutors.newSerialThreadPool("Pooled Serial Message Processor" + id + "-",
-          thread -> stats.incSerialPooledThreadStarts(), this::doSerialPooledThread,
-          stats.getSerialPooledProcessorHelper(), threadMonitoring, poolQueue);
-    }
-
-    private void doSerialPooledThread(Runnable command) {
-      ConnectionTable.threadWantsSharedResources();
-      Connection.makeReaderThread();
-      try {
-        command.run();
-      } finally {
-        ConnectionTable.releaseThreadsSockets();
-      }
-    }
-
-    /*
-     * Does cleanup relating to this member. And marks the serial executor associated with this
-     * member for re-use.
-     */
-    private void handleMemberDeparture(InternalDistributedMember member) {
-      Integer queueId = getQueueId(member, false);
-      if (queueId == null) {
-        return;
-      }
-
-      boolean isUsed = false;
-
-      synchronized (senderToSerialQueueIdMap) {
-        senderToSerialQueueIdMap.remove(member);
-
-        // Check if any other members are using the same executor.
-        for (Integer value : senderToSerialQueueIdMap.values()) {
-          if (value.equals(queueId)) {
-            isUsed = true;
-            break;
-          }
-        }
-
-        // If not used mark this as unused.
-        if (!isUsed) {
-          if (logger.isInfoEnabled(LogMarker.DM_MARKER))
-            logger.info(LogMarker.DM_MARKER,
-                "Marking the SerialQueuedExecutor with id : {} used by the member {} to be unused.",
-                new Object[] {queueId, member});
-
-          threadMarkedForUse.add(queueId);
-        }
-      }
-    }
-
-    private void awaitTermination(long time, TimeUnit unit) throws InterruptedException {
-      long remainingNanos = unit.toNanos(time);
-      long start = System.nanoTime();
-      for (ExecutorService executor : serialQueuedExecutorMap.values()) {
-        executor.awaitTermination(remainingNanos, TimeUnit.NANOSECONDS);
-        remainingNanos = (System.nanoTime() - start);
-        if (remainingNanos <= 0) {
-          return;
-        }
-      }
-    }
-
-    private void shutdown() {
-      for (ExecutorService executor : serialQueuedExecutorMap
-          .values()) {
-        executor.shutdown();
-      }
+    if (serialPooledExecutor != null) {
+      serialPooledExecutor.removeSender(theId);
     }
   }
-
 }
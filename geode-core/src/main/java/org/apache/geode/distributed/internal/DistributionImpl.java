@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
@@ -778,12 +779,12 @@ public class DistributionImpl implements Distribution {
     // run a message through the member's serial execution queue to ensure that all of its
     // current messages have been processed
     boolean result = false;
-    OverflowQueueWithDMStats<Runnable> serialQueue =
-        clusterDistributionManager.getExecutors().getSerialQueue(idm);
-    if (serialQueue != null) {
+    Executor serialExecutor =
+        clusterDistributionManager.getExecutors().getSerialQueueExecutor(idm);
+    if (serialExecutor != null) {
       final boolean done[] = new boolean[1];
       final FlushingMessage msg = new FlushingMessage(done);
-      serialQueue.add(new SizeableRunnable(100) {
+      serialExecutor.execute(new SizeableRunnable(100) {
         @Override
         public void run() {
           msg.invoke();
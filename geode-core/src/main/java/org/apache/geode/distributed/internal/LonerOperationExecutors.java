@@ -57,7 +57,7 @@ public class LonerOperationExecutors implements OperationExecutors {
   }
 
   @Override
-  public OverflowQueueWithDMStats<Runnable> getSerialQueue(InternalDistributedMember sender) {
+  public Executor getSerialQueueExecutor(InternalDistributedMember sender) {
     throw new UnsupportedOperationException(
         "non-clustered caches do not support a serial executor queue");
   }
@@ -68,5 +68,9 @@ public interface OperationExecutors {
 
   Executor getFunctionExecutor();
 
-  OverflowQueueWithDMStats<Runnable> getSerialQueue(InternalDistributedMember sender);
+  /**
+   * Returns the executor of the serial messages of the given sender, or null if none of its
+   * messages have been queued.
+   */
+  Executor getSerialQueueExecutor(InternalDistributedMember sender);
 }
@@ -15,10 +15,11 @@
 package org.apache.geode.distributed.internal;
 
 import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.geode.internal.Assert;
-import org.apache.geode.internal.ObjIdConcurrentMap;
 
 /**
  * A message processor class typically creates an instance of ProcessorKeeper and holds it in a
@@ -33,13 +34,35 @@ import org.apache.geode.internal.ObjIdConcurrentMap;
  * <p>
  * Processor ids are always greater than 0.
  * </p>
+ *
+ * <p>
+ * The processors are kept in a lock-free table of {@link #STRIPE_COUNT} arrays that is indexed by
+ * the id, so putting, retrieving and removing a processor never locks and only allocates the entry
+ * that pairs the processor with its id. Consecutive ids are in different stripes so that threads
+ * registering processors at the same time do not write to the same cache line. When the slot of
+ * the next id is still held by a long-lived processor that id is skipped, and a processor that
+ * finds no free slot after {@link #MAX_PROBES} ids is kept in an overflow map instead.
+ * </p>
  */
 public class ProcessorKeeper21 {
 
+  private static final int STRIPE_BITS = 4;
+
+  static final int STRIPE_COUNT = 1 << STRIPE_BITS;
+
+  static final int STRIPE_SIZE = 1024;
+
+  static final int MAX_PROBES = 32;
+
+  private final AtomicReferenceArray<AtomicReferenceArray<Entry>> stripes =
+      new AtomicReferenceArray<>(STRIPE_COUNT);
+
   /**
-   * Key is a unique id, value is an instance of some processor class
+   * Processors that did not find a free slot in the table. Only read when it is not empty.
    */
-  private final ObjIdConcurrentMap<Object> map = new ObjIdConcurrentMap<Object>();
+  private final ConcurrentHashMap<Integer, Entry> overflow = new ConcurrentHashMap<>();
+
+  private final AtomicInteger overflowSize = new AtomicInteger();
 
   /**
    * If true then use weak refs to reference the processors.
@@ -57,19 +80,24 @@ public class ProcessorKeeper21 {
   }
 
   private int getNextId() {
-    int id = this.nextKey.getAndIncrement();
-    if (id <= 0) {
-      // id must be >= 0 since ObjIdMap does not supports keys < 0.
-      // We don't use 0 just to keep it reserved as an illegal id.
-      synchronized (this.nextKey) {
-        id = this.nextKey.get();
-        if (id <= 0) {
-          this.nextKey.set(1);
-        }
+    // We don't use 0 just to keep it reserved as an illegal id.
+    return this.nextKey.getAndUpdate(id -> id == Integer.MAX_VALUE ? 1 : id + 1);
+  }
+
+  private AtomicReferenceArray<Entry> getStripe(int id) {
+    int index = id & (STRIPE_COUNT - 1);
+    AtomicReferenceArray<Entry> stripe = this.stripes.get(index);
+    if (stripe == null) {
+      stripe = new AtomicReferenceArray<>(STRIPE_SIZE);
+      if (!this.stripes.compareAndSet(index, null, stripe)) {
+        stripe = this.stripes.get(index);
       }
-      id = this.nextKey.getAndIncrement();
     }
-    return id;
+    return stripe;
+  }
+
+  private static int slotOf(int id) {
+    return (id >>> STRIPE_BITS) & (STRIPE_SIZE - 1);
   }
 
   /**
@@ -81,48 +109,143 @@ public class ProcessorKeeper21 {
    * @return the unique id for processor
    */
   public int put(Object processor) {
-    int id;
-    final Object obj;
-    if (this.useWeakRefs) {
-      obj = new WeakReference<Object>(processor);
-    } else {
-      obj = processor;
+    for (int probe = 0; probe < MAX_PROBES; probe++) {
+      int id = getNextId();
+      AtomicReferenceArray<Entry> stripe = getStripe(id);
+      int slot = slotOf(id);
+      Entry existing = stripe.get(slot);
+      if (existing == null || existing.get() == null) {
+        // the slot is free or holds a processor that has been garbage collected
+        if (stripe.compareAndSet(slot, existing, newEntry(id, processor))) {
+          Assert.assertTrue(id > 0);
+          return id;
+        }
+      }
     }
+    int id;
     do {
       id = getNextId();
-    } while (this.map.putIfAbsent(id, obj) != null);
+    } while (this.overflow.putIfAbsent(id, newEntry(id, processor)) != null);
+    this.overflowSize.incrementAndGet();
     Assert.assertTrue(id > 0);
     return id;
   }
 
+  private Entry newEntry(int id, Object processor) {
+    if (this.useWeakRefs) {
+      return new WeakEntry(id, processor);
+    }
+    return new StrongEntry(id, processor);
+  }
+
   /**
    * Retrieve a processor that was previously put() in this keeper. The id is the value returned
    * from put(). If there is no processor by that id, or it has been garbage collected, null is
    * returned.
    */
   public Object retrieve(int id) {
-    Object o = null;
-    if (this.useWeakRefs) {
-      final WeakReference<?> ref = (WeakReference<?>) this.map.get(id);
-      if (ref != null) {
-        o = ref.get();
+    if (id <= 0) {
+      return null;
+    }
+    AtomicReferenceArray<Entry> stripe = this.stripes.get(id & (STRIPE_COUNT - 1));
+    if (stripe != null) {
+      int slot = slotOf(id);
+      Entry entry = stripe.get(slot);
+      if (entry != null && entry.getId() == id) {
+        Object o = entry.get();
         if (o == null) {
           // Clean up
-          this.map.remove(id, ref);
+          stripe.compareAndSet(slot, entry, null);
         }
+        return o;
       }
-    } else {
-      o = this.map.get(id);
     }
-    // System.out.println("ProcessorKeeper.retrieve(" + int + ") returning " + processor);
-    return o;
+    if (this.overflowSize.get() > 0) {
+      Entry entry = this.overflow.get(id);
+      if (entry != null) {
+        Object o = entry.get();
+        if (o == null) {
+          removeOverflow(id, entry);
+        }
+        return o;
+      }
+    }
+    return null;
   }
 
   /**
    * Remove the processor with the given id. It's okay if no processor with that id exists.
    */
   public void remove(int id) {
-    map.remove(id);
+    if (id <= 0) {
+      return;
+    }
+    AtomicReferenceArray<Entry> stripe = this.stripes.get(id & (STRIPE_COUNT - 1));
+    if (stripe != null) {
+      int slot = slotOf(id);
+      Entry entry = stripe.get(slot);
+      if (entry != null && entry.getId() == id && stripe.compareAndSet(slot, entry, null)) {
+        return;
+      }
+    }
+    if (this.overflowSize.get() > 0) {
+      Entry entry = this.overflow.get(id);
+      if (entry != null) {
+        removeOverflow(id, entry);
+      }
+    }
+  }
+
+  private void removeOverflow(int id, Entry entry) {
+    if (this.overflow.remove(id, entry)) {
+      this.overflowSize.decrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the number of processors kept in the overflow map.
+   */
+  int getOverflowSize() {
+    return this.overflowSize.get();
+  }
+
+  private interface Entry {
+    int getId();
+
+    Object get();
   }
 
+  private static class StrongEntry implements Entry {
+    private final int id;
+    private final Object processor;
+
+    StrongEntry(int id, Object processor) {
+      this.id = id;
+      this.processor = processor;
+    }
+
+    @Override
+    public int getId() {
+      return this.id;
+    }
+
+    @Override
+    public Object get() {
+      return this.processor;
+    }
+  }
+
+  private static class WeakEntry extends WeakReference<Object> implements Entry {
+    private final int id;
+
+    WeakEntry(int id, Object processor) {
+      super(processor);
+      this.id = id;
+    }
+
+    @Override
+    public int getId() {
+      return this.id;
+    }
+  }
 }
@@ -21,6 +21,8 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import org.apache.logging.log4j.Logger;
 
@@ -37,6 +39,8 @@ import org.apache.geode.internal.cache.versions.ConcurrentCacheModificationExcep
 import org.apache.geode.internal.serialization.DSFIDNotFoundException;
 import org.apache.geode.internal.serialization.UnsupportedSerializationVersionException;
 import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.internal.tracing.OperationTracer;
+import org.apache.geode.internal.tracing.TraceStage;
 import org.apache.geode.internal.util.Breadcrumbs;
 import org.apache.geode.internal.util.concurrent.StoppableCountDownLatch;
 import org.apache.geode.logging.internal.log4j.api.LogService;
@@ -125,8 +129,33 @@ public class ReplyProcessor21 implements MembershipListener {
   /** Have we been aborted due to shutdown? */
   protected volatile boolean shutdown;
 
-  /** Semaphore used for wait/notify */
-  private final StoppableCountDownLatch latch;
+  /**
+   * Semaphore used for wait/notify. Created by the first thread that has to wait, so a processor
+   * whose replies arrive before anyone waits for them never allocates it.
+   *
+   * Concurrency: created and counted down while synchronized on this processor
+   */
+  private volatile StoppableCountDownLatch latch;
+
+  private final CancelCriterion cancelCriterion;
+
+  /**
+   * Completed when this processor is done, for callers that compose the wait for replies rather
+   * than block on it. Null unless {@link #getRepliesFuture()} has been called.
+   *
+   * Concurrency: set while synchronized on this processor
+   */
+  private CompletableFuture<Void> repliesFuture;
+
+  /**
+   * Counts down from 2 once the replies future has been created: once when the future has been
+   * registered for membership events and once when the processor is done. The thread that counts
+   * it down to 0 completes the future.
+   */
+  private volatile int repliesFuturePending;
+
+  private static final AtomicIntegerFieldUpdater<ReplyProcessor21> repliesFuturePendingUpdater =
+      AtomicIntegerFieldUpdater.newUpdater(ReplyProcessor21.class, "repliesFuturePending");
 
   /** The id of this processor */
   protected int processorId;
@@ -330,7 +359,7 @@ public class ReplyProcessor21 implements MembershipListener {
     if (cancelCriterion == null) {
       cancelCriterion = dm.getCancelCriterion();
     }
-    this.latch = new StoppableCountDownLatch(cancelCriterion, 1);
+    this.cancelCriterion = cancelCriterion;
     int sz = initMembers.size();
     this.members = new InternalDistributedMember[sz];
     if (sz > 0) {
@@ -617,9 +646,12 @@ public class ReplyProcessor21 implements MembershipListener {
    * @return Whether or not we received all of the replies in the given amount of time.
    */
   public boolean waitForReplies(long msecs) throws InterruptedException, ReplyException {
-    return waitForReplies(msecs, getLatch(), true);
+    return waitForReplies(msecs, null, true);
   }
 
+  /**
+   * @param latch the latch to wait for, or null to wait for this processor to be done
+   */
   public boolean waitForReplies(long msecs, StoppableCountDownLatch latch, boolean doCleanUp)
       throws InterruptedException, ReplyException {
     if (this.keeperCleanedUp) {
@@ -670,6 +702,16 @@ public class ReplyProcessor21 implements MembershipListener {
    */
   private boolean basicWait(long msecs, StoppableCountDownLatch latch)
       throws InterruptedException, ReplyException {
+    long traceStart = OperationTracer.startSpan();
+    try {
+      return basicWaitForLatch(msecs, latch == null ? getLatch() : latch);
+    } finally {
+      OperationTracer.endSpan(TraceStage.REPLY_WAIT, traceStart);
+    }
+  }
+
+  private boolean basicWaitForLatch(long msecs, StoppableCountDownLatch latch)
+      throws InterruptedException, ReplyException {
     if (Thread.interrupted()) {
       throw new InterruptedException();
     }
@@ -776,9 +818,12 @@ public class ReplyProcessor21 implements MembershipListener {
    * @throws IllegalStateException if the processor is not registered to receive replies
    */
   public boolean waitForRepliesUninterruptibly(long p_msecs) throws ReplyException {
-    return waitForRepliesUninterruptibly(p_msecs, getLatch(), true);
+    return waitForRepliesUninterruptibly(p_msecs, null, true);
   }
 
+  /**
+   * @param latch the latch to wait for, or null to wait for this processor to be done
+   */
   public boolean waitForRepliesUninterruptibly(long p_msecs, StoppableCountDownLatch latch,
       boolean doCleanUp) throws ReplyException {
     if (this.keeperCleanedUp) {
@@ -940,18 +985,102 @@ public class ReplyProcessor21 implements MembershipListener {
   /** do processing required when finished */
   protected void finished() {
     boolean isDone = false;
+    boolean hasFuture = false;
     synchronized (this) {
       if (!this.done) { // make sure only called once
         this.done = true;
         isDone = true;
-        // getSync().release(); // notifies threads in waitForReplies
-        getLatch().countDown();
+        // notifies threads in waitForReplies
+        if (this.latch != null) {
+          this.latch.countDown();
+        }
+        hasFuture = this.repliesFuture != null;
       }
     } // synchronized
 
     // ensure that postFinish is invoked only once
     if (isDone) {
-      postFinish();
+      try {
+        postFinish();
+      } finally {
+        if (hasFuture) {
+          repliesFutureCountDown();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a future that is completed when this processor stops waiting for replies, for callers
+   * that compose the wait with other work instead of blocking in {@link #waitForReplies}. The first
+   * call registers this processor for membership events the way waitForReplies does, and the
+   * processor is cleaned up before the future is completed. The future is completed exceptionally
+   * with the exception of a reply, or with a CancelException if the cache is closing.
+   * <p>
+   * The future is completed by the thread that processes the last reply, so dependent actions that
+   * may block must use one of the async methods of the future. No ack-wait-threshold or severe
+   * alert is issued for a processor that is only waited for through its future.
+   *
+   * @throws IllegalStateException if the processor is not registered to receive replies
+   * @since Geode 1.12
+   */
+  public CompletableFuture<Void> getRepliesFuture() {
+    CompletableFuture<Void> future;
+    boolean isDone;
+    synchronized (this) {
+      if (this.repliesFuture != null) {
+        return this.repliesFuture;
+      }
+      if (this.keeperCleanedUp) {
+        throw new IllegalStateException(
+            "This reply processor has already been removed from the processor keeper");
+      }
+      future = new CompletableFuture<>();
+      isDone = this.done;
+      this.repliesFuturePending = 2;
+      this.repliesFuture = future;
+    }
+    if (isDone) {
+      cleanup();
+      completeRepliesFuture(future);
+      return future;
+    }
+    try {
+      preWait();
+      // preWait may have found that all the members we are waiting for have departed
+      checkIfDone();
+    } finally {
+      repliesFutureCountDown();
+    }
+    return future;
+  }
+
+  private void repliesFutureCountDown() {
+    if (repliesFuturePendingUpdater.decrementAndGet(this) != 0) {
+      return;
+    }
+    CompletableFuture<Void> future;
+    synchronized (this) {
+      future = this.repliesFuture;
+    }
+    try {
+      postWait();
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    } finally {
+      cleanup();
+      completeRepliesFuture(future);
+    }
+  }
+
+  private void completeRepliesFuture(CompletableFuture<Void> future) {
+    // stillWaiting sets the exception if we were aborted due to shutdown
+    stillWaiting();
+    ReplyException ex = this.exception;
+    if (ex != null) {
+      future.completeExceptionally(ex);
+    } else {
+      future.complete(null);
     }
   }
 
@@ -1156,7 +1285,17 @@ public class ReplyProcessor21 implements MembershipListener {
   }
 
   private StoppableCountDownLatch getLatch() {
-    return this.latch;
+    StoppableCountDownLatch result = this.latch;
+    if (result == null) {
+      synchronized (this) {
+        result = this.latch;
+        if (result == null) {
+          result = new StoppableCountDownLatch(this.cancelCriterion, this.done ? 0 : 1);
+          this.latch = result;
+        }
+      }
+    }
+    return result;
   }
 
   /**
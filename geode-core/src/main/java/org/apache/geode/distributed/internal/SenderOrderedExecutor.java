@@ -0,0 +1,514 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+
+/**
+ * Runs the tasks of each sender in the order they were submitted, on a fixed set of worker threads
+ * shared by all the senders. Each sender has a lock-free queue that at most one worker drains at a
+ * time. A sender whose queue has tasks is put on the ready deque of a worker, and a worker with
+ * nothing to do steals ready senders from the other workers, so a busy sender only keeps one worker
+ * to itself rather than every sender that shares its worker.
+ *
+ * <p>
+ * Workers are started as they are needed, up to the given count. A worker runs at most
+ * {@link #BATCH_SIZE} tasks of a sender before putting it back on its ready
+ * deque. Senders whose queues hold more than the throttle limits slow down the threads submitting
+ * their tasks, like a {@link ThrottlingMemLinkedQueueWithDMStats}.
+ *
+ * @since Geode 1.12
+ */
+public class SenderOrderedExecutor {
+
+  static final int BATCH_SIZE = 64;
+
+  private final ThreadFactory threadFactory;
+  private final Worker[] workers;
+  private final ConcurrentMap<Object, SenderQueue> queues = new ConcurrentHashMap<>();
+  private final PoolStatHelper poolStats;
+  private final ThrottledMemQueueStatHelper queueStats;
+  private final ThreadsMonitoring threadsMonitoring;
+  private final Function<Object, SenderQueueStats> senderStatsFactory;
+  private final int maxQueueBytes;
+  private final int throttleQueueBytes;
+  private final int maxQueueSize;
+  private final int throttleQueueSize;
+  private final AtomicLong stolenCount = new AtomicLong();
+
+  private volatile boolean shutdown;
+  private volatile boolean stopNow;
+
+  /**
+   * @param senderStatsFactory if not null, creates the statistics of each sender's queue
+   * @param maxQueueBytes the size of the queued tasks of a sender at which its submitters wait
+   *        until the queue shrinks, or zero to never throttle the submitters
+   * @param throttleQueueBytes the size of the queued tasks of a sender at which its submitters
+   *        start to be slowed down
+   */
+  public SenderOrderedExecutor(ThreadFactory threadFactory, int workerCount,
+      PoolStatHelper poolStats, ThrottledMemQueueStatHelper queueStats,
+      ThreadsMonitoring threadsMonitoring, Function<Object, SenderQueueStats> senderStatsFactory,
+      int maxQueueBytes, int throttleQueueBytes, int maxQueueSize, int throttleQueueSize) {
+    if (workerCount <= 0) {
+      throw new IllegalArgumentException("workerCount must be positive: " + workerCount);
+    }
+    this.threadFactory = threadFactory;
+    this.poolStats = poolStats;
+    this.queueStats = queueStats;
+    this.threadsMonitoring = threadsMonitoring;
+    this.senderStatsFactory = senderStatsFactory;
+    this.maxQueueBytes = maxQueueBytes;
+    this.throttleQueueBytes = throttleQueueBytes;
+    this.maxQueueSize = maxQueueSize;
+    this.throttleQueueSize = throttleQueueSize;
+    this.workers = new Worker[workerCount];
+    for (int i = 0; i < workerCount; i++) {
+      workers[i] = new Worker(i);
+    }
+  }
+
+  /**
+   * Returns the executor of the tasks of the given sender, creating it if needed.
+   */
+  public Executor getExecutor(Object sender) {
+    SenderQueue queue = queues.get(sender);
+    if (queue == null) {
+      queue = queues.computeIfAbsent(sender, SenderQueue::new);
+    }
+    return queue;
+  }
+
+  /**
+   * Returns the executor of the tasks of the given sender, or null if none has been created.
+   */
+  public Executor getExistingExecutor(Object sender) {
+    return queues.get(sender);
+  }
+
+  /**
+   * Forgets the given sender. Tasks of the sender that are already queued still run.
+   */
+  public void removeSender(Object sender) {
+    SenderQueue queue = queues.remove(sender);
+    if (queue != null && queue.stats != null) {
+      queue.stats.close();
+    }
+  }
+
+  /**
+   * Returns the number of times a worker took a sender from the ready deque of another worker.
+   */
+  public long getStolenCount() {
+    return stolenCount.get();
+  }
+
+  /**
+   * Returns the number of tasks of the given sender waiting to run.
+   */
+  int getQueueSize(Object sender) {
+    SenderQueue queue = queues.get(sender);
+    return queue == null ? 0 : queue.size.get();
+  }
+
+  /**
+   * Stops accepting tasks. The workers exit once the queued tasks have run.
+   */
+  public void shutdown() {
+    shutdown = true;
+    for (Worker worker : workers) {
+      Thread thread = worker.thread;
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
+    }
+  }
+
+  /**
+   * Stops accepting tasks and interrupts the workers, which exit without running queued tasks.
+   */
+  public void shutdownNow() {
+    stopNow = true;
+    shutdown();
+    for (Worker worker : workers) {
+      Thread thread = worker.thread;
+      if (thread != null) {
+        thread.interrupt();
+      }
+    }
+  }
+
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long end = System.nanoTime() + unit.toNanos(timeout);
+    for (Worker worker : workers) {
+      Thread thread = worker.thread;
+      if (thread == null) {
+        continue;
+      }
+      long remaining = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime());
+      if (remaining <= 0 && thread.isAlive()) {
+        return false;
+      }
+      thread.join(Math.max(remaining, 1));
+      if (thread.isAlive()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if any worker is running a task.
+   */
+  public boolean isActive() {
+    for (Worker worker : workers) {
+      if (worker.running) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Puts a sender with queued tasks on the ready deque of the given worker and wakes up a worker to
+   * run it, unless the sender is already on a ready deque or being drained.
+   */
+  private void schedule(SenderQueue queue, int workerIndex) {
+    if (!queue.scheduled.compareAndSet(false, true)) {
+      return;
+    }
+    Worker worker = workers[workerIndex];
+    worker.ready.offerLast(queue);
+    if (worker.start() || worker.wakeUp()) {
+      return;
+    }
+    // the worker is busy so let an idle one steal the sender
+    for (Worker other : workers) {
+      if (other != worker && other.wakeUp()) {
+        return;
+      }
+    }
+    for (Worker other : workers) {
+      if (other.start()) {
+        return;
+      }
+    }
+  }
+
+  private void runTask(Runnable task) {
+    if (poolStats != null) {
+      poolStats.startJob();
+    }
+    if (threadsMonitoring != null) {
+      threadsMonitoring.startMonitor(ThreadsMonitoring.Mode.SerialQueuedExecutor);
+    }
+    try {
+      task.run();
+    } catch (VirtualMachineError err) {
+      SystemFailure.initiateFailure(err);
+      throw err;
+    } catch (Throwable t) {
+      SystemFailure.checkFailure();
+      // log it like an uncaught exception but keep the worker for the other tasks
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+    } finally {
+      if (poolStats != null) {
+        poolStats.endJob();
+      }
+      if (threadsMonitoring != null) {
+        threadsMonitoring.endMonitor();
+      }
+    }
+  }
+
+  private static int sizeOf(Runnable task) {
+    return task instanceof Sizeable ? ((Sizeable) task).getSize() : 0;
+  }
+
+  private static class Node {
+    private Runnable task;
+    private final long queuedTime;
+    private volatile Node next;
+
+    Node(Runnable task, long queuedTime) {
+      this.task = task;
+      this.queuedTime = queuedTime;
+    }
+  }
+
+  /**
+   * The tasks of one sender. Any thread may add a task but only the worker that set
+   * {@link #scheduled} may remove them.
+   */
+  private class SenderQueue implements Executor {
+    private final SenderQueueStats stats;
+    private final int homeWorker;
+    private final AtomicReference<Node> tail;
+    /** the last node removed, only read and written by the worker draining the queue */
+    private Node head;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger bytes = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    SenderQueue(Object sender) {
+      this.stats = senderStatsFactory == null ? null : senderStatsFactory.apply(sender);
+      this.homeWorker = (sender.hashCode() & Integer.MAX_VALUE) % workers.length;
+      this.head = new Node(null, 0);
+      this.tail = new AtomicReference<>(head);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+      if (task == null) {
+        throw new NullPointerException();
+      }
+      if (shutdown) {
+        throw new RejectedExecutionException("executor has been shutdown");
+      }
+      if (maxQueueBytes > 0 && !DistributionMessage.isPreciousThread()) {
+        throttle();
+      }
+      int taskBytes = sizeOf(task);
+      size.incrementAndGet();
+      if (taskBytes != 0) {
+        bytes.addAndGet(taskBytes);
+      }
+      if (queueStats != null) {
+        queueStats.add();
+        if (taskBytes != 0) {
+          queueStats.addMem(taskBytes);
+        }
+      }
+      if (stats != null) {
+        stats.queued(taskBytes);
+      }
+      Node node = new Node(task, System.nanoTime());
+      tail.getAndSet(node).next = node;
+      schedule(this, homeWorker);
+    }
+
+    /**
+     * Removes the node of the next task, or returns null if the queue is empty. The node becomes
+     * the new head, so the caller clears its task once it has taken it.
+     */
+    private Node poll() {
+      Node next = head.next;
+      if (next == null) {
+        return null;
+      }
+      head = next;
+      int taskBytes = sizeOf(next.task);
+      size.decrementAndGet();
+      if (taskBytes != 0) {
+        bytes.addAndGet(-taskBytes);
+      }
+      if (queueStats != null) {
+        queueStats.remove();
+        if (taskBytes != 0) {
+          queueStats.removeMem(taskBytes);
+        }
+      }
+      if (stats != null) {
+        stats.dequeued(taskBytes, System.nanoTime() - next.queuedTime);
+      }
+      return next;
+    }
+
+    private boolean isEmpty() {
+      return head.next == null;
+    }
+
+    /**
+     * Runs up to {@link #BATCH_SIZE} tasks and then puts the sender back on the given worker's
+     * ready deque if it has more.
+     */
+    private void drain(Worker worker) {
+      try {
+        for (int i = 0; i < BATCH_SIZE && !stopNow; i++) {
+          Node node = poll();
+          if (node == null) {
+            break;
+          }
+          Runnable task = node.task;
+          node.task = null;
+          try {
+            runTask(task);
+          } finally {
+            if (!stopNow) {
+              // don't let an interrupt of one task leak into the next one
+              Thread.interrupted();
+            }
+          }
+        }
+      } finally {
+        scheduled.set(false);
+        if (!isEmpty() && !stopNow) {
+          schedule(this, worker.index);
+        }
+      }
+    }
+
+    private void throttle() {
+      int sleep = throttleTime();
+      if (sleep == 0) {
+        return;
+      }
+      long startTime = DistributionStats.getStatTime();
+      do {
+        try {
+          Thread.sleep(sleep);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        sleep = Math.max(throttleTime(), 1);
+      } while (bytes.get() >= maxQueueBytes || size.get() >= maxQueueSize);
+      if (queueStats != null) {
+        queueStats.incThrottleCount();
+        if (DistributionStats.enableClockStats) {
+          queueStats.throttleTime(DistributionStats.getStatTime() - startTime);
+        }
+      }
+    }
+
+    /**
+     * Returns the milliseconds to slow down a submitter for, which grows as the queue approaches
+     * its maximum size, or zero if the queue is small enough.
+     */
+    private int throttleTime() {
+      int sleep;
+      int queueBytes = bytes.get();
+      int queueSize = size.get();
+      if (queueBytes > throttleQueueBytes) {
+        sleep = (int) (((float) (queueBytes - throttleQueueBytes)
+            / (float) (maxQueueBytes - throttleQueueBytes)) * 100);
+      } else if (queueSize > throttleQueueSize) {
+        sleep = (int) (((float) (queueSize - throttleQueueSize)
+            / (float) (maxQueueSize - throttleQueueSize)) * 100);
+      } else {
+        return 0;
+      }
+      sleep = sleep * ((sleep / 10) + 1);
+      return Math.max(sleep, 1);
+    }
+  }
+
+  private class Worker implements Runnable {
+    private final int index;
+    private final ConcurrentLinkedDeque<SenderQueue> ready = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean parked = new AtomicBoolean();
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    Worker(int index) {
+      this.index = index;
+    }
+
+    /**
+     * Starts the thread of this worker unless it has already been started.
+     *
+     * @return true if the thread was started
+     */
+    boolean start() {
+      if (thread != null) {
+        return false;
+      }
+      synchronized (this) {
+        if (thread != null || shutdown) {
+          return false;
+        }
+        thread = threadFactory.newThread(this);
+        thread.start();
+        return true;
+      }
+    }
+
+    /**
+     * Unparks this worker if it is waiting for work.
+     *
+     * @return true if the worker was waiting
+     */
+    boolean wakeUp() {
+      if (parked.get() && parked.compareAndSet(true, false)) {
+        LockSupport.unpark(thread);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void run() {
+      while (!stopNow) {
+        SenderQueue queue = nextQueue();
+        if (queue == null) {
+          parked.set(true);
+          // a sender made ready before parked was set has to be seen now
+          queue = nextQueue();
+          if (queue == null) {
+            if (shutdown) {
+              parked.set(false);
+              return;
+            }
+            LockSupport.park(this);
+            parked.set(false);
+            continue;
+          }
+          parked.set(false);
+        }
+        running = true;
+        try {
+          queue.drain(this);
+        } finally {
+          running = false;
+        }
+      }
+    }
+
+    private SenderQueue nextQueue() {
+      SenderQueue queue = ready.pollFirst();
+      if (queue != null) {
+        return queue;
+      }
+      for (int i = 1; i < workers.length; i++) {
+        queue = workers[(index + i) % workers.length].ready.pollLast();
+        if (queue != null) {
+          stolenCount.incrementAndGet();
+          return queue;
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+
+/**
+ * Statistics of the serial messages of one sender queued in a {@link SenderOrderedExecutor}.
+ *
+ * @since Geode 1.12
+ */
+public class SenderQueueStats {
+  static final String QUEUE_SIZE = "queueSize";
+  static final String QUEUE_BYTES = "queueBytes";
+  static final String PROCESSED_TASKS = "processedTasks";
+  static final String RESIDENCE_TIME = "queueResidenceTime";
+
+  private final Statistics statistics;
+  private final int queueSizeId;
+  private final int queueBytesId;
+  private final int processedTasksId;
+  private final int residenceTimeId;
+
+  public SenderQueueStats(StatisticsFactory factory, String textId) {
+    StatisticsType type = createType(factory);
+    this.statistics = factory.createAtomicStatistics(type, textId);
+    this.queueSizeId = type.nameToId(QUEUE_SIZE);
+    this.queueBytesId = type.nameToId(QUEUE_BYTES);
+    this.processedTasksId = type.nameToId(PROCESSED_TASKS);
+    this.residenceTimeId = type.nameToId(RESIDENCE_TIME);
+  }
+
+  private static StatisticsType createType(StatisticsFactory f) {
+    return f.createType("SenderQueueStats",
+        "Statistics of the serial messages of one sender waiting to be processed.",
+        new StatisticDescriptor[] {
+            f.createLongGauge(QUEUE_SIZE, "Number of messages waiting to be processed.",
+                "messages"),
+            f.createLongGauge(QUEUE_BYTES, "Size of the messages waiting to be processed.",
+                "bytes"),
+            f.createLongCounter(PROCESSED_TASKS, "Number of messages taken from the queue.",
+                "messages"),
+            f.createLongCounter(RESIDENCE_TIME,
+                "Total time messages spent in the queue before being processed.",
+                "nanoseconds", false)});
+  }
+
+  void queued(int bytes) {
+    this.statistics.incLong(queueSizeId, 1);
+    if (bytes != 0) {
+      this.statistics.incLong(queueBytesId, bytes);
+    }
+  }
+
+  void dequeued(int bytes, long residenceNanos) {
+    this.statistics.incLong(queueSizeId, -1);
+    if (bytes != 0) {
+      this.statistics.incLong(queueBytesId, -bytes);
+    }
+    this.statistics.incLong(processedTasksId, 1);
+    this.statistics.incLong(residenceTimeId, residenceNanos);
+  }
+
+  public Statistics getStats() {
+    return this.statistics;
+  }
+
+  public void close() {
+    this.statistics.close();
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+
+/**
+ * An executor with stat support that starts a thread, normally a virtual thread, for each task
+ * unless the maximum number of tasks are already running. Tasks that would exceed the maximum are
+ * queued and run by the threads of the tasks that finish, so a task that blocks only holds one of
+ * the permits rather than one of a fixed number of platform threads.
+ *
+ * @since Geode 1.12
+ */
+public class VirtualThreadExecutorWithDMStats extends AbstractExecutorService {
+  private final ThreadFactory threadFactory;
+  private final Semaphore permits;
+  private final PoolStatHelper stats;
+  private final QueueStatHelper queueStats;
+  private final ThreadsMonitoring threadMonitoring;
+
+  private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+  private final Object terminationLock = new Object();
+  private volatile boolean shutdown;
+
+  /**
+   * @param maxConcurrency the maximum number of tasks that may run at the same time
+   * @param stats if not null, notified as each task starts and ends
+   * @param queueStats if not null, notified as tasks are queued and dequeued
+   */
+  public VirtualThreadExecutorWithDMStats(ThreadFactory threadFactory, int maxConcurrency,
+      PoolStatHelper stats, QueueStatHelper queueStats, ThreadsMonitoring threadMonitoring) {
+    if (maxConcurrency <= 0) {
+      throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+    }
+    this.threadFactory = threadFactory;
+    this.permits = new Semaphore(maxConcurrency);
+    this.stats = stats;
+    this.queueStats = queueStats;
+    this.threadMonitoring = threadMonitoring;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (command == null) {
+      throw new NullPointerException();
+    }
+    if (shutdown) {
+      throw new RejectedExecutionException("executor has been shutdown");
+    }
+    if (permits.tryAcquire()) {
+      startThread(command);
+    } else {
+      queue.add(command);
+      if (queueStats != null) {
+        queueStats.add();
+      }
+      // a running task may have released its permit before the command was queued
+      startQueuedTasks();
+    }
+  }
+
+  private void startQueuedTasks() {
+    while (!queue.isEmpty() && permits.tryAcquire()) {
+      Runnable next = queue.poll();
+      if (next == null) {
+        permits.release();
+      } else {
+        if (queueStats != null) {
+          queueStats.remove();
+        }
+        startThread(next);
+      }
+    }
+  }
+
+  /**
+   * Starts a thread that runs the command, and then any queued tasks, with a permit that has
+   * already been acquired.
+   */
+  private void startThread(Runnable command) {
+    Thread thread;
+    try {
+      thread = threadFactory.newThread(() -> runTasks(command));
+      threads.add(thread);
+      thread.start();
+    } catch (RuntimeException | Error e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void runTasks(Runnable command) {
+    try {
+      Runnable next = command;
+      while (next != null) {
+        runTask(next);
+        next = queue.poll();
+        if (next != null && queueStats != null) {
+          queueStats.remove();
+        }
+      }
+    } finally {
+      permits.release();
+      try {
+        startQueuedTasks();
+      } finally {
+        threads.remove(Thread.currentThread());
+        if (shutdown && threads.isEmpty()) {
+          synchronized (terminationLock) {
+            terminationLock.notifyAll();
+          }
+        }
+      }
+    }
+  }
+
+  private void runTask(Runnable task) {
+    if (stats != null) {
+      stats.startJob();
+    }
+    if (threadMonitoring != null) {
+      threadMonitoring.startMonitor(ThreadsMonitoring.Mode.PooledExecutor);
+    }
+    try {
+      task.run();
+    } finally {
+      if (stats != null) {
+        stats.endJob();
+      }
+      if (threadMonitoring != null) {
+        threadMonitoring.endMonitor();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of threads that are running tasks.
+   */
+  public int getActiveCount() {
+    return threads.size();
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    if (threads.isEmpty()) {
+      synchronized (terminationLock) {
+        terminationLock.notifyAll();
+      }
+    }
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    List<Runnable> tasks = new ArrayList<>();
+    for (Runnable task = queue.poll(); task != null; task = queue.poll()) {
+      tasks.add(task);
+    }
+    if (queueStats != null && !tasks.isEmpty()) {
+      queueStats.remove(tasks.size());
+    }
+    for (Thread thread : threads) {
+      thread.interrupt();
+    }
+    return tasks;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && threads.isEmpty();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long remaining = unit.toNanos(timeout);
+    long end = System.nanoTime() + remaining;
+    synchronized (terminationLock) {
+      while (!isTerminated()) {
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+        remaining = end - System.nanoTime();
+      }
+      return true;
+    }
+  }
+}
@@ -97,12 +97,40 @@ public class DLockGrantor {
   protected final DLockService dlock;
 
   /**
-   * Map of grant tokens for tracking grantor-side state of distributed locks. Key: Object name,
-   * Value: DLockGrantToken grant
+   * Number of shards that the grant tokens are split into by the hash of the lock name. Rounded up
+   * to a power of two.
+   */
+  private static final int GRANT_TOKEN_SHARDS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "DLockGrantor.grantTokenShards", 16);
+
+  /**
+   * Milliseconds spanned by each slot of the wheel of grant token deadlines.
+   */
+  private static final long DEADLINE_TICK_MILLIS = 100;
+
+  /**
+   * Number of slots in the wheel of grant token deadlines.
+   */
+  private static final int DEADLINE_SLOTS = 512;
+
+  /**
+   * Maps of grant tokens for tracking grantor-side state of distributed locks, split by the hash of
+   * the lock name so that requests for different locks do not contend on one monitor. Key: Object
+   * name, Value: DLockGrantToken grant
+   * <p>
+   * Operations on one lock synchronize only on the shard of its name and must not synchronize on
+   * another shard. Operations on all grant tokens synchronize on every shard in index order.
    *
-   * guarded.By grantTokens
+   * guarded.By each shard
    */
-  private final Map grantTokens = new HashMap();
+  private final Map[] grantTokens;
+
+  /**
+   * The grant tokens that have a lease that will expire or a request that will time out, filed
+   * under the earliest of those times so that the grantor thread only visits tokens that are due.
+   */
+  private final GrantDeadlineWheel<DLockGrantToken> grantDeadlines =
+      new GrantDeadlineWheel<>(DEADLINE_TICK_MILLIS, DEADLINE_SLOTS);
 
   /**
    * Dedicated thread responsible for handling expirations and timeouts.
@@ -331,6 +359,12 @@ public class DLockGrantor {
     this.dlock = dlock;
     this.destroyLock = new StoppableReentrantReadWriteLock(stopper);
     this.versionId.set(vId);
+    int shards =
+        GRANT_TOKEN_SHARDS <= 1 ? 1 : Integer.highestOneBit(GRANT_TOKEN_SHARDS - 1) << 1;
+    this.grantTokens = new Map[shards];
+    for (int i = 0; i < shards; i++) {
+      this.grantTokens[i] = new HashMap();
+    }
     this.dm.addMembershipListener(this.membershipListener);
     this.thread = new DLockGrantorThread(this, stopper);
     this.dlock.getStats().incGrantors(1);
@@ -819,6 +853,7 @@ public class DLockGrantor {
     }
     Assert.assertTrue(request.getRemoteThread() != null);
     DLockGrantToken grant = getOrCreateGrant(request.getObjectName());
+    boolean inUse = true;
     try {
 
       // try to grant immediately if not currently granted...
@@ -828,28 +863,72 @@ public class DLockGrantor {
 
       // if request was local and then interrupted/released...
       else if (request.responded()) {
-        // do nothing
+        inUse = false;
       }
 
       // if request was a failed try-lock...
       else if (request.isTryLock()) {
+        inUse = false;
         cleanupSuspendState(request);
         request.respondWithTryLockFailed(request.getObjectName());
+        revokeCachedLease(grant);
       }
 
       // if request has timed out...
       else if (request.checkForTimeout()) {
+        inUse = false;
         cleanupSuspendState(request);
       }
 
       // schedule into waiting queue for eventual granting...
       else {
         grant.schedule(request);
-        this.thread.checkTimeToWait(calcWaitMillisFromNow(request), false);
+        scheduleGrantDeadline(grant, request.getTimeoutTS(), false);
+        revokeCachedLease(grant);
       }
     } finally {
       grant.decAccess();
     }
+    if (!inUse) {
+      // the grantor thread only visits tokens with a deadline so remove it now
+      removeGrantIfUnused(grant);
+    }
+  }
+
+  /**
+   * Asks the lessee of the grant to give back its lease if the lessee may be keeping that lease
+   * cached after unlocking it, because another request is now waiting for the lock.
+   * <p>
+   * Synchronizes on the grant token.
+   *
+   * @param grant the grant token that another request failed to lock
+   */
+  void revokeCachedLease(DLockGrantToken grant) {
+    InternalDistributedMember lessee;
+    int leaseId;
+    synchronized (grant) {
+      if (!grant.markLeaseRevoked()) {
+        return;
+      }
+      lessee = grant.getOwner();
+      leaseId = grant.getLockId();
+    }
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "[DLockGrantor.revokeCachedLease] revoking {}", grant);
+    }
+    DLockRevokeLeaseMessage.send(this.dm, lessee, this.dlock.getName(), grant.getName(), leaseId);
+  }
+
+  /**
+   * Asks the lessees of all cacheable leases to give them back so that a waiting suspend locking
+   * request can be granted once they are released.
+   * <p>
+   * Synchronizes on grantTokens and each grant token. Caller must not hold suspendLock.
+   */
+  private void revokeAllCachedLeases() {
+    for (Iterator iter = snapshotGrantTokens().iterator(); iter.hasNext();) {
+      revokeCachedLease((DLockGrantToken) iter.next());
+    }
   }
 
   /**
@@ -872,7 +951,7 @@ public class DLockGrantor {
     }
 
     try {
-      synchronized (this.grantTokens) {
+      synchronizeOnAllGrantTokens(0, () -> {
         Set members = this.dlock.getDistributionManager().getDistributionManagerIds();
 
         final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
@@ -910,10 +989,8 @@ public class DLockGrantor {
               // grantToken may have already expired or is about to expire
               // complete initialization but make sure grantor thread will wake
               // up and expire it as soon as it's running
-              if (grantToken.getLeaseExpireTime() > -1
-                  && grantToken.getLeaseExpireTime() < Long.MAX_VALUE) {
-                long now = DLockService.getLockTimeStamp(this.dm);
-                this.thread.checkTimeToWait(grantToken.getLeaseExpireTime() - now, true);
+              if (grantToken.getLeaseExpireTime() > -1) {
+                scheduleGrantDeadline(grantToken, grantToken.getLeaseExpireTime(), true);
               }
 
               rThread = grantToken.getRemoteThread();
@@ -939,10 +1016,11 @@ public class DLockGrantor {
 
           } finally {
             grantToken.decAccess();
+            removeGrantIfUnused(grantToken);
           }
 
         } // tokens iter
-      } // grantTokens sync
+      }); // grantTokens sync
       return;
     } finally {
       releaseDestroyReadLock();
@@ -1040,7 +1118,7 @@ public class DLockGrantor {
    */
   private void getAndReleaseGrantIfLockedBy(Object name, InternalDistributedMember owner,
       int lockId) {
-    synchronized (this.grantTokens) {
+    synchronized (grantTokenShard(name)) {
       DLockGrantToken grantToken = basicGetGrantToken(name);
       if (grantToken != null) { // checking isTokenDestroyed here will deadlock
         synchronized (grantToken) {
@@ -1142,13 +1220,13 @@ public class DLockGrantor {
               }
             }
           } // synchronized
-          synchronized (this.grantTokens) {
+          synchronizeOnAllGrantTokens(0, () -> {
             // do not call handleDepartureOf while iterating grantTokens
             // changes fix bug 39172 (ConcurrentModificationException)
 
             // 1) built up list of grants that reference departed member
             List grantsReferencingMember = new ArrayList();
-            Collection grants = this.grantTokens.values();
+            Collection grants = basicGetGrantTokens();
             for (Iterator iter = grants.iterator(); iter.hasNext();) {
               DLockGrantToken grant = (DLockGrantToken) iter.next();
               try {
@@ -1188,7 +1266,7 @@ public class DLockGrantor {
                 }
               }
             } // for
-          } // synchronized this.grantTokens
+          }); // synchronized this.grantTokens
         } // finally
       } finally {
         releaseDestroyReadLock();
@@ -1222,15 +1300,13 @@ public class DLockGrantor {
             // assume the worst case and tell the elder that recovery will be required
             locksHeld = true;
           } else {
-            synchronized (this.grantTokens) {
-              InternalDistributedMember me = this.dlock.getDistributionManager().getId();
-              for (Iterator iter = this.grantTokens.values().iterator(); iter.hasNext();) {
-                DLockGrantToken grant = (DLockGrantToken) iter.next();
-                InternalDistributedMember owner = grant.getOwner();
-                if (owner != null && !owner.equals(me)) {
-                  locksHeld = true;
-                  break;
-                }
+            InternalDistributedMember me = this.dlock.getDistributionManager().getId();
+            for (Iterator iter = snapshotGrantTokens().iterator(); iter.hasNext();) {
+              DLockGrantToken grant = (DLockGrantToken) iter.next();
+              InternalDistributedMember owner = grant.getOwner();
+              if (owner != null && !owner.equals(me)) {
+                locksHeld = true;
+                break;
               }
             }
           }
@@ -1269,13 +1345,12 @@ public class DLockGrantor {
     Assert.assertHoldsLock(this, true);
     makeDestroyed();
     // reply to all pending requests w/ NOT_GRANTOR
-    synchronized (this.grantTokens) {
-      Collection grants = this.grantTokens.values();
-      for (Iterator iter = grants.iterator(); iter.hasNext();) {
+    synchronizeOnAllGrantTokens(0, () -> {
+      for (Iterator iter = basicGetGrantTokens().iterator(); iter.hasNext();) {
         DLockGrantToken grant = (DLockGrantToken) iter.next();
         grant.handleGrantorDestruction();
       }
-    }
+    });
 
     synchronized (suspendLock) {
       final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
@@ -1340,7 +1415,7 @@ public class DLockGrantor {
     if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
       StringBuffer sb =
           new StringBuffer("DLockGrantor " + this.dlock.getName() + " initialized with:");
-      for (Iterator tokens = grantTokens.values().iterator(); tokens.hasNext();) {
+      for (Iterator tokens = snapshotGrantTokens().iterator(); tokens.hasNext();) {
         sb.append("\n\t" + tokens.next());
       }
       logger.trace(LogMarker.DLS_VERBOSE, sb.toString());
@@ -1488,18 +1563,60 @@ public class DLockGrantor {
   /**
    * Returns a snapshot of the current grant tokens.
    * <p>
-   * Synchronizes on grantTokens.
+   * Synchronizes on each shard of grantTokens in turn.
    *
    * @return a snapshot of the current grant tokens
    */
   protected Collection snapshotGrantTokens() {
-    Collection snapshot = null;
-    synchronized (this.grantTokens) {
-      snapshot = new ArrayList(this.grantTokens.values());
+    Collection snapshot = new ArrayList();
+    for (Map shard : this.grantTokens) {
+      synchronized (shard) {
+        snapshot.addAll(shard.values());
+      }
     }
     return snapshot;
   }
 
+  /**
+   * Returns the grant tokens of every shard.
+   * <p>
+   * Caller must synchronize on every shard of grantTokens.
+   */
+  private Collection basicGetGrantTokens() {
+    Collection grants = new ArrayList();
+    for (Map shard : this.grantTokens) {
+      grants.addAll(shard.values());
+    }
+    return grants;
+  }
+
+  /**
+   * Runs the action while synchronized on every shard of grantTokens, acquiring them in index order
+   * starting from the given shard.
+   *
+   * @param shard the index of the first shard to synchronize on
+   * @param action the action to run
+   */
+  private void synchronizeOnAllGrantTokens(int shard, Runnable action) {
+    if (shard == this.grantTokens.length) {
+      action.run();
+    } else {
+      synchronized (this.grantTokens[shard]) {
+        synchronizeOnAllGrantTokens(shard + 1, action);
+      }
+    }
+  }
+
+  /**
+   * Returns the shard of grantTokens that holds the grant token for the named lock.
+   *
+   * @param name the name of the lock
+   */
+  private Map grantTokenShard(Object name) {
+    int h = name.hashCode();
+    return this.grantTokens[(h ^ (h >>> 16)) & (this.grantTokens.length - 1)];
+  }
+
   /**
    * Fetches or creates a new grant token for the named lock.
    * <p>
@@ -1510,7 +1627,7 @@ public class DLockGrantor {
    */
   private DLockGrantToken getOrCreateGrant(Object name) {
     DLockGrantToken grantToken = null;
-    synchronized (this.grantTokens) {
+    synchronized (grantTokenShard(name)) {
       grantToken = basicGetGrantToken(name);
       if (grantToken == null) { // checking isTokenDestroyed here will deadlock
         grantToken = new DLockGrantToken(this.dlock, this, name);
@@ -1532,17 +1649,14 @@ public class DLockGrantor {
   }
 
   /**
-   * TEST HOOK: Returns an unmodifible collection backed by the values of the DLockGrantToken map
-   * for testing purposes only.
+   * TEST HOOK: Returns an unmodifible snapshot of the grant tokens for testing purposes only.
    * <p>
-   * Synchronizes on grantTokens.
+   * Synchronizes on each shard of grantTokens in turn.
    *
    * @return unmodifible collection of the grant tokens
    */
   public Collection getGrantTokens() {
-    synchronized (this.grantTokens) {
-      return Collections.unmodifiableCollection(this.grantTokens.values());
-    }
+    return Collections.unmodifiableCollection(snapshotGrantTokens());
   }
 
   /**
@@ -1553,7 +1667,7 @@ public class DLockGrantor {
    * @param grant the grant token to remove
    */
   protected void removeGrantIfUnused(DLockGrantToken grant) {
-    synchronized (this.grantTokens) {
+    synchronized (grantTokenShard(grant.getName())) {
       synchronized (grant) {
         if (isDestroyed() || grant.isDestroyed()) {
           return;
@@ -1587,7 +1701,7 @@ public class DLockGrantor {
    * Synchronizes on grantTokens.
    */
   public DLockGrantToken getGrantToken(Object name) {
-    synchronized (this.grantTokens) {
+    synchronized (grantTokenShard(name)) {
       return basicGetGrantToken(name);
     }
   }
@@ -1595,37 +1709,37 @@ public class DLockGrantor {
   /**
    * Fetches the grant token value stored in the map under key name.
    * <p>
-   * Caller must synchronize on grantTokens
+   * Caller must synchronize on the shard of grantTokens for the name
    *
    * @param name the key to fetch the grant token value for
-   * @return the grant token stored under key name guarded.By {@link #grantTokens}
+   * @return the grant token stored under key name guarded.By {@link #grantTokenShard}
    */
   private DLockGrantToken basicGetGrantToken(Object name) {
-    return (DLockGrantToken) this.grantTokens.get(name);
+    return (DLockGrantToken) grantTokenShard(name).get(name);
   }
 
   /**
    * Stores the grant token as a value in the map under the key of its name.
    * <p>
-   * Caller must synchronize on grantTokens
+   * Caller must synchronize on the shard of grantTokens for the name
    *
-   * @param grantToken the grant token to store in the map guarded.By {@link #grantTokens}
+   * @param grantToken the grant token to store in the map guarded.By {@link #grantTokenShard}
    */
   private void basicPutGrantToken(DLockGrantToken grantToken) {
-    this.grantTokens.put(grantToken.getName(), grantToken);
+    grantTokenShard(grantToken.getName()).put(grantToken.getName(), grantToken);
     dlock.getStats().incGrantTokens(1);
   }
 
   /**
    * Removes the grant token from the map.
    * <p>
-   * Caller must synchronize on grantTokens and then the grantToken.
+   * Caller must synchronize on the shard of grantTokens for the name and then the grantToken.
    *
-   * @param grantToken the grant token to remove from the map. guarded.By {@link #grantTokens} and
-   *        grantToken
+   * @param grantToken the grant token to remove from the map. guarded.By
+   *        {@link #grantTokenShard} and grantToken
    */
   private void basicRemoveGrantToken(DLockGrantToken grantToken) {
-    Object removed = this.grantTokens.remove(grantToken.getName()); // changed to ref token
+    Object removed = grantTokenShard(grantToken.getName()).remove(grantToken.getName());
     if (removed != null) {
       Assert.assertTrue(removed == grantToken);
       grantToken.destroy();
@@ -1637,7 +1751,44 @@ public class DLockGrantor {
   }
 
   /**
-   * Iterates over grants and handles any that have expired.
+   * Files the grant token under the time at which its lease will expire or its next waiting
+   * request will time out, and makes sure the grantor thread wakes up by then.
+   * <p>
+   * Synchronizes on grantDeadlines.
+   *
+   * @param grant the grant token to handle at the deadline
+   * @param deadline the lease expire time or request timeout in millis, or Long.MAX_VALUE for never
+   * @param expire true if the deadline is a lease expire time
+   */
+  void scheduleGrantDeadline(DLockGrantToken grant, long deadline, boolean expire) {
+    if (this.grantDeadlines.schedule(grant, deadline)) {
+      this.thread.checkTimeToWait(deadline - DLockService.getLockTimeStamp(this.dm), expire);
+    }
+  }
+
+  /**
+   * Removes and returns the grant tokens whose deadlines have passed.
+   * <p>
+   * Synchronizes on grantDeadlines.
+   *
+   * @return the grant tokens that are due for expiration or request timeout handling
+   */
+  protected Collection pollDueGrants() {
+    return this.grantDeadlines.pollDue(DLockService.getLockTimeStamp(this.dm));
+  }
+
+  /**
+   * Returns the time in millis of the next grant token deadline, or Long.MAX_VALUE if none.
+   * <p>
+   * Synchronizes on grantDeadlines.
+   */
+  protected long nextGrantDeadline() {
+    return this.grantDeadlines.nextDeadline();
+  }
+
+  /**
+   * Iterates over grants and handles any that have expired. Grants whose lease is still held are
+   * filed again under their lease expire time.
    * <p>
    * Synchronizes on each grant token.
    *
@@ -1652,6 +1803,7 @@ public class DLockGrantor {
         continue;
       }
       long expire = grant.expireAndGrantLock();
+      this.grantDeadlines.schedule(grant, expire);
       if (expire < smallestExpire) {
         smallestExpire = expire;
       }
@@ -1660,7 +1812,8 @@ public class DLockGrantor {
   }
 
   /**
-   * Iterates over grants and handles any that have timed out.
+   * Iterates over grants and handles any that have timed out. Grants with requests still waiting
+   * are filed again under the smallest timeout of those requests.
    * <p>
    * Synchronizes on each grant token.
    *
@@ -1675,6 +1828,7 @@ public class DLockGrantor {
         continue;
       }
       long timeout = grant.handleRequestTimeouts();
+      this.grantDeadlines.schedule(grant, timeout);
       if (timeout < smallestTimeout) {
         smallestTimeout = timeout;
       }
@@ -2259,6 +2413,9 @@ public class DLockGrantor {
     boolean permitLockRequest = false;
     if (request.getObjectName().equals(DLockService.SUSPEND_LOCKING_TOKEN)) {
       permitLockRequest = acquireSuspendLockPermission(request);
+      if (!permitLockRequest) {
+        revokeAllCachedLeases();
+      }
     } else {
       permitLockRequest = acquireReadLockPermission(request);
     }
@@ -2288,20 +2445,20 @@ public class DLockGrantor {
    * Synchronizes on grantTokens.
    */
   protected void dumpService() {
-    synchronized (this.grantTokens) {
+    synchronizeOnAllGrantTokens(0, () -> {
+      Collection grants = basicGetGrantTokens();
       StringBuffer buffer = new StringBuffer();
       buffer.append("DLockGrantor.dumpService() for ").append(this);
-      buffer.append("\n").append(this.grantTokens.size()).append(" grantTokens\n");
-      for (Iterator iter = this.grantTokens.entrySet().iterator(); iter.hasNext();) {
-        Map.Entry entry = (Map.Entry) iter.next();
-        buffer.append("    ").append(entry.getKey()).append(": ");
-        DLockGrantToken token = (DLockGrantToken) entry.getValue();
+      buffer.append("\n").append(grants.size()).append(" grantTokens\n");
+      for (Iterator iter = grants.iterator(); iter.hasNext();) {
+        DLockGrantToken token = (DLockGrantToken) iter.next();
+        buffer.append("    ").append(token.getName()).append(": ");
         buffer.append(token.toString()).append("\n");
       }
       logger.info(LogMarker.DLS_MARKER, "{}", buffer);
       logger.info(LogMarker.DLS_MARKER, "{}",
           "\nreadLockCountMap:\n" + readLockCountMap);
-    }
+    });
   }
 
   /**
@@ -2418,6 +2575,21 @@ public class DLockGrantor {
      */
     private RemoteThread lesseeThread = null;
 
+    /**
+     * True if the lessee may keep the current lease cached after unlocking it, so that the lease
+     * has to be revoked before another request can be granted.
+     *
+     * guarded.By this
+     */
+    private boolean leaseCacheable = false;
+
+    /**
+     * True if the lessee has been asked to give back the current cacheable lease.
+     *
+     * guarded.By this
+     */
+    private boolean leaseRevoked = false;
+
     /**
      * Instatiates a new instance of DLockGrantToken.
      *
@@ -2551,10 +2723,7 @@ public class DLockGrantor {
       if (newLeaseExpireTime == -1)
         return false;
 
-      if (newLeaseExpireTime < Long.MAX_VALUE) {
-        long now = DLockService.getLockTimeStamp(this.grantor.dm);
-        this.grantor.thread.checkTimeToWait(newLeaseExpireTime - now, true);
-      }
+      this.grantor.scheduleGrantDeadline(this, newLeaseExpireTime, true);
 
       return true;
     }
@@ -2825,10 +2994,7 @@ public class DLockGrantor {
           if (newLeaseExpireTime == -1)
             continue;
 
-          if (newLeaseExpireTime < Long.MAX_VALUE) {
-            long now = DLockService.getLockTimeStamp(this.grantor.dm);
-            this.grantor.thread.checkTimeToWait(newLeaseExpireTime - now, true);
-          }
+          this.grantor.scheduleGrantDeadline(this, newLeaseExpireTime, true);
 
         } catch (IndexOutOfBoundsException e) {
           // ignore... entry may have timed out between empty check and remove
@@ -2875,6 +3041,8 @@ public class DLockGrantor {
 
         grantLock(request.getSender(), newLeaseExpireTime, request.getLockId(),
             request.getRemoteThread());
+        this.leaseCacheable = request.isLeaseCacheable();
+        this.leaseRevoked = false;
 
         if (isSuspendLockingToken()) {
           synchronized (this.grantor.suspendLock) {
@@ -2994,6 +3162,7 @@ public class DLockGrantor {
         sb.append(", leaseExpireTime: ").append(this.leaseExpireTime);
         sb.append(", leaseId: ").append(this.leaseId);
         sb.append(", lesseeThread: ").append(this.lesseeThread);
+        sb.append(", leaseCacheable: ").append(this.leaseCacheable);
         if (displayPendingRequests) {
           sb.append(", pendingRequests: ").append(pendingRequestsToString());
         }
@@ -3032,6 +3201,21 @@ public class DLockGrantor {
       return this.leaseId;
     }
 
+    /**
+     * Marks the current lease as revoked if it is cacheable and has not been revoked yet.
+     * <p>
+     * Caller must synchronize on this grant token.
+     *
+     * @return true if the lessee should now be asked to give back the lease guarded.By this
+     */
+    boolean markLeaseRevoked() {
+      if (!isLeaseHeld() || !this.leaseCacheable || this.leaseRevoked) {
+        return false;
+      }
+      this.leaseRevoked = true;
+      return true;
+    }
+
     /**
      * Returns the identity of the thread that has this lock leased.
      * <p>
@@ -3156,6 +3340,7 @@ public class DLockGrantor {
           this.leaseId = -1;
           this.lesseeThread = null;
           this.leaseExpireTime = -1;
+          this.leaseCacheable = false;
 
           if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
             logger.trace(LogMarker.DLS_VERBOSE, "[checkForExpiration] Expired token at {}: {}",
@@ -3279,6 +3464,7 @@ public class DLockGrantor {
         this.leaseId = -1;
         this.lesseeThread = null;
         this.leaseExpireTime = -1;
+        this.leaseCacheable = false;
 
         return true;
       }
@@ -3473,7 +3659,8 @@ public class DLockGrantor {
           } // synchronized
           long statStart = stats.startGrantorThread();
           try {
-            Collection grants = this.grantor.snapshotGrantTokens();
+            // only the grants whose lease expire time or request timeout has passed
+            Collection grants = this.grantor.pollDueGrants();
 
             // TASK: expire and grant locks
             if (this.shutdown) {
@@ -3483,15 +3670,7 @@ public class DLockGrantor {
               logger.trace(LogMarker.DLS_VERBOSE,
                   "DLockGrantorThread about to expireAndGrantLocks...");
             }
-            {
-              long smallestExpire = this.grantor.expireAndGrantLocks(grants.iterator());
-              synchronized (this.lock) {
-                if (smallestExpire < this.nextExpire) {
-                  this.nextExpire = smallestExpire;
-                }
-
-              }
-            }
+            this.grantor.expireAndGrantLocks(grants.iterator());
             long timing = stats.endGrantorThreadExpireAndGrantLocks(statStart);
 
             // TASK: timeout waiting requests
@@ -3503,11 +3682,13 @@ public class DLockGrantor {
                   "DLockGrantorThread about to handleRequestTimeouts...");
             }
             {
-              long smallestRequestTimeout = this.grantor.handleRequestTimeouts(grants.iterator());
+              this.grantor.handleRequestTimeouts(grants.iterator());
               long smallestSuspendTimeout = this.grantor.handleSuspendTimeouts();
+              // the due grants were filed again under their next deadlines
+              long nextGrantDeadline = this.grantor.nextGrantDeadline();
               synchronized (this.lock) {
-                if (smallestRequestTimeout < this.nextTimeout) {
-                  this.nextTimeout = smallestRequestTimeout;
+                if (nextGrantDeadline < this.nextExpire) {
+                  this.nextExpire = nextGrantDeadline;
                 }
                 if (smallestSuspendTimeout < this.nextTimeout) {
                   this.nextTimeout = smallestSuspendTimeout;
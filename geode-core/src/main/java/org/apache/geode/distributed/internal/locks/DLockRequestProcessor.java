@@ -39,9 +39,11 @@ import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.ReplyProcessor21;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.Assert;
+import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.SerializationContext;
+import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -134,6 +136,7 @@ public class DLockRequestProcessor extends ReplyProcessor21 {
     this.request.grantorVersion = lockGrantorId.getLockGrantorVersion();
     this.request.grantorSerialNumber = lockGrantorId.getLockGrantorSerialNumber();
     this.request.dlsSerialNumber = svc.getSerialNumber();
+    this.request.leaseCacheable = !reentrant && svc.isLeaseCacheable(objectName, this.grantor);
 
     this.request.setRecipient(grantor);
     this.disableAlerts = disableAlerts;
@@ -197,6 +200,13 @@ public class DLockRequestProcessor extends ReplyProcessor21 {
     return this.response.leaseExpireTime;
   }
 
+  /**
+   * Returns true if the lease requested by this processor may be cached after it is unlocked.
+   */
+  boolean isLeaseCacheable() {
+    return this.request.leaseCacheable;
+  }
+
   protected boolean requestLock(boolean interruptible, int lockId) throws InterruptedException {
     final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
 
@@ -423,6 +433,9 @@ public class DLockRequestProcessor extends ReplyProcessor21 {
     /** serial number of the DLockService that originated this request */
     protected int dlsSerialNumber;
 
+    /** True if the requestor may keep the lease cached after unlocking it */
+    protected boolean leaseCacheable;
+
     protected transient DLockService svc;
     protected transient DLockGrantor grantor;
     private transient long statStart = -1;
@@ -469,6 +482,10 @@ public class DLockRequestProcessor extends ReplyProcessor21 {
       return this.lockId;
     }
 
+    public boolean isLeaseCacheable() {
+      return this.leaseCacheable;
+    }
+
     public int getThreadId() {
       return this.threadId;
     }
@@ -939,6 +956,10 @@ public class DLockRequestProcessor extends ReplyProcessor21 {
       out.writeLong(this.grantorVersion);
       out.writeInt(this.grantorSerialNumber);
       out.writeInt(this.dlsSerialNumber);
+      if (InternalDataSerializer.getVersionForDataStream(out)
+          .compareTo(Version.GEODE_1_12_0) >= 0) {
+        out.writeBoolean(this.leaseCacheable);
+      }
     }
 
     @Override
@@ -958,6 +979,9 @@ public class DLockRequestProcessor extends ReplyProcessor21 {
       this.grantorVersion = in.readLong();
       this.grantorSerialNumber = in.readInt();
       this.dlsSerialNumber = in.readInt();
+      if (InternalDataSerializer.getVersionForDataStream(in).compareTo(Version.GEODE_1_12_0) >= 0) {
+        this.leaseCacheable = in.readBoolean();
+      }
     }
 
     @Override
@@ -978,6 +1002,7 @@ public class DLockRequestProcessor extends ReplyProcessor21 {
       sb.append(" grantorVersion=" + this.grantorVersion);
       sb.append(" grantorSerialNumber=" + this.grantorSerialNumber);
       sb.append(" dlsSerialNumber=" + this.dlsSerialNumber);
+      sb.append(" leaseCacheable=" + this.leaseCacheable);
       sb.append("}");
       return sb.toString();
     }
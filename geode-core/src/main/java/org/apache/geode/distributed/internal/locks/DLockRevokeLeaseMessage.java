@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.LockServiceDestroyedException;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.HighPriorityDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.SerializationContext;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * Sent by the grantor to the lessee of a cacheable lease when another request is waiting for the
+ * lock. The lessee releases the lease with the grantor if it is cached, or releases it instead of
+ * caching it when it is next unlocked. No reply is expected since the waiting request is granted
+ * once the release reaches the grantor.
+ *
+ * @since Geode 1.12
+ */
+public class DLockRevokeLeaseMessage extends HighPriorityDistributionMessage {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The name of the DistributedLockService */
+  private String serviceName;
+
+  /** The name of the lock */
+  private Object objectName;
+
+  /** The id of the lease to give back */
+  private int lockId;
+
+  public DLockRevokeLeaseMessage() {}
+
+  /**
+   * Asks the lessee to give back its lease on the named lock.
+   */
+  static void send(DistributionManager dm, InternalDistributedMember lessee, String serviceName,
+      Object objectName, int lockId) {
+    DLockRevokeLeaseMessage msg = new DLockRevokeLeaseMessage();
+    msg.serviceName = serviceName;
+    msg.objectName = objectName;
+    msg.lockId = lockId;
+    if (dm.getId().equals(lessee)) {
+      msg.setSender(lessee);
+      msg.executeRevoke(dm);
+    } else {
+      msg.setRecipient(lessee);
+      dm.putOutgoing(msg);
+    }
+  }
+
+  @Override
+  protected void process(ClusterDistributionManager dm) {
+    executeRevoke(dm);
+  }
+
+  /**
+   * Revokes the lease in the waiting pool because releasing it with the grantor waits for a reply.
+   */
+  private void executeRevoke(DistributionManager dm) {
+    final DLockService svc = DLockService.getInternalServiceNamed(this.serviceName);
+    if (svc == null) {
+      return;
+    }
+    try {
+      dm.getExecutors().getWaitingThreadPool().execute(() -> revoke(svc));
+    } catch (RejectedExecutionException e) {
+      // shutting down
+    }
+  }
+
+  private void revoke(DLockService svc) {
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "[DLockRevokeLeaseMessage.revoke] {}", this);
+    }
+    try {
+      svc.revokeCachedLease(this.objectName, this.lockId);
+    } catch (CancelException | LockServiceDestroyedException e) {
+      // the grantor will release the lease when it learns that this member or service is gone
+    }
+  }
+
+  @Override
+  public int getDSFID() {
+    return DLOCK_REVOKE_LEASE_MESSAGE;
+  }
+
+  @Override
+  public void toData(DataOutput out,
+      SerializationContext context) throws IOException {
+    super.toData(out, context);
+    DataSerializer.writeString(this.serviceName, out);
+    DataSerializer.writeObject(this.objectName, out);
+    out.writeInt(this.lockId);
+  }
+
+  @Override
+  public void fromData(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
+    super.fromData(in, context);
+    this.serviceName = DataSerializer.readString(in);
+    this.objectName = DataSerializer.readObject(in);
+    this.lockId = in.readInt();
+  }
+
+  @Override
+  public String toString() {
+    return "DLockRevokeLeaseMessage (serviceName='" + this.serviceName + "' objectName="
+        + this.objectName + " lockId=" + this.lockId + " sender=" + getSender() + ")";
+  }
+}
@@ -86,6 +86,9 @@ public class DLockService extends DistributedLockService {
   private static final boolean AUTOMATE_FREE_RESOURCES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DLockService.automateFreeResources");
 
+  private static final boolean CACHE_LEASES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DLockService.cacheLeases");
+
   static final int INVALID_LEASE_ID = -1;
 
   /** Unique name for this instance of the named locking service */
@@ -143,8 +146,8 @@ public class DLockService extends DistributedLockService {
   private volatile DLockGrantor grantor;
 
   /**
-   * Count of currently active locks and lock requests. Used to determine if destroy must tell the
-   * grantor to release all held locks.
+   * Count of currently active locks, cached leases and lock requests. Used to determine if destroy
+   * must tell the grantor to release all held locks.
    */
   private int activeLocks = 0;
 
@@ -154,6 +157,12 @@ public class DLockService extends DistributedLockService {
   /** True if this service should automatically freeResources */
   private final boolean automateFreeResources;
 
+  /**
+   * True if leases should be kept after unlocking them so that the same thread can lock again
+   * without asking the grantor. The grantor revokes a cached lease when another request needs it.
+   */
+  private volatile boolean leaseCaching;
+
   /** Identifies the thread that is destroying this lock service. */
   private final ThreadLocal<Boolean> destroyingThread = new ThreadLocal<Boolean>();
 
@@ -1203,7 +1212,7 @@ public class DLockService extends DistributedLockService {
         return false;
       synchronized (token) {
         token.checkForExpiration();
-        if (token.getLesseeThread() == null) {
+        if (token.getLesseeThread() == null || token.isLeaseCached()) {
           return false;
         }
         return token.getLesseeThread().getThreadId() == threadId;
@@ -1444,6 +1453,15 @@ public class DLockService extends DistributedLockService {
 
           LockGrantorId theLockGrantorId = getLockGrantorId();
 
+          if (!reentrant && claimCachedLease(token, theLockGrantorId, threadId, requestLeaseTime)) {
+            if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+              logger.trace(LogMarker.DLS_VERBOSE, "{}, name: {} - claimed cached lease: {}", this,
+                  name, token);
+            }
+            gotLock = true;
+            break;
+          }
+
           if (reentrant) {
             Assert.assertTrue(lockId > -1, "Reentrant lock must have lockId > -1");
             // lockId = token.getLockId(); // keep lockId
@@ -1574,6 +1592,96 @@ public class DLockService extends DistributedLockService {
     }
   }
 
+  /**
+   * Grants the lease that the calling thread cached on the named lock back to that thread if it
+   * was granted by the current grantor and lasts long enough. Otherwise a cached lease is released
+   * so that the lock can be requested from the grantor.
+   *
+   * @return true if the calling thread now holds the lock
+   */
+  private boolean claimCachedLease(DLockToken token, LockGrantorId theLockGrantorId, int threadId,
+      long requestLeaseTime) {
+    boolean claimed;
+    LockGrantorId leaseGrantorId = null;
+    int releasedLeaseId = -1;
+    synchronized (token) {
+      if (!token.isLeaseCached()) {
+        return false;
+      }
+      long leaseLimit = requestLeaseTime;
+      if (leaseLimit < Long.MAX_VALUE) {
+        leaseLimit += token.getCurrentTime();
+        if (leaseLimit < 0) {
+          leaseLimit = Long.MAX_VALUE;
+        }
+      }
+      RemoteThread rThread = new RemoteThread(getDistributionManager().getId(), threadId);
+      claimed = token.claimCachedLease(theLockGrantorId, rThread, leaseLimit);
+      if (claimed) {
+        // the cached lease already accounts for the usage added by this lock request
+        token.decUsage();
+      } else {
+        leaseGrantorId = token.getLeaseGrantorId();
+        releasedLeaseId = token.releaseCachedLease();
+      }
+    }
+    // the cached lease is still counted as an active lock
+    decActiveLocks();
+    if (claimed) {
+      return true;
+    }
+    // a lease from an older grantor is unknown to the current grantor
+    if (theLockGrantorId.sameAs(leaseGrantorId)) {
+      releaseCachedLease(token.getName(), releasedLeaseId);
+    }
+    return false;
+  }
+
+  /**
+   * Releases a cached lease with the grantor after it has been released locally.
+   */
+  private void releaseCachedLease(Object name, int lockId) {
+    boolean released = false;
+    while (!released) {
+      checkDestroyed();
+      LockGrantorId theLockGrantorId = getLockGrantorId();
+      try {
+        released = callReleaseProcessor(theLockGrantorId.getLockGrantorMember(), name, false,
+            lockId);
+      } catch (LockGrantorDestroyedException e) {
+        // loop back around to get next lock grantor
+      } catch (LockServiceDestroyedException e) {
+        // done... NonGrantorDestroyedMessage will release locks for us
+        released = true;
+      } finally {
+        if (!released) {
+          notLockGrantorId(theLockGrantorId, 0, TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gives back the named lease at the request of the grantor. A cached lease is released now,
+   * otherwise the lease will be released instead of cached when it is next unlocked.
+   *
+   * @param name the name of the lock
+   * @param lockId the id of the lease to give back
+   */
+  void revokeCachedLease(Object name, int lockId) {
+    DLockToken token = getToken(name);
+    if (token == null) {
+      return;
+    }
+    synchronized (token) {
+      if (!token.revokeLease(lockId)) {
+        return;
+      }
+    }
+    decActiveLocks();
+    releaseCachedLease(name, lockId);
+  }
+
   private boolean grantLocalDLockAfterObtainingRemoteLock(Object name, DLockToken token,
       int threadId, long leaseExpireTime, int lockId, LockGrantorId theLockGrantorId,
       DLockRequestProcessor processor, int recursion) {
@@ -1601,7 +1709,12 @@ public class DLockService extends DistributedLockService {
           checkDestroyed();
           Assert.assertTrue(token == basicGetToken(name));
           RemoteThread rThread = new RemoteThread(getDistributionManager().getId(), threadId);
-          token.grantLock(leaseExpireTime, lockId, recursion, rThread);
+          synchronized (token) {
+            token.grantLock(leaseExpireTime, lockId, recursion, rThread);
+            if (recursion == 0) {
+              token.setLeaseGrantorId(processor.isLeaseCacheable() ? theLockGrantorId : null);
+            }
+          }
           return true;
         } // tokens sync
       }
@@ -1737,6 +1850,7 @@ public class DLockService extends DistributedLockService {
 
     boolean hadRecursion = false;
     boolean unlocked = false;
+    boolean cached = false;
     int lockId = -1;
     DLockToken token = null;
     RemoteThread rThread = null;
@@ -1759,7 +1873,7 @@ public class DLockService extends DistributedLockService {
         synchronized (token) {
           token.checkForExpiration();
           rThread = token.getLesseeThread();
-          if (!token.isLeaseHeldByCurrentOrRemoteThread(rThread)) {
+          if (token.isLeaseCached() || !token.isLeaseHeldByCurrentOrRemoteThread(rThread)) {
             token.throwIfCurrentThreadHadExpiredLease();
             if (isDebugEnabled_DLS) {
               logger.trace(LogMarker.DLS_VERBOSE, "{}, [unlock] {} not leased by this thread.",
@@ -1776,13 +1890,15 @@ public class DLockService extends DistributedLockService {
           Assert.assertTrue(lockId > -1);
           if (hadRecursion) {
             unlocked = token.releaseLock(lockId, rThread);
+          } else if (token.cacheLease(lockId)) {
+            cached = true;
           } else {
             token.setIgnoreForRecovery(true);
           }
         } // token sync
       } // tokens map sync
 
-      if (!hadRecursion) {
+      if (!hadRecursion && !cached) {
         boolean lockBatch = false;
         boolean released = false;
 
@@ -1812,7 +1928,7 @@ public class DLockService extends DistributedLockService {
     } // try
     finally {
       try {
-        if (!hadRecursion && lockId > -1 && token != null) {
+        if (!hadRecursion && !cached && lockId > -1 && token != null) {
           decActiveLocks();
           if (!unlocked) {
             // // token is still held if grantor was remote, so now we unlock...
@@ -1937,6 +2053,7 @@ public class DLockService extends DistributedLockService {
     this.isDistributed = isDistributed;
     this.destroyOnDisconnect = destroyOnDisconnect;
     this.automateFreeResources = automateFreeResources || AUTOMATE_FREE_RESOURCES;
+    this.leaseCaching = isDistributed && CACHE_LEASES;
   }
 
   // -------------------------------------------------------------------------
@@ -2137,6 +2254,30 @@ public class DLockService extends DistributedLockService {
     return this.isDistributed;
   }
 
+  /** Returns true if this service keeps leases cached after unlocking them */
+  public boolean isLeaseCaching() {
+    return this.leaseCaching;
+  }
+
+  /**
+   * Sets whether this service keeps leases cached after unlocking them. Only affects leases that
+   * are requested afterwards, and is ignored if this service is not distributed.
+   */
+  public void setLeaseCaching(boolean leaseCaching) {
+    this.leaseCaching = leaseCaching && this.isDistributed;
+  }
+
+  /**
+   * Returns true if a lease on the named lock requested from the grantor may be cached. Suspend
+   * locking and lock batches are never cached, and a grantor older than 1.12 cannot revoke a
+   * lease.
+   */
+  boolean isLeaseCacheable(Object name, InternalDistributedMember grantorMember) {
+    return this.leaseCaching && !(name instanceof DLockBatch)
+        && !SUSPEND_LOCKING_TOKEN.equals(name)
+        && grantorMember.getVersionObject().compareTo(Version.GEODE_1_12_0) >= 0;
+  }
+
   public void setDLockLessorDepartureHandler(DLockLessorDepartureHandler handler) {
     this.lessorDepartureHandler = handler;
   }
@@ -2376,11 +2517,17 @@ public class DLockService extends DistributedLockService {
     }
 
     final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
+    int releasedCachedLeases = 0;
     synchronized (this.lockGrantorIdLock) {
       synchronized (this.tokens) {
         // build up set of currently held locks
         for (DLockToken token : this.tokens.values()) {
           synchronized (token) {
+            if (token.releaseCachedLease() > -1) {
+              // the new grantor would not know that the lease is cacheable
+              releasedCachedLeases++;
+            }
+            token.setLeaseGrantorId(null);
             if (token.isLeaseHeld()) {
 
               // skip over token if ignoreForRecovery is true
@@ -2403,9 +2550,12 @@ public class DLockService extends DistributedLockService {
           } // token sync
         } // tokens iter
       } // tokens sync
+    }
 
-      return heldLockSet;
+    for (int i = 0; i < releasedCachedLeases; i++) {
+      decActiveLocks();
     }
+    return heldLockSet;
   }
 
   /**
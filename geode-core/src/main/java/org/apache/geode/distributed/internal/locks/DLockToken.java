@@ -101,6 +101,23 @@ public class DLockToken {
    */
   private boolean ignoreForRecovery = false;
 
+  /**
+   * The grantor that granted the current lease as cacheable, or null if the lease must be released
+   * with the grantor when it is unlocked.
+   */
+  private LockGrantorId leaseGrantorId = null;
+
+  /**
+   * True if the current lease was kept after its last unlock so that the lessee thread can lock
+   * again without a round trip to the grantor.
+   */
+  private boolean leaseCached = false;
+
+  /**
+   * Id of the last lease the grantor asked this member to give back, or -1.
+   */
+  private int revokedLeaseId = -1;
+
   // -------------------------------------------------------------------------
   // Constructors
   // -------------------------------------------------------------------------
@@ -201,6 +218,30 @@ public class DLockToken {
     return this.lesseeThread;
   }
 
+  /**
+   * Returns the grantor that granted the current lease as cacheable or null. Caller must
+   * synchronize on this lock token.
+   */
+  LockGrantorId getLeaseGrantorId() {
+    return this.leaseGrantorId;
+  }
+
+  /**
+   * Sets the grantor that granted the current lease as cacheable, or null if the lease is not
+   * cacheable. Caller must synchronize on this lock token.
+   */
+  void setLeaseGrantorId(LockGrantorId grantorId) {
+    this.leaseGrantorId = grantorId;
+  }
+
+  /**
+   * Returns true if the current lease is cached: it is held by no thread but has not been released
+   * with the grantor. Caller must synchronize on this lock token.
+   */
+  boolean isLeaseCached() {
+    return this.leaseCached;
+  }
+
   /**
    * Increment usage count for this lock token. Caller must synchronize on this lock token.
    */
@@ -283,7 +324,9 @@ public class DLockToken {
           logger.trace(LogMarker.DLS_VERBOSE, "[checkForExpiration] Expiring token at {}: {}",
               currentTime, this);
         }
-        noteExpiredLease();
+        if (!this.leaseCached) {
+          noteExpiredLease();
+        }
         basicReleaseLock();
         expired = true;
       }
@@ -322,6 +365,86 @@ public class DLockToken {
     }
   }
 
+  /**
+   * Keeps the current lease after its last unlock instead of releasing it with the grantor. The
+   * lease stays held by the lessee thread until that thread claims it again with
+   * {@link #claimCachedLease}, or until it is released by {@link #releaseCachedLease}. Caller must
+   * synchronize on this lock token.
+   *
+   * @param leaseIdToCache the lease id being unlocked
+   * @return false if the lease was not granted as cacheable or the grantor has revoked it, in which
+   *         case the lease must be released normally
+   */
+  boolean cacheLease(int leaseIdToCache) {
+    if (this.leaseGrantorId == null || leaseIdToCache != this.leaseId
+        || leaseIdToCache == this.revokedLeaseId || this.destroyed) {
+      return false;
+    }
+    this.thread = null;
+    this.recursion = 0;
+    this.leaseCached = true;
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "[DLockToken.cacheLease] cached {}", this);
+    }
+    return true;
+  }
+
+  /**
+   * Grants the cached lease to the calling thread if that thread is its lessee, the lease was
+   * granted by the given grantor, and it lasts at least until the given time. The usage count is
+   * left as it was when the lease was cached. Caller must synchronize on this lock token.
+   *
+   * @param grantorId the current grantor
+   * @param remoteThread identity of the calling thread
+   * @param leaseLimit absolute time the lease must not expire before, or Long.MAX_VALUE
+   * @return true if the calling thread now holds the lease
+   */
+  boolean claimCachedLease(LockGrantorId grantorId, RemoteThread remoteThread, long leaseLimit) {
+    if (!this.leaseCached || grantorId == null || !grantorId.sameAs(this.leaseGrantorId)
+        || !remoteThread.equals(this.lesseeThread) || this.leaseExpireTime < leaseLimit) {
+      return false;
+    }
+    this.thread = Thread.currentThread();
+    this.leaseCached = false;
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "[DLockToken.claimCachedLease] claimed {}", this);
+    }
+    return true;
+  }
+
+  /**
+   * Releases the cached lease locally. The caller is responsible for releasing it with the grantor
+   * that granted it. Caller must synchronize on this lock token.
+   *
+   * @return the id of the released lease or -1 if no lease was cached
+   */
+  int releaseCachedLease() {
+    if (!this.leaseCached) {
+      return -1;
+    }
+    int releasedLeaseId = this.leaseId;
+    basicReleaseLock();
+    return releasedLeaseId;
+  }
+
+  /**
+   * Notes that the grantor wants the given lease back. A cached lease is released locally, and a
+   * lease that is in use will be released with the grantor rather than cached when it is unlocked.
+   * Caller must synchronize on this lock token.
+   *
+   * @param leaseIdToRevoke the lease id the grantor wants back
+   * @return true if the lease was cached and has been released locally, in which case the caller
+   *         must release it with the grantor
+   */
+  boolean revokeLease(int leaseIdToRevoke) {
+    this.revokedLeaseId = leaseIdToRevoke;
+    if (this.leaseCached && this.leaseId == leaseIdToRevoke) {
+      basicReleaseLock();
+      return true;
+    }
+    return false;
+  }
+
   /**
    * Returns true if there's currently a lease on this lock token. Synchronizes on this lock token.
    *
@@ -444,6 +567,8 @@ public class DLockToken {
     this.thread = null;
     this.recursion = 0;
     this.ignoreForRecovery = false;
+    this.leaseGrantorId = null;
+    this.leaseCached = false;
 
     decUsage();
   }
@@ -533,7 +658,8 @@ public class DLockToken {
       return "DLockToken" + "@" + Integer.toHexString(hashCode()) + ", name: " + this.name
           + ", thread: <" + getThreadName() + ">" + ", recursion: " + this.recursion
           + ", leaseExpireTime: " + this.leaseExpireTime + ", leaseId: " + this.leaseId
-          + ", ignoreForRecovery: " + this.ignoreForRecovery + ", lesseeThread: "
+          + ", ignoreForRecovery: " + this.ignoreForRecovery + ", leaseCached: "
+          + this.leaseCached + ", lesseeThread: "
           + this.lesseeThread + ", usageCount: " + this.usageCount + ", currentTime: "
           + getCurrentTime();
     }
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Files items, such as grant tokens, under the time at which they next need attention on a hashed
+ * timing wheel, so that the thread handling them only visits the items that are due rather than
+ * scanning every item on each wakeup.
+ * <p>
+ * Each slot of the wheel spans one tick. An item is filed in the slot of its deadline and stays
+ * there across rotations of the wheel until its deadline has passed. Only the earliest deadline of
+ * an item is kept; scheduling a later one is ignored. Entries left behind in a slot by an item that
+ * was rescheduled earlier are dropped when their slot is next visited.
+ * <p>
+ * Synchronizes on this wheel.
+ *
+ * @since Geode 1.12
+ */
+class GrantDeadlineWheel<T> {
+  private static final long UNSET = Long.MIN_VALUE;
+
+  private final long tickMillis;
+
+  private final int mask;
+
+  private final List<T>[] slots;
+
+  /** The earliest deadline of each scheduled item */
+  private final Map<T, Long> deadlines = new HashMap<>();
+
+  /** The first tick that has not been passed yet, or UNSET before the first poll */
+  private long cursor = UNSET;
+
+  /**
+   * @param tickMillis the number of milliseconds spanned by a slot
+   * @param slotCount the number of slots, rounded up to a power of two
+   */
+  @SuppressWarnings("unchecked")
+  GrantDeadlineWheel(long tickMillis, int slotCount) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+    }
+    int size = slotCount <= 1 ? 1 : Integer.highestOneBit(slotCount - 1) << 1;
+    this.tickMillis = tickMillis;
+    this.mask = size - 1;
+    this.slots = new List[size];
+    for (int i = 0; i < size; i++) {
+      this.slots[i] = new ArrayList<>();
+    }
+  }
+
+  /**
+   * Schedules the item to be returned by {@link #pollDue} once the deadline has passed.
+   *
+   * @param deadline the time in millis, or Long.MAX_VALUE for never
+   * @return true if this is now the earliest deadline of the item
+   */
+  synchronized boolean schedule(T item, long deadline) {
+    if (deadline == Long.MAX_VALUE) {
+      return false;
+    }
+    Long current = this.deadlines.get(item);
+    if (current != null && current <= deadline) {
+      return false;
+    }
+    this.deadlines.put(item, deadline);
+    // a deadline that has already been passed is filed under the first tick not passed yet
+    long tick = this.cursor == UNSET ? tickOf(deadline) : Math.max(tickOf(deadline), this.cursor);
+    this.slots[slotOf(tick)].add(item);
+    return true;
+  }
+
+  /**
+   * Removes and returns the items whose deadlines are at or before now.
+   */
+  synchronized List<T> pollDue(long now) {
+    if (this.deadlines.isEmpty()) {
+      advanceTo(now);
+      return Collections.emptyList();
+    }
+    long nowTick = tickOf(now);
+    long first;
+    long last;
+    if (this.cursor == UNSET) {
+      first = nowTick - this.mask;
+      last = nowTick;
+    } else {
+      first = this.cursor;
+      last = Math.min(nowTick, this.cursor + this.mask);
+    }
+    List<T> due = new ArrayList<>();
+    for (long tick = first; tick <= last; tick++) {
+      List<T> slot = this.slots[slotOf(tick)];
+      int kept = 0;
+      for (int i = 0; i < slot.size(); i++) {
+        T item = slot.get(i);
+        Long deadline = this.deadlines.get(item);
+        if (deadline == null) {
+          continue; // already returned
+        }
+        if (deadline <= now) {
+          this.deadlines.remove(item);
+          due.add(item);
+        } else {
+          slot.set(kept++, item);
+        }
+      }
+      slot.subList(kept, slot.size()).clear();
+    }
+    advanceTo(now);
+    return due;
+  }
+
+  private void advanceTo(long now) {
+    long nowTick = tickOf(now);
+    if (this.cursor == UNSET || nowTick > this.cursor) {
+      this.cursor = nowTick;
+    }
+  }
+
+  /**
+   * Returns the earliest deadline of the items filed in the current rotation of the wheel, the end
+   * of the rotation if all items are filed beyond it, or Long.MAX_VALUE if there are no items.
+   */
+  synchronized long nextDeadline() {
+    if (this.deadlines.isEmpty()) {
+      return Long.MAX_VALUE;
+    }
+    if (this.cursor == UNSET) {
+      return Collections.min(this.deadlines.values());
+    }
+    for (long tick = this.cursor; tick <= this.cursor + this.mask; tick++) {
+      long tickEnd = (tick + 1) * this.tickMillis;
+      long earliest = Long.MAX_VALUE;
+      for (T item : this.slots[slotOf(tick)]) {
+        Long deadline = this.deadlines.get(item);
+        if (deadline != null && deadline < tickEnd && deadline < earliest) {
+          earliest = deadline;
+        }
+      }
+      if (earliest != Long.MAX_VALUE) {
+        return earliest;
+      }
+    }
+    return (this.cursor + this.mask + 1) * this.tickMillis;
+  }
+
+  /**
+   * Returns the number of scheduled items.
+   */
+  synchronized int size() {
+    return this.deadlines.size();
+  }
+
+  private long tickOf(long millis) {
+    return Math.floorDiv(millis, this.tickMillis);
+  }
+
+  private int slotOf(long tick) {
+    return (int) tick & this.mask;
+  }
+}
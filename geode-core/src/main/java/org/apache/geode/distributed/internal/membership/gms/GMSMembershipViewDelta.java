@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.geode.distributed.internal.membership.gms.api.MemberIdentifier;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.SerializationContext;
+import org.apache.geode.internal.serialization.StaticSerialization;
+
+/**
+ * The difference between a membership view and a base view that its recipients are expected to
+ * hold already. Members of the base view are written as their index in the base view, so the size
+ * of a delta depends on the number of joins and departures rather than on the size of the view. A
+ * delta can only be applied to the exact base it was created from; {@link #apply} returns null for
+ * any other view and the recipient must then be sent the full view.
+ *
+ * @since Geode 1.12
+ */
+public class GMSMembershipViewDelta {
+  private int baseViewId;
+  private long baseFingerprint;
+  private int viewId;
+
+  /**
+   * Member references are indexes into the members of the base view when non-negative, otherwise
+   * -(i + 1) for the i'th element of {@link #ids}
+   */
+  private int creator;
+  private int[] members;
+  private int[] shutdownMembers;
+  private int[] crashedMembers;
+  private List<MemberIdentifier> ids;
+
+  /** failure detection ports that differ from the base, by position in the new member list */
+  private int[] portPositions;
+  private int[] ports;
+
+  /** public keys that differ from the base, by position in the new member list */
+  private int[] keyPositions;
+  private Object[] keys;
+
+  private GMSMembershipViewDelta() {
+    // created by create() or readFrom()
+  }
+
+  /**
+   * Returns the delta that turns the base view into the given view.
+   */
+  public static GMSMembershipViewDelta create(GMSMembershipView base, GMSMembershipView view) {
+    GMSMembershipViewDelta delta = new GMSMembershipViewDelta();
+    List<MemberIdentifier> baseMembers = base.getMembers();
+    Map<MemberIdentifier, Integer> baseIndexes = new HashMap<>(baseMembers.size() * 2);
+    for (int i = 0; i < baseMembers.size(); i++) {
+      baseIndexes.put(baseMembers.get(i), i);
+    }
+    Map<MemberIdentifier, Integer> refs = new HashMap<>();
+    delta.baseViewId = base.getViewId();
+    delta.baseFingerprint = fingerprint(base);
+    delta.viewId = view.getViewId();
+    delta.ids = new ArrayList<>();
+    delta.creator = delta.reference(view.getCreator(), baseMembers, baseIndexes, refs);
+    delta.members = delta.references(view.getMembers(), baseMembers, baseIndexes, refs);
+    delta.shutdownMembers =
+        delta.references(view.getShutdownMembers(), baseMembers, baseIndexes, refs);
+    delta.crashedMembers =
+        delta.references(view.getCrashedMembers(), baseMembers, baseIndexes, refs);
+
+    List<MemberIdentifier> viewMembers = view.getMembers();
+    int[] viewPorts = view.getFailureDetectionPorts();
+    int[] basePorts = base.getFailureDetectionPorts();
+    List<Integer> portPositions = new ArrayList<>();
+    List<Integer> keyPositions = new ArrayList<>();
+    for (int i = 0; i < viewMembers.size(); i++) {
+      int ref = delta.members[i];
+      int port = i < viewPorts.length ? viewPorts[i] : -1;
+      int basePort = ref >= 0 && ref < basePorts.length ? basePorts[ref] : -1;
+      if (port != basePort) {
+        portPositions.add(i);
+      }
+      MemberIdentifier mbr = viewMembers.get(i);
+      Object baseKey = ref >= 0 ? base.getPublicKey(baseMembers.get(ref)) : null;
+      if (!Objects.deepEquals(view.getPublicKey(mbr), baseKey)) {
+        keyPositions.add(i);
+      }
+    }
+    delta.portPositions = new int[portPositions.size()];
+    delta.ports = new int[portPositions.size()];
+    for (int i = 0; i < delta.portPositions.length; i++) {
+      delta.portPositions[i] = portPositions.get(i);
+      delta.ports[i] = viewPorts[delta.portPositions[i]];
+    }
+    delta.keyPositions = new int[keyPositions.size()];
+    delta.keys = new Object[keyPositions.size()];
+    for (int i = 0; i < delta.keyPositions.length; i++) {
+      delta.keyPositions[i] = keyPositions.get(i);
+      delta.keys[i] = view.getPublicKey(viewMembers.get(delta.keyPositions[i]));
+    }
+    return delta;
+  }
+
+  private int[] references(Collection<MemberIdentifier> mbrs, List<MemberIdentifier> baseMembers,
+      Map<MemberIdentifier, Integer> baseIndexes, Map<MemberIdentifier, Integer> refs) {
+    if (mbrs == null) {
+      return new int[0];
+    }
+    int[] result = new int[mbrs.size()];
+    int i = 0;
+    for (MemberIdentifier mbr : mbrs) {
+      result[i++] = reference(mbr, baseMembers, baseIndexes, refs);
+    }
+    return result;
+  }
+
+  private int reference(MemberIdentifier mbr, List<MemberIdentifier> baseMembers,
+      Map<MemberIdentifier, Integer> baseIndexes, Map<MemberIdentifier, Integer> refs) {
+    Integer index = baseIndexes.get(mbr);
+    // an equal ID from another incarnation of the member must be sent in full
+    if (index != null && baseMembers.get(index).getVmViewId() == mbr.getVmViewId()) {
+      return index;
+    }
+    Integer ref = refs.get(mbr);
+    if (ref == null) {
+      this.ids.add(mbr);
+      ref = -this.ids.size();
+      refs.put(mbr, ref);
+    }
+    return ref;
+  }
+
+  /**
+   * Returns true if this delta was created from the given view.
+   */
+  public boolean isBasedOn(GMSMembershipView view) {
+    return view != null && view.getViewId() == this.baseViewId
+        && fingerprint(view) == this.baseFingerprint;
+  }
+
+  /**
+   * Returns the view described by this delta, or null if it was not created from the given base.
+   */
+  public GMSMembershipView apply(GMSMembershipView base) {
+    if (!isBasedOn(base)) {
+      return null;
+    }
+    List<MemberIdentifier> baseMembers = base.getMembers();
+    List<MemberIdentifier> viewMembers = new ArrayList<>(this.members.length);
+    for (int ref : this.members) {
+      viewMembers.add(resolve(ref, baseMembers));
+    }
+    GMSMembershipView view = new GMSMembershipView(resolve(this.creator, baseMembers),
+        this.viewId, viewMembers, resolveAll(this.shutdownMembers, baseMembers),
+        resolveAll(this.crashedMembers, baseMembers));
+    int[] basePorts = base.getFailureDetectionPorts();
+    int[] viewPorts = view.getFailureDetectionPorts();
+    for (int i = 0; i < this.members.length; i++) {
+      int ref = this.members[i];
+      if (ref >= 0 && ref < basePorts.length) {
+        viewPorts[i] = basePorts[ref];
+      }
+    }
+    for (int i = 0; i < this.portPositions.length; i++) {
+      viewPorts[this.portPositions[i]] = this.ports[i];
+    }
+    // key positions are in ascending order
+    int changedKey = 0;
+    for (int i = 0; i < this.members.length; i++) {
+      if (changedKey < this.keyPositions.length && this.keyPositions[changedKey] == i) {
+        view.setPublicKey(viewMembers.get(i), this.keys[changedKey++]);
+      } else if (this.members[i] >= 0) {
+        view.setPublicKey(viewMembers.get(i), base.getPublicKey(baseMembers.get(this.members[i])));
+      }
+    }
+    return view;
+  }
+
+  private MemberIdentifier resolve(int ref, List<MemberIdentifier> baseMembers) {
+    return ref >= 0 ? baseMembers.get(ref) : this.ids.get(-ref - 1);
+  }
+
+  private Set<MemberIdentifier> resolveAll(int[] refs, List<MemberIdentifier> baseMembers) {
+    Set<MemberIdentifier> result = new HashSet<>(refs.length * 2);
+    for (int ref : refs) {
+      result.add(resolve(ref, baseMembers));
+    }
+    return result;
+  }
+
+  public int getViewId() {
+    return this.viewId;
+  }
+
+  public int getBaseViewId() {
+    return this.baseViewId;
+  }
+
+  /**
+   * Identifies the exact list of members of a view. Member IDs from different incarnations of a
+   * process are equal to each other, so the view ID and UUID of each member are included.
+   */
+  static long fingerprint(GMSMembershipView view) {
+    long result = 1;
+    for (MemberIdentifier mbr : view.getMembers()) {
+      result = 31 * result + mbr.hashCode();
+      result = 31 * result + mbr.getVmViewId();
+      result = 31 * result + mbr.getMemberData().getUuidMostSignificantBits();
+      result = 31 * result + mbr.getMemberData().getUuidLeastSignificantBits();
+    }
+    return result;
+  }
+
+  public void writeTo(DataOutput out, SerializationContext context) throws IOException {
+    out.writeInt(this.baseViewId);
+    out.writeLong(this.baseFingerprint);
+    out.writeInt(this.viewId);
+    out.writeInt(this.creator);
+    StaticSerialization.writeIntArray(this.members, out);
+    StaticSerialization.writeIntArray(this.shutdownMembers, out);
+    StaticSerialization.writeIntArray(this.crashedMembers, out);
+    StaticSerialization.writeArrayLength(this.ids.size(), out);
+    for (MemberIdentifier id : this.ids) {
+      context.getSerializer().writeObject(id, out);
+    }
+    StaticSerialization.writeIntArray(this.portPositions, out);
+    StaticSerialization.writeIntArray(this.ports, out);
+    StaticSerialization.writeIntArray(this.keyPositions, out);
+    for (Object key : this.keys) {
+      context.getSerializer().writeObject(key, out);
+    }
+  }
+
+  public static GMSMembershipViewDelta readFrom(DataInput in, DeserializationContext context)
+      throws IOException, ClassNotFoundException {
+    GMSMembershipViewDelta delta = new GMSMembershipViewDelta();
+    delta.baseViewId = in.readInt();
+    delta.baseFingerprint = in.readLong();
+    delta.viewId = in.readInt();
+    delta.creator = in.readInt();
+    delta.members = StaticSerialization.readIntArray(in);
+    delta.shutdownMembers = StaticSerialization.readIntArray(in);
+    delta.crashedMembers = StaticSerialization.readIntArray(in);
+    int size = StaticSerialization.readArrayLength(in);
+    delta.ids = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      delta.ids.add(context.getDeserializer().readObject(in));
+    }
+    delta.portPositions = StaticSerialization.readIntArray(in);
+    delta.ports = StaticSerialization.readIntArray(in);
+    delta.keyPositions = StaticSerialization.readIntArray(in);
+    delta.keys = new Object[delta.keyPositions.length];
+    for (int i = 0; i < delta.keys.length; i++) {
+      delta.keys[i] = context.getDeserializer().readObject(in);
+    }
+    return delta;
+  }
+
+  @Override
+  public String toString() {
+    return "GMSMembershipViewDelta(viewId=" + this.viewId + "; baseViewId=" + this.baseViewId
+        + "; members=" + this.members.length + "; newIds=" + this.ids + ")";
+  }
+}
@@ -51,6 +51,7 @@ import org.apache.geode.distributed.Locator;
 import org.apache.geode.distributed.internal.ClusterDistributionManager;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipViewDelta;
 import org.apache.geode.distributed.internal.membership.gms.GMSUtil;
 import org.apache.geode.distributed.internal.membership.gms.Services;
 import org.apache.geode.distributed.internal.membership.gms.api.MemberIdentifier;
@@ -114,6 +115,13 @@ public class GMSJoinLeave implements JoinLeave {
   private static final long VIEW_BROADCAST_INTERVAL =
       Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "view-broadcast-interval", 60000);
 
+  /**
+   * whether to always send full membership views instead of sending members that hold the
+   * previous view only the changes made to it
+   */
+  private static final boolean DISABLE_VIEW_DELTAS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disable-view-deltas");
+
   /**
    * membership logger
    */
@@ -173,6 +181,12 @@ public class GMSJoinLeave implements JoinLeave {
    */
   private volatile GMSMembershipView preparedView;
 
+  /**
+   * a copy of the last view this member prepared or installed, as its recipients received it.
+   * This is the base of the view deltas sent for the next view
+   */
+  private volatile GMSMembershipView lastSentView;
+
   /**
    * the last view that conflicted with view preparation
    */
@@ -903,8 +917,6 @@ public class GMSJoinLeave implements JoinLeave {
       throws InterruptedException {
 
     int id = view.getViewId();
-    InstallViewMessage msg = new InstallViewMessage(view,
-        services.getAuthenticator().getCredentials(this.localAddress), preparing);
     List<MemberIdentifier> recips = new ArrayList<>(view.getMembers());
 
     // a recent member was seen not to receive a new view - I think this is why
@@ -941,15 +953,15 @@ public class GMSJoinLeave implements JoinLeave {
 
     logger.info((preparing ? "preparing" : "sending") + " new view " + view);
 
-    msg.setRecipients(recips);
-
     Set<MemberIdentifier> pendingLeaves = getPendingRequestIDs(LEAVE_REQUEST_MESSAGE);
     Set<MemberIdentifier> pendingRemovals = getPendingRequestIDs(REMOVE_MEMBER_REQUEST);
     pendingRemovals.removeAll(view.getCrashedMembers());
     viewReplyProcessor.initialize(id, new HashSet(responders));
     viewReplyProcessor.processPendingRequests(pendingLeaves, pendingRemovals);
     addPublicKeysToView(view);
-    services.getMessenger().send(msg, view);
+    GMSMembershipView base = this.lastSentView;
+    this.lastSentView = new GMSMembershipView(view, view.getViewId());
+    sendInstallViewMessages(view, base, preparing, recips);
 
     // only wait for responses during preparation
     if (preparing) {
@@ -977,6 +989,70 @@ public class GMSJoinLeave implements JoinLeave {
     return true;
   }
 
+  /**
+   * Sends the view to the given recipients. Members of version 1.12 or later that were in the
+   * base view are only sent the changes made to it; they ask for the full view with a
+   * ViewAckMessage if they do not hold the base.
+   */
+  private void sendInstallViewMessages(GMSMembershipView view, GMSMembershipView base,
+      boolean preparing, List<MemberIdentifier> recips) {
+    Object credentials = services.getAuthenticator().getCredentials(this.localAddress);
+    GMSMembershipView current = this.currentView;
+    // another coordinator may have sent views since this member sent the base
+    boolean useDeltas = !DISABLE_VIEW_DELTAS && base != null
+        && (current == null || base.getViewId() >= current.getViewId());
+    List<MemberIdentifier> deltaRecips = new ArrayList<>(recips.size());
+    List<MemberIdentifier> fullRecips = new ArrayList<>();
+    for (MemberIdentifier mbr : recips) {
+      if (useDeltas && base.contains(mbr)
+          && mbr.getVersionOrdinal() >= Version.GEODE_1_12_0.ordinal()) {
+        deltaRecips.add(mbr);
+      } else {
+        fullRecips.add(mbr);
+      }
+    }
+    if (!deltaRecips.isEmpty()) {
+      InstallViewMessage msg = new InstallViewMessage(view,
+          GMSMembershipViewDelta.create(base, view), credentials, preparing);
+      msg.setRecipients(deltaRecips);
+      services.getMessenger().send(msg, view);
+    }
+    if (!fullRecips.isEmpty()) {
+      InstallViewMessage msg = new InstallViewMessage(view, credentials, preparing);
+      msg.setRecipients(fullRecips);
+      services.getMessenger().send(msg, view);
+    }
+  }
+
+  /**
+   * Sends the last view this member sent to a member that could not apply its delta
+   */
+  private void sendFullView(ViewAckMessage request) {
+    GMSMembershipView view = this.lastSentView;
+    if (view == null || view.getViewId() != request.getViewId()) {
+      logger.debug("Not sending full view {} to {} since it has been superseded",
+          request.getViewId(), request.getSender());
+      return;
+    }
+    logger.debug("Sending full view {} to {}", view.getViewId(), request.getSender());
+    InstallViewMessage msg = new InstallViewMessage(view,
+        services.getAuthenticator().getCredentials(this.localAddress), request.isPrepareAck());
+    msg.setRecipient(request.getSender());
+    services.getMessenger().send(msg, view);
+  }
+
+  /**
+   * Returns the view described by the delta, or null if this member holds neither the installed
+   * nor the prepared view that it is based on
+   */
+  private GMSMembershipView applyViewDelta(GMSMembershipViewDelta delta) {
+    GMSMembershipView view = delta.apply(this.currentView);
+    if (view == null) {
+      view = delta.apply(this.preparedView);
+    }
+    return view;
+  }
+
   private void addPublicKeysToView(GMSMembershipView view) {
     String sDHAlgo = services.getConfig().getSecurityUDPDHAlgo();
     if (sDHAlgo != null && !sDHAlgo.isEmpty()) {
@@ -996,6 +1072,21 @@ public class GMSJoinLeave implements JoinLeave {
 
     logger.debug("processing membership view message {}", m);
 
+    if (m.getView() == null) {
+      GMSMembershipView view = applyViewDelta(m.getDelta());
+      if (view == null) {
+        logger.info("Requesting the full membership view {} from {} since this member does not "
+            + "hold view {} that it was sent the changes to", m.getDelta().getViewId(),
+            m.getSender(), m.getDelta().getBaseViewId());
+        if (!playingDead) {
+          services.getMessenger().send(ViewAckMessage.createFullViewRequest(m.getSender(),
+              m.getDelta().getViewId(), m.isPreparing()));
+        }
+        return;
+      }
+      m.setView(view);
+    }
+
     GMSMembershipView view = m.getView();
 
     // If our current view doesn't contain sender then we wanrt to ignore that view.
@@ -1095,6 +1186,11 @@ public class GMSJoinLeave implements JoinLeave {
       return;
     }
 
+    if (m.isFullViewRequest()) {
+      sendFullView(m);
+      return;
+    }
+
     if (m.isPrepareAck()) {
       this.prepareProcessor.processViewResponse(m.getViewId(), m.getSender(), m.getAlternateView());
     } else {
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipViewDelta;
 import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.SerializationContext;
 import org.apache.geode.internal.serialization.Version;
@@ -31,6 +32,8 @@ public class InstallViewMessage extends AbstractGMSMessage {
   }
 
   private GMSMembershipView view;
+  /** set instead of the view when the recipients are expected to hold the delta's base view */
+  private GMSMembershipViewDelta delta;
   private Object credentials;
   private messageType kind;
   private int previousViewId;
@@ -49,6 +52,16 @@ public class InstallViewMessage extends AbstractGMSMessage {
     this.previousViewId = previousViewId;
   }
 
+  /**
+   * Creates a message that carries only the difference between the view and a base view that its
+   * recipients hold. Only members of version 1.12 or later can read it.
+   */
+  public InstallViewMessage(GMSMembershipView view, GMSMembershipViewDelta delta,
+      Object credentials, boolean preparing) {
+    this(view, credentials, preparing);
+    this.delta = delta;
+  }
+
   public InstallViewMessage() {
     // no-arg constructor for serialization
   }
@@ -57,10 +70,21 @@ public class InstallViewMessage extends AbstractGMSMessage {
     return kind == messageType.SYNC;
   }
 
+  /**
+   * Returns the view, or null if the message carried a delta that has not been applied yet
+   */
   public GMSMembershipView getView() {
     return view;
   }
 
+  public void setView(GMSMembershipView view) {
+    this.view = view;
+  }
+
+  public GMSMembershipViewDelta getDelta() {
+    return delta;
+  }
+
   public Object getCredentials() {
     return credentials;
   }
@@ -84,7 +108,16 @@ public class InstallViewMessage extends AbstractGMSMessage {
       SerializationContext context) throws IOException {
     out.writeInt(previousViewId);
     out.writeInt(kind.ordinal());
-    context.getSerializer().writeObject(this.view, out);
+    if (context.getSerializationVersion().ordinal() >= Version.GEODE_1_12_0.ordinal()) {
+      out.writeBoolean(this.delta != null);
+      if (this.delta != null) {
+        this.delta.writeTo(out, context);
+      } else {
+        context.getSerializer().writeObject(this.view, out);
+      }
+    } else {
+      context.getSerializer().writeObject(this.view, out);
+    }
     context.getSerializer().writeObject(this.credentials, out);
   }
 
@@ -93,14 +126,20 @@ public class InstallViewMessage extends AbstractGMSMessage {
       DeserializationContext context) throws IOException, ClassNotFoundException {
     this.previousViewId = in.readInt();
     this.kind = messageType.values()[in.readInt()];
-    this.view = (GMSMembershipView) context.getDeserializer().readObject(in);
+    if (context.getSerializationVersion().ordinal() >= Version.GEODE_1_12_0.ordinal()
+        && in.readBoolean()) {
+      this.delta = GMSMembershipViewDelta.readFrom(in, context);
+    } else {
+      this.view = (GMSMembershipView) context.getDeserializer().readObject(in);
+    }
     this.credentials = context.getDeserializer().readObject(in);
   }
 
   @Override
   public String toString() {
-    return "InstallViewMessage(type=" + this.kind + "; Current ViewID=" + view.getViewId()
-        + "; Previous View ID=" + previousViewId + "; " + this.view + "; cred="
+    int viewId = view != null ? view.getViewId() : delta.getViewId();
+    return "InstallViewMessage(type=" + this.kind + "; Current ViewID=" + viewId
+        + "; Previous View ID=" + previousViewId + "; " + (view != null ? view : delta) + "; cred="
         + (credentials == null ? "null" : "not null") + ")";
   }
 
@@ -29,6 +29,8 @@ public class ViewAckMessage extends AbstractGMSMessage {
   int viewId;
   boolean preparing;
   GMSMembershipView alternateView;
+  /** the member could not apply a view delta and needs the full view instead of an ack */
+  boolean fullViewRequest;
 
   public ViewAckMessage(MemberIdentifier recipient, int viewId, boolean preparing) {
     super();
@@ -45,6 +47,17 @@ public class ViewAckMessage extends AbstractGMSMessage {
     this.preparing = true;
   }
 
+  /**
+   * Creates a request for the full view, sent by a member that does not hold the base of the view
+   * delta it received
+   */
+  public static ViewAckMessage createFullViewRequest(MemberIdentifier recipient, int viewId,
+      boolean preparing) {
+    ViewAckMessage result = new ViewAckMessage(recipient, viewId, preparing);
+    result.fullViewRequest = true;
+    return result;
+  }
+
   public ViewAckMessage() {
     // no-arg constructor for serialization
   }
@@ -61,6 +74,10 @@ public class ViewAckMessage extends AbstractGMSMessage {
     return preparing;
   }
 
+  public boolean isFullViewRequest() {
+    return fullViewRequest;
+  }
+
   @Override
   public int getDSFID() {
     return VIEW_ACK_MESSAGE;
@@ -72,6 +89,9 @@ public class ViewAckMessage extends AbstractGMSMessage {
     out.writeInt(this.viewId);
     out.writeBoolean(this.preparing);
     context.getSerializer().writeObject(this.alternateView, out);
+    if (context.getSerializationVersion().ordinal() >= Version.GEODE_1_12_0.ordinal()) {
+      out.writeBoolean(this.fullViewRequest);
+    }
   }
 
   @Override
@@ -80,13 +100,16 @@ public class ViewAckMessage extends AbstractGMSMessage {
     this.viewId = in.readInt();
     this.preparing = in.readBoolean();
     this.alternateView = (GMSMembershipView) context.getDeserializer().readObject(in);
+    if (context.getSerializationVersion().ordinal() >= Version.GEODE_1_12_0.ordinal()) {
+      this.fullViewRequest = in.readBoolean();
+    }
   }
 
   @Override
   public String toString() {
     String s = getSender() == null ? getRecipients().toString() : "" + getSender();
     return "ViewAckMessage(" + s + "; " + this.viewId + "; preparing=" + preparing + "; altview="
-        + this.alternateView + ")";
+        + this.alternateView + (fullViewRequest ? "; fullViewRequest" : "") + ")";
   }
 
   @Override
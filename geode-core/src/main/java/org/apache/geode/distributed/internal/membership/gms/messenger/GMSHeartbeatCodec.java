@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messenger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.api.MemberData;
+import org.apache.geode.distributed.internal.membership.gms.api.MemberIdentifier;
+
+/**
+ * Encodes heartbeats in a fixed layout that needs neither the serializer nor a stream:
+ *
+ * <pre>
+ * byte   HEARTBEAT
+ * int    request ID, or -1 for a periodic heartbeat
+ * long   sender UUID most significant bits
+ * long   sender UUID least significant bits
+ * int    sender view ID
+ * </pre>
+ *
+ * The first byte of a serialized message is its sender's version ordinal, which is never
+ * HEARTBEAT, so only members of version 1.12 or later can be sent this encoding. The payload of
+ * periodic heartbeats is encoded once and reused. The sender of a heartbeat is found by its UUID
+ * in the view last installed, and heartbeats are addressed with the JGroups addresses of that
+ * view, so neither costs an allocation.
+ *
+ * @since Geode 1.12
+ */
+public class GMSHeartbeatCodec {
+  static final byte HEARTBEAT = -2;
+  static final int LENGTH = 25;
+
+  private static final int REQUEST_ID_OFFSET = 1;
+  private static final int UUID_MSBS_OFFSET = 5;
+  private static final int UUID_LSBS_OFFSET = 13;
+  private static final int VIEW_ID_OFFSET = 21;
+
+  private volatile byte[] periodicHeartbeat;
+
+  /** members of the view by the least significant bits of their UUID */
+  private volatile Long2ObjectOpenHashMap<MemberIdentifier> members =
+      new Long2ObjectOpenHashMap<>();
+
+  /** members of the view that share the least significant bits of their UUID with another */
+  private volatile MemberIdentifier[] collidingMembers = new MemberIdentifier[0];
+
+  private volatile Map<MemberIdentifier, JGAddress> addresses = new HashMap<>();
+
+  public void installView(GMSMembershipView view) {
+    List<MemberIdentifier> viewMembers = view.getMembers();
+    Long2ObjectOpenHashMap<MemberIdentifier> newMembers =
+        new Long2ObjectOpenHashMap<>(viewMembers.size());
+    Map<MemberIdentifier, JGAddress> newAddresses = new HashMap<>(viewMembers.size() * 2);
+    List<MemberIdentifier> colliding = new ArrayList<>();
+    for (MemberIdentifier mbr : viewMembers) {
+      MemberIdentifier previous =
+          newMembers.put(mbr.getMemberData().getUuidLeastSignificantBits(), mbr);
+      if (previous != null) {
+        colliding.add(previous);
+      }
+      newAddresses.put(mbr, new JGAddress(mbr));
+    }
+    this.members = newMembers;
+    this.collidingMembers = colliding.toArray(new MemberIdentifier[0]);
+    this.addresses = newAddresses;
+  }
+
+  public boolean isHeartbeat(byte[] buffer, int offset, int length) {
+    return length == LENGTH && buffer[offset] == HEARTBEAT;
+  }
+
+  /**
+   * Returns the encoded heartbeat. The result must not be modified since periodic heartbeats share
+   * one.
+   */
+  public byte[] encode(int requestId, MemberIdentifier sender) {
+    if (requestId >= 0) {
+      return write(requestId, sender.getMemberData());
+    }
+    byte[] result = this.periodicHeartbeat;
+    if (result == null || !isFrom(result, 0, sender.getMemberData())) {
+      result = write(-1, sender.getMemberData());
+      this.periodicHeartbeat = result;
+    }
+    return result;
+  }
+
+  private static byte[] write(int requestId, MemberData sender) {
+    byte[] buffer = new byte[LENGTH];
+    buffer[0] = HEARTBEAT;
+    putInt(buffer, REQUEST_ID_OFFSET, requestId);
+    putLong(buffer, UUID_MSBS_OFFSET, sender.getUuidMostSignificantBits());
+    putLong(buffer, UUID_LSBS_OFFSET, sender.getUuidLeastSignificantBits());
+    putInt(buffer, VIEW_ID_OFFSET, sender.getVmViewId());
+    return buffer;
+  }
+
+  private static boolean isFrom(byte[] buffer, int offset, MemberData sender) {
+    return getLong(buffer, offset + UUID_MSBS_OFFSET) == sender.getUuidMostSignificantBits()
+        && getLong(buffer, offset + UUID_LSBS_OFFSET) == sender.getUuidLeastSignificantBits()
+        && getInt(buffer, offset + VIEW_ID_OFFSET) == sender.getVmViewId();
+  }
+
+  public int getRequestId(byte[] buffer, int offset) {
+    return getInt(buffer, offset + REQUEST_ID_OFFSET);
+  }
+
+  /**
+   * Returns the member of the installed view that sent the heartbeat, or null if it is not in that
+   * view
+   */
+  public MemberIdentifier getSender(byte[] buffer, int offset) {
+    MemberIdentifier mbr = this.members.get(getLong(buffer, offset + UUID_LSBS_OFFSET));
+    if (mbr != null && isFrom(buffer, offset, mbr.getMemberData())) {
+      return mbr;
+    }
+    for (MemberIdentifier colliding : this.collidingMembers) {
+      if (isFrom(buffer, offset, colliding.getMemberData())) {
+        return colliding;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the JGroups address of the member, reusing the one of the installed view if possible
+   */
+  public JGAddress getAddress(MemberIdentifier mbr) {
+    JGAddress address = this.addresses.get(mbr);
+    MemberData data = mbr.getMemberData();
+    if (address == null || address.getUUIDLsbs() != data.getUuidLeastSignificantBits()
+        || address.getUUIDMsbs() != data.getUuidMostSignificantBits()
+        || address.getVmViewId() != data.getVmViewId()) {
+      return new JGAddress(mbr);
+    }
+    return address;
+  }
+
+  private static void putInt(byte[] buffer, int offset, int value) {
+    buffer[offset] = (byte) (value >>> 24);
+    buffer[offset + 1] = (byte) (value >>> 16);
+    buffer[offset + 2] = (byte) (value >>> 8);
+    buffer[offset + 3] = (byte) value;
+  }
+
+  private static void putLong(byte[] buffer, int offset, long value) {
+    putInt(buffer, offset, (int) (value >>> 32));
+    putInt(buffer, offset + 4, (int) value);
+  }
+
+  private static int getInt(byte[] buffer, int offset) {
+    return (buffer[offset] & 0xFF) << 24 | (buffer[offset + 1] & 0xFF) << 16
+        | (buffer[offset + 2] & 0xFF) << 8 | (buffer[offset + 3] & 0xFF);
+  }
+
+  private static long getLong(byte[] buffer, int offset) {
+    return (long) getInt(buffer, offset) << 32 | getInt(buffer, offset + 4) & 0xFFFFFFFFL;
+  }
+}
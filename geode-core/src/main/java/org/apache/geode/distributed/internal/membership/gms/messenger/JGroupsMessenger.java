@@ -91,6 +91,7 @@ import org.apache.geode.distributed.internal.membership.gms.interfaces.MessageHa
 import org.apache.geode.distributed.internal.membership.gms.interfaces.Messenger;
 import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordinatorRequest;
 import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordinatorResponse;
+import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
 import org.apache.geode.internal.ClassPathLoader;
@@ -141,6 +142,8 @@ public class JGroupsMessenger implements Messenger {
 
   protected final GMSPingPonger pingPonger = new GMSPingPonger();
 
+  protected final GMSHeartbeatCodec heartbeatCodec = new GMSHeartbeatCodec();
+
   protected final AtomicLong pongsReceived = new AtomicLong(0);
 
   /** tracks multicast messages that have been scheduled for processing */
@@ -468,6 +471,7 @@ public class JGroupsMessenger implements Messenger {
     this.myChannel.down(new Event(Event.VIEW_CHANGE, jgv));
 
     addressesWithIoExceptionsProcessed.clear();
+    heartbeatCodec.installView(v);
     if (encrypt != null) {
       encrypt.installView(v);
     }
@@ -752,7 +756,9 @@ public class JGroupsMessenger implements Messenger {
         throw new DistributedSystemDisconnectedException(channelClosed, problem);
       }
     } // useMcast
-    else { // ! useMcast
+    else if (canSendHeartbeat(msg)) {
+      sendHeartbeat((HeartbeatMessage) msg, local, reliably);
+    } else { // ! useMcast
       int len = destinations.size();
       List<MemberIdentifier> calculatedMembers; // explicit list of members
       int calculatedLen; // == calculatedMembers.len
@@ -850,6 +856,47 @@ public class JGroupsMessenger implements Messenger {
     return result;
   }
 
+  /**
+   * Heartbeats to a single member of version 1.12 or later are sent in the fixed layout of
+   * {@link GMSHeartbeatCodec} unless messages are encrypted
+   */
+  private boolean canSendHeartbeat(GMSMessage msg) {
+    if (encrypt != null || !(msg instanceof HeartbeatMessage) || msg.forAll()) {
+      return false;
+    }
+    List<MemberIdentifier> recipients = msg.getRecipients();
+    return recipients.size() == 1
+        && recipients.get(0).getVersionOrdinal() >= Version.GEODE_1_12_0.ordinal();
+  }
+
+  private void sendHeartbeat(HeartbeatMessage msg, JGAddress local, boolean reliably) {
+    Message jmsg = new Message();
+    setMessageFlags(msg, jmsg);
+    if (!reliably) {
+      jmsg.setFlag(Message.Flag.NO_RELIABILITY);
+    }
+    jmsg.setDest(heartbeatCodec.getAddress(msg.getRecipients().get(0)));
+    jmsg.setSrc(local);
+    jmsg.setBuffer(heartbeatCodec.encode(msg.getRequestId(), localAddress));
+    services.getStatistics().incSentBytes(jmsg.getLength());
+    try {
+      myChannel.send(jmsg);
+    } catch (Exception e) {
+      Throwable cause = services.getShutdownCause();
+      if (cause instanceof ForcedDisconnectException) {
+        throw new DistributedSystemDisconnectedException("Channel closed", (Exception) cause);
+      }
+      if (cause != null) {
+        Throwable ne = e;
+        while (ne.getCause() != null) {
+          ne = ne.getCause();
+        }
+        ne.initCause(cause);
+      }
+      throw new DistributedSystemDisconnectedException("Channel closed", e);
+    }
+  }
+
   /**
    * This is the constructor to use to create a JGroups message holding a GemFire
    * DistributionMessage. It sets the appropriate flags in the Message and properly serializes the
@@ -1059,6 +1106,24 @@ public class JGroupsMessenger implements Messenger {
     return result;
   }
 
+  /**
+   * Reads a heartbeat in the fixed layout of {@link GMSHeartbeatCodec}. Returns null if it was not
+   * sent by a member of the installed view.
+   */
+  HeartbeatMessage readHeartbeat(Message jgmsg) {
+    byte[] buffer = jgmsg.getRawBuffer();
+    int offset = jgmsg.getOffset();
+    MemberIdentifier sender = heartbeatCodec.getSender(buffer, offset);
+    if (sender == null) {
+      logger.debug("Ignoring heartbeat from {}, which is not in the membership view",
+          jgmsg.getSrc());
+      return null;
+    }
+    HeartbeatMessage result = new HeartbeatMessage(heartbeatCodec.getRequestId(buffer, offset));
+    result.setSender(sender);
+    return result;
+  }
+
   void setSender(GMSMessage dm, MemberIdentifier m, short ordinal) {
     MemberIdentifier sender = null;
     // JoinRequestMessages are sent with an ID that may have been
@@ -1297,7 +1362,14 @@ public class JGroupsMessenger implements Messenger {
           return;
         }
 
-        Object o = readJGMessage(jgmsg);
+        Object o;
+        if (encrypt == null
+            && heartbeatCodec.isHeartbeat(jgmsg.getRawBuffer(), jgmsg.getOffset(),
+                jgmsg.getLength())) {
+          o = readHeartbeat(jgmsg);
+        } else {
+          o = readJGMessage(jgmsg);
+        }
         if (o == null) {
           return;
         }
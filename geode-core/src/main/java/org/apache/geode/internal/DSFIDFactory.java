@@ -72,6 +72,7 @@ import org.apache.geode.distributed.internal.locks.DLockRecoverGrantorProcessor.
 import org.apache.geode.distributed.internal.locks.DLockReleaseProcessor;
 import org.apache.geode.distributed.internal.locks.DLockRemoteToken;
 import org.apache.geode.distributed.internal.locks.DLockRequestProcessor;
+import org.apache.geode.distributed.internal.locks.DLockRevokeLeaseMessage;
 import org.apache.geode.distributed.internal.locks.DLockService;
 import org.apache.geode.distributed.internal.locks.DeposeGrantorProcessor;
 import org.apache.geode.distributed.internal.locks.ElderInitProcessor;
@@ -186,6 +187,7 @@ import org.apache.geode.internal.admin.remote.VersionInfoResponse;
 import org.apache.geode.internal.admin.statalerts.GaugeThresholdDecoratorImpl;
 import org.apache.geode.internal.admin.statalerts.NumberThresholdDecoratorImpl;
 import org.apache.geode.internal.cache.AddCacheServerProfileMessage;
+import org.apache.geode.internal.cache.BucketAccessEpochMessage;
 import org.apache.geode.internal.cache.BucketAdvisor;
 import org.apache.geode.internal.cache.CacheDistributionAdvisor;
 import org.apache.geode.internal.cache.CacheServerAdvisor.CacheServerProfile;
@@ -217,6 +219,7 @@ import org.apache.geode.internal.cache.FindRemoteTXMessage;
 import org.apache.geode.internal.cache.FindRemoteTXMessage.FindRemoteTXMessageReply;
 import org.apache.geode.internal.cache.FindVersionTagOperation.FindVersionTagMessage;
 import org.apache.geode.internal.cache.FindVersionTagOperation.VersionTagReply;
+import org.apache.geode.internal.cache.FunctionStreamingCreditMessage;
 import org.apache.geode.internal.cache.FunctionStreamingOrderedReplyMessage;
 import org.apache.geode.internal.cache.FunctionStreamingReplyMessage;
 import org.apache.geode.internal.cache.HARegion;
@@ -255,6 +258,7 @@ import org.apache.geode.internal.cache.TXRemoteCommitMessage;
 import org.apache.geode.internal.cache.TXRemoteCommitMessage.TXRemoteCommitReplyMessage;
 import org.apache.geode.internal.cache.TXRemoteRollbackMessage;
 import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.cache.TombstoneGCBatchMessage;
 import org.apache.geode.internal.cache.UpdateAttributesProcessor;
 import org.apache.geode.internal.cache.UpdateEntryVersionOperation.UpdateEntryVersionMessage;
 import org.apache.geode.internal.cache.UpdateOperation;
@@ -972,6 +976,11 @@ public class DSFIDFactory implements DataSerializableFixedID {
     serializer.registerDSFID(GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY,
         GatewaySenderQueueEntrySynchronizationOperation.GatewaySenderQueueEntrySynchronizationEntry.class);
     serializer.registerDSFID(ABORT_BACKUP_REQUEST, AbortBackupRequest.class);
+    serializer.registerDSFID(BUCKET_ACCESS_EPOCH_MESSAGE, BucketAccessEpochMessage.class);
+    serializer.registerDSFID(TOMBSTONE_GC_BATCH_MESSAGE, TombstoneGCBatchMessage.class);
+    serializer.registerDSFID(FUNCTION_STREAMING_CREDIT_MESSAGE,
+        FunctionStreamingCreditMessage.class);
+    serializer.registerDSFID(DLOCK_REVOKE_LEASE_MESSAGE, DLockRevokeLeaseMessage.class);
   }
 
   /**
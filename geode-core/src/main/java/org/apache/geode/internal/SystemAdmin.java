@@ -90,6 +90,8 @@ import org.apache.geode.internal.logging.MergeLogFiles;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.internal.net.SocketCreatorFactory;
 import org.apache.geode.internal.security.SecurableCommunicationChannel;
+import org.apache.geode.internal.statistics.ColumnarStatArchiveFormat;
+import org.apache.geode.internal.statistics.ColumnarStatArchiveReader;
 import org.apache.geode.internal.statistics.StatArchiveReader;
 import org.apache.geode.internal.statistics.StatArchiveReader.ResourceInst;
 import org.apache.geode.internal.statistics.StatArchiveReader.StatValue;
@@ -1156,6 +1158,14 @@ public class SystemAdmin {
         throw new IllegalArgumentException(
             "The -archive= and -dir= options are mutually exclusive.");
       }
+      if (isColumnarArchives(archiveNames)) {
+        if (monitor) {
+          throw new IllegalArgumentException(
+              "The -monitor option is not supported for columnar archives.");
+        }
+        columnarStatistics(archiveNames, details, prunezeros, startTime, endTime, specs);
+        return;
+      }
       StatArchiveReader reader = null;
       boolean interrupted = false;
       try {
@@ -1261,6 +1271,107 @@ public class SystemAdmin {
     }
   }
 
+  private static boolean isColumnarArchives(List archiveNames) {
+    if (archiveNames.isEmpty()) {
+      return false;
+    }
+    for (Object archiveName : archiveNames) {
+      if (!ColumnarStatArchiveFormat.isColumnarArchive(((File) archiveName).getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Lists the statistics of columnar archives. Only the columns of the statistics matching the
+   * specs are read, and only from the blocks sampled between the start and end times.
+   */
+  private void columnarStatistics(List archiveNames, boolean details, boolean prunezeros,
+      long startTime, long endTime, StatSpec[] specs) {
+    long start = startTime == -1 ? Long.MIN_VALUE : startTime;
+    long end = endTime == -1 ? Long.MAX_VALUE : endTime;
+    for (Object archiveName : archiveNames) {
+      File archive = (File) archiveName;
+      try (ColumnarStatArchiveReader reader = new ColumnarStatArchiveReader(archive)) {
+        if (details) {
+          System.out.println("archive=" + archive + " product=" + reader.getProductVersion()
+              + " os=" + reader.getOSInfo() + " machine=" + reader.getMachineInfo() + " blocks="
+              + reader.getBlockCount());
+        }
+        int matched = 0;
+        for (ColumnarStatArchiveReader.InstanceInfo inst : reader.getInstances()) {
+          boolean firstTime = true;
+          for (ColumnarStatArchiveReader.StatInfo stat : inst.getType().getStats()) {
+            if (!columnarSpecMatches(specs, inst, stat)) {
+              continue;
+            }
+            ColumnarStatArchiveReader.Series series =
+                reader.readSeries(inst, stat.getName(), start, end);
+            if (series.size() == 0) {
+              continue;
+            }
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            double sum = 0;
+            for (double value : series.getValues()) {
+              min = Math.min(min, value);
+              max = Math.max(max, value);
+              sum += value;
+            }
+            if (specs.length == 0 && min == max) {
+              // like the gfs listing without specs, only show values that changed
+              continue;
+            }
+            if (prunezeros && min == 0.0 && max == 0.0) {
+              continue;
+            }
+            if (firstTime) {
+              firstTime = false;
+              System.out.println(inst);
+            }
+            matched++;
+            System.out.println("  " + stat.getName() + ", units=" + stat.getUnits() + ", samples="
+                + series.size() + ", min=" + min + ", max=" + max + ", average="
+                + sum / series.size() + ", last=" + series.getValues()[series.size() - 1]);
+            if (details) {
+              System.out.print("  values=");
+              for (double value : series.getValues()) {
+                System.out.print(' ');
+                System.out.print(value);
+              }
+              System.out.println();
+              String desc = stat.getDescription();
+              if (desc != null && desc.length() > 0) {
+                System.out.println("    " + desc);
+              }
+            }
+          }
+        }
+        if (matched == 0 && specs.length != 0 && !quiet) {
+          System.err.println(String.format("[warning] No stats matched in %s.", archive));
+        }
+      } catch (IOException ex) {
+        throw new GemFireIOException(String.format("Failed reading %s", archive), ex);
+      }
+    }
+  }
+
+  private static boolean columnarSpecMatches(StatSpec[] specs,
+      ColumnarStatArchiveReader.InstanceInfo inst, ColumnarStatArchiveReader.StatInfo stat) {
+    if (specs.length == 0) {
+      return true;
+    }
+    for (StatSpec spec : specs) {
+      if (spec.typeMatches(inst.getType().getName())
+          && spec.instanceMatches(inst.getName(), inst.getNumericId())
+          && spec.statMatches(stat.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Represents a list of ResourceInst that have been combined together. Note the most common case
    * is for this class to only own a single ResourceInst.
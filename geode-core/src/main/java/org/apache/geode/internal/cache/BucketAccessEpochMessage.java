@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.PooledDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.partitioned.PRLocallyDestroyedException;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.SerializationContext;
+import org.apache.geode.internal.serialization.Version;
+
+/**
+ * Sends the keys read during the last epoch in the buckets of a partitioned region to another
+ * member hosting those buckets. One message per member carries the bitmaps of all buckets the two
+ * members share. No reply is expected.
+ *
+ * @see BucketAccessEpochs
+ * @since Geode 1.12
+ */
+public class BucketAccessEpochMessage extends PooledDistributionMessage {
+
+  private int prId;
+  private long endTime;
+  private List<Integer> bucketIds;
+  private List<long[]> bitmaps;
+
+  public BucketAccessEpochMessage() {
+    // nothing
+  }
+
+  private BucketAccessEpochMessage(InternalDistributedMember recipient, int prId, long endTime) {
+    setRecipient(recipient);
+    this.prId = prId;
+    this.endTime = endTime;
+    this.bucketIds = new ArrayList<>();
+    this.bitmaps = new ArrayList<>();
+  }
+
+  /**
+   * Ends the current epoch of reads in the local buckets of the given region and sends the keys read
+   * to the other members hosting each bucket.
+   */
+  static void send(PartitionedRegion region) {
+    PartitionedRegionDataStore dataStore = region.getDataStore();
+    if (dataStore == null) {
+      return;
+    }
+    DistributionManager dm = region.getDistributionManager();
+    Map<BucketRegion, long[]> bitmapsByBucket = new HashMap<>();
+    for (BucketRegion bucket : dataStore.getAllLocalBucketRegions()) {
+      BucketAccessEpochs accessEpochs = bucket.getAccessEpochs();
+      if (accessEpochs == null) {
+        continue;
+      }
+      long[] bitmap = accessEpochs.takeLocalEpoch(bucket.getRegionMap().size());
+      if (bitmap != null) {
+        bitmapsByBucket.put(bucket, bitmap);
+      }
+    }
+    // every read recorded in the epochs happened before they were all taken
+    long endTime = region.cacheTimeMillis();
+    Map<InternalDistributedMember, BucketAccessEpochMessage> messages = new HashMap<>();
+    for (Map.Entry<BucketRegion, long[]> entry : bitmapsByBucket.entrySet()) {
+      BucketRegion bucket = entry.getKey();
+      long[] bitmap = entry.getValue();
+      Set<InternalDistributedMember> recipients =
+          new HashSet<>(bucket.getBucketAdvisor().adviseCacheOp());
+      dm.retainMembersWithSameOrNewerVersion(recipients, Version.GEODE_1_12_0);
+      for (InternalDistributedMember recipient : recipients) {
+        BucketAccessEpochMessage message = messages.computeIfAbsent(recipient,
+            member -> new BucketAccessEpochMessage(member, region.getPRId(), endTime));
+        message.bucketIds.add(bucket.getId());
+        message.bitmaps.add(bitmap);
+      }
+    }
+    for (BucketAccessEpochMessage message : messages.values()) {
+      dm.putOutgoing(message);
+    }
+  }
+
+  @Override
+  public int getDSFID() {
+    return BUCKET_ACCESS_EPOCH_MESSAGE;
+  }
+
+  @Override
+  protected void process(ClusterDistributionManager dm) {
+    PartitionedRegion region;
+    try {
+      region = PartitionedRegion.getPRFromId(this.prId);
+    } catch (PRLocallyDestroyedException ignored) {
+      return;
+    }
+    if (region == null || region.getDataStore() == null) {
+      return;
+    }
+    for (int i = 0; i < this.bucketIds.size(); i++) {
+      BucketRegion bucket = region.getDataStore().getLocalBucketById(this.bucketIds.get(i));
+      if (bucket != null) {
+        bucket.addRemoteAccessEpoch(this.endTime, this.bitmaps.get(i));
+      }
+    }
+  }
+
+  @Override
+  public void fromData(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
+    super.fromData(in, context);
+    this.prId = DataSerializer.readPrimitiveInt(in);
+    this.endTime = DataSerializer.readPrimitiveLong(in);
+    int size = DataSerializer.readPrimitiveInt(in);
+    this.bucketIds = new ArrayList<>(size);
+    this.bitmaps = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      this.bucketIds.add(DataSerializer.readPrimitiveInt(in));
+      this.bitmaps.add(DataSerializer.readLongArray(in));
+    }
+  }
+
+  @Override
+  public void toData(DataOutput out,
+      SerializationContext context) throws IOException {
+    super.toData(out, context);
+    DataSerializer.writePrimitiveInt(this.prId, out);
+    DataSerializer.writePrimitiveLong(this.endTime, out);
+    DataSerializer.writePrimitiveInt(this.bucketIds.size(), out);
+    for (int i = 0; i < this.bucketIds.size(); i++) {
+      DataSerializer.writePrimitiveInt(this.bucketIds.get(i), out);
+      DataSerializer.writeLongArray(this.bitmaps.get(i), out);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getShortClassName() + " (prId=" + this.prId + "; buckets=" + this.bucketIds + ")";
+  }
+}
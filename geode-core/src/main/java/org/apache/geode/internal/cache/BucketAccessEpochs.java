@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+
+/**
+ * Tracks which keys of a bucket have been read, so that idle expiration can take reads on the
+ * other members hosting the bucket into account without sending a message for each entry that is
+ * about to expire.
+ *
+ * Reads on this member set a bit, chosen by the hash of the key, in a bitmap. Every
+ * {@link #EXCHANGE_INTERVAL} milliseconds the bitmap of that epoch is taken, folded down to a size
+ * proportional to the number of keys read, and sent to the other members hosting the bucket. Each
+ * member keeps the epochs it receives together with the time they ended. A key whose bit is set in
+ * an epoch may have been read before that epoch ended. Since hash collisions can only make an entry
+ * look more recently read than it was, they can delay idle expiration but never make it early.
+ *
+ * Reads that happened on another member during the epoch it has not sent yet are not seen, so a
+ * read can take up to {@link #EXCHANGE_INTERVAL} milliseconds, plus the time the message takes to
+ * arrive, to be seen. Idle expiration therefore waits that interval longer than the idle timeout
+ * before it checks the epochs (see {@link BucketRegion#getRemoteAccessDelay()}), so that every read
+ * made before the entry's idle timeout ran out has been received by then.
+ *
+ * @since Geode 1.12
+ */
+class BucketAccessEpochs {
+  /**
+   * The number of milliseconds between exchanges of the keys read, or zero (the default) to look up
+   * the last access time on the other members when an entry is about to expire.
+   */
+  static final long EXCHANGE_INTERVAL =
+      SystemPropertyHelper.getProductIntegerProperty(
+          SystemPropertyHelper.IDLE_EXPIRATION_ACCESS_EXCHANGE_MILLIS).orElse(0);
+
+  /** the number of bits per key read an epoch is folded down to before being sent */
+  static final int BITS_PER_KEY = 32;
+
+  /** the number of bits per entry of the bucket the bitmap of reads on this member has */
+  private static final int LOCAL_BITS_PER_ENTRY = 32;
+
+  private static final int MIN_BITS = 64;
+
+  private static final int MAX_LOCAL_BITS = 1 << 22;
+
+  /** the maximum number of received epochs kept before adjacent epochs are merged */
+  static final int MAX_EPOCHS = 16;
+
+  private final AtomicReference<AtomicLongArray> localReads =
+      new AtomicReference<>(new AtomicLongArray(MIN_BITS / 64));
+
+  /** the epochs received from other members, oldest first; guarded by this */
+  private final List<Epoch> epochs = new ArrayList<>();
+
+  /** records that the given key has been read on this member */
+  void recordAccess(Object key) {
+    AtomicLongArray words = localReads.get();
+    while (true) {
+      setBit(words, indexOf(key, words.length() * 64));
+      // if the epoch was taken meanwhile, the bit may have been set after the bitmap was copied,
+      // so record the read in the next epoch as well
+      AtomicLongArray current = localReads.get();
+      if (current == words) {
+        return;
+      }
+      words = current;
+    }
+  }
+
+  private static void setBit(AtomicLongArray words, int index) {
+    long mask = 1L << index;
+    int word = index >>> 6;
+    if ((words.get(word) & mask) == 0) {
+      words.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+    }
+  }
+
+  /**
+   * Ends the current epoch of reads on this member.
+   *
+   * @param entryCount the number of entries in the bucket, used to size the next epoch's bitmap
+   * @return the bitmap of the keys read during the epoch, or null if none were read
+   */
+  long[] takeLocalEpoch(int entryCount) {
+    int bits = (int) Math.min(MAX_LOCAL_BITS,
+        Math.max(MIN_BITS, nextPowerOfTwo((long) entryCount * LOCAL_BITS_PER_ENTRY)));
+    AtomicLongArray words = localReads.getAndSet(new AtomicLongArray(bits / 64));
+    long[] bitmap = new long[words.length()];
+    long keysRead = 0;
+    for (int i = 0; i < bitmap.length; i++) {
+      bitmap[i] = words.get(i);
+      keysRead += Long.bitCount(bitmap[i]);
+    }
+    if (keysRead == 0) {
+      return null;
+    }
+    int target = (int) Math.max(MIN_BITS / 64,
+        nextPowerOfTwo(keysRead * BITS_PER_KEY) / 64);
+    return fold(bitmap, target);
+  }
+
+  /**
+   * Adds an epoch of reads on another member.
+   *
+   * @param endTime the time the epoch ended
+   * @param bitmap the keys read during the epoch
+   * @param oldestEndTime epochs that ended before this time are discarded
+   */
+  synchronized void addRemoteEpoch(long endTime, long[] bitmap, long oldestEndTime) {
+    int position = epochs.size();
+    while (position > 0 && epochs.get(position - 1).endTime > endTime) {
+      position--;
+    }
+    epochs.add(position, new Epoch(endTime, bitmap));
+    while (!epochs.isEmpty() && epochs.get(0).endTime < oldestEndTime) {
+      epochs.remove(0);
+    }
+    while (epochs.size() > MAX_EPOCHS) {
+      mergeClosestEpochs();
+    }
+  }
+
+  /**
+   * Returns the end time of the latest epoch received from another member in which the given key
+   * may have been read, or 0 if there is none.
+   */
+  synchronized long getLatestRemoteAccessTime(Object key) {
+    for (int i = epochs.size() - 1; i >= 0; i--) {
+      Epoch epoch = epochs.get(i);
+      int index = indexOf(key, epoch.bitmap.length * 64);
+      if ((epoch.bitmap[index >>> 6] & (1L << index)) != 0) {
+        return epoch.endTime;
+      }
+    }
+    return 0L;
+  }
+
+  synchronized int getRemoteEpochCount() {
+    return epochs.size();
+  }
+
+  /**
+   * Merges the two adjacent epochs that ended closest together, as the newer one. Keys read in the
+   * older one then look read a little later than they were.
+   */
+  private void mergeClosestEpochs() {
+    int closest = 0;
+    long smallestGap = Long.MAX_VALUE;
+    for (int i = 0; i < epochs.size() - 1; i++) {
+      long gap = epochs.get(i + 1).endTime - epochs.get(i).endTime;
+      if (gap < smallestGap) {
+        smallestGap = gap;
+        closest = i;
+      }
+    }
+    Epoch older = epochs.remove(closest);
+    Epoch newer = epochs.get(closest);
+    epochs.set(closest, new Epoch(newer.endTime, or(older.bitmap, newer.bitmap)));
+  }
+
+  /**
+   * Returns the union of two bitmaps. The smaller bitmap is repeated across the larger one, so that
+   * a key found in the smaller one is also found in the result.
+   */
+  static long[] or(long[] bitmap1, long[] bitmap2) {
+    long[] larger = bitmap1.length >= bitmap2.length ? bitmap1 : bitmap2;
+    long[] smaller = larger == bitmap1 ? bitmap2 : bitmap1;
+    long[] result = new long[larger.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = larger[i] | smaller[i & (smaller.length - 1)];
+    }
+    return result;
+  }
+
+  /**
+   * Halves a bitmap until it has the given number of words, by or-ing its upper half into its lower
+   * half. A key is still found in the result, since its index only loses its highest bits.
+   */
+  static long[] fold(long[] bitmap, int words) {
+    long[] result = bitmap;
+    while (result.length > words) {
+      int half = result.length / 2;
+      long[] folded = new long[half];
+      for (int i = 0; i < half; i++) {
+        folded[i] = result[i] | result[i + half];
+      }
+      result = folded;
+    }
+    return result;
+  }
+
+  /** returns the index of the bit of the given key in a bitmap of the given power of two size */
+  static int indexOf(Object key, int bits) {
+    // murmur3's finalizer, so that the low bits depend on all bits of the hash code
+    long hash = key.hashCode();
+    hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+    hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return (int) (hash & (bits - 1));
+  }
+
+  private static long nextPowerOfTwo(long value) {
+    return value <= 1 ? 1 : Long.highestOneBit(value - 1) << 1;
+  }
+
+  private static class Epoch {
+    final long endTime;
+
+    final long[] bitmap;
+
+    Epoch(long endTime, long[] bitmap) {
+      this.endTime = endTime;
+      this.bitmap = bitmap;
+    }
+  }
+}
@@ -23,8 +23,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.Logger;
 
@@ -93,6 +95,8 @@ import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.internal.statistics.StatisticsClock;
+import org.apache.geode.internal.tracing.OperationTracer;
+import org.apache.geode.internal.tracing.TraceStage;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 
@@ -211,9 +215,25 @@ public class BucketRegion extends DistributedRegion implements Bucket {
   private final PartitionedRegion partitionedRegion;
   private final Map<Object, ExpiryTask> pendingSecondaryExpires = new HashMap<>();
 
+  /** the keys read on this and the other members hosting this bucket, for idle expiration */
+  private final BucketAccessEpochs accessEpochs =
+      BucketAccessEpochs.EXCHANGE_INTERVAL > 0 ? new BucketAccessEpochs() : null;
+
   /* one map per bucket region */
   private final HashMap<Object, LockObject> allKeysMap = new HashMap<>();
 
+  /**
+   * Held by the optimistic commit of a transaction whose changes are all in this bucket while it
+   * checks the versions of its entries and applies its changes.
+   */
+  private final ReentrantLock optimisticCommitLock = new ReentrantLock();
+
+  /**
+   * The number of transactions with changes in this bucket that are committing with reserved keys.
+   * Optimistic commits are not allowed while there are any.
+   */
+  private final AtomicInteger reservedCommitCount = new AtomicInteger();
+
   static final boolean FORCE_LOCAL_LISTENERS_INVOCATION = Boolean
       .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "BucketRegion.alwaysFireLocalListeners");
 
@@ -348,8 +368,9 @@ public class BucketRegion extends DistributedRegion implements Bucket {
   }
 
   @Override
-  protected EventID distributeTombstoneGC(Set<Object> keysRemoved) {
-    EventID eventId = super.distributeTombstoneGC(keysRemoved);
+  protected EventID distributeTombstoneGC(Set<Object> keysRemoved,
+      TombstoneGCBatchMessage.Batch batch) {
+    EventID eventId = super.distributeTombstoneGC(keysRemoved, batch);
     if (keysRemoved != null && keysRemoved.size() > 0 && getFilterProfile() != null) {
       // send the GC to members that don't have the bucket but have the PR so they
       // can forward the event to clients
@@ -779,7 +800,9 @@ public class BucketRegion extends DistributedRegion implements Bucket {
    * @return true if locks were obtained and are still held
    */
   public boolean doLockForPrimary(boolean tryLock) {
+    long traceStart = OperationTracer.startSpan();
     boolean locked = lockPrimaryStateReadLock(tryLock);
+    OperationTracer.endSpan(TraceStage.LOCK_WAIT, traceStart);
     if (!locked) {
       return false;
     }
@@ -857,6 +880,41 @@ public class BucketRegion extends DistributedRegion implements Bucket {
     return true;
   }
 
+  /**
+   * Obtains the lock for the optimistic commit of a transaction whose changes are all in this
+   * bucket.
+   *
+   * @return false, without the lock, if a transaction with changes in this bucket is committing
+   *         with reserved keys
+   */
+  boolean lockForOptimisticCommit() {
+    this.optimisticCommitLock.lock();
+    if (this.reservedCommitCount.get() != 0) {
+      this.optimisticCommitLock.unlock();
+      return false;
+    }
+    return true;
+  }
+
+  void unlockForOptimisticCommit() {
+    this.optimisticCommitLock.unlock();
+  }
+
+  /**
+   * Called by a transaction with changes in this bucket before it reserves its keys. Prevents new
+   * optimistic commits and waits for one in progress to apply its changes, so that the conflict
+   * check of the transaction sees them.
+   */
+  void beginReservedCommit() {
+    this.reservedCommitCount.incrementAndGet();
+    this.optimisticCommitLock.lock();
+    this.optimisticCommitLock.unlock();
+  }
+
+  void endReservedCommit() {
+    this.reservedCommitCount.decrementAndGet();
+  }
+
   public void doUnlockForPrimary() {
     Lock primaryMoveReadLock = getBucketAdvisor().getPrimaryMoveReadLock();
     primaryMoveReadLock.unlock();
@@ -1057,6 +1115,48 @@ public class BucketRegion extends DistributedRegion implements Bucket {
     }
   }
 
+  BucketAccessEpochs getAccessEpochs() {
+    return accessEpochs;
+  }
+
+  @Override
+  void updateStatsForGet(RegionEntry regionEntry, boolean hit) {
+    super.updateStatsForGet(regionEntry, hit);
+    if (accessEpochs != null && regionEntry != null && isEntryIdleExpiryPossible()) {
+      accessEpochs.recordAccess(regionEntry.getKey());
+    }
+  }
+
+  /**
+   * Adds the keys read on another member hosting this bucket during an epoch that ended at the
+   * given time. Epochs older than the idle timeout can no longer affect expiration and are dropped.
+   */
+  void addRemoteAccessEpoch(long endTime, long[] bitmap) {
+    if (accessEpochs == null) {
+      // this member does not exchange reads, so it looks them up when an entry is about to expire
+      return;
+    }
+    long oldestEndTime = Long.MIN_VALUE;
+    if (entryIdleTimeout > 0 && customEntryIdleTimeout == null) {
+      long idleTimeout = EXPIRY_UNITS_MS ? entryIdleTimeout : entryIdleTimeout * 1000L;
+      oldestEndTime = cacheTimeMillis() - idleTimeout - BucketAccessEpochs.EXCHANGE_INTERVAL;
+    }
+    accessEpochs.addRemoteEpoch(endTime, bitmap, oldestEndTime);
+  }
+
+  @Override
+  long getLatestLastAccessTimeFromOthers(Object key) {
+    if (accessEpochs != null) {
+      return accessEpochs.getLatestRemoteAccessTime(key);
+    }
+    return super.getLatestLastAccessTimeFromOthers(key);
+  }
+
+  @Override
+  long getRemoteAccessDelay() {
+    return accessEpochs != null ? BucketAccessEpochs.EXCHANGE_INTERVAL : 0L;
+  }
+
   @Override
   void performExpiryTimeout(ExpiryTask expiryTask) throws CacheException {
     boolean isEvictDestroy = isEntryEvictDestroyEnabled();
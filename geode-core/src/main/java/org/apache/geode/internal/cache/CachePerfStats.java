@@ -15,6 +15,9 @@
 package org.apache.geode.internal.cache;
 
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 import org.apache.geode.StatisticDescriptor;
 import org.apache.geode.Statistics;
 import org.apache.geode.StatisticsFactory;
@@ -24,8 +27,10 @@ import org.apache.geode.annotations.Immutable;
 import org.apache.geode.distributed.internal.PoolStatHelper;
 import org.apache.geode.distributed.internal.QueueStatHelper;
 import org.apache.geode.internal.NanoTimer;
+import org.apache.geode.internal.statistics.LatencyHistogramStats;
 import org.apache.geode.internal.statistics.StatisticsClock;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+import org.apache.geode.internal.statistics.meters.LatencyHistogramGauges;
 
 /**
  * CachePerfStats tracks statistics about Geode cache performance and usage.
@@ -619,6 +624,11 @@ public class CachePerfStats {
 
   private final StatisticsClock clock;
 
+  private volatile LatencyHistogramStats getLatencies;
+  private volatile LatencyHistogramStats putLatencies;
+  private volatile LatencyHistogramGauges getLatencyGauges;
+  private volatile LatencyHistogramGauges putLatencyGauges;
+
   public CachePerfStats(StatisticsFactory factory, StatisticsClock clock) {
     this(factory, "cachePerfStats", clock);
   }
@@ -632,6 +642,29 @@ public class CachePerfStats {
     return type;
   }
 
+  /**
+   * Records the latency of each get and put in histograms whose percentiles are published as
+   * statistics and, if a registry is given, as meters. Only the cache wide stats do this since
+   * every region's gets and puts are also counted by them. Latencies are only known when time
+   * statistics are enabled.
+   *
+   * @param meterRegistry the registry to bind the histograms to, or null
+   */
+  public void enableLatencyHistograms(StatisticsFactory factory, MeterRegistry meterRegistry) {
+    LatencyHistogramStats gets = new LatencyHistogramStats(factory, "cacheGets");
+    LatencyHistogramStats puts = new LatencyHistogramStats(factory, "cachePuts");
+    if (meterRegistry != null) {
+      getLatencyGauges = LatencyHistogramGauges.register(gets.getHistogram(),
+          "geode.cache.gets.latency", "Latency of gets in the cache.", Tags.empty(),
+          meterRegistry);
+      putLatencyGauges = LatencyHistogramGauges.register(puts.getHistogram(),
+          "geode.cache.puts.latency", "Latency of puts and updates in the cache.", Tags.empty(),
+          meterRegistry);
+    }
+    getLatencies = gets;
+    putLatencies = puts;
+  }
+
   /**
    * Returns the Statistics instance that stores the cache perf stats.
    *
@@ -1075,6 +1108,10 @@ public class CachePerfStats {
     if (clock.isEnabled()) {
       long delta = getTime() - start;
       stats.incLong(getTimeId, delta);
+      LatencyHistogramStats latencies = getLatencies;
+      if (latencies != null) {
+        latencies.record(delta);
+      }
     }
     stats.incLong(getsId, 1L);
     if (miss) {
@@ -1103,6 +1140,10 @@ public class CachePerfStats {
         stats.incLong(putTimeId, total);
       }
     }
+    LatencyHistogramStats latencies = putLatencies;
+    if (latencies != null && clock.isEnabled()) {
+      latencies.record(total);
+    }
     return total;
   }
 
@@ -1250,6 +1291,14 @@ public class CachePerfStats {
    */
   protected void close() {
     stats.close();
+    if (getLatencyGauges != null) {
+      getLatencyGauges.remove();
+      putLatencyGauges.remove();
+    }
+    if (getLatencies != null) {
+      getLatencies.close();
+      putLatencies.close();
+    }
   }
 
   /**
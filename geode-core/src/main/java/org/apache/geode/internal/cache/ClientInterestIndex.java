@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * ClientInterestIndex answers which clients are interested in a key, given the key lists and
+ * regular expressions they registered with a {@link FilterProfile}.
+ *
+ * Keys are held in a hash lookup from key to client IDs. A regular expression is compiled once no
+ * matter how many clients register it, and is filed in a character trie under its literal prefix,
+ * so an event only evaluates the expressions whose prefix is a prefix of its key. Expressions
+ * without meta characters can only match their own text and are looked up like keys.
+ *
+ * Updates must be serialized by the caller (FilterProfile holds its interest list lock). Lookups
+ * take no locks and may run concurrently with updates.
+ *
+ * @since Geode 1.12
+ */
+class ClientInterestIndex {
+
+  /** characters that end the literal prefix of a regular expression */
+  private static final String META_CHARACTERS = "\\[](){}.*+?^$|";
+
+  private final Map<Object, Set<Long>> clientsByKey = new ConcurrentHashMap<>();
+
+  private final Map<String, Set<Long>> clientsByLiteralPattern = new ConcurrentHashMap<>();
+
+  private final Map<String, PatternInterest> patterns = new ConcurrentHashMap<>();
+
+  private final PrefixNode patternTrie = new PrefixNode();
+
+  void addKey(Long clientID, Object key) {
+    addClient(clientsByKey, key, clientID);
+  }
+
+  void addKeys(Long clientID, Collection<?> keys) {
+    for (Object key : keys) {
+      addClient(clientsByKey, key, clientID);
+    }
+  }
+
+  void removeKey(Long clientID, Object key) {
+    removeClient(clientsByKey, key, clientID);
+  }
+
+  void removeKeys(Long clientID, Collection<?> keys) {
+    for (Object key : keys) {
+      removeClient(clientsByKey, key, clientID);
+    }
+  }
+
+  void addPattern(Long clientID, String regex, Pattern pattern) {
+    if (isLiteral(regex)) {
+      addClient(clientsByLiteralPattern, regex, clientID);
+      return;
+    }
+    PatternInterest interest = patterns.get(regex);
+    if (interest == null) {
+      interest = new PatternInterest(pattern);
+      patterns.put(regex, interest);
+      patternTrie.add(literalPrefix(regex), 0, regex, interest);
+    }
+    interest.clients.add(clientID);
+  }
+
+  void removePattern(Long clientID, String regex) {
+    if (isLiteral(regex)) {
+      removeClient(clientsByLiteralPattern, regex, clientID);
+      return;
+    }
+    PatternInterest interest = patterns.get(regex);
+    if (interest != null && interest.clients.remove(clientID) && interest.clients.isEmpty()) {
+      patterns.remove(regex);
+      patternTrie.remove(literalPrefix(regex), 0, regex);
+    }
+  }
+
+  void removePatterns(Long clientID, Collection<?> regexes) {
+    for (Object regex : regexes) {
+      removePattern(clientID, (String) regex);
+    }
+  }
+
+  void clear() {
+    clientsByKey.clear();
+    clientsByLiteralPattern.clear();
+    patterns.clear();
+    patternTrie.children.clear();
+    patternTrie.patterns.clear();
+  }
+
+  /**
+   * Adds the IDs of the clients interested in the given key to the result, creating it if it is
+   * null.
+   *
+   * @return the result set, or null if it was null and no client is interested in the key
+   */
+  Set<Long> addInterestedClients(Object key, Set<Long> result) {
+    result = addAll(result, clientsByKey.get(key));
+    if (!(key instanceof String)) {
+      return result;
+    }
+    String stringKey = (String) key;
+    result = addAll(result, clientsByLiteralPattern.get(stringKey));
+    if (patterns.isEmpty()) {
+      return result;
+    }
+    PrefixNode node = patternTrie;
+    int index = 0;
+    while (node != null) {
+      for (PatternInterest interest : node.patterns.values()) {
+        if (interest.pattern.matcher(stringKey).matches()) {
+          result = addAll(result, interest.clients);
+        }
+      }
+      if (index == stringKey.length()) {
+        break;
+      }
+      node = node.children.get(stringKey.charAt(index++));
+    }
+    return result;
+  }
+
+  /** returns the number of distinct non-literal expressions currently registered */
+  int getPatternCount() {
+    return patterns.size();
+  }
+
+  /**
+   * Returns the literal text every string matched by the expression must start with. Expressions
+   * with alternation yield an empty prefix, and a quantifier that may skip the preceding
+   * character removes it from the prefix.
+   */
+  static String literalPrefix(String regex) {
+    if (regex.indexOf('|') >= 0) {
+      return "";
+    }
+    int end = 0;
+    while (end < regex.length() && META_CHARACTERS.indexOf(regex.charAt(end)) < 0) {
+      end++;
+    }
+    if (end < regex.length() && end > 0) {
+      char quantifier = regex.charAt(end);
+      if (quantifier == '*' || quantifier == '?' || quantifier == '{') {
+        end--;
+        if (end > 0 && Character.isHighSurrogate(regex.charAt(end - 1))) {
+          end--;
+        }
+      }
+    }
+    return regex.substring(0, end);
+  }
+
+  /** returns true if the expression only matches its own text */
+  static boolean isLiteral(String regex) {
+    for (int i = 0; i < regex.length(); i++) {
+      if (META_CHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static <K> void addClient(Map<K, Set<Long>> index, K key, Long clientID) {
+    Set<Long> clients = index.get(key);
+    if (clients == null) {
+      clients = Collections.newSetFromMap(new ConcurrentHashMap<>());
+      index.put(key, clients);
+    }
+    clients.add(clientID);
+  }
+
+  private static <K> void removeClient(Map<K, Set<Long>> index, K key, Long clientID) {
+    Set<Long> clients = index.get(key);
+    if (clients != null && clients.remove(clientID) && clients.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  private static Set<Long> addAll(Set<Long> result, Set<Long> clients) {
+    if (clients == null || clients.isEmpty()) {
+      return result;
+    }
+    if (result == null) {
+      result = new HashSet<>();
+    }
+    result.addAll(clients);
+    return result;
+  }
+
+  /** a compiled expression shared by all of the clients that registered it */
+  private static class PatternInterest {
+    final Pattern pattern;
+    final Set<Long> clients = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    PatternInterest(Pattern pattern) {
+      this.pattern = pattern;
+    }
+  }
+
+  /** a trie node holding the expressions whose literal prefix ends at this node */
+  private static class PrefixNode {
+    final Map<Character, PrefixNode> children = new ConcurrentHashMap<>();
+    final Map<String, PatternInterest> patterns = new ConcurrentHashMap<>();
+
+    void add(String prefix, int depth, String regex, PatternInterest interest) {
+      if (depth == prefix.length()) {
+        patterns.put(regex, interest);
+        return;
+      }
+      Character c = prefix.charAt(depth);
+      PrefixNode child = children.get(c);
+      if (child == null) {
+        child = new PrefixNode();
+        children.put(c, child);
+      }
+      child.add(prefix, depth + 1, regex, interest);
+    }
+
+    /** removes the expression and returns true if this node is no longer needed */
+    boolean remove(String prefix, int depth, String regex) {
+      if (depth == prefix.length()) {
+        patterns.remove(regex);
+      } else {
+        Character c = prefix.charAt(depth);
+        PrefixNode child = children.get(c);
+        if (child != null && child.remove(prefix, depth + 1, regex)) {
+          children.remove(c);
+        }
+      }
+      return patterns.isEmpty() && children.isEmpty();
+    }
+  }
+}
@@ -2158,10 +2158,22 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
    * Distribute Tombstone garbage-collection information to all peers with storage
    */
   protected EventID distributeTombstoneGC(Set<Object> keysRemoved) {
+    return distributeTombstoneGC(keysRemoved, null);
+  }
+
+  /**
+   * Distribute Tombstone garbage-collection information to all peers with storage. If a batch is
+   * given the information is added to the batch's message for each peer instead of being sent in a
+   * message of its own, unless a peer is too old to understand the batch.
+   */
+  protected EventID distributeTombstoneGC(Set<Object> keysRemoved,
+      TombstoneGCBatchMessage.Batch batch) {
     getCachePerfStats().incTombstoneGCCount();
     EventID eventId = new EventID(getSystem());
-    DistributedTombstoneOperation gc = DistributedTombstoneOperation.gc(this, eventId);
-    gc.distribute();
+    if (batch == null || !batch.add(this, eventId)) {
+      DistributedTombstoneOperation gc = DistributedTombstoneOperation.gc(this, eventId);
+      gc.distribute();
+    }
     notifyClientsOfTombstoneGC(getVersionVector().getTombstoneGCVector(), keysRemoved, eventId,
         null);
     return eventId;
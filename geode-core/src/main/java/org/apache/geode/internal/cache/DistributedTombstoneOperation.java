@@ -121,6 +121,61 @@ public class DistributedTombstoneOperation extends DistributedCacheOperation {
     return false;
   }
 
+  /**
+   * Writes the region versions up to which tombstones can be collected, as sent in a
+   * {@link TombstoneMessage}.
+   */
+  static void writeGCVersions(Map<VersionSource, Long> regionGCVersions, DataOutput out)
+      throws IOException {
+    out.writeInt(regionGCVersions.size());
+    boolean persistent = false;
+    String msg = "Found mixed membership ids while serializing Tombstone GC message.";
+    if (!regionGCVersions.isEmpty()) {
+      VersionSource firstEntry = regionGCVersions.keySet().iterator().next();
+      if (firstEntry instanceof DiskStoreID) {
+        persistent = true;
+      }
+    }
+    out.writeBoolean(persistent);
+    for (Map.Entry<VersionSource, Long> entry : regionGCVersions.entrySet()) {
+      VersionSource member = entry.getKey();
+      if (member instanceof DiskStoreID) {
+        if (!persistent) {
+          throw new InternalGemFireException(msg);
+        }
+        InternalDataSerializer.invokeToData((DiskStoreID) member, out);
+      } else {
+        if (persistent) {
+          throw new InternalGemFireException(msg);
+        }
+        ((InternalDistributedMember) member).writeEssentialData(out);
+      }
+      out.writeLong(entry.getValue());
+    }
+  }
+
+  /**
+   * Reads region versions written by {@link #writeGCVersions(Map, DataOutput)}.
+   */
+  static Map<VersionSource, Long> readGCVersions(DataInput in)
+      throws IOException, ClassNotFoundException {
+    int count = in.readInt();
+    Map<VersionSource, Long> regionGCVersions = new HashMap<VersionSource, Long>(count);
+    boolean persistent = in.readBoolean();
+    for (int i = 0; i < count; i++) {
+      VersionSource mbr;
+      if (persistent) {
+        DiskStoreID id = new DiskStoreID();
+        InternalDataSerializer.invokeFromData(id, in);
+        mbr = id;
+      } else {
+        mbr = InternalDistributedMember.readEssentialData(in);
+      }
+      regionGCVersions.put(mbr, Long.valueOf(in.readLong()));
+    }
+    return regionGCVersions;
+  }
+
   public static class TombstoneMessage extends CacheOperationMessage
       implements SerializationVersions {
     // protected long regionVersion;
@@ -189,20 +244,7 @@ public class DistributedTombstoneOperation extends DistributedCacheOperation {
       super.fromData(in, context);
       this.op = TOperation.values()[in.readByte()];
       // this.regionVersion = in.readLong();
-      int count = in.readInt();
-      this.regionGCVersions = new HashMap<VersionSource, Long>(count);
-      boolean persistent = in.readBoolean();
-      for (int i = 0; i < count; i++) {
-        VersionSource mbr;
-        if (persistent) {
-          DiskStoreID id = new DiskStoreID();
-          InternalDataSerializer.invokeFromData(id, in);
-          mbr = id;
-        } else {
-          mbr = InternalDistributedMember.readEssentialData(in);
-        }
-        this.regionGCVersions.put(mbr, Long.valueOf(in.readLong()));
-      }
+      this.regionGCVersions = readGCVersions(in);
       this.eventID = (EventID) DataSerializer.readObject(in);
     }
 
@@ -212,31 +254,7 @@ public class DistributedTombstoneOperation extends DistributedCacheOperation {
       super.toData(out, context);
       out.writeByte(this.op.ordinal());
       // out.writeLong(this.regionVersion);
-      out.writeInt(this.regionGCVersions.size());
-      boolean persistent = false;
-      String msg = "Found mixed membership ids while serializing Tombstone GC message.";
-      if (!regionGCVersions.isEmpty()) {
-        VersionSource firstEntry = regionGCVersions.keySet().iterator().next();
-        if (firstEntry instanceof DiskStoreID) {
-          persistent = true;
-        }
-      }
-      out.writeBoolean(persistent);
-      for (Map.Entry<VersionSource, Long> entry : this.regionGCVersions.entrySet()) {
-        VersionSource member = entry.getKey();
-        if (member instanceof DiskStoreID) {
-          if (!persistent) {
-            throw new InternalGemFireException(msg);
-          }
-          InternalDataSerializer.invokeToData((DiskStoreID) member, out);
-        } else {
-          if (persistent) {
-            throw new InternalGemFireException(msg);
-          }
-          ((InternalDistributedMember) member).writeEssentialData(out);
-        }
-        out.writeLong(entry.getValue());
-      }
+      writeGCVersions(this.regionGCVersions, out);
       DataSerializer.writeObject(this.eventID, out);
     }
 
@@ -264,6 +264,20 @@ public class EntryExpiryTask extends ExpiryTask {
     return action;
   }
 
+  /**
+   * Waits for reads on other members that may not have been reported yet before checking whether
+   * the entry has been idle on them too.
+   */
+  @Override
+  public long getIdleExpirationTime() throws EntryNotFoundException {
+    long idleExpirationTime = super.getIdleExpirationTime();
+    if (idleExpirationTime > 0L && !getIdleAttributes().getAction().isLocal()
+        && !SystemPropertyHelper.restoreIdleExpirationBehavior()) {
+      idleExpirationTime += getLocalRegion().getRemoteAccessDelay();
+    }
+    return idleExpirationTime;
+  }
+
   @Override
   protected boolean isIdleExpiredOnOthers() throws EntryNotFoundException {
     if (getIdleAttributes().getTimeout() <= 0L) {
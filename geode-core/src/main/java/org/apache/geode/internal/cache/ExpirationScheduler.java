@@ -26,7 +26,9 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
  * ExpirationScheduler uses a single instance of java.util.Timer (and therefore a single thread) per
- * VM to schedule and execute region and entry expiration tasks.
+ * VM to schedule and execute region and entry expiration tasks. If the
+ * gemfire.expiration.timingWheel system property is set, entry expiration tasks are scheduled on an
+ * {@link ExpirationWheel} instead.
  */
 
 public class ExpirationScheduler {
@@ -37,8 +39,33 @@ public class ExpirationScheduler {
   private static final int MAX_PENDING_CANCELS = Integer
       .getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_PENDING_CANCELS", 10000).intValue();
 
+  private static final boolean USE_TIMING_WHEEL =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "expiration.timingWheel");
+
+  /** the milliseconds covered by one tick of the expiration wheel */
+  private static final long WHEEL_TICK_MILLIS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "expiration.wheelTickMillis", 10);
+
+  /** the number of independently locked shards of the expiration wheel */
+  private static final int WHEEL_SHARDS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "expiration.wheelShards",
+          Runtime.getRuntime().availableProcessors());
+
+  /** the maximum number of entry expiration tasks of a region run together */
+  private static final int WHEEL_BATCH_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "expiration.wheelBatchSize", 100);
+
+  private final ExpirationWheel wheel;
+
   public ExpirationScheduler(InternalDistributedSystem ds) {
     this.timer = new SystemTimer(ds, true);
+    if (USE_TIMING_WHEEL) {
+      this.wheel = new ExpirationWheel(WHEEL_TICK_MILLIS, WHEEL_SHARDS, WHEEL_BATCH_SIZE,
+          new ExpirationStats(ds, "expirationWheel"));
+      this.wheel.start();
+    } else {
+      this.wheel = null;
+    }
   }
 
   public void forcePurge() {
@@ -91,11 +118,32 @@ public class ExpirationScheduler {
 
   /** schedules the given entry expiration task and returns true; returns false if not scheduled */
   public boolean addEntryExpiryTask(EntryExpiryTask task) {
-    return addExpiryTask(task) != null;
+    if (wheel == null) {
+      return addExpiryTask(task) != null;
+    }
+    try {
+      long expiryMillis = task.getExpiryMillis();
+      if (logger.isTraceEnabled()) {
+        logger.trace("Scheduling  {}  on the expiration wheel to fire in  {}  ms", task,
+            expiryMillis);
+      }
+      wheel.schedule(task, System.currentTimeMillis() + expiryMillis);
+    } catch (EntryNotFoundException e) {
+      // ignore - there are unsynchronized paths that allow an entry to
+      // be destroyed out from under us.
+      return false;
+    } catch (IllegalStateException e) {
+      // the wheel is stopped or the task is already scheduled
+      return false;
+    }
+    return true;
   }
 
   /** @see java.util.Timer#cancel() */
   public void cancel() {
     timer.cancel();
+    if (wheel != null) {
+      wheel.stop();
+    }
   }
 }
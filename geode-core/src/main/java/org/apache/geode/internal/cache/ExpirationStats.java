@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.annotations.Immutable;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * Statistics about the entry expiration tasks scheduled on an {@link ExpirationWheel}.
+ *
+ * @since Geode 1.12
+ */
+public class ExpirationStats {
+
+  @Immutable
+  private static final StatisticsType type;
+
+  private static final int scheduledTasksId;
+  private static final int expiredTasksId;
+  private static final int expirationLagId;
+  private static final int maxExpirationLagId;
+  private static final int expirationBatchesId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    type = f.createType("ExpirationStatistics",
+        "Statistics about the scheduling of entry expiration tasks",
+        new StatisticDescriptor[] {
+            f.createLongGauge("scheduledTasks",
+                "The number of entry expiration tasks currently waiting to fire.", "tasks"),
+            f.createLongCounter("expiredTasks",
+                "The total number of entry expiration tasks that have fired.", "tasks"),
+            f.createLongCounter("expirationLag",
+                "The total time between when entry expiration tasks were due and when they fired.",
+                "milliseconds"),
+            f.createLongGauge("maxExpirationLag",
+                "The longest time an entry expiration task fired after it was due during the last tick.",
+                "milliseconds"),
+            f.createLongCounter("expirationBatches",
+                "The total number of batches entry expiration tasks were run in.", "batches")});
+
+    scheduledTasksId = type.nameToId("scheduledTasks");
+    expiredTasksId = type.nameToId("expiredTasks");
+    expirationLagId = type.nameToId("expirationLag");
+    maxExpirationLagId = type.nameToId("maxExpirationLag");
+    expirationBatchesId = type.nameToId("expirationBatches");
+  }
+
+  private final Statistics stats;
+
+  public ExpirationStats(StatisticsFactory f, String name) {
+    this.stats = f.createAtomicStatistics(type, name);
+  }
+
+  public void close() {
+    this.stats.close();
+  }
+
+  public long getScheduledTasks() {
+    return this.stats.getLong(scheduledTasksId);
+  }
+
+  public void incScheduledTasks(long delta) {
+    this.stats.incLong(scheduledTasksId, delta);
+  }
+
+  public long getExpiredTasks() {
+    return this.stats.getLong(expiredTasksId);
+  }
+
+  /**
+   * Records tasks that fired after being due for a total and at most the given number of
+   * milliseconds.
+   */
+  public void endTick(long expiredTasks, long totalLag, long maxLag, long batches) {
+    this.stats.incLong(expiredTasksId, expiredTasks);
+    this.stats.incLong(expirationLagId, totalLag);
+    this.stats.setLong(maxExpirationLagId, maxLag);
+    this.stats.incLong(expirationBatchesId, batches);
+  }
+
+  public long getExpirationLag() {
+    return this.stats.getLong(expirationLagId);
+  }
+
+  public long getExpirationBatches() {
+    return this.stats.getLong(expirationBatchesId);
+  }
+}
@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.logging.internal.executors.LoggingThread;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * ExpirationWheel schedules entry expiration tasks on a hierarchical timing wheel, as an
+ * alternative to giving each task its own slot in the binary heap of a {@link java.util.Timer}.
+ *
+ * Each of the six levels of the wheel has 256 slots; a slot of the lowest level spans one tick and
+ * a slot of each higher level spans all of the slots of the level below. A task is filed in the
+ * lowest level whose current rotation contains its deadline, and moves down a level whenever the
+ * wheel reaches its slot. Scheduling and cancelling a task are therefore constant time, and the
+ * task itself is the list node, so a scheduled task costs no allocation.
+ *
+ * The wheel is split into shards with their own locks so that threads scheduling and cancelling
+ * tasks do not contend. A single thread advances all shards once per tick and runs the tasks that
+ * are due in batches grouped by region (so a bucket's expired entries are handled together).
+ *
+ * @since Geode 1.12
+ */
+public class ExpirationWheel {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int BITS = 8;
+
+  private static final int SLOTS = 1 << BITS;
+
+  private static final int MASK = SLOTS - 1;
+
+  private static final int LEVELS = 6;
+
+  private final long tickMillis;
+
+  private final int batchSize;
+
+  private final Shard[] shards;
+
+  private final ExpirationStats stats;
+
+  private final Object tickLock = new Object();
+
+  private volatile boolean stopped;
+
+  private Thread thread;
+
+  /**
+   * @param tickMillis the number of milliseconds covered by a slot of the lowest level
+   * @param shardCount the number of independently locked shards, rounded up to a power of two
+   * @param batchSize the maximum number of tasks run together
+   * @param stats the statistics to update, or null
+   */
+  public ExpirationWheel(long tickMillis, int shardCount, int batchSize, ExpirationStats stats) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+    }
+    this.tickMillis = tickMillis;
+    this.batchSize = Math.max(1, batchSize);
+    this.stats = stats;
+    int count = Integer.highestOneBit(Math.max(1, Math.min(shardCount, 1 << 10)) * 2 - 1);
+    long currentTick = System.currentTimeMillis() / tickMillis;
+    this.shards = new Shard[count];
+    for (int i = 0; i < count; i++) {
+      this.shards[i] = new Shard(this, currentTick);
+    }
+  }
+
+  /** starts the thread that runs tasks as they become due */
+  public synchronized void start() {
+    if (thread == null) {
+      thread = new LoggingThread("ExpirationWheel", this::runTicks);
+      thread.start();
+    }
+  }
+
+  /** stops running tasks; scheduled tasks are dropped */
+  public void stop() {
+    stopped = true;
+    synchronized (tickLock) {
+      tickLock.notifyAll();
+    }
+    if (stats != null) {
+      stats.close();
+    }
+  }
+
+  /**
+   * Schedules the task to run once the given time has passed.
+   *
+   * @param deadline the absolute time, in milliseconds since the epoch, the task is due
+   * @throws IllegalStateException if the wheel is stopped or the task is already scheduled or
+   *         cancelled
+   */
+  public void schedule(ExpiryTask task, long deadline) {
+    if (stopped) {
+      throw new IllegalStateException("Expiration wheel has been stopped");
+    }
+    // round up, so a task never runs before its deadline
+    long tick = (deadline + tickMillis - 1) / tickMillis;
+    Shard shard = shards[spread(System.identityHashCode(task)) & (shards.length - 1)];
+    synchronized (shard) {
+      if (task.wheelSlot != null || task.wheelCancelled) {
+        throw new IllegalStateException("Task already scheduled or cancelled");
+      }
+      task.wheelTick = tick;
+      shard.place(task);
+      shard.size++;
+    }
+    if (stats != null) {
+      stats.incScheduledTasks(1);
+    }
+  }
+
+  /**
+   * Removes a scheduled task from the wheel it is scheduled on.
+   *
+   * @return true if the task was scheduled and will not run, false if it was not scheduled or has
+   *         already been taken to run
+   */
+  static boolean cancel(ExpiryTask task) {
+    for (;;) {
+      Slot slot = task.wheelSlot;
+      if (slot == null) {
+        return false;
+      }
+      Shard shard = slot.shard;
+      synchronized (shard) {
+        if (task.wheelSlot != slot) {
+          // moved to another slot by a cascade, or taken to run
+          continue;
+        }
+        slot.unlink(task);
+        shard.size--;
+      }
+      if (shard.wheel.stats != null) {
+        shard.wheel.stats.incScheduledTasks(-1);
+      }
+      return true;
+    }
+  }
+
+  /** returns the number of tasks scheduled and not yet taken to run */
+  public int size() {
+    int size = 0;
+    for (Shard shard : shards) {
+      synchronized (shard) {
+        size += shard.size;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Advances every shard to the given time and returns the tasks that became due, in no particular
+   * order.
+   */
+  List<ExpiryTask> advance(long now) {
+    long toTick = now / tickMillis;
+    List<ExpiryTask> due = new ArrayList<>();
+    for (Shard shard : shards) {
+      synchronized (shard) {
+        int before = due.size();
+        shard.advance(toTick, due);
+        shard.size -= due.size() - before;
+      }
+    }
+    if (stats != null && !due.isEmpty()) {
+      stats.incScheduledTasks(-due.size());
+    }
+    return due;
+  }
+
+  /**
+   * Groups the given tasks by region into batches of at most batchSize tasks.
+   */
+  List<List<ExpiryTask>> toBatches(List<ExpiryTask> due) {
+    Map<LocalRegion, List<ExpiryTask>> byRegion = new IdentityHashMap<>();
+    List<List<ExpiryTask>> batches = new ArrayList<>();
+    for (ExpiryTask task : due) {
+      LocalRegion region = task.getLocalRegion();
+      List<ExpiryTask> batch = byRegion.get(region);
+      if (batch == null || batch.size() == batchSize) {
+        batch = new ArrayList<>(Math.min(batchSize, due.size()));
+        byRegion.put(region, batch);
+        batches.add(batch);
+      }
+      batch.add(task);
+    }
+    return batches;
+  }
+
+  private void runTicks() {
+    while (!stopped) {
+      try {
+        long now = System.currentTimeMillis();
+        List<ExpiryTask> due = advance(now);
+        if (!due.isEmpty()) {
+          runDue(due, now);
+        }
+        long nextTick = (now / tickMillis + 1) * tickMillis;
+        synchronized (tickLock) {
+          long wait = nextTick - System.currentTimeMillis();
+          if (wait > 0 && !stopped) {
+            tickLock.wait(wait);
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (VirtualMachineError err) {
+        SystemFailure.initiateFailure(err);
+        throw err;
+      } catch (Throwable t) {
+        SystemFailure.checkFailure();
+        logger.warn("Expiration wheel encountered exception", t);
+      }
+    }
+  }
+
+  private void runDue(List<ExpiryTask> due, long now) {
+    long totalLag = 0;
+    long maxLag = 0;
+    for (ExpiryTask task : due) {
+      long lag = Math.max(0, now - task.wheelTick * tickMillis);
+      totalLag += lag;
+      maxLag = Math.max(maxLag, lag);
+    }
+    List<List<ExpiryTask>> batches = toBatches(due);
+    for (List<ExpiryTask> batch : batches) {
+      ExpiryTask.runBatch(batch);
+    }
+    if (stats != null) {
+      stats.endTick(due.size(), totalLag, maxLag, batches.size());
+    }
+  }
+
+  private static int spread(int hash) {
+    return (hash >>> 16) ^ hash;
+  }
+
+  /** an independently locked timing wheel holding some of the scheduled tasks */
+  static class Shard {
+    final ExpirationWheel wheel;
+
+    final Slot[][] levels = new Slot[LEVELS][SLOTS];
+
+    /** tasks whose deadline had already passed when they were scheduled */
+    final Slot due;
+
+    long currentTick;
+
+    int size;
+
+    Shard(ExpirationWheel wheel, long currentTick) {
+      this.wheel = wheel;
+      this.currentTick = currentTick;
+      this.due = new Slot(this);
+      for (Slot[] level : levels) {
+        for (int i = 0; i < SLOTS; i++) {
+          level[i] = new Slot(this);
+        }
+      }
+    }
+
+    /** files the task in the slot its tick falls in */
+    void place(ExpiryTask task) {
+      long tick = task.wheelTick;
+      if (tick <= currentTick) {
+        due.link(task);
+        return;
+      }
+      int level = 0;
+      while (level < LEVELS - 1
+          && (tick >>> (BITS * (level + 1))) != (currentTick >>> (BITS * (level + 1)))) {
+        level++;
+      }
+      levels[level][(int) ((tick >>> (BITS * level)) & MASK)].link(task);
+    }
+
+    void advance(long toTick, List<ExpiryTask> result) {
+      while (currentTick < toTick) {
+        long tick = ++currentTick;
+        int wrapped = 0;
+        while (wrapped < LEVELS - 1 && ((tick >>> (BITS * wrapped)) & MASK) == 0) {
+          wrapped++;
+        }
+        // move the tasks of the higher level slots just reached down, highest first
+        for (int level = wrapped; level >= 1; level--) {
+          Slot slot = levels[level][(int) ((tick >>> (BITS * level)) & MASK)];
+          ExpiryTask task = slot.detachAll();
+          while (task != null) {
+            ExpiryTask next = task.wheelNext;
+            task.wheelNext = null;
+            task.wheelPrevious = null;
+            place(task);
+            task = next;
+          }
+        }
+        levels[0][(int) (tick & MASK)].drainTo(result);
+      }
+      // scheduled in the past, or moved down from a higher level exactly at their tick
+      due.drainTo(result);
+    }
+  }
+
+  /** a doubly linked list of the tasks due in one slot of a shard, guarded by the shard */
+  static class Slot {
+    final Shard shard;
+
+    private ExpiryTask head;
+
+    Slot(Shard shard) {
+      this.shard = shard;
+    }
+
+    void link(ExpiryTask task) {
+      task.wheelNext = head;
+      task.wheelPrevious = null;
+      if (head != null) {
+        head.wheelPrevious = task;
+      }
+      head = task;
+      task.wheelSlot = this;
+    }
+
+    void unlink(ExpiryTask task) {
+      ExpiryTask next = task.wheelNext;
+      ExpiryTask previous = task.wheelPrevious;
+      if (previous == null) {
+        head = next;
+      } else {
+        previous.wheelNext = next;
+      }
+      if (next != null) {
+        next.wheelPrevious = previous;
+      }
+      task.wheelNext = null;
+      task.wheelPrevious = null;
+      task.wheelSlot = null;
+    }
+
+    /** removes all tasks from this slot and returns the first of them, still linked */
+    ExpiryTask detachAll() {
+      ExpiryTask first = head;
+      head = null;
+      return first;
+    }
+
+    void drainTo(List<ExpiryTask> result) {
+      ExpiryTask task = head;
+      head = null;
+      while (task != null) {
+        ExpiryTask next = task.wheelNext;
+        task.wheelNext = null;
+        task.wheelPrevious = null;
+        task.wheelSlot = null;
+        result.add(task);
+        task = next;
+      }
+    }
+  }
+}
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -45,6 +46,19 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
 
   private LocalRegion region; // no longer final so cancel can null it out see bug 37574
 
+  /** the slot of an {@link ExpirationWheel} this task is scheduled in, guarded by its shard */
+  volatile ExpirationWheel.Slot wheelSlot;
+
+  /** the neighbours of this task in its wheel slot, guarded by the shard */
+  ExpiryTask wheelNext;
+  ExpiryTask wheelPrevious;
+
+  /** the wheel tick this task is due at */
+  long wheelTick;
+
+  /** set once this task is cancelled, so that it can no longer be put on a wheel */
+  volatile boolean wheelCancelled;
+
   @MakeNotStatic
   private static final ExecutorService executor;
 
@@ -307,6 +321,11 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
   @Override
   public boolean cancel() {
     boolean superCancel = super.cancel();
+    if (!superCancel) {
+      // never scheduled on a timer, but maybe on a wheel
+      this.wheelCancelled = true;
+      superCancel = ExpirationWheel.cancel(this);
+    }
     LocalRegion lr = getLocalRegion();
     if (lr != null) {
       if (superCancel) {
@@ -373,6 +392,30 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
     }
   }
 
+  /**
+   * Runs tasks that are due together: in one hand-off to the expiry thread pool if there is one,
+   * otherwise inline.
+   */
+  static void runBatch(List<ExpiryTask> tasks) {
+    if (executor == null) {
+      for (ExpiryTask task : tasks) {
+        task.run();
+      }
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        for (ExpiryTask task : tasks) {
+          task.runInThreadPool();
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Rejected execution of expiration tasks", ex);
+      }
+    }
+  }
+
   protected void runInThreadPool() {
     try {
       if (isCacheClosing() || getLocalRegion().isClosed() || getLocalRegion().isDestroyed()) {
@@ -154,6 +154,14 @@ public class FilterProfile implements DataSerializableFixedID {
 
   private final CopyOnWriteHashMap<Object, Map> filtersOfInterestInv = new CopyOnWriteHashMap<>();
 
+  /**
+   * Index over keysOfInterest and patternsOfInterest used to route events. It is maintained along
+   * with those maps and is not part of the serialized profile.
+   */
+  private final transient ClientInterestIndex interestIndex = new ClientInterestIndex();
+
+  private final transient ClientInterestIndex interestIndexInv = new ClientInterestIndex();
+
   /**
    * Set of clients that we have ALL_KEYS interest for and who want updates
    */
@@ -273,6 +281,7 @@ public class FilterProfile implements DataSerializableFixedID {
           Map<Object, Set> koi =
               updatesAsInvalidates ? getKeysOfInterestInv() : getKeysOfInterest();
           registerKeyInMap(interest, keysRegistered, clientID, koi);
+          getInterestIndex(updatesAsInvalidates).addKey(clientID, interest);
           break;
         case InterestType.REGULAR_EXPRESSION:
           opType = operationType.REGISTER_PATTERN;
@@ -284,7 +293,8 @@ public class FilterProfile implements DataSerializableFixedID {
           } else {
             Map<Object, Map<Object, Pattern>> pats =
                 updatesAsInvalidates ? getPatternsOfInterestInv() : getPatternsOfInterest();
-            registerPatternInMap(interest, keysRegistered, clientID, pats);
+            registerPatternInMap(interest, keysRegistered, clientID, pats,
+                getInterestIndex(updatesAsInvalidates));
           }
           break;
         case InterestType.FILTER_CLASS: {
@@ -329,8 +339,9 @@ public class FilterProfile implements DataSerializableFixedID {
   }
 
   private void registerPatternInMap(Object interest, Set keysRegistered, Long clientID,
-      Map<Object, Map<Object, Pattern>> pats) {
+      Map<Object, Map<Object, Pattern>> pats, ClientInterestIndex index) {
     Pattern pattern = Pattern.compile((String) interest);
+    index.addPattern(clientID, (String) interest, pattern);
     Map<Object, Pattern> interestMap = pats.get(clientID);
     if (interestMap == null) {
       interestMap = new CopyOnWriteHashMap<Object, Pattern>();
@@ -440,6 +451,7 @@ public class FilterProfile implements DataSerializableFixedID {
       return;
     }
     if (interest == UnregisterAllInterest.singleton()) {
+      unregisterClientPatternsFromIndex(clientID);
       unregisterClientIDFromMap(clientID, getPatternsOfInterest(), keysUnregistered);
       unregisterClientIDFromMap(clientID, getPatternsOfInterestInv(), keysUnregistered);
       if (getAllKeyClients().remove(clientID)) {
@@ -451,9 +463,26 @@ public class FilterProfile implements DataSerializableFixedID {
     } else {
       unregisterPatternFromMap(getPatternsOfInterest(), interest, clientID, keysUnregistered);
       unregisterPatternFromMap(getPatternsOfInterestInv(), interest, clientID, keysUnregistered);
+      this.interestIndex.removePattern(clientID, (String) interest);
+      this.interestIndexInv.removePattern(clientID, (String) interest);
     }
   }
 
+  private void unregisterClientPatternsFromIndex(Long clientID) {
+    Map<Object, Pattern> pats = getPatternsOfInterest().get(clientID);
+    if (pats != null) {
+      this.interestIndex.removePatterns(clientID, pats.keySet());
+    }
+    pats = getPatternsOfInterestInv().get(clientID);
+    if (pats != null) {
+      this.interestIndexInv.removePatterns(clientID, pats.keySet());
+    }
+  }
+
+  private ClientInterestIndex getInterestIndex(boolean updatesAsInvalidates) {
+    return updatesAsInvalidates ? this.interestIndexInv : this.interestIndex;
+  }
+
   private void unregisterPatternFromMap(Map<Object, Map<Object, Pattern>> map, Object interest,
       Long clientID, Set keysUnregistered) {
     Map interestMap = map.get(clientID);
@@ -494,7 +523,8 @@ public class FilterProfile implements DataSerializableFixedID {
     }
     unregisterKeyFromMap(getKeysOfInterest(), interest, clientID, keysUnregistered);
     unregisterKeyFromMap(getKeysOfInterestInv(), interest, clientID, keysUnregistered);
-    return;
+    this.interestIndex.removeKey(clientID, interest);
+    this.interestIndexInv.removeKey(clientID, interest);
   }
 
   private void unregisterKeyFromMap(Map<Object, Set> map, Object interest, Long clientID,
@@ -533,6 +563,7 @@ public class FilterProfile implements DataSerializableFixedID {
         keysRegistered.removeAll(interestList.getSnapshot());
       }
       interestList.addAll(keys);
+      getInterestIndex(updatesAsInvalidates).addKeys(clientID, keys);
 
       if (this.region != null && this.isLocalProfile) {
         sendProfileOperation(clientID, operationType.REGISTER_KEYS, keys, updatesAsInvalidates);
@@ -572,6 +603,8 @@ public class FilterProfile implements DataSerializableFixedID {
           getKeysOfInterestInv().remove(clientID);
         }
       }
+      this.interestIndex.removeKeys(clientID, keys);
+      this.interestIndexInv.removeKeys(clientID, keys);
 
       if (this.region != null && this.isLocalProfile) {
         sendProfileOperation(clientID, operationType.UNREGISTER_KEYS, keys, false);
@@ -715,27 +748,27 @@ public class FilterProfile implements DataSerializableFixedID {
         }
       }
       {
-        Map<Object, Set> keys = this.getKeysOfInterest();
-        if (keys.containsKey(clientID)) {
-          keys.remove(clientID);
+        Set keys = this.getKeysOfInterest().remove(clientID);
+        if (keys != null) {
+          this.interestIndex.removeKeys(clientID, keys);
         }
       }
       {
-        Map<Object, Set> keys = this.getKeysOfInterestInv();
-        if (keys.containsKey(clientID)) {
-          keys.remove(clientID);
+        Set keys = this.getKeysOfInterestInv().remove(clientID);
+        if (keys != null) {
+          this.interestIndexInv.removeKeys(clientID, keys);
         }
       }
       {
-        Map<Object, Map<Object, Pattern>> pats = this.getPatternsOfInterest();
-        if (pats.containsKey(clientID)) {
-          pats.remove(clientID);
+        Map<Object, Pattern> pats = this.getPatternsOfInterest().remove(clientID);
+        if (pats != null) {
+          this.interestIndex.removePatterns(clientID, pats.keySet());
         }
       }
       {
-        Map<Object, Map<Object, Pattern>> pats = this.getPatternsOfInterestInv();
-        if (pats.containsKey(clientID)) {
-          pats.remove(clientID);
+        Map<Object, Pattern> pats = this.getPatternsOfInterestInv().remove(clientID);
+        if (pats != null) {
+          this.interestIndexInv.removePatterns(clientID, pats.keySet());
         }
       }
       {
@@ -1203,16 +1236,10 @@ public class FilterProfile implements DataSerializableFixedID {
             fillInCQRoutingInfo(ev, true, NO_PROFILES, fri);
             fi = fri.getLocalFilterInfo();
           }
-          if (this.allKeyClientsInv != null || this.keysOfInterestInv != null
-              || this.patternsOfInterestInv != null || this.filtersOfInterestInv != null) {
-            clientsInv = this.getInterestedClients(ev, this.allKeyClientsInv,
-                this.keysOfInterestInv, this.patternsOfInterestInv, this.filtersOfInterestInv);
-          }
-          if (this.allKeyClients != null || this.keysOfInterest != null
-              || this.patternsOfInterest != null || this.filtersOfInterest != null) {
-            clients = this.getInterestedClients(ev, this.allKeyClients, this.keysOfInterest,
-                this.patternsOfInterest, this.filtersOfInterest);
-          }
+          clientsInv = this.getInterestedClients(ev, this.allKeyClientsInv,
+              this.interestIndexInv, this.filtersOfInterestInv);
+          clients = this.getInterestedClients(ev, this.allKeyClients, this.interestIndex,
+              this.filtersOfInterest);
           if (clients != null || clientsInv != null) {
             if (fi == null) {
               fi = new FilterInfo();
@@ -1258,16 +1285,10 @@ public class FilterProfile implements DataSerializableFixedID {
             fillInCQRoutingInfo(ev, true, NO_PROFILES, fri);
             fi = fri.getLocalFilterInfo();
           }
-          if (this.allKeyClientsInv != null || this.keysOfInterestInv != null
-              || this.patternsOfInterestInv != null || this.filtersOfInterestInv != null) {
-            clientsInv = this.getInterestedClients(ev, this.allKeyClientsInv,
-                this.keysOfInterestInv, this.patternsOfInterestInv, this.filtersOfInterestInv);
-          }
-          if (this.allKeyClients != null || this.keysOfInterest != null
-              || this.patternsOfInterest != null || this.filtersOfInterest != null) {
-            clients = this.getInterestedClients(ev, this.allKeyClients, this.keysOfInterest,
-                this.patternsOfInterest, this.filtersOfInterest);
-          }
+          clientsInv = this.getInterestedClients(ev, this.allKeyClientsInv,
+              this.interestIndexInv, this.filtersOfInterestInv);
+          clients = this.getInterestedClients(ev, this.allKeyClients, this.interestIndex,
+              this.filtersOfInterest);
           if (clients != null || clientsInv != null) {
             if (fi == null) {
               fi = new FilterInfo();
@@ -1346,16 +1367,10 @@ public class FilterProfile implements DataSerializableFixedID {
 
       if (event.getOperation().isEntry()) {
         EntryEvent entryEvent = (EntryEvent) event;
-        if (pf.allKeyClientsInv != null || pf.keysOfInterestInv != null
-            || pf.patternsOfInterestInv != null || pf.filtersOfInterestInv != null) {
-          clientsInv = pf.getInterestedClients(entryEvent, pf.allKeyClientsInv,
-              pf.keysOfInterestInv, pf.patternsOfInterestInv, pf.filtersOfInterestInv);
-        }
-        if (pf.allKeyClients != null || pf.keysOfInterest != null || pf.patternsOfInterest != null
-            || pf.filtersOfInterest != null) {
-          clients = pf.getInterestedClients(entryEvent, pf.allKeyClients, pf.keysOfInterest,
-              pf.patternsOfInterest, pf.filtersOfInterest);
-        }
+        clientsInv = pf.getInterestedClients(entryEvent, pf.allKeyClientsInv,
+            pf.interestIndexInv, pf.filtersOfInterestInv);
+        clients = pf.getInterestedClients(entryEvent, pf.allKeyClients, pf.interestIndex,
+            pf.filtersOfInterest);
       } else {
         if (event.getOperation().isRegionDestroy() || event.getOperation().isClear()) {
           clientsInv = pf.getAllClientsWithInterestInv();
@@ -1397,13 +1412,12 @@ public class FilterProfile implements DataSerializableFixedID {
    *
    * @param event the entry event being applied to the cache
    * @param akc allKeyClients collection
-   * @param koi keysOfInterest collection
-   * @param pats patternsOfInterest collection
+   * @param index index of the keysOfInterest and patternsOfInterest collections
    * @param foi filtersOfInterest collection
    * @return a set of the clients interested in the event
    */
-  private Set getInterestedClients(EntryEvent event, Set akc, Map<Object, Set> koi,
-      Map<Object, Map<Object, Pattern>> pats, Map<Object, Map> foi) {
+  private Set getInterestedClients(EntryEvent event, Set akc, ClientInterestIndex index,
+      Map<Object, Map> foi) {
     Set result = null;
     if (akc != null) {
       result = new HashSet(akc);
@@ -1411,39 +1425,11 @@ public class FilterProfile implements DataSerializableFixedID {
         logger.debug("these clients matched for all-keys: {}", akc);
       }
     }
-    if (koi != null) {
-      for (Iterator it = koi.entrySet().iterator(); it.hasNext();) {
-        Map.Entry entry = (Map.Entry) it.next();
-        Set keys = (Set) entry.getValue();
-        if (keys.contains(event.getKey())) {
-          Object clientID = entry.getKey();
-          if (result == null)
-            result = new HashSet();
-          result.add(clientID);
-          if (logger.isDebugEnabled()) {
-            logger.debug("client {} matched for key list (size {})", clientID,
-                koi.get(clientID).size());
-          }
-        }
-      }
-    }
-    if (pats != null && (event.getKey() instanceof String)) {
-      for (Iterator it = pats.entrySet().iterator(); it.hasNext();) {
-        Map.Entry entry = (Map.Entry) it.next();
-        String stringKey = (String) event.getKey();
-        Map<Object, Pattern> interestList = (Map<Object, Pattern>) entry.getValue();
-        for (Pattern keyPattern : interestList.values()) {
-          if (keyPattern.matcher(stringKey).matches()) {
-            Object clientID = entry.getKey();
-            if (result == null)
-              result = new HashSet();
-            result.add(clientID);
-            if (logger.isDebugEnabled()) {
-              logger.debug("client {} matched for pattern ({})", clientID, pats.get(clientID));
-            }
-            break;
-          }
-        }
+    if (index != null) {
+      result = index.addInterestedClients(event.getKey(), result);
+      if (logger.isDebugEnabled()) {
+        logger.debug("clients matched for key {} by key lists and patterns: {}", event.getKey(),
+            result);
       }
     }
     if (foi != null && foi.size() > 0) {
@@ -1502,6 +1488,10 @@ public class FilterProfile implements DataSerializableFixedID {
     this.patternsOfInterestInv.putAll(DataSerializer.readHashMap(in));
     this.filtersOfInterestInv.putAll(DataSerializer.readHashMap(in));
 
+    rebuildInterestIndex(this.interestIndex, this.keysOfInterest, this.patternsOfInterest);
+    rebuildInterestIndex(this.interestIndexInv, this.keysOfInterestInv,
+        this.patternsOfInterestInv);
+
     // Read CQ Info.
     int numCQs = InternalDataSerializer.readArrayLength(in);
     if (numCQs > 0) {
@@ -1520,6 +1510,19 @@ public class FilterProfile implements DataSerializableFixedID {
 
   }
 
+  private static void rebuildInterestIndex(ClientInterestIndex index, Map<Object, Set> koi,
+      Map<Object, Map<Object, Pattern>> pats) {
+    index.clear();
+    for (Map.Entry<Object, Set> entry : koi.entrySet()) {
+      index.addKeys((Long) entry.getKey(), entry.getValue());
+    }
+    for (Map.Entry<Object, Map<Object, Pattern>> entry : pats.entrySet()) {
+      for (Map.Entry<Object, Pattern> pattern : entry.getValue().entrySet()) {
+        index.addPattern((Long) entry.getKey(), (String) pattern.getKey(), pattern.getValue());
+      }
+    }
+  }
+
   @Override
   public int getDSFID() {
     return FILTER_PROFILE;
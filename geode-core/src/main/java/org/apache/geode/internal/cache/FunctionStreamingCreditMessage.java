@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.HighPriorityDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.execute.FunctionStreamingCredits;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.SerializationContext;
+
+/**
+ * Returns credits to a member executing a streaming function, as the caller consumes the results
+ * it sent, or tells it to stop once the caller has closed the results. It is processed on the high
+ * priority executor so that it is never queued behind the function execution waiting for it. No
+ * reply is expected.
+ *
+ * @since Geode 1.12
+ */
+public class FunctionStreamingCreditMessage extends HighPriorityDistributionMessage {
+
+  /** the id of the caller's reply processor that the results are sent to */
+  private int processorId;
+
+  private int credits;
+
+  /** whether the caller closed the results and the execution should stop */
+  private boolean cancel;
+
+  /** for deserialization */
+  public FunctionStreamingCreditMessage() {}
+
+  private FunctionStreamingCreditMessage(InternalDistributedMember recipient, int processorId,
+      int credits, boolean cancel) {
+    setRecipient(recipient);
+    this.processorId = processorId;
+    this.credits = credits;
+    this.cancel = cancel;
+  }
+
+  /**
+   * Returns the given number of credits to the member sending results to the given processor.
+   */
+  public static void send(InternalDistributedMember recipient, int processorId, int credits,
+      DistributionManager dm) {
+    dm.putOutgoing(new FunctionStreamingCreditMessage(recipient, processorId, credits, false));
+  }
+
+  /**
+   * Tells the member sending results to the given processor to stop.
+   */
+  public static void sendCancel(InternalDistributedMember recipient, int processorId,
+      DistributionManager dm) {
+    dm.putOutgoing(new FunctionStreamingCreditMessage(recipient, processorId, 0, true));
+  }
+
+  @Override
+  protected void process(ClusterDistributionManager dm) {
+    if (this.cancel) {
+      FunctionStreamingCredits.cancel(getSender(), this.processorId);
+    } else {
+      FunctionStreamingCredits.grant(getSender(), this.processorId, this.credits);
+    }
+  }
+
+  int getCredits() {
+    return this.credits;
+  }
+
+  boolean isCancel() {
+    return this.cancel;
+  }
+
+  @Override
+  public int getDSFID() {
+    return FUNCTION_STREAMING_CREDIT_MESSAGE;
+  }
+
+  @Override
+  public void fromData(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
+    super.fromData(in, context);
+    this.processorId = in.readInt();
+    this.credits = in.readInt();
+    this.cancel = in.readBoolean();
+  }
+
+  @Override
+  public void toData(DataOutput out,
+      SerializationContext context) throws IOException {
+    super.toData(out, context);
+    out.writeInt(this.processorId);
+    out.writeInt(this.credits);
+    out.writeBoolean(this.cancel);
+  }
+
+  @Override
+  public String toString() {
+    return getShortClassName() + "(processorId=" + this.processorId + "; credits=" + this.credits
+        + "; cancel=" + this.cancel + "; sender=" + getSender() + ")";
+  }
+}
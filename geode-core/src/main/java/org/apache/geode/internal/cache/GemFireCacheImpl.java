@@ -233,6 +233,7 @@ import org.apache.geode.internal.statistics.StatisticsClock;
 import org.apache.geode.internal.statistics.StatisticsClockFactory;
 import org.apache.geode.internal.statistics.StatisticsClockSupplier;
 import org.apache.geode.internal.tcp.ConnectionTable;
+import org.apache.geode.internal.tracing.OperationTracer;
 import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.internal.util.concurrent.FutureResult;
 import org.apache.geode.lang.Identifiable;
@@ -324,6 +325,12 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
   static final int EVENT_THREAD_LIMIT =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Cache.EVENT_THREAD_LIMIT", 16);
 
+  /**
+   * System property to stop recording the latencies of gets and puts in histograms.
+   */
+  private static final boolean DISABLE_LATENCY_HISTOGRAMS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Cache.DISABLE_LATENCY_HISTOGRAMS");
+
   /**
    * System property to limit the max query-execution time. By default its turned off (-1), the time
    * is set in milliseconds.
@@ -842,6 +849,10 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
       statisticsClock = StatisticsClockFactory.clock(system.getConfig().getEnableTimeStatistics());
       cachePerfStats = new CachePerfStats(
           internalDistributedSystem.getStatisticsManager(), statisticsClock);
+      if (!DISABLE_LATENCY_HISTOGRAMS && statisticsClock.isEnabled()) {
+        cachePerfStats.enableLatencyHistograms(internalDistributedSystem.getStatisticsManager(),
+            system.getMeterRegistry());
+      }
 
       transactionManager = new TXManagerImpl(cachePerfStats, this, statisticsClock);
       dm.addMembershipListener(transactionManager);
@@ -2044,6 +2055,21 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
   private final boolean DISABLE_DISCONNECT_DS_ON_CACHE_CLOSE = Boolean
       .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DISABLE_DISCONNECT_DS_ON_CACHE_CLOSE");
 
+  /**
+   * Writes the spans of traced operations, if tracing is on, so they can be analyzed offline.
+   */
+  private void exportTraceSpans() {
+    try {
+      File file = OperationTracer.exportToFile(system.getName().isEmpty()
+          ? String.valueOf(system.getDistributedMember().getProcessId()) : system.getName());
+      if (file != null) {
+        logger.info("Exported trace spans to {}", file.getAbsolutePath());
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Failed to export trace spans", e);
+    }
+  }
+
   @Override
   public void close(String reason, Throwable systemFailureCause, boolean keepAlive,
       boolean keepDS) {
@@ -2315,6 +2341,7 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
         }
 
         cachePerfStats.close();
+        exportTraceSpans();
         TXLockService.destroyServices();
         getEventTrackerTask().cancel();
 
@@ -10916,6 +10916,14 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return 0L;
   }
 
+  /**
+   * Returns the number of milliseconds it can take for a read on another member to be reflected by
+   * {@link #getLatestLastAccessTimeFromOthers(Object)}.
+   */
+  long getRemoteAccessDelay() {
+    return 0L;
+  }
+
   /**
    * Returns the number of LRU evictions done by this region.
    */
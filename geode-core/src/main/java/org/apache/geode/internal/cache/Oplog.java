@@ -108,6 +108,8 @@ import org.apache.geode.internal.serialization.ByteArrayDataInput;
 import org.apache.geode.internal.serialization.UnsupportedSerializationVersionException;
 import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.internal.shared.NativeCalls;
+import org.apache.geode.internal.tracing.OperationTracer;
+import org.apache.geode.internal.tracing.TraceStage;
 import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.pdx.internal.PdxWriterImpl;
@@ -3438,7 +3440,9 @@ public class Oplog implements CompactableOplog, Flushable {
           // pdx and tx will not use version
           userBits = EntryBits.setWithVersions(userBits, true);
         }
+        long traceStart = OperationTracer.startSpan();
         basicCreate(region.getDiskRegion(), entry, value, userBits, async);
+        OperationTracer.endSpan(TraceStage.DISK_WRITE, traceStart);
       } catch (IOException ex) {
         exceptionOccurred = true;
         region.getCancelCriterion().checkCancelInProgress(ex);
@@ -4329,7 +4333,9 @@ public class Oplog implements CompactableOplog, Flushable {
           // pdx and tx will not use version
           userBits = EntryBits.setWithVersions(userBits, true);
         }
+        long traceStart = OperationTracer.startSpan();
         basicModify(region.getDiskRegion(), entry, value, userBits, async, false);
+        OperationTracer.endSpan(TraceStage.DISK_WRITE, traceStart);
       } catch (IOException ex) {
         exceptionOccurred = true;
         region.getCancelCriterion().checkCancelInProgress(ex);
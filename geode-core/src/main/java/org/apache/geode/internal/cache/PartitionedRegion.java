@@ -160,6 +160,7 @@ import org.apache.geode.distributed.internal.membership.InternalDistributedMembe
 import org.apache.geode.distributed.internal.membership.gms.api.MemberDataBuilder;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.NanoTimer;
+import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.cache.BucketAdvisor.ServerBucketProfile;
 import org.apache.geode.internal.cache.CacheDistributionAdvisor.CacheProfile;
 import org.apache.geode.internal.cache.DestroyPartitionedRegionMessage.DestroyPartitionedRegionResponse;
@@ -1109,6 +1110,24 @@ public class PartitionedRegion extends LocalRegion
     return true;
   }
 
+  /**
+   * Periodically sends the keys read in the local buckets to the other members hosting them, so
+   * that they do not need to be asked when an entry is about to expire.
+   */
+  private void scheduleBucketAccessEpochExchange() {
+    long interval = BucketAccessEpochs.EXCHANGE_INTERVAL;
+    getGemFireCache().getCCPTimer().schedule(new SystemTimer.SystemTimerTask() {
+      @Override
+      public void run2() {
+        if (isDestroyed() || isClosed()) {
+          cancel();
+          return;
+        }
+        BucketAccessEpochMessage.send(PartitionedRegion.this);
+      }
+    }, interval, interval);
+  }
+
   private void markRecoveredRecursively(PartitionedRegion region) {
     region.setRecoveredFromDisk();
     for (PartitionedRegion colocatedRegion : ColocationHelper.getColocatedChildRegions(region)) {
@@ -1119,6 +1138,9 @@ public class PartitionedRegion extends LocalRegion
   @Override
   public void postCreateRegion() {
     super.postCreateRegion();
+    if (BucketAccessEpochs.EXCHANGE_INTERVAL > 0 && this.dataStore != null) {
+      scheduleBucketAccessEpochExchange();
+    }
     CacheListener[] listeners = fetchCacheListenersField();
     if (listeners != null && listeners.length > 0) {
       Set others = getRegionAdvisor().adviseGeneric();
@@ -69,6 +69,7 @@ import org.apache.geode.internal.cache.locks.TXLockService;
 import org.apache.geode.internal.cache.partitioned.Bucket;
 import org.apache.geode.internal.cache.persistence.PersistentMemberID;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
+import org.apache.geode.internal.cache.versions.DiskVersionTag;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.offheap.annotations.Released;
@@ -711,6 +712,19 @@ public class TXCommitMessage extends PooledDistributionMessage
   public void basicProcessOps() {
     List<EntryEventImpl> pendingCallbacks = new ArrayList<>(this.farSideEntryOps.size());
     Collections.sort(this.farSideEntryOps);
+    TXFarSideBucketApplier applier =
+        TXFarSideBucketApplier.create(this.farSideEntryOps, this.regions);
+    if (applier != null) {
+      applier.apply(this.dm.getExecutors().getWaitingThreadPool(), pendingCallbacks, e -> {
+        if (e instanceof CacheRuntimeException) {
+          processCacheRuntimeException((CacheRuntimeException) e);
+        } else {
+          addProcessingException(e);
+        }
+      });
+      firePendingCallbacks(pendingCallbacks);
+      return;
+    }
     Iterator it = this.farSideEntryOps.iterator();
     while (it.hasNext()) {
       try {
@@ -825,6 +839,7 @@ public class TXCommitMessage extends PooledDistributionMessage
     this.needsLargeModCount = in.readBoolean();
 
     final boolean hasShadowKeys = hasFlagsField(in) ? in.readBoolean() : useShadowKey();
+    final boolean compact = useCompactEncoding(InternalDataSerializer.getVersionForDataStream(in));
 
     int regionsSize = in.readInt();
     this.regions = new ArrayList(regionsSize);
@@ -832,7 +847,7 @@ public class TXCommitMessage extends PooledDistributionMessage
     for (int i = 0; i < regionsSize; i++) {
       RegionCommit rc = new RegionCommit(this);
       try {
-        rc.fromData(in, hasShadowKeys);
+        rc.fromData(in, hasShadowKeys, compact);
       } catch (CacheClosedException cce) {
         addProcessingException(cce);
         // return to avoid serialization error being sent in reply
@@ -914,12 +929,13 @@ public class TXCommitMessage extends PooledDistributionMessage
       out.writeBoolean(useShadowKey);
     }
 
+    final boolean compact = useCompactEncoding(InternalDataSerializer.getVersionForDataStream(out));
     out.writeInt(regionsSize);
     {
       if (regionsSize > 0) {
         for (int i = 0; i < this.regions.size(); i++) {
           RegionCommit rc = (RegionCommit) this.regions.get(i);
-          rc.toData(out, context, useShadowKey);
+          rc.toData(out, context, useShadowKey, compact);
         }
       }
     }
@@ -945,6 +961,14 @@ public class TXCommitMessage extends PooledDistributionMessage
     return null == clientVersion;
   }
 
+  /**
+   * Returns true if the region commits are written in the compact encoding of
+   * {@link RegionCommit#writeCompactEntryOp}, which members and clients read since Geode 1.12.
+   */
+  static boolean useCompactEncoding(final Version version) {
+    return version.compareTo(Version.GEODE_1_12_0) >= 0;
+  }
+
   @Override
   public String toString() {
     StringBuilder result = new StringBuilder(256);
@@ -1104,6 +1128,10 @@ public class TXCommitMessage extends PooledDistributionMessage
      * Valid only on nearside.
      */
     private transient HeapDataOutputStream preserializedBuffer = null;
+    /**
+     * Whether preserializedBuffer holds the compact encoding. Valid only on nearside.
+     */
+    private transient boolean preserializedCompact;
     /**
      * Upperbound on the number of operations this region could possibly have Valid only on
      * nearside.
@@ -1252,6 +1280,15 @@ public class TXCommitMessage extends PooledDistributionMessage
       }
     }
 
+    /**
+     * Returns true if the entry ops of this region can be applied by another thread, in parallel
+     * with those of the other regions of the commit. Only valid on farside after beginProcess.
+     */
+    boolean canApplyInParallel() {
+      return this.internalRegion instanceof BucketRegion && !this.needsUnlock
+          && this.txEvent == null;
+    }
+
     /**
      * Returns the eventId to use for the give farside entry op.
      *
@@ -1417,10 +1454,14 @@ public class TXCommitMessage extends PooledDistributionMessage
       return true;
     }
 
-    public void fromData(DataInput in, boolean hasShadowKey)
+    public void fromData(DataInput in, boolean hasShadowKey, boolean compact)
         throws IOException, ClassNotFoundException {
-      this.regionPath = DataSerializer.readString(in);
-      this.parentRegionPath = DataSerializer.readString(in);
+      if (compact) {
+        readCompactRegionPath(in);
+      } else {
+        this.regionPath = DataSerializer.readString(in);
+        this.parentRegionPath = DataSerializer.readString(in);
+      }
 
       int size = in.readInt();
       if (size > 0) {
@@ -1431,7 +1472,11 @@ public class TXCommitMessage extends PooledDistributionMessage
         for (int i = 0; i < size; i++) {
           FarSideEntryOp entryOp = new FarSideEntryOp();
           // shadowkey is not being sent to clients
-          entryOp.fromData(in, largeModCount, hasShadowKey);
+          if (compact) {
+            entryOp.fromCompactData(in, hasShadowKey, this.memberId);
+          } else {
+            entryOp.fromData(in, largeModCount, hasShadowKey);
+          }
           if (entryOp.versionTag != null && this.memberId != null) {
             entryOp.versionTag.setMemberID(this.memberId);
           }
@@ -1458,8 +1503,10 @@ public class TXCommitMessage extends PooledDistributionMessage
 
     private void basicToData(DataOutput out,
         SerializationContext context,
-        boolean useShadowKey) throws IOException {
-      if (this.internalRegion != null) {
+        boolean useShadowKey, boolean compact) throws IOException {
+      if (compact) {
+        writeCompactRegionPath(out);
+      } else if (this.internalRegion != null) {
         DataSerializer.writeString(this.internalRegion.getFullPath(), out);
         if (this.internalRegion instanceof BucketRegion) {
           DataSerializer.writeString(
@@ -1488,8 +1535,9 @@ public class TXCommitMessage extends PooledDistributionMessage
 
         final boolean sendVersionTags =
             this.msg.clientVersion == null || Version.GFE_70.compareTo(this.msg.clientVersion) <= 0;
+        VersionSource member = null;
         if (sendVersionTags) {
-          VersionSource member = this.memberId;
+          member = this.memberId;
           if (member == null) {
             if (this.internalRegion == null) {
               Assert.assertTrue(this.msg.txState == null);
@@ -1501,7 +1549,15 @@ public class TXCommitMessage extends PooledDistributionMessage
         }
         for (int i = 0; i < size; i++) {
           DataSerializer.writeObject(this.opKeys.get(i), out);
-          if (this.msg.txState != null) {
+          if (compact) {
+            if (this.msg.txState != null) {
+              ((TXEntryState) this.opEntries.get(i)).toCompactFarSideData(out, sendVersionTags,
+                  useShadowKey, member);
+            } else {
+              ((FarSideEntryOp) this.opEntries.get(i)).toCompactData(out, sendVersionTags,
+                  useShadowKey, member);
+            }
+          } else if (this.msg.txState != null) {
             /* we are still on tx node and have the entry state */
             ((TXEntryState) this.opEntries.get(i)).toFarSideData(out, context, largeModCount,
                 sendVersionTags, useShadowKey);
@@ -1514,19 +1570,123 @@ public class TXCommitMessage extends PooledDistributionMessage
     }
 
 
-    public void toData(DataOutput out, SerializationContext context, boolean useShadowKey)
-        throws IOException {
-      if (this.preserializedBuffer != null) {
+    public void toData(DataOutput out, SerializationContext context, boolean useShadowKey,
+        boolean compact) throws IOException {
+      if (this.preserializedBuffer != null && this.preserializedCompact == compact) {
         this.preserializedBuffer.rewind();
         this.preserializedBuffer.sendTo(out);
-      } else if (this.refCount > 1) {
+      } else if (this.refCount > 1 && this.preserializedBuffer == null) {
         Version v = InternalDataSerializer.getVersionForDataStream(out);
         HeapDataOutputStream hdos = new HeapDataOutputStream(1024, v);
-        basicToData(hdos, context, useShadowKey);
+        basicToData(hdos, context, useShadowKey, compact);
         this.preserializedBuffer = hdos;
+        this.preserializedCompact = compact;
         this.preserializedBuffer.sendTo(out);
       } else {
-        basicToData(out, context, useShadowKey);
+        basicToData(out, context, useShadowKey, compact);
+      }
+    }
+
+    /**
+     * Writes the path of a bucket as the path of its partitioned region and its bucket id, rather
+     * than as the full path of the bucket followed by the path of its partitioned region.
+     */
+    private void writeCompactRegionPath(DataOutput out) throws IOException {
+      if (this.internalRegion instanceof BucketRegion) {
+        BucketRegion bucket = (BucketRegion) this.internalRegion;
+        DataSerializer.writeString(bucket.getPartitionedRegion().getFullPath(), out);
+        InternalDataSerializer.writeSignedVL(bucket.getId(), out);
+      } else if (this.internalRegion != null) {
+        DataSerializer.writeString(this.internalRegion.getFullPath(), out);
+        InternalDataSerializer.writeSignedVL(-1, out);
+        DataSerializer.writeString(null, out);
+      } else {
+        DataSerializer.writeString(this.regionPath, out);
+        InternalDataSerializer.writeSignedVL(-1, out);
+        DataSerializer.writeString(this.parentRegionPath, out);
+      }
+    }
+
+    private void readCompactRegionPath(DataInput in) throws IOException {
+      String path = DataSerializer.readString(in);
+      int bucketId = (int) InternalDataSerializer.readSignedVL(in);
+      if (bucketId >= 0) {
+        this.regionPath = PartitionedRegionHelper.getBucketFullPath(path, bucketId);
+        this.parentRegionPath = path;
+      } else {
+        this.regionPath = path;
+        this.parentRegionPath = DataSerializer.readString(in);
+      }
+    }
+
+    String getParentRegionPath() {
+      return this.parentRegionPath;
+    }
+
+    /*
+     * Flags of an entry op in the compact encoding.
+     */
+    static final int HAS_CALLBACK_ARG = 0x01;
+    static final int HAS_FILTER_ROUTING_INFO = 0x02;
+    static final int HAS_VERSION_TAG = 0x04;
+    static final int PERSISTENT_VERSION_TAG = 0x08;
+    static final int VERSION_TAG_HAS_MEMBERS = 0x10;
+    static final int PREVIOUS_MEMBER_IS_SHARED = 0x20;
+    static final int DID_DESTROY = 0x40;
+    static final int VALUE_IS_TOKEN_OR_BYTES = 0x80;
+
+    /**
+     * Writes all of an entry op but its key and value in the compact encoding. Absent optional
+     * fields are flagged rather than written as nulls, the numbers are variable length, and the
+     * member ids of the version tag are not written if they are the version member shared by all
+     * the ops of the region. The value follows: if the op is neither a destroy nor an invalidate,
+     * it is written with DataSerializer.writeObject if VALUE_IS_TOKEN_OR_BYTES is set in the given
+     * flags, and as a byte array otherwise. The reader of this is
+     * {@link FarSideEntryOp#fromCompactData}.
+     *
+     * @param flags DID_DESTROY and VALUE_IS_TOKEN_OR_BYTES, if they apply
+     * @param versionTag the version tag, or null if version tags are not sent
+     * @param sharedMember the version member of the region, or null if none was written
+     */
+    static void writeCompactEntryOp(DataOutput out, Operation op, int flags, int modSerialNum,
+        int eventOffset, Object callbackArg, FilterRoutingInfo filterRoutingInfo,
+        VersionTag<?> versionTag, VersionSource sharedMember, boolean sendShadowKey,
+        long tailKey) throws IOException {
+      if (callbackArg != null) {
+        flags |= HAS_CALLBACK_ARG;
+      }
+      if (filterRoutingInfo != null) {
+        flags |= HAS_FILTER_ROUTING_INFO;
+      }
+      if (versionTag != null) {
+        flags |= HAS_VERSION_TAG;
+        if (versionTag instanceof DiskVersionTag) {
+          flags |= PERSISTENT_VERSION_TAG;
+        }
+        Object member = versionTag.getMemberID();
+        Object previousMember = versionTag.getPreviousMemberID();
+        if (sharedMember == null || (member != null && !sharedMember.equals(member))
+            || (previousMember != null && !sharedMember.equals(previousMember))) {
+          flags |= VERSION_TAG_HAS_MEMBERS;
+        } else if (previousMember != null) {
+          flags |= PREVIOUS_MEMBER_IS_SHARED;
+        }
+      }
+      out.writeByte(op.ordinal);
+      out.writeByte(flags);
+      InternalDataSerializer.writeSignedVL(modSerialNum, out);
+      InternalDataSerializer.writeSignedVL(eventOffset, out);
+      if (callbackArg != null) {
+        DataSerializer.writeObject(callbackArg, out);
+      }
+      if (filterRoutingInfo != null) {
+        DataSerializer.writeObject(filterRoutingInfo, out);
+      }
+      if (versionTag != null) {
+        versionTag.toData(out, (flags & VERSION_TAG_HAS_MEMBERS) != 0);
+      }
+      if (sendShadowKey) {
+        InternalDataSerializer.writeSignedVL(tailKey, out);
       }
     }
 
@@ -1629,6 +1789,75 @@ public class TXCommitMessage extends PooledDistributionMessage
       }
 
 
+      /**
+       * Reads an entry op, and the key before it, written by
+       * {@link RegionCommit#writeCompactEntryOp}.
+       *
+       * @param sharedMember the version member of the region
+       */
+      public void fromCompactData(DataInput in, boolean readShadowKey, VersionSource sharedMember)
+          throws IOException, ClassNotFoundException {
+        this.key = DataSerializer.readObject(in);
+        this.op = Operation.fromOrdinal(in.readByte());
+        int flags = in.readUnsignedByte();
+        this.modSerialNum = (int) InternalDataSerializer.readSignedVL(in);
+        this.eventOffset = (int) InternalDataSerializer.readSignedVL(in);
+        if ((flags & HAS_CALLBACK_ARG) != 0) {
+          this.callbackArg = DataSerializer.readObject(in);
+        }
+        if ((flags & HAS_FILTER_ROUTING_INFO) != 0) {
+          this.filterRoutingInfo = DataSerializer.readObject(in);
+        }
+        if ((flags & HAS_VERSION_TAG) != 0) {
+          this.versionTag = VersionTag.create((flags & PERSISTENT_VERSION_TAG) != 0, in);
+          if ((flags & VERSION_TAG_HAS_MEMBERS) == 0) {
+            this.versionTag.setMemberID(sharedMember);
+            if ((flags & PREVIOUS_MEMBER_IS_SHARED) != 0) {
+              this.versionTag.setPreviousMemberID(sharedMember);
+            }
+          }
+        }
+        if (readShadowKey) {
+          this.tailKey = InternalDataSerializer.readSignedVL(in);
+        }
+        this.didDestroy = (flags & DID_DESTROY) != 0;
+        if (!this.op.isDestroy() && !this.op.isInvalidate()) {
+          if ((flags & VALUE_IS_TOKEN_OR_BYTES) != 0) {
+            this.value = DataSerializer.readObject(in);
+          } else {
+            this.value = CachedDeserializableFactory.create(DataSerializer.readByteArray(in),
+                GemFireCacheImpl.getInstance());
+          }
+        }
+      }
+
+      /**
+       * Writes this entry op, but not its key, in the compact encoding of
+       * {@link RegionCommit#writeCompactEntryOp}.
+       */
+      public void toCompactData(DataOutput out, boolean sendVersionTag, boolean sendShadowKey,
+          VersionSource sharedMember) throws IOException {
+        int flags = this.didDestroy ? DID_DESTROY : 0;
+        boolean sendObject = Token.isInvalidOrRemoved(this.value) || this.value instanceof byte[];
+        if (sendObject) {
+          flags |= VALUE_IS_TOKEN_OR_BYTES;
+        }
+        writeCompactEntryOp(out, this.op, flags, this.modSerialNum, this.eventOffset,
+            this.callbackArg, this.filterRoutingInfo, sendVersionTag ? this.versionTag : null,
+            sharedMember, sendShadowKey, this.tailKey);
+        if (!this.op.isDestroy() && !this.op.isInvalidate()) {
+          if (sendObject) {
+            DataSerializer.writeObject(this.value, out);
+          } else {
+            DataSerializer.writeObjectAsByteArray(this.value, out);
+          }
+        }
+      }
+
+      VersionTag getVersionTag() {
+        return this.versionTag;
+      }
+
       /**
        * Performs this entryOp on the farside of a tx commit.
        */
@@ -21,6 +21,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 import org.apache.logging.log4j.Logger;
@@ -42,6 +43,8 @@ import org.apache.geode.cache.TimeoutException;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.Assert;
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.lang.StringUtils;
 import org.apache.geode.internal.offheap.OffHeapHelper;
@@ -73,6 +76,14 @@ public class TXEntryState implements Releasable {
   private Object originalVersionId;
   private final Object originalValue;
 
+  /**
+   * The version of the entry when it was read by this transaction, or -1 if the entry had no
+   * version stamp. Checked by the optimistic commit of a single bucket transaction.
+   */
+  private long originalRegionVersion = -1;
+  private int originalEntryVersion;
+  private Object originalVersionMember;
+
   /**
    * Serial number that is set each time this entry is modified. Used to order the events in a
    * TransactionEvent.
@@ -294,6 +305,14 @@ public class TXEntryState implements Releasable {
     this.pendingValue = pv;
     this.originalVersionId = vId;
     this.originalValue = pv;
+    if (re != null) {
+      VersionStamp<?> stamp = re.getVersionStamp();
+      if (stamp != null) {
+        this.originalRegionVersion = stamp.getRegionVersion();
+        this.originalEntryVersion = stamp.getEntryVersion();
+        this.originalVersionMember = stamp.getMemberID();
+      }
+    }
     if (txRegionState.needsRefCounts()) {
       this.refCountEntry = re;
       if (re != null) {
@@ -1430,6 +1449,28 @@ public class TXEntryState implements Releasable {
     return false;
   }
 
+  /**
+   * Does the checks of {@link #checkForConflict} and also checks that the version stamp of the
+   * entry has not changed since this transaction read it. Used by the optimistic commit of a
+   * transaction that did not reserve its keys, so any other change of the entry, even one that
+   * leaves the same value in the map, is a conflict.
+   */
+  void checkVersionForConflict(InternalRegion r, Object key) throws CommitConflictException {
+    checkForConflict(r, key);
+    if (!isDirty() || isOpSearch() || this.originalRegionVersion == -1) {
+      return;
+    }
+    RegionEntry re = r.basicGetEntry(key);
+    VersionStamp<?> stamp = re == null ? null : re.getVersionStamp();
+    if (stamp == null || stamp.getRegionVersion() != this.originalRegionVersion
+        || stamp.getEntryVersion() != this.originalEntryVersion
+        || !Objects.equals(stamp.getMemberID(), this.originalVersionMember)) {
+      throw new CommitConflictException(
+          String.format("Entry for key %s on region %s had a version change",
+              key, r.getDisplayName()));
+    }
+  }
+
   void checkForConflict(InternalRegion r, Object key) throws CommitConflictException {
     if (!isDirty()) {
       // All we did was read the entry and we don't do read/write conflicts; yet.
@@ -1921,6 +1962,39 @@ public class TXEntryState implements Releasable {
     }
   }
 
+  /**
+   * Serializes this entry state, like {@link #toFarSideData}, in the compact encoding of
+   * {@link TXCommitMessage.RegionCommit#writeCompactEntryOp}.
+   *
+   * @param sharedMember the version member written for the region
+   */
+  void toCompactFarSideData(DataOutput out, boolean sendVersionTag, boolean sendShadowKey,
+      VersionSource sharedMember) throws IOException {
+    Operation operation = getFarSideOperation();
+    int flags = 0;
+    boolean isTokenOrByteArray = false;
+    if (!operation.isDestroy()) {
+      if (didDistributedDestroy()) {
+        flags |= TXCommitMessage.RegionCommit.DID_DESTROY;
+      }
+      isTokenOrByteArray = Token.isInvalidOrRemoved(getPendingValue())
+          || getPendingValue() instanceof byte[];
+      if (isTokenOrByteArray) {
+        flags |= TXCommitMessage.RegionCommit.VALUE_IS_TOKEN_OR_BYTES;
+      }
+    }
+    TXCommitMessage.RegionCommit.writeCompactEntryOp(out, operation, flags, this.modSerialNum,
+        getFarSideEventOffset(), getCallbackArgument(), getFilterRoutingInfo(),
+        sendVersionTag ? getVersionTag() : null, sharedMember, sendShadowKey, this.tailKey);
+    if (!operation.isDestroy() && !operation.isInvalidate()) {
+      if (isTokenOrByteArray) {
+        DataSerializer.writeObject(getPendingValue(), out);
+      } else {
+        DataSerializer.writeByteArray(getSerializedPendingValue(), out);
+      }
+    }
+  }
+
   public FilterRoutingInfo getFilterRoutingInfo() {
     return filterRoutingInfo;
   }
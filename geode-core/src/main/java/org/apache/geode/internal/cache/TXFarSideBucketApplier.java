@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.internal.cache.LocalRegion.InitializationLevel.BEFORE_INITIAL_IMAGE;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.LocalRegion.InitializationLevel;
+import org.apache.geode.internal.cache.TXCommitMessage.RegionCommit;
+import org.apache.geode.internal.cache.TXCommitMessage.RegionCommit.FarSideEntryOp;
+
+/**
+ * Applies the entry ops of a transaction received by a far side member in parallel, bucket by
+ * bucket. The ops of different buckets are independent, and the ops of each bucket are applied by
+ * a single thread in the order of the transaction. The calling thread applies buckets too and
+ * returns only once all of them have been applied, so the commit is still acknowledged, and its
+ * callbacks are still invoked in the order of the transaction, only after all of its changes are
+ * in the cache.
+ *
+ * @since Geode 1.12
+ */
+class TXFarSideBucketApplier {
+
+  /**
+   * The minimum number of entry ops of a transaction for them to be applied in parallel. Zero or
+   * less disables parallel apply.
+   */
+  static final int MIN_OPS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "TXFarSideBucketApplier.minOps", 1000);
+
+  /**
+   * The maximum number of threads, including the calling thread, applying the ops of one
+   * transaction.
+   */
+  static final int MAX_THREADS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "TXFarSideBucketApplier.maxThreads",
+      Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+
+  private final List<FarSideEntryOp> ops;
+  private final int maxThreads;
+  private final Queue<BucketOps> buckets = new ConcurrentLinkedQueue<>();
+  private final CountDownLatch bucketsApplied;
+  private final Queue<Exception> exceptions = new ConcurrentLinkedQueue<>();
+
+  /**
+   * The callback events of each op: null, an EntryEventImpl, or a List of them. Each element is
+   * written by the thread applying the op and read once all ops have been applied.
+   */
+  private final Object[] callbacks;
+
+  private TXFarSideBucketApplier(List<FarSideEntryOp> ops, List<BucketOps> buckets,
+      int maxThreads) {
+    this.ops = ops;
+    this.maxThreads = maxThreads;
+    this.buckets.addAll(buckets);
+    this.bucketsApplied = new CountDownLatch(buckets.size());
+    this.callbacks = new Object[ops.size()];
+  }
+
+  /**
+   * Returns an applier of the given ops, or null if they have to be applied sequentially.
+   *
+   * @param ops the ops of the transaction, in the order they are applied in
+   * @param regions the region commits the ops belong to, after beginProcess
+   */
+  static TXFarSideBucketApplier create(List<FarSideEntryOp> ops, List<RegionCommit> regions) {
+    return create(ops, regions, MIN_OPS, MAX_THREADS);
+  }
+
+  static TXFarSideBucketApplier create(List<FarSideEntryOp> ops, List<RegionCommit> regions,
+      int minOps, int maxThreads) {
+    if (minOps <= 0 || ops.size() < minOps || maxThreads < 2 || regions.size() < 2) {
+      return null;
+    }
+    for (RegionCommit rc : regions) {
+      if (!rc.canApplyInParallel()) {
+        return null;
+      }
+    }
+    Map<RegionCommit, BucketOps> bucketOps = new IdentityHashMap<>(regions.size());
+    List<BucketOps> buckets = new ArrayList<>(regions.size());
+    for (int i = 0; i < ops.size(); i++) {
+      RegionCommit rc = ops.get(i).getRegionCommit();
+      BucketOps bucket = bucketOps.get(rc);
+      if (bucket == null) {
+        bucket = new BucketOps(rc);
+        bucketOps.put(rc, bucket);
+        buckets.add(bucket);
+      }
+      bucket.add(i);
+    }
+    if (buckets.size() < 2) {
+      return null;
+    }
+    return new TXFarSideBucketApplier(ops, buckets, maxThreads);
+  }
+
+  /**
+   * Applies all the ops, with the help of threads of the given executor, and adds their callback
+   * events to the given list in the order of the ops. The exceptions thrown by the ops are handed
+   * to the given handler once all the ops have been applied.
+   */
+  void apply(Executor executor, List<EntryEventImpl> pendingCallbacks,
+      Consumer<Exception> exceptionHandler) {
+    int helpers = Math.min(this.maxThreads, this.buckets.size()) - 1;
+    for (int i = 0; i < helpers; i++) {
+      try {
+        executor.execute(this::applyBuckets);
+      } catch (RejectedExecutionException e) {
+        // the calling thread applies the remaining buckets
+        break;
+      }
+    }
+    applyBuckets();
+    awaitBucketsApplied();
+    for (Object opCallbacks : this.callbacks) {
+      if (opCallbacks instanceof EntryEventImpl) {
+        pendingCallbacks.add((EntryEventImpl) opCallbacks);
+      } else if (opCallbacks != null) {
+        @SuppressWarnings("unchecked")
+        List<EntryEventImpl> events = (List<EntryEventImpl>) opCallbacks;
+        pendingCallbacks.addAll(events);
+      }
+    }
+    for (Exception e : this.exceptions) {
+      exceptionHandler.accept(e);
+    }
+  }
+
+  private void applyBuckets() {
+    final InitializationLevel oldLevel =
+        LocalRegion.setThreadInitLevelRequirement(BEFORE_INITIAL_IMAGE);
+    try {
+      BucketOps bucket;
+      while ((bucket = this.buckets.poll()) != null) {
+        try {
+          applyBucket(bucket);
+        } finally {
+          this.bucketsApplied.countDown();
+        }
+      }
+    } finally {
+      LocalRegion.setThreadInitLevelRequirement(oldLevel);
+    }
+  }
+
+  private void applyBucket(BucketOps bucket) {
+    // the eviction callbacks are disabled per thread, like in RegionCommit.beginProcess
+    InternalRegion region = bucket.regionCommit.internalRegion;
+    boolean lruStarted = region != null && region.txLRUStart();
+    List<EntryEventImpl> opCallbacks = new ArrayList<>(1);
+    try {
+      for (int i = 0; i < bucket.size; i++) {
+        int position = bucket.positions[i];
+        try {
+          this.ops.get(position).process(opCallbacks);
+        } catch (CancelException e) {
+          this.exceptions.add(e);
+          return;
+        } catch (Exception e) {
+          this.exceptions.add(e);
+        } finally {
+          if (opCallbacks.size() == 1) {
+            this.callbacks[position] = opCallbacks.get(0);
+          } else if (!opCallbacks.isEmpty()) {
+            this.callbacks[position] = new ArrayList<>(opCallbacks);
+          }
+          opCallbacks.clear();
+        }
+      }
+    } finally {
+      if (lruStarted) {
+        try {
+          region.txLRUEnd();
+        } catch (RuntimeException e) {
+          this.exceptions.add(e);
+        }
+      }
+    }
+  }
+
+  private void awaitBucketsApplied() {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        this.bucketsApplied.await();
+        break;
+      } catch (InterruptedException e) {
+        // the commit cannot be acknowledged before all of its buckets are applied
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The positions of the ops of one bucket, in the order they are applied in.
+   */
+  private static class BucketOps {
+    private final RegionCommit regionCommit;
+    private int[] positions = new int[16];
+    private int size;
+
+    BucketOps(RegionCommit regionCommit) {
+      this.regionCommit = regionCommit;
+    }
+
+    void add(int position) {
+      if (this.size == this.positions.length) {
+        int[] newPositions = new int[this.size * 2];
+        System.arraycopy(this.positions, 0, newPositions, 0, this.size);
+        this.positions = newPositions;
+      }
+      this.positions[this.size++] = position;
+    }
+  }
+}
@@ -271,6 +271,34 @@ public class TXRegionState {
     return result;
   }
 
+  /**
+   * Checks the entries changed by the transaction like {@link #checkForConflicts} and also checks
+   * that their version stamps have not changed since they were read. Used by the optimistic commit
+   * of a transaction whose changes are all in one bucket.
+   */
+  void checkForVersionConflicts(InternalRegion r) throws CommitConflictException {
+    Iterator it = this.entryMods.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry me = (Map.Entry) it.next();
+      TXEntryState txes = (TXEntryState) me.getValue();
+      txes.checkVersionForConflict(r, me.getKey());
+    }
+  }
+
+  /**
+   * Returns true if the transaction changed entry user attributes in this region.
+   */
+  boolean hasEntryUserAttributeMods() {
+    return this.uaMods != null;
+  }
+
+  /**
+   * Returns true if the transaction changed entries in this region.
+   */
+  boolean hasEntryMods() {
+    return !this.entryMods.isEmpty();
+  }
+
   void checkForConflicts(InternalRegion r) throws CommitConflictException {
     if (this.isCreatedDuringCommit()) {
       return;
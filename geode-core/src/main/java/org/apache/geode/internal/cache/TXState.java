@@ -54,6 +54,7 @@ import org.apache.geode.cache.UnsupportedOperationInTransactionException;
 import org.apache.geode.cache.client.internal.ServerRegionDataAccess;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.TXManagerCancelledException;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.cache.control.MemoryThresholds;
@@ -78,6 +79,13 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
 public class TXState implements TXStateInterface {
   protected static final Logger logger = LogService.getLogger();
 
+  /**
+   * Whether a transaction whose changes are all in one primary bucket is committed optimistically,
+   * by checking the versions of its entries under a bucket lock, instead of reserving its keys.
+   */
+  static final boolean OPTIMISTIC_SINGLE_BUCKET_COMMIT =
+      !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "TXState.disableOptimisticCommit");
+
   // The nano-timestamp of when the transaction began
   private final long beginTime;
   // A map of transaction state by Region
@@ -93,6 +101,12 @@ public class TXState implements TXStateInterface {
   protected final Object completionGuard = new Object();
 
   protected TXLockRequest locks = null;
+
+  /** the bucket locked by the optimistic commit of this transaction, if any */
+  private BucketRegion optimisticCommitBucket;
+
+  /** the buckets this transaction has begun a commit with reserved keys in, if any */
+  private List<BucketRegion> reservedCommitBuckets;
   // Used for jta commit lifetime
   private long jtaLifeTime;
   /**
@@ -356,6 +370,7 @@ public class TXState implements TXStateInterface {
     }
 
     final long conflictStart = statisticsClock.getTime();
+    beginReservedCommits();
     this.locks = createLockRequest();
     this.locks.obtain(getCache().getInternalDistributedSystem());
     // for now check account the dlock service time
@@ -426,7 +441,7 @@ public class TXState implements TXStateInterface {
         throw re;
       }
 
-      if (this.locks == null) {
+      if (this.locks == null && !lockForOptimisticCommit()) {
         reserveAndCheck();
       }
 
@@ -488,7 +503,11 @@ public class TXState implements TXStateInterface {
 
         try {
           // apply changes to the cache
-          applyChanges(entries);
+          try {
+            applyChanges(entries);
+          } finally {
+            unlockForOptimisticCommit();
+          }
           // For internal testing
           if (this.internalAfterApplyChanges != null) {
             this.internalAfterApplyChanges.run();
@@ -527,10 +546,101 @@ public class TXState implements TXStateInterface {
         }
       }
     } finally {
+      unlockForOptimisticCommit();
       cleanup();
     }
   }
 
+  /**
+   * If all the changes of this transaction are in one primary bucket, locks the bucket for an
+   * optimistic commit and checks that none of the entries it changes has been modified since it
+   * was read. The changes are then applied while the bucket lock is held, without reserving the
+   * keys of the transaction. Bucket regions have concurrency checks, so the members hosting the
+   * bucket apply the changes of concurrent commits in version order.
+   *
+   * @return false if the transaction has to reserve its keys, because it has changes in several
+   *         regions or an optimistic commit is not possible right now
+   * @throws CommitConflictException if an entry changed by the transaction has been modified
+   */
+  boolean lockForOptimisticCommit() throws CommitConflictException {
+    if (!OPTIMISTIC_SINGLE_BUCKET_COMMIT || isDistTx() || this.internalAfterReservation != null
+        || this.internalAfterConflictCheck != null || this.internalDuringApplyChanges != null
+        || this.proxy.getTxMgr().getWriter() != null) {
+      return false;
+    }
+    BucketRegion bucket = null;
+    TXRegionState bucketState = null;
+    for (Map.Entry<InternalRegion, TXRegionState> me : this.regions.entrySet()) {
+      TXRegionState txrs = me.getValue();
+      if (txrs.hasEntryUserAttributeMods()) {
+        return false;
+      }
+      if (txrs.hasEntryMods()) {
+        if (bucket != null || !(me.getKey() instanceof BucketRegion)) {
+          return false;
+        }
+        bucket = (BucketRegion) me.getKey();
+        bucketState = txrs;
+      }
+    }
+    if (bucket == null || !bucket.getConcurrencyChecksEnabled()
+        || !bucket.getBucketAdvisor().isPrimary() || !bucket.lockForOptimisticCommit()) {
+      return false;
+    }
+    this.optimisticCommitBucket = bucket;
+    try {
+      bucketState.checkForVersionConflicts(bucket);
+    } catch (DiskAccessException dae) {
+      bucket.handleDiskAccessException(dae);
+      throw dae;
+    }
+    // nothing is reserved, but the rest of the commit expects a lock request
+    this.locks = new TXLockRequest();
+    if (logger.isDebugEnabled()) {
+      logger.debug("committing transaction {} optimistically in {}", getTransactionId(),
+          bucket.getFullPath());
+    }
+    return true;
+  }
+
+  private void unlockForOptimisticCommit() {
+    if (this.optimisticCommitBucket != null) {
+      this.optimisticCommitBucket.unlockForOptimisticCommit();
+      this.optimisticCommitBucket = null;
+    }
+  }
+
+  /**
+   * Prevents optimistic commits in the buckets this transaction has changes in until it is cleaned
+   * up, and waits for those in progress to apply their changes.
+   */
+  private void beginReservedCommits() {
+    if (this.reservedCommitBuckets != null) {
+      return;
+    }
+    List<BucketRegion> buckets = null;
+    for (InternalRegion r : this.regions.keySet()) {
+      if (r instanceof BucketRegion) {
+        BucketRegion bucket = (BucketRegion) r;
+        bucket.beginReservedCommit();
+        if (buckets == null) {
+          buckets = new ArrayList<>(this.regions.size());
+        }
+        buckets.add(bucket);
+      }
+    }
+    this.reservedCommitBuckets = buckets == null ? Collections.emptyList() : buckets;
+  }
+
+  private void endReservedCommits() {
+    if (this.reservedCommitBuckets != null) {
+      for (BucketRegion bucket : this.reservedCommitBuckets) {
+        bucket.endReservedCommit();
+      }
+      this.reservedCommitBuckets = null;
+    }
+  }
+
   private void lockTXRegions(IdentityHashMap<InternalRegion, TXRegionState> regions) {
     Iterator<Map.Entry<InternalRegion, TXRegionState>> it = regions.entrySet().iterator();
     while (it.hasNext()) {
@@ -898,6 +1008,7 @@ public class TXState implements TXStateInterface {
           this.proxy.getTxMgr().getCachePerfStats()
               .incTxConflictCheckTime(statisticsClock.getTime() - conflictStart);
       }
+      endReservedCommits();
       Iterator<Map.Entry<InternalRegion, TXRegionState>> it = this.regions.entrySet().iterator();
       while (it.hasNext()) {
         Map.Entry<InternalRegion, TXRegionState> me = it.next();
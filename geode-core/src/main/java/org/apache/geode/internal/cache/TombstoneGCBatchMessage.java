@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.RegionDestroyedException;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.MessageWithReply;
+import org.apache.geode.distributed.internal.PooledDistributionMessage;
+import org.apache.geode.distributed.internal.ReplyException;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.ReplyProcessor21;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.SerializationContext;
+import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * Carries the tombstone GC versions of several regions to one member, in place of a
+ * {@link DistributedTombstoneOperation.TombstoneMessage} per region. The receiver collects the
+ * tombstones of each region just as it would for a TombstoneMessage, routing any client
+ * notification with its own filter profile. If any of the regions has an ack scope the sender
+ * waits for a reply, as it would for that region's TombstoneMessage.
+ *
+ * @since Geode 1.12
+ */
+public class TombstoneGCBatchMessage extends PooledDistributionMessage
+    implements MessageWithReply {
+  private static final Logger logger = LogService.getLogger();
+
+  private List<String> regionPaths;
+  private List<Map<VersionSource, Long>> regionGCVersions;
+  private List<EventID> eventIDs;
+  private int processorId;
+
+  public TombstoneGCBatchMessage() {
+    // nothing
+  }
+
+  private TombstoneGCBatchMessage(InternalDistributedMember recipient) {
+    setRecipient(recipient);
+    this.regionPaths = new ArrayList<>();
+    this.regionGCVersions = new ArrayList<>();
+    this.eventIDs = new ArrayList<>();
+  }
+
+  @Override
+  public int getDSFID() {
+    return TOMBSTONE_GC_BATCH_MESSAGE;
+  }
+
+  @Override
+  public int getProcessorId() {
+    return this.processorId;
+  }
+
+  @Override
+  protected void process(ClusterDistributionManager dm) {
+    try {
+      expireTombstones(dm);
+    } finally {
+      if (this.processorId != 0) {
+        ReplyMessage.send(getSender(), this.processorId, null, dm);
+      }
+    }
+  }
+
+  private void expireTombstones(ClusterDistributionManager dm) {
+    InternalCache cache = dm.getExistingCache();
+    for (int i = 0; i < this.regionPaths.size(); i++) {
+      try {
+        LocalRegion region =
+            (LocalRegion) cache.getRegionByPathForProcessing(this.regionPaths.get(i));
+        if (region instanceof DistributedRegion) {
+          region.getCachePerfStats().incTombstoneGCCount();
+          region.expireTombstones(this.regionGCVersions.get(i), this.eventIDs.get(i), null);
+        }
+      } catch (RegionDestroyedException ignore) {
+        // nothing left to collect
+      } catch (CancelException e) {
+        return;
+      } catch (RuntimeException e) {
+        logger.warn("Exception collecting tombstones of region " + this.regionPaths.get(i), e);
+      }
+    }
+  }
+
+  @Override
+  public void fromData(DataInput in,
+      DeserializationContext context) throws IOException, ClassNotFoundException {
+    super.fromData(in, context);
+    this.processorId = DataSerializer.readPrimitiveInt(in);
+    int size = DataSerializer.readPrimitiveInt(in);
+    this.regionPaths = new ArrayList<>(size);
+    this.regionGCVersions = new ArrayList<>(size);
+    this.eventIDs = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      this.regionPaths.add(DataSerializer.readString(in));
+      this.regionGCVersions.add(DistributedTombstoneOperation.readGCVersions(in));
+      this.eventIDs.add(DataSerializer.readObject(in));
+    }
+  }
+
+  @Override
+  public void toData(DataOutput out,
+      SerializationContext context) throws IOException {
+    super.toData(out, context);
+    DataSerializer.writePrimitiveInt(this.processorId, out);
+    DataSerializer.writePrimitiveInt(this.regionPaths.size(), out);
+    for (int i = 0; i < this.regionPaths.size(); i++) {
+      DataSerializer.writeString(this.regionPaths.get(i), out);
+      DistributedTombstoneOperation.writeGCVersions(this.regionGCVersions.get(i), out);
+      DataSerializer.writeObject(this.eventIDs.get(i), out);
+    }
+  }
+
+  List<String> getRegionPaths() {
+    return this.regionPaths;
+  }
+
+  List<Map<VersionSource, Long>> getRegionGCVersions() {
+    return this.regionGCVersions;
+  }
+
+  List<EventID> getEventIDs() {
+    return this.eventIDs;
+  }
+
+  @Override
+  public String toString() {
+    return getShortClassName() + " (processorId=" + this.processorId + "; regions="
+        + this.regionPaths + ")";
+  }
+
+  /**
+   * Collects the tombstone GC versions of regions into one message per recipient.
+   */
+  static class Batch {
+    private final DistributionManager dm;
+
+    private final Map<InternalDistributedMember, TombstoneGCBatchMessage> messages =
+        new HashMap<>();
+
+    /** whether a region with an ack scope has been added */
+    private boolean waitForReplies;
+
+    Batch(DistributionManager dm) {
+      this.dm = dm;
+    }
+
+    /**
+     * Adds the current tombstone GC versions of the given region for all members hosting it.
+     *
+     * @return false if a member hosting the region is too old to understand the batch, in which
+     *         case nothing was added and the region's versions need to be sent on their own
+     */
+    boolean add(DistributedRegion region, EventID eventID) {
+      Set<InternalDistributedMember> recipients =
+          region.getCacheDistributionAdvisor().adviseInvalidateRegion();
+      for (InternalDistributedMember recipient : recipients) {
+        if (recipient.getVersionObject().compareTo(Version.GEODE_1_12_0) < 0) {
+          return false;
+        }
+      }
+      Map<VersionSource, Long> gcVersions = region.getVersionVector().getTombstoneGCVector();
+      for (InternalDistributedMember recipient : recipients) {
+        TombstoneGCBatchMessage message =
+            messages.computeIfAbsent(recipient, TombstoneGCBatchMessage::new);
+        message.regionPaths.add(region.getFullPath());
+        message.regionGCVersions.add(gcVersions);
+        message.eventIDs.add(eventID);
+      }
+      if (!recipients.isEmpty() && region.getScope().isAck()) {
+        waitForReplies = true;
+      }
+      return true;
+    }
+
+    /**
+     * Sends the messages and, if any of the regions has an ack scope, waits for the recipients to
+     * have collected their tombstones.
+     */
+    void send() {
+      if (messages.isEmpty()) {
+        return;
+      }
+      ReplyProcessor21 processor = null;
+      if (waitForReplies) {
+        processor = new ReplyProcessor21(dm, messages.keySet());
+      }
+      for (TombstoneGCBatchMessage message : messages.values()) {
+        if (processor != null) {
+          message.processorId = processor.getProcessorId();
+        }
+        dm.putOutgoing(message);
+      }
+      messages.clear();
+      waitForReplies = false;
+      if (processor != null) {
+        try {
+          processor.waitForRepliesUninterruptibly();
+        } catch (ReplyException e) {
+          logger.warn("Exception waiting for tombstone GC replies", e);
+        }
+      }
+    }
+  }
+}
@@ -18,12 +18,14 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.geode.distributed.internal.DistributionConfig.GEMFIRE_PREFIX;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -43,6 +45,7 @@ import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.distributed.internal.CacheTime;
 import org.apache.geode.internal.cache.versions.CompactVersionHolder;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.logging.log4j.LogMarker;
@@ -104,6 +107,18 @@ public class TombstoneService {
   @MutableForTesting
   public static int EXPIRED_TOMBSTONE_LIMIT = EXPIRED_TOMBSTONE_LIMIT_DEFAULT;
 
+  @VisibleForTesting
+  public static final int EXPIRED_TOMBSTONE_SLICE_SIZE_DEFAULT =
+      Integer.getInteger(GEMFIRE_PREFIX + "tombstone-gc-slice-size", 1000);
+
+  /**
+   * The max number of expired tombstones removed at a time. A batch of expired tombstones is
+   * removed in slices of this size, so that the sweeper and the GC messaging are never busy with a
+   * whole batch at once. The default is 1,000 tombstones.
+   */
+  @MutableForTesting
+  public static int EXPIRED_TOMBSTONE_SLICE_SIZE = EXPIRED_TOMBSTONE_SLICE_SIZE_DEFAULT;
+
   @VisibleForTesting
   public static final long DEFUNCT_TOMBSTONE_SCAN_INTERVAL_DEFAULT =
       Long.getLong(GEMFIRE_PREFIX + "tombstone-scan-interval", 60000);
@@ -373,7 +388,7 @@ public class TombstoneService {
     return this.replicatedTombstoneSweeper.getBlockGCLock();
   }
 
-  private static class Tombstone extends CompactVersionHolder {
+  static class Tombstone extends CompactVersionHolder {
     // tombstone overhead size
     public static final int PER_TOMBSTONE_OVERHEAD =
         ReflectionSingleObjectSizer.REFERENCE_SIZE // queue's reference to the tombstone
@@ -405,6 +420,39 @@ public class TombstoneService {
       return sb.toString();
     }
   }
+  /**
+   * The highest region version of the tombstones of each member in a slice of expired tombstones,
+   * kept in parallel arrays since a region only has versions from a few members.
+   */
+  private static class GCVersions {
+    private VersionSource[] members = new VersionSource[4];
+    private long[] versions = new long[4];
+    private int size;
+
+    void add(VersionSource member, long version) {
+      for (int i = 0; i < size; i++) {
+        if (Objects.equals(members[i], member)) {
+          versions[i] = Math.max(versions[i], version);
+          return;
+        }
+      }
+      if (size == members.length) {
+        members = Arrays.copyOf(members, size * 2);
+        versions = Arrays.copyOf(versions, size * 2);
+      }
+      members[size] = member;
+      versions[size] = version;
+      size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    void recordIn(RegionVersionVector versionVector) {
+      for (int i = 0; i < size; i++) {
+        versionVector.recordGCVersion(members[i], versions[i]);
+      }
+    }
+  }
+
   private static class NonReplicateTombstoneSweeper extends TombstoneSweeper {
     NonReplicateTombstoneSweeper(CacheTime cacheTime, CachePerfStats stats,
         CancelCriterion cancelCriterion) {
@@ -452,16 +500,32 @@ public class TombstoneService {
     protected void beforeSleepChecks() {}
   }
 
-  private static class ReplicateTombstoneSweeper extends TombstoneSweeper {
+  static class ReplicateTombstoneSweeper extends TombstoneSweeper {
+    /**
+     * How long, in millis, the sweeper waits for a slice to be distributed before the next one.
+     */
+    private static final long SLICE_PAUSE = 10;
+
     /**
      * Used to execute batch gc message execution in the background.
      */
     private final ExecutorService executor;
     /**
-     * tombstones that have expired and are awaiting batch removal.
+     * tombstones that have expired and are awaiting batch removal, by region in the order they
+     * expired. Guarded by expiredTombstonesLock.
      */
-    private final List<Tombstone> expiredTombstones;
+    private final Map<LocalRegion, List<Tombstone>> expiredTombstones;
     private final Object expiredTombstonesLock = new Object();
+    /**
+     * the number of tombstones in expiredTombstones.
+     */
+    private volatile int expiredTombstoneCount;
+
+    /**
+     * The number of expired tombstones left to remove in the current batch. A batch is removed
+     * slice by slice on successive iterations of the sweeper. Only used by the sweeper thread.
+     */
+    private int batchRemaining;
 
     /**
      * Force batch expiration
@@ -469,8 +533,8 @@ public class TombstoneService {
     private boolean forceBatchExpiration = false;
 
     /**
-     * Is a batch expiration in progress? Part of expireBatch is done in a background thread and
-     * until that completes batch expiration is in progress.
+     * Is a slice expiration in progress? Part of expireSlice is done in a background thread and
+     * until that completes slice expiration is in progress.
      */
     private volatile boolean batchExpirationInProgress;
 
@@ -478,9 +542,10 @@ public class TombstoneService {
     private int progressingDeltaGIICount;
 
     /**
-     * A test hook to force a call to expireBatch. The call will only happen after
-     * testHook_forceExpirationCount goes to zero. This latch is counted down at the end of
-     * expireBatch. See @{link {@link TombstoneService#forceBatchExpirationForTests(int)}
+     * A test hook to force a batch expiration. The call will only happen after
+     * testHook_forceExpirationCount goes to zero. This latch is counted down once the last slice of
+     * the batch has been expired. See
+     * @{link {@link TombstoneService#forceBatchExpirationForTests(int)}
      */
     private CountDownLatch testHook_forceBatchExpireCall;
     /**
@@ -492,7 +557,7 @@ public class TombstoneService {
         CancelCriterion cancelCriterion, ExecutorService executor) {
       super(cacheTime, stats, cancelCriterion, REPLICATE_TOMBSTONE_TIMEOUT,
           "Replicate/Partition Region Garbage Collector");
-      this.expiredTombstones = new ArrayList<Tombstone>();
+      this.expiredTombstones = new LinkedHashMap<>();
       this.executor = executor;
     }
 
@@ -521,31 +586,103 @@ public class TombstoneService {
     @Override
     protected boolean removeExpiredIf(Predicate<Tombstone> predicate) {
       boolean result = false;
+      synchronized (expiredTombstonesLock) {
+        for (Iterator<List<Tombstone>> it = expiredTombstones.values().iterator(); it.hasNext();) {
+          List<Tombstone> regionTombstones = it.next();
+          if (removeExpiredFrom(regionTombstones, predicate)) {
+            result = true;
+            if (regionTombstones.isEmpty()) {
+              it.remove();
+            }
+          }
+        }
+      }
+      return result;
+    }
+
+    @Override
+    protected boolean removeExpiredIf(LocalRegion region, Predicate<Tombstone> predicate) {
+      synchronized (expiredTombstonesLock) {
+        List<Tombstone> regionTombstones = expiredTombstones.get(region);
+        if (regionTombstones == null || !removeExpiredFrom(regionTombstones, predicate)) {
+          return false;
+        }
+        if (regionTombstones.isEmpty()) {
+          expiredTombstones.remove(region);
+        }
+        return true;
+      }
+    }
+
+    /** removes the matching tombstones from the list, which is guarded by expiredTombstonesLock */
+    private boolean removeExpiredFrom(List<Tombstone> regionTombstones,
+        Predicate<Tombstone> predicate) {
+      long[] removalSize = new long[1];
+      int sizeBefore = regionTombstones.size();
+      // ArrayList.removeIf moves the remaining elements only once
+      boolean result = regionTombstones.removeIf(t -> {
+        if (predicate.test(t)) {
+          removalSize[0] += t.getSize();
+          return true;
+        }
+        return false;
+      });
+      expiredTombstoneCount -= sizeBefore - regionTombstones.size();
+      updateMemoryEstimate(-removalSize[0]);
+      return result;
+    }
+
+    /**
+     * Removes up to limit expired tombstones from the expired tombstones, taking the oldest of each
+     * region. A region that still has tombstones left goes to the back of the line.
+     */
+    @VisibleForTesting
+    Map<DistributedRegion, List<Tombstone>> takeExpiredSlice(int limit) {
+      Map<DistributedRegion, List<Tombstone>> slice = new LinkedHashMap<>();
       long removalSize = 0;
       synchronized (expiredTombstonesLock) {
-        // Iterate in reverse order to optimize lots of removes.
-        // Since expiredTombstones is an ArrayList removing from
-        // low indexes requires moving everything at a higher index down.
-        for (int idx = expiredTombstones.size() - 1; idx >= 0; idx--) {
-          Tombstone t = expiredTombstones.get(idx);
-          if (predicate.test(t)) {
+        List<Map.Entry<LocalRegion, List<Tombstone>>> unfinished = new ArrayList<>();
+        int taken = 0;
+        for (Iterator<Map.Entry<LocalRegion, List<Tombstone>>> it =
+            expiredTombstones.entrySet().iterator(); taken < limit && it.hasNext();) {
+          Map.Entry<LocalRegion, List<Tombstone>> entry = it.next();
+          List<Tombstone> regionTombstones = entry.getValue();
+          List<Tombstone> head =
+              regionTombstones.subList(0, Math.min(limit - taken, regionTombstones.size()));
+          for (Tombstone t : head) {
             removalSize += t.getSize();
-            expiredTombstones.remove(idx);
-            result = true;
           }
+          slice.put((DistributedRegion) entry.getKey(), new ArrayList<>(head));
+          taken += head.size();
+          head.clear();
+          it.remove();
+          if (!regionTombstones.isEmpty()) {
+            unfinished.add(entry);
+          }
+        }
+        for (Map.Entry<LocalRegion, List<Tombstone>> entry : unfinished) {
+          expiredTombstones.put(entry.getKey(), entry.getValue());
         }
+        expiredTombstoneCount -= taken;
       }
       updateMemoryEstimate(-removalSize);
-      return result;
+      return slice;
     }
 
-    /** expire a batch of tombstones */
-    private void expireBatch() {
+    /** start removing the expired tombstones in slices */
+    @VisibleForTesting
+    void startBatchExpiration() {
+      batchRemaining = Math.max(1, expiredTombstoneCount);
+      expireSlice();
+    }
+
+    /** expire the next slice of the current batch of tombstones */
+    @VisibleForTesting
+    void expireSlice() {
       // fix for bug #46087 - OOME due to too many GC threads
       if (this.batchExpirationInProgress) {
-        // incorrect return due to race between this and waiting-pool GC thread is okay
-        // because the sweeper thread will just try again after its next sleep (max sleep is 10
-        // seconds)
+        // the previous slice is still being distributed. The sweeper thread will just try again
+        // after its next short sleep
         return;
       }
       synchronized (getBlockGCLock()) {
@@ -553,36 +690,39 @@ public class TombstoneService {
         if (count > 0) {
           // if any delta GII is on going as provider at this member, not to do tombstone GC
           if (logger.isDebugEnabled()) {
-            logger.debug("expireBatch skipped due to {} Delta GII on going", count);
+            logger.debug("expireSlice skipped due to {} Delta GII on going", count);
           }
           return;
         }
 
         this.batchExpirationInProgress = true;
-        boolean batchScheduled = false;
+        boolean sliceScheduled = false;
+        boolean batchDone = false;
         try {
+          final Map<DistributedRegion, List<Tombstone>> slice =
+              takeExpiredSlice(EXPIRED_TOMBSTONE_SLICE_SIZE);
+          int sliceSize = 0;
 
           // TODO seems like no need for the value of this map to be a Set.
           // It could instead be a List, which would be nice because the per entry
           // memory overhead for a set is much higher than an ArrayList
           // BUT we send it to clients and the old
           // version of them expects it to be a Set.
-          final Map<DistributedRegion, Set<Object>> reapedKeys = new HashMap<>();
+          final Map<DistributedRegion, Set<Object>> reapedKeys = new LinkedHashMap<>();
 
           // Update the GC RVV for all of the affected regions.
           // We need to do this so that we can persist the GC RVV before
           // we start removing entries from the map.
-          synchronized (expiredTombstonesLock) {
-            for (Tombstone t : expiredTombstones) {
-              DistributedRegion tr = (DistributedRegion) t.region;
-              tr.getVersionVector().recordGCVersion(t.getMemberID(), t.getRegionVersion());
-              if (!reapedKeys.containsKey(tr)) {
-                reapedKeys.put(tr, Collections.emptySet());
-              }
+          for (Map.Entry<DistributedRegion, List<Tombstone>> entry : slice.entrySet()) {
+            DistributedRegion r = entry.getKey();
+            GCVersions gcVersions = new GCVersions();
+            for (Tombstone t : entry.getValue()) {
+              gcVersions.add(t.getMemberID(), t.getRegionVersion());
             }
-          }
+            gcVersions.recordIn(r.getVersionVector());
+            sliceSize += entry.getValue().size();
+            reapedKeys.put(r, Collections.emptySet());
 
-          for (DistributedRegion r : reapedKeys.keySet()) {
             // Remove any exceptions from the RVV that are older than the GC version
             r.getVersionVector().pruneOldExceptions();
 
@@ -596,22 +736,33 @@ public class TombstoneService {
           }
 
           // Remove the tombstones from the in memory region map.
-          removeExpiredIf(t -> {
+          for (Map.Entry<DistributedRegion, List<Tombstone>> entry : slice.entrySet()) {
+            DistributedRegion tr = entry.getKey();
             // for PR buckets we have to keep track of the keys removed because clients have
             // them all lumped in a single non-PR region
-            DistributedRegion tr = (DistributedRegion) t.region;
-            boolean tombstoneWasStillInRegionMap =
-                tr.getRegionMap().removeTombstone(t.entry, t, false, true);
-            if (tombstoneWasStillInRegionMap && hasToTrackKeysForClients(tr)) {
-              Set<Object> keys = reapedKeys.get(tr);
-              if (keys.isEmpty()) {
-                keys = new HashSet<Object>();
-                reapedKeys.put(tr, keys);
+            boolean trackKeys = hasToTrackKeysForClients(tr);
+            for (Tombstone t : entry.getValue()) {
+              boolean tombstoneWasStillInRegionMap =
+                  tr.getRegionMap().removeTombstone(t.entry, t, false, true);
+              if (tombstoneWasStillInRegionMap && trackKeys) {
+                Set<Object> keys = reapedKeys.get(tr);
+                if (keys.isEmpty()) {
+                  keys = new HashSet<Object>();
+                  reapedKeys.put(tr, keys);
+                }
+                keys.add(t.entry.getKey());
               }
-              keys.add(t.entry.getKey());
             }
-            return true;
-          });
+          }
+
+          batchRemaining -= sliceSize;
+          batchDone = batchRemaining <= 0 || sliceSize == 0;
+          if (batchDone) {
+            batchRemaining = 0;
+          }
+          if (reapedKeys.isEmpty()) {
+            return;
+          }
 
           // do messaging in a pool so this thread is not stuck trying to
           // communicate with other members
@@ -620,22 +771,29 @@ public class TombstoneService {
             public void run() {
               try {
                 // this thread should not reference other sweeper state, which is not synchronized
+                TombstoneGCBatchMessage.Batch batch = null;
                 for (Map.Entry<DistributedRegion, Set<Object>> mapEntry : reapedKeys.entrySet()) {
                   DistributedRegion r = mapEntry.getKey();
                   Set<Object> rKeysReaped = mapEntry.getValue();
-                  r.distributeTombstoneGC(rKeysReaped);
+                  if (batch == null) {
+                    batch = new TombstoneGCBatchMessage.Batch(r.getDistributionManager());
+                  }
+                  r.distributeTombstoneGC(rKeysReaped, batch);
+                }
+                if (batch != null) {
+                  batch.send();
                 }
               } finally {
                 batchExpirationInProgress = false;
               }
             }
           });
-          batchScheduled = true;
+          sliceScheduled = true;
         } finally {
-          if (testHook_forceBatchExpireCall != null) {
+          if (batchDone && testHook_forceBatchExpireCall != null) {
             testHook_forceBatchExpireCall.countDown();
           }
-          if (!batchScheduled) {
+          if (!sliceScheduled) {
             batchExpirationInProgress = false;
           }
         }
@@ -653,9 +811,11 @@ public class TombstoneService {
 
     @Override
     protected void checkExpiredTombstoneGC() {
-      if (shouldCallExpireBatch()) {
+      if (batchRemaining > 0) {
+        expireSlice();
+      } else if (shouldCallExpireBatch()) {
         this.forceBatchExpiration = false;
-        expireBatch();
+        startBatchExpiration();
       }
       checkIfBatchExpirationShouldBeForced();
     }
@@ -670,15 +830,16 @@ public class TombstoneService {
       if (testHook_forceBatchExpireCall != null) {
         return true;
       }
-      if (expiredTombstones.size() >= EXPIRED_TOMBSTONE_LIMIT) {
+      if (expiredTombstoneCount >= EXPIRED_TOMBSTONE_LIMIT) {
         return true;
       }
       return false;
     }
 
     private void testHookIfIdleExpireBatch() {
-      if (IDLE_EXPIRATION && sleepTime >= EXPIRY_TIME && !this.expiredTombstones.isEmpty()) {
-        expireBatch();
+      if (IDLE_EXPIRATION && sleepTime >= EXPIRY_TIME && this.expiredTombstoneCount > 0
+          && batchRemaining <= 0) {
+        startBatchExpiration();
       }
     }
 
@@ -697,7 +858,7 @@ public class TombstoneService {
       if (this.batchExpirationInProgress) {
         return;
       }
-      if (this.expiredTombstones.size() <= (EXPIRED_TOMBSTONE_LIMIT / 4)) {
+      if (this.expiredTombstoneCount <= (EXPIRED_TOMBSTONE_LIMIT / 4)) {
         return;
       }
       if (FORCE_GC_MEMORY_EVENTS || isFreeMemoryLow()) {
@@ -735,7 +896,8 @@ public class TombstoneService {
             tombstone);
       }
       synchronized (expiredTombstonesLock) {
-        expiredTombstones.add(tombstone);
+        expiredTombstones.computeIfAbsent(tombstone.region, r -> new ArrayList<>()).add(tombstone);
+        expiredTombstoneCount++;
       }
     }
 
@@ -746,14 +908,16 @@ public class TombstoneService {
 
     @Override
     public String toString() {
-      return super.toString() + " batchedExpiredTombstones[" + expiredTombstones.size() + "] = "
-          + expiredTombstones.toString();
+      synchronized (expiredTombstonesLock) {
+        return super.toString() + " batchedExpiredTombstones[" + expiredTombstoneCount + "] = "
+            + expiredTombstones.values().toString();
+      }
     }
 
     @Override
     boolean testHook_forceExpiredTombstoneGC(int count, long timeout, TimeUnit unit)
         throws InterruptedException {
-      // sync on blockGCLock since expireBatch syncs on it
+      // sync on blockGCLock since expireSlice syncs on it
       synchronized (getBlockGCLock()) {
         testHook_forceBatchExpireCall = new CountDownLatch(1);
       }
@@ -771,15 +935,24 @@ public class TombstoneService {
     @Override
     protected void beforeSleepChecks() {
       testHookIfIdleExpireBatch();
+      if (batchRemaining > 0) {
+        // keep removing the batch, pausing only while the last slice is being distributed or a
+        // delta GII blocks GC
+        if (batchExpirationInProgress || getGCBlockCount() > 0) {
+          sleepTime = Math.min(sleepTime, SLICE_PAUSE);
+        } else {
+          sleepTime = 0;
+        }
+      }
     }
 
     @Override
     public long getScheduledTombstoneCount() {
-      return super.getScheduledTombstoneCount() + this.expiredTombstones.size();
+      return super.getScheduledTombstoneCount() + this.expiredTombstoneCount;
     }
   }
 
-  private abstract static class TombstoneSweeper implements Runnable {
+  abstract static class TombstoneSweeper implements Runnable {
     /**
      * the expiration time for tombstones in this sweeper
      */
@@ -842,12 +1015,9 @@ public class TombstoneService {
     }
 
     public void unscheduleTombstones(final LocalRegion r) {
-      this.removeIf(t -> {
-        if (t.region == r) {
-          return true;
-        }
-        return false;
-      });
+      Predicate<Tombstone> inRegion = t -> t.region == r;
+      removeUnexpiredIf(inRegion);
+      removeExpiredIf(r, inRegion);
     }
 
     /**
@@ -967,6 +1137,9 @@ public class TombstoneService {
         return;
       }
       beforeSleepChecks();
+      if (sleepTime <= 0) {
+        return;
+      }
       sleepTime = Math.min(sleepTime, MAX_SLEEP_TIME);
       if (logger.isTraceEnabled(LogMarker.TOMBSTONE_VERBOSE)) {
         logger.trace(LogMarker.TOMBSTONE_VERBOSE, "sleeping for {}", sleepTime);
@@ -1074,6 +1247,14 @@ public class TombstoneService {
      */
     protected abstract boolean removeExpiredIf(Predicate<Tombstone> predicate);
 
+    /**
+     * Like {@link #removeExpiredIf(Predicate)}, for a predicate that only matches tombstones of the
+     * given region.
+     */
+    protected boolean removeExpiredIf(LocalRegion region, Predicate<Tombstone> predicate) {
+      return removeExpiredIf(predicate);
+    }
+
     /** see if the already expired tombstones should be processed */
     protected abstract void checkExpiredTombstoneGC();
 
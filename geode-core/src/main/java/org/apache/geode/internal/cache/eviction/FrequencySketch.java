@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * A count-min sketch estimating how often keys have been used, with four 4-bit counters per key.
+ * Sixteen counters are packed in each long. Once the number of increments reaches ten times the
+ * width of the sketch all counters are halved, so that the estimates favor recent use.
+ *
+ * Not thread safe; {@link TinyLFUList} only uses it while holding its own lock.
+ *
+ * @since Geode 1.12
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private static final int MAXIMUM_COUNT = 15;
+
+  private long[] table = new long[0];
+
+  private int tableMask;
+
+  private int sampleSize;
+
+  private int additions;
+
+  /**
+   * Widens the sketch if needed to estimate the frequencies of the given number of keys. Widening
+   * keeps the counts gathered so far: a counter's index only gains high bits as the table grows,
+   * so the table is copied into every part of the wider one.
+   */
+  void ensureCapacity(int maximumSize) {
+    int size = Math.max(Math.min(maximumSize, 1 << 30), 8);
+    if (table.length >= size) {
+      return;
+    }
+    int length = Integer.highestOneBit(size - 1) << 1;
+    long[] widened = new long[length];
+    if (table.length > 0) {
+      for (int i = 0; i < length; i += table.length) {
+        System.arraycopy(table, 0, widened, i, table.length);
+      }
+    }
+    table = widened;
+    tableMask = length - 1;
+    sampleSize = 10 * length;
+  }
+
+  /** returns the estimated number of times the key has been used, at most 15 */
+  int frequency(Object key) {
+    if (table.length == 0) {
+      return 0;
+    }
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = MAXIMUM_COUNT;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /** records a use of the key */
+  void increment(Object key) {
+    if (table.length == 0) {
+      return;
+    }
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++additions == sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /** halves every counter, making room for new uses to weigh more than old ones */
+  void reset() {
+    int odd = 0;
+    for (int i = 0; i < table.length; i++) {
+      odd += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions = (additions >>> 1) - (odd >>> 2);
+  }
+
+  private int indexOf(int hash, int depth) {
+    long h = (hash + SEEDS[depth]) * SEEDS[depth];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  private static int spread(int hash) {
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    return (hash >>> 16) ^ hash;
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * An eviction list that takes into account how often entries are used, so that a scan touching
+ * every key once does not push out the entries that are used all the time (W-TinyLFU).
+ *
+ * New entries go into a small admission window. When the window is full, its oldest entry is only
+ * admitted into the main list if a {@link FrequencySketch} estimates that its key has been used
+ * more often than the key of the main list's eviction candidate; otherwise the new entry is
+ * evicted. Within both lists the recently used bit gives entries a second chance, as in
+ * {@link LRUListWithSyncSorting}, and every use seen this way is recorded in the sketch.
+ *
+ * @since Geode 1.12
+ */
+public class TinyLFUList extends AbstractEvictionList {
+  private static final Logger logger = LogService.getLogger();
+
+  /** the percentage of the entries kept in the admission window */
+  private static final int WINDOW_PERCENTAGE = 1;
+
+  /** The last node in the admission window after which all new nodes are added */
+  private final EvictionNode windowTail = new GuardNode();
+
+  /** The oldest node in the admission window */
+  private final EvictionNode windowHead = new GuardNode();
+
+  /** the nodes currently in the admission window */
+  private final Set<EvictionNode> window = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  public TinyLFUList(EvictionController controller) {
+    super(controller);
+    initEmptyWindow();
+  }
+
+  private synchronized void initEmptyWindow() {
+    window.clear();
+    windowHead.setNext(windowTail);
+    windowTail.setPrevious(windowHead);
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    if (regionVersionVector != null) {
+      return; // when concurrency checks are enabled the clear operation removes entries iteratively
+    }
+    // empty both lists at once, so that no entry is appended in between and lost with the window
+    synchronized (this) {
+      super.clear(null, bucketRegion);
+      initEmptyWindow();
+    }
+  }
+
+  /**
+   * Adds a new eviction node to the tail of the admission window.
+   */
+  @Override
+  public synchronized void appendEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() != null) {
+      // already in the list
+      return;
+    }
+    link(evictionNode, windowTail);
+    window.add(evictionNode);
+    incrementSize();
+    sketch.ensureCapacity(size());
+    recordUse(evictionNode);
+  }
+
+  @Override
+  protected synchronized boolean removeEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() == null) {
+      // not in the list anymore.
+      return false;
+    }
+    window.remove(evictionNode);
+    unlinkEntry(evictionNode);
+    return true;
+  }
+
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    long evaluations = 0;
+    for (;;) {
+      EvictionNode candidate;
+      boolean fromWindow;
+      synchronized (this) {
+        fromWindow = window.size() > getWindowTarget() || head.next() == tail;
+        candidate = fromWindow ? unlinkWindowHead() : unlinkHeadEntry();
+      }
+      if (candidate == null) {
+        getStatistics().incEvaluations(evaluations);
+        return null;
+      }
+      evaluations++;
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+        logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "tiny lfu considering {}", candidate);
+      }
+
+      if (!isEvictable(candidate)) {
+        continue;
+      }
+
+      boolean greedy = evaluations > 2L * (size() + 1);
+      if (greedy) {
+        getStatistics().incGreedyReturns(1);
+      } else if (candidate.isRecentlyUsed()) {
+        // second chance, in whichever list the entry came from
+        candidate.unsetRecentlyUsed();
+        synchronized (this) {
+          recordUse(candidate);
+          if (fromWindow) {
+            link(candidate, windowTail);
+            window.add(candidate);
+          } else {
+            link(candidate, tail);
+          }
+          incrementSize();
+        }
+        continue;
+      } else if (fromWindow && admit(candidate)) {
+        // the main list's candidate is evicted instead
+        continue;
+      }
+
+      getStatistics().incEvaluations(evaluations);
+      return (EvictableEntry) candidate;
+    }
+  }
+
+  /**
+   * Moves a node leaving the admission window into the main list if its key is used more often
+   * than the key of the main list's eviction candidate.
+   *
+   * @return true if the node was admitted
+   */
+  private synchronized boolean admit(EvictionNode candidate) {
+    EvictionNode victim = head.next();
+    if (victim != tail && frequency(candidate) <= frequency(victim)) {
+      return false;
+    }
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+      logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "admitting {} into main list", candidate);
+    }
+    link(candidate, tail);
+    incrementSize();
+    return true;
+  }
+
+  private int getWindowTarget() {
+    return Math.max(1, size() * WINDOW_PERCENTAGE / 100);
+  }
+
+  private EvictionNode unlinkWindowHead() {
+    EvictionNode evictionNode = windowHead.next();
+    if (evictionNode == windowTail) {
+      return null;
+    }
+    window.remove(evictionNode);
+    unlinkEntry(evictionNode);
+    return evictionNode;
+  }
+
+  private static void link(EvictionNode evictionNode, EvictionNode before) {
+    EvictionNode previous = before.previous();
+    evictionNode.setNext(before);
+    evictionNode.setPrevious(previous);
+    previous.setNext(evictionNode);
+    before.setPrevious(evictionNode);
+  }
+
+  private void recordUse(EvictionNode evictionNode) {
+    Object key = getKey(evictionNode);
+    if (key != null) {
+      sketch.increment(key);
+    }
+  }
+
+  private int frequency(EvictionNode evictionNode) {
+    Object key = getKey(evictionNode);
+    return key == null ? 0 : sketch.frequency(key);
+  }
+
+  private static Object getKey(EvictionNode evictionNode) {
+    if (evictionNode instanceof EvictableEntry) {
+      return ((EvictableEntry) evictionNode).getKey();
+    }
+    return null;
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // uses are recorded when the recently used bit is found during eviction
+  }
+}
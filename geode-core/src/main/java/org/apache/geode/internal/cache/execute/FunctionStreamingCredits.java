@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+
+/**
+ * The credits a member executing a streaming function has to send results to the caller. The
+ * caller hands out a window of credits with the request and returns credits with
+ * {@link org.apache.geode.internal.cache.FunctionStreamingCreditMessage}s as it consumes results.
+ * The sender takes a credit for each result, waiting while it has none. It gives up if the caller
+ * closes the results or does not return a credit within
+ * {@link StreamingResultCollector#TIMEOUT_PROPERTY}.
+ *
+ * @since Geode 1.12
+ */
+public class FunctionStreamingCredits {
+
+  @MakeNotStatic
+  private static final ConcurrentMap<Key, FunctionStreamingCredits> registry =
+      new ConcurrentHashMap<>();
+
+  private static final long WAIT_MILLIS = 1000;
+
+  private final Key key;
+  private final Semaphore credits;
+  private final long timeoutMillis;
+  private volatile boolean cancelled;
+
+  private FunctionStreamingCredits(Key key, int window, long timeoutMillis) {
+    this.key = key;
+    this.credits = new Semaphore(window);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Registers the credits of the execution requested by the given caller processor.
+   */
+  public static FunctionStreamingCredits register(InternalDistributedMember caller,
+      int processorId, int window) {
+    return register(caller, processorId, window, StreamingResultCollector.getTimeoutMillis());
+  }
+
+  static FunctionStreamingCredits register(InternalDistributedMember caller, int processorId,
+      int window, long timeoutMillis) {
+    FunctionStreamingCredits credits =
+        new FunctionStreamingCredits(new Key(caller, processorId), window, timeoutMillis);
+    registry.put(credits.key, credits);
+    return credits;
+  }
+
+  /**
+   * Returns credits to the execution requested by the given caller processor, if it is still
+   * sending results.
+   */
+  public static void grant(InternalDistributedMember caller, int processorId, int count) {
+    FunctionStreamingCredits credits = registry.get(new Key(caller, processorId));
+    if (credits != null) {
+      credits.credits.release(count);
+    }
+  }
+
+  /**
+   * Stops the execution requested by the given caller processor, which closed the results.
+   */
+  public static void cancel(InternalDistributedMember caller, int processorId) {
+    FunctionStreamingCredits credits = registry.get(new Key(caller, processorId));
+    if (credits != null) {
+      credits.cancelled = true;
+      // wake the sender if it is waiting for a credit
+      credits.credits.release();
+    }
+  }
+
+  static int getRegisteredCount() {
+    return registry.size();
+  }
+
+  /**
+   * Takes a credit to send one result, waiting until the caller returns one.
+   *
+   * @throws FunctionException if the caller has left the distributed system, has closed the
+   *         results or has not returned a credit within the timeout
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void acquire(DistributionManager dm) throws InterruptedException {
+    long start = System.nanoTime();
+    long waitMillis = Math.min(WAIT_MILLIS, this.timeoutMillis);
+    while (!this.cancelled && !this.credits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+      dm.getCancelCriterion().checkCancelInProgress(null);
+      if (!dm.isCurrentMember(this.key.caller)) {
+        throw new FunctionException(String.format(
+            "The caller %s of a streaming function execution has departed", this.key.caller));
+      }
+      if (System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(this.timeoutMillis)) {
+        throw new FunctionException(String.format(
+            "The caller %s of a streaming function execution did not consume results within %d ms",
+            this.key.caller, this.timeoutMillis));
+      }
+    }
+    if (this.cancelled) {
+      // pass the wake up on to any other thread sending results
+      this.credits.release();
+      throw new FunctionException(String.format(
+          "The caller %s closed the results of a streaming function execution", this.key.caller));
+    }
+  }
+
+  public int availableCredits() {
+    return this.credits.availablePermits();
+  }
+
+  /**
+   * Unregisters the credits once the last result has been sent.
+   */
+  public void unregister() {
+    registry.remove(this.key, this);
+  }
+
+  private static class Key {
+    private final InternalDistributedMember caller;
+    private final int processorId;
+
+    Key(InternalDistributedMember caller, int processorId) {
+      this.caller = caller;
+      this.processorId = processorId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return this.processorId == other.processorId && this.caller.equals(other.caller);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.caller, this.processorId);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -44,8 +45,10 @@ import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.ReplyProcessor21;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.ForceReattemptException;
+import org.apache.geode.internal.cache.FunctionStreamingCreditMessage;
 import org.apache.geode.internal.cache.FunctionStreamingReplyMessage;
 import org.apache.geode.internal.cache.PrimaryBucketException;
+import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 public class FunctionStreamingResultCollector extends ReplyProcessor21
@@ -82,6 +85,12 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21
 
   private final ResultCollectorHolder rcHolder;
 
+  /** the caller's collector if the results are streamed, otherwise null */
+  private final StreamingResultCollector streamingRC;
+
+  /** the members sending streamed results that were given credits */
+  private final Set<InternalDistributedMember> creditedMembers = ConcurrentHashMap.newKeySet();
+
   public FunctionStreamingResultCollector(StreamingFunctionOperation streamingFunctionOperation,
       InternalDistributedSystem system, Set members, ResultCollector rc, Function function,
       AbstractExecution execution) {
@@ -97,6 +106,86 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21
       ((LocalResultCollector<?, ?>) rc).setProcessor(this);
     }
     rcHolder = new ResultCollectorHolder(this);
+    this.streamingRC = StreamingResultCollector.from(rc);
+    if (this.streamingRC != null) {
+      this.streamingRC.setConsumptionListener(this::returnCredits);
+      this.streamingRC.setCompletionCheck(this::checkStreamingCompletion);
+      this.streamingRC.setCancellationListener(this::cancelStreaming);
+    }
+  }
+
+  StreamingResultCollector getStreamingResultCollector() {
+    return this.streamingRC;
+  }
+
+  /**
+   * Returns the number of credits to give the given member with its request, or zero if its
+   * results are not flow controlled.
+   */
+  public int getStreamingWindow(InternalDistributedMember member) {
+    if (this.streamingRC == null
+        || member.getVersionObject().compareTo(Version.GEODE_1_12_0) < 0) {
+      return 0;
+    }
+    this.creditedMembers.add(member);
+    return this.streamingRC.getWindow();
+  }
+
+  private void returnCredits(DistributedMember member, int count) {
+    InternalDistributedMember sender = (InternalDistributedMember) member;
+    if (this.creditedMembers.contains(sender) && waitingOnMember(sender)) {
+      FunctionStreamingCreditMessage.send(sender, getProcessorId(), count,
+          getDistributionManager());
+    }
+  }
+
+  /**
+   * Tells the members still sending streamed results that the caller closed the iterator, so that
+   * they stop rather than wait for credits that will not come.
+   */
+  private void cancelStreaming() {
+    for (InternalDistributedMember member : this.creditedMembers) {
+      if (waitingOnMember(member)) {
+        FunctionStreamingCreditMessage.sendCancel(member, getProcessorId(),
+            getDistributionManager());
+      }
+    }
+  }
+
+  /**
+   * Ends the streamed results with a failure, since results already consumed prevent re-execution.
+   */
+  protected void failStreaming(Throwable cause) {
+    if (this.streamingRC != null) {
+      this.streamingRC.fail(cause);
+    }
+  }
+
+  protected boolean isStreaming() {
+    return this.streamingRC != null;
+  }
+
+  /**
+   * Run once the caller has consumed the last streamed result. Throws the exception the execution
+   * failed with, if any.
+   */
+  protected void checkStreamingCompletion() {
+    try {
+      waitForCacheOrFunctionException(0);
+    } catch (ForceReattemptException e) {
+      throw new FunctionException(new FunctionInvocationTargetException(e.getMessage()));
+    } catch (ReplyException e) {
+      if (!(execution.waitOnException || execution.forwardExceptions)) {
+        throw new FunctionException(e.getCause());
+      }
+    } catch (FunctionException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new FunctionException(e);
+    }
+    if (!this.execution.getWaitOnExceptionFlag() && this.fites.size() > 0) {
+      throw new FunctionException(this.fites.get(0));
+    }
   }
 
   @Override
@@ -142,6 +231,9 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21
     }
 
     this.resultCollected = true;
+    if (this.streamingRC != null) {
+      return this.userRC.getResult();
+    }
     if (this.userRC != null) {
       try {
         if (execution instanceof DistributedRegionFunctionExecutor
@@ -261,6 +353,9 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21
     }
 
     this.resultCollected = true;
+    if (this.streamingRC != null) {
+      return this.userRC.getResult(timeout, unit);
+    }
     // Should convert it from unit to milliseconds
     if (this.userRC != null) {
       try {
@@ -430,6 +525,7 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21
                 id);
           }
           this.fites.add(fe);
+          failStreaming(fe);
         }
       } // synchronized
       checkIfDone();
@@ -527,6 +623,8 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21
             this.functionResultWaiter.processData(m.getException().getCause(), true,
                 msg.getSender());
           }
+        } else {
+          failStreaming(m.getException().getCause());
         }
         super.process(msg, false);
       }
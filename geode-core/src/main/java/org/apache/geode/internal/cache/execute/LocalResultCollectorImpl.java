@@ -92,6 +92,13 @@ public class LocalResultCollectorImpl implements CachedResultCollector, LocalRes
 
   @Override
   public void endResults() {
+    if (this.functionException != null && !this.execution.isIgnoreDepartedMembers()) {
+      StreamingResultCollector streamingCollector = StreamingResultCollector.from(this.userRC);
+      if (streamingCollector != null) {
+        // the results already streamed cannot be re-executed, so end the stream with the failure
+        streamingCollector.fail(this.functionException);
+      }
+    }
     this.endResultReceived = true;
     this.userRC.endResults();
     this.latch.countDown();
@@ -119,6 +126,10 @@ public class LocalResultCollectorImpl implements CachedResultCollector, LocalRes
           "Function results already collected");
     }
     this.resultCollected = true;
+    if (StreamingResultCollector.from(this.userRC) != null) {
+      // the results are consumed as they arrive
+      return this.userRC.getResult();
+    }
     try {
       this.latch.await();
     } catch (InterruptedException e) {
@@ -164,6 +175,10 @@ public class LocalResultCollectorImpl implements CachedResultCollector, LocalRes
           "Function results already collected");
     }
     this.resultCollected = true;
+    if (StreamingResultCollector.from(this.userRC) != null) {
+      // the results are consumed as they arrive
+      return this.userRC.getResult(timeout, unit);
+    }
     try {
       resultReceived = this.latch.await(timeout, unit);
     } catch (InterruptedException e) {
@@ -206,6 +221,10 @@ public class LocalResultCollectorImpl implements CachedResultCollector, LocalRes
     }
   }
 
+  ResultCollector getUserResultCollector() {
+    return this.userRC;
+  }
+
   @Override
   public ReplyProcessor21 getProcessor() {
     // not expected to be invoked
@@ -73,6 +73,8 @@ public class PartitionedRegionFunctionResultSender implements InternalResultSend
 
   private BucketMovedException bme;
 
+  private StreamingResultCollector localStreamingCollector;
+
 
   public Version getClientVersion() {
     if (serverSender != null && serverSender.sc != null) { // is a client-server connection
@@ -116,6 +118,7 @@ public class PartitionedRegionFunctionResultSender implements InternalResultSend
     this.forwardExceptions = forwardExceptions;
     this.function = function;
     this.bucketArray = bucketArray;
+    this.localStreamingCollector = StreamingResultCollector.from(rc);
   }
 
   private void checkForBucketMovement(Object oneResult) {
@@ -186,6 +189,7 @@ public class PartitionedRegionFunctionResultSender implements InternalResultSend
         if (this.localLastResultReceived) {
           return;
         }
+        awaitLocalCapacity();
         if (onlyLocal) {
           checkForBucketMovement(oneResult);
           if (bme != null) {
@@ -359,6 +363,10 @@ public class PartitionedRegionFunctionResultSender implements InternalResultSend
         logger.debug(
             "PartitionedRegionFunctionResultSender adding result to ResultCollector on local node {}",
             oneResult);
+        if (!awaitLocalCapacity()) {
+          throw new FunctionException(
+              "The caller no longer consumes the results of the streaming function execution");
+        }
         this.rc.addResult(dm.getDistributionManagerId(), oneResult);
         FunctionStatsManager.getFunctionStats(function.getId(), this.dm.getSystem())
             .incResultsReceived();
@@ -369,6 +377,16 @@ public class PartitionedRegionFunctionResultSender implements InternalResultSend
     }
   }
 
+  /**
+   * Waits, when the results are streamed to the caller, until the caller has consumed enough of
+   * them. Results of remote members are flow controlled by credits instead.
+   *
+   * @return false if the caller no longer wants the results
+   */
+  private boolean awaitLocalCapacity() {
+    return this.localStreamingCollector == null || this.localStreamingCollector.awaitCapacity();
+  }
+
   private void clientSend(Object oneResult, DistributedMember memberID) {
     this.serverSender.sendResult(oneResult, memberID);
   }
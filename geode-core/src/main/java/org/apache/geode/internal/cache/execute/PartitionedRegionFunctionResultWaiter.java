@@ -23,7 +23,6 @@ import org.apache.geode.cache.execute.ResultCollector;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.internal.DistributionMessage;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
-import org.apache.geode.distributed.internal.ReplyProcessor21;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.partitioned.PRFunctionStreamingResultCollector;
@@ -92,9 +91,10 @@ public class PartitionedRegionFunctionResultWaiter extends StreamingFunctionOper
   }
 
   protected PartitionMessage createRequestMessage(InternalDistributedMember recipient,
-      ReplyProcessor21 processor, FunctionRemoteContext context) {
+      FunctionStreamingResultCollector processor, FunctionRemoteContext context) {
     PartitionedRegionFunctionStreamingMessage msg =
-        new PartitionedRegionFunctionStreamingMessage(recipient, this.regionId, processor, context);
+        new PartitionedRegionFunctionStreamingMessage(recipient, this.regionId, processor, context,
+            processor.getStreamingWindow(recipient));
 
     return msg;
   }
@@ -16,10 +16,12 @@
 package org.apache.geode.internal.cache.execute;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.annotations.internal.MakeNotStatic;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.client.internal.ProxyCache;
 import org.apache.geode.cache.client.internal.ServerRegionProxy;
@@ -36,6 +38,7 @@ import org.apache.geode.internal.cache.TXStateProxyImpl;
 import org.apache.geode.internal.cache.execute.metrics.FunctionStats;
 import org.apache.geode.internal.cache.execute.metrics.FunctionStatsManager;
 import org.apache.geode.internal.cache.execute.util.SynchronizedResultCollector;
+import org.apache.geode.logging.internal.executors.LoggingExecutors;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -47,6 +50,13 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
 public class ServerRegionFunctionExecutor extends AbstractExecution {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * Receives streamed results from servers. Idle threads are reused by later executions.
+   */
+  @MakeNotStatic
+  private static final ExecutorService streamingResultReaders =
+      LoggingExecutors.newCachedThreadPool("Function Streaming Results ", true);
+
   private final LocalRegion region;
   private boolean executeOnBucketSet = false;
 
@@ -203,6 +213,11 @@ public class ServerRegionFunctionExecutor extends AbstractExecution {
     long start = stats.startFunctionExecution(true);
     try {
       validateExecution(function, null);
+      StreamingResultCollector streamingCollector = StreamingResultCollector.from(collector);
+      if (streamingCollector != null) {
+        return executeStreaming(streamingCollector, collector, stats, start,
+            () -> srp.executeFunction(function, this, collector, hasResult, timeoutMs));
+      }
       srp.executeFunction(function, this, collector, hasResult,
           timeoutMs);
       stats.endFunctionExecution(start, true);
@@ -225,6 +240,12 @@ public class ServerRegionFunctionExecutor extends AbstractExecution {
     long start = stats.startFunctionExecution(true);
     try {
       validateExecution(null, null);
+      StreamingResultCollector streamingCollector = StreamingResultCollector.from(collector);
+      if (streamingCollector != null) {
+        return executeStreaming(streamingCollector, collector, stats, start,
+            () -> srp.executeFunction(functionId, this, collector, hasResult, isHA,
+                optimizeForWrite, timeoutMs));
+      }
       srp.executeFunction(functionId, this, collector, hasResult, isHA,
           optimizeForWrite, timeoutMs);
       stats.endFunctionExecution(start, true);
@@ -239,6 +260,30 @@ public class ServerRegionFunctionExecutor extends AbstractExecution {
   }
 
 
+  /**
+   * Receives the results on a separate thread, so that the caller can consume them as they arrive.
+   * The thread stops reading results, and so the server stops sending them, while a window of
+   * results is waiting to be consumed. Once the caller closes the results, the thread reads and
+   * drops the rest of them, so that the connection can go back to the pool.
+   */
+  private ResultCollector executeStreaming(StreamingResultCollector streamingCollector,
+      ResultCollector collector, FunctionStats stats, long start, Runnable execution) {
+    UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    streamingResultReaders.execute(() -> {
+      UserAttributes.userAttributes.set(userAttributes);
+      try {
+        execution.run();
+        stats.endFunctionExecution(start, true);
+      } catch (RuntimeException e) {
+        stats.endFunctionExecutionWithException(start, true);
+        streamingCollector.fail(e);
+      } finally {
+        UserAttributes.userAttributes.set(null);
+      }
+    });
+    return collector;
+  }
+
   private void executeOnServerNoAck(Function function, byte hasResult) throws FunctionException {
     ServerRegionProxy srp = getServerRegionProxy();
     FunctionStats stats =
@@ -0,0 +1,452 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.ResultCollector;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.execute.util.SynchronizedResultCollector;
+
+/**
+ * A ResultCollector whose result is an {@link Iterator} over the results as they arrive, rather
+ * than a list of all of them. {@link #getResult()} returns as soon as the function has been sent,
+ * and the iterator blocks until the next result arrives or the function completes. A caller that
+ * stops iterating early closes the {@link ResultIterator}, which tells the members still sending
+ * results to stop.
+ *
+ * <p>
+ * The collector holds at most about {@link #getWindow()} unconsumed results from each member. Peers
+ * executing a partitioned region function are given that many credits and send a result only when
+ * they have one, and the caller returns credits as the iterator consumes their results. Local
+ * executions and client connections wait in {@link #awaitCapacity()} instead. No producer waits
+ * longer than {@link #TIMEOUT_PROPERTY} for the caller to consume results.
+ *
+ * <p>
+ * Results already consumed cannot be taken back, so a streaming execution that fails is not
+ * re-executed. The iterator throws the FunctionException instead, after the results received
+ * before the failure.
+ *
+ * @since Geode 1.12
+ */
+public class StreamingResultCollector implements ResultCollector<Object, Iterator<Object>> {
+
+  /**
+   * The default number of unconsumed results held for each member.
+   */
+  public static final String WINDOW_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "function.streamingResultWindow";
+
+  static final int DEFAULT_WINDOW = 1000;
+
+  /**
+   * The longest time, in milliseconds, that a producer waits for the caller to consume results
+   * before it gives up on the execution.
+   */
+  public static final String TIMEOUT_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "function.streamingResultTimeout";
+
+  static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  /**
+   * Notified as the results of members are consumed, so that their credits can be returned.
+   */
+  public interface ConsumptionListener {
+    void resultsConsumed(DistributedMember member, int count);
+  }
+
+  /**
+   * The iterator over the results. Closing it before the end of the results drops the results not
+   * consumed yet and stops the execution.
+   */
+  public interface ResultIterator extends Iterator<Object>, AutoCloseable {
+    @Override
+    void close();
+  }
+
+  private final int window;
+  private final int creditBatch;
+  private final long timeoutMillis;
+  private final Thread creator = Thread.currentThread();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private final ArrayDeque<Object[]> queue = new ArrayDeque<>();
+  private final Map<DistributedMember, Integer> unreportedConsumption = new HashMap<>();
+
+  private ConsumptionListener consumptionListener;
+  private Runnable completionCheck;
+  private Runnable cancellationListener;
+  private RuntimeException failure;
+  private boolean ended;
+  private boolean closed;
+  private boolean consumedAny;
+  private boolean iteratorReturned;
+
+  public StreamingResultCollector() {
+    this(Integer.getInteger(WINDOW_PROPERTY, DEFAULT_WINDOW));
+  }
+
+  /**
+   * @param window the number of unconsumed results held for each member
+   */
+  public StreamingResultCollector(int window) {
+    this(window, getTimeoutMillis());
+  }
+
+  StreamingResultCollector(int window, long timeoutMillis) {
+    this.window = Math.max(1, window);
+    this.creditBatch = Math.max(1, this.window / 2);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  static long getTimeoutMillis() {
+    return Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * Returns the streaming collector a result collector is or wraps, or null if it is not
+   * streaming.
+   */
+  public static StreamingResultCollector from(ResultCollector<?, ?> rc) {
+    if (rc instanceof StreamingResultCollector) {
+      return (StreamingResultCollector) rc;
+    }
+    if (rc instanceof SynchronizedResultCollector) {
+      return from(((SynchronizedResultCollector<?, ?>) rc).collector);
+    }
+    if (rc instanceof LocalResultCollectorImpl) {
+      return from(((LocalResultCollectorImpl) rc).getUserResultCollector());
+    }
+    if (rc instanceof FunctionStreamingResultCollector) {
+      return ((FunctionStreamingResultCollector) rc).getStreamingResultCollector();
+    }
+    return null;
+  }
+
+  /**
+   * Waits for capacity if the given collector streams its results.
+   *
+   * @see #awaitCapacity()
+   */
+  public static void awaitCapacity(ResultCollector<?, ?> rc) {
+    StreamingResultCollector streamingCollector = from(rc);
+    if (streamingCollector != null) {
+      streamingCollector.awaitCapacity();
+    }
+  }
+
+  public int getWindow() {
+    return this.window;
+  }
+
+  void setConsumptionListener(ConsumptionListener listener) {
+    this.lock.lock();
+    try {
+      this.consumptionListener = listener;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Sets a check run once after the last result is consumed, which throws if the execution failed.
+   */
+  void setCompletionCheck(Runnable completionCheck) {
+    this.completionCheck = completionCheck;
+  }
+
+  /**
+   * Sets the action run when the iterator is closed before the end of the results, which tells the
+   * members still sending results to stop.
+   */
+  void setCancellationListener(Runnable listener) {
+    this.lock.lock();
+    try {
+      this.cancellationListener = listener;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void addResult(DistributedMember memberID, Object resultOfSingleExecution) {
+    this.lock.lock();
+    try {
+      if (this.ended) {
+        return;
+      }
+      this.queue.add(new Object[] {memberID, resultOfSingleExecution});
+      this.changed.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Waits until fewer than a window of results are waiting to be consumed. Producers that are not
+   * flow controlled by credits call this before adding a result. Returns immediately in the thread
+   * that created the collector, which may be executing the function itself before it gets to
+   * consume the results. If the results are not consumed within the timeout, the stream fails.
+   *
+   * @return false if the results are no longer wanted, because the iterator was closed, the
+   *         execution failed or the wait timed out. Any further results are dropped.
+   * @throws FunctionException if interrupted while waiting
+   */
+  public boolean awaitCapacity() {
+    if (Thread.currentThread() == this.creator) {
+      return true;
+    }
+    this.lock.lock();
+    try {
+      long remaining = TimeUnit.MILLISECONDS.toNanos(this.timeoutMillis);
+      while (this.queue.size() >= this.window && !this.ended) {
+        if (remaining <= 0) {
+          setFailure(new FunctionException(String.format(
+              "Streamed function results were not consumed within %d ms", this.timeoutMillis)));
+          break;
+        }
+        remaining = this.changed.awaitNanos(remaining);
+      }
+      return !this.ended;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FunctionException(e);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void endResults() {
+    this.lock.lock();
+    try {
+      this.ended = true;
+      this.changed.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Ends the results with a failure. The iterator throws it after returning the results received
+   * so far.
+   */
+  public void fail(Throwable cause) {
+    this.lock.lock();
+    try {
+      setFailure(cause instanceof FunctionException ? (FunctionException) cause
+          : new FunctionException(cause));
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void setFailure(FunctionException cause) {
+    if (this.failure == null) {
+      this.failure = cause;
+    }
+    this.ended = true;
+    this.changed.signalAll();
+  }
+
+  /**
+   * Ends the results early, on behalf of a caller that stops iterating. The results not consumed
+   * yet are dropped, producers waiting for capacity give up, and the members still sending results
+   * are told to stop.
+   */
+  public void close() {
+    Runnable listener;
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      listener = this.ended ? null : this.cancellationListener;
+      this.ended = true;
+      this.queue.clear();
+      this.unreportedConsumption.clear();
+      this.changed.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  public boolean isClosed() {
+    this.lock.lock();
+    try {
+      return this.closed;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Drops the results received so far, before an execution is retried. Fails the stream instead
+   * if any result has already been consumed.
+   */
+  @Override
+  public void clearResults() {
+    this.lock.lock();
+    try {
+      if (this.consumedAny) {
+        if (this.failure == null) {
+          this.failure = new FunctionException(
+              "Streaming function execution failed after results were consumed");
+        }
+        this.ended = true;
+      } else {
+        this.queue.clear();
+        this.unreportedConsumption.clear();
+        this.ended = false;
+      }
+      this.changed.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public ResultIterator getResult() throws FunctionException {
+    this.lock.lock();
+    try {
+      if (this.iteratorReturned) {
+        throw new FunctionException("Function results already collected");
+      }
+      this.iteratorReturned = true;
+    } finally {
+      this.lock.unlock();
+    }
+    return new ResultIteratorImpl();
+  }
+
+  /**
+   * Returns the iterator at once. The timeout does not apply to the iteration.
+   */
+  @Override
+  public ResultIterator getResult(long timeout, TimeUnit unit) throws FunctionException {
+    return getResult();
+  }
+
+  /**
+   * Waits for the next result and returns it, or returns null at the end of the results.
+   */
+  private Object[] take() {
+    Object[] entry;
+    ConsumptionListener listener;
+    int credits = 0;
+    this.lock.lock();
+    try {
+      while (this.queue.isEmpty() && !this.ended) {
+        this.changed.await();
+      }
+      entry = this.queue.poll();
+      if (entry == null) {
+        return null;
+      }
+      this.consumedAny = true;
+      this.changed.signalAll();
+      listener = this.consumptionListener;
+      if (listener != null && entry[0] != null) {
+        DistributedMember member = (DistributedMember) entry[0];
+        int consumed = this.unreportedConsumption.merge(member, 1, Integer::sum);
+        if (consumed >= this.creditBatch) {
+          this.unreportedConsumption.remove(member);
+          credits = consumed;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FunctionException(e);
+    } finally {
+      this.lock.unlock();
+    }
+    if (credits > 0) {
+      listener.resultsConsumed((DistributedMember) entry[0], credits);
+    }
+    return entry;
+  }
+
+  private void complete() {
+    if (isClosed()) {
+      return;
+    }
+    Runnable check = this.completionCheck;
+    if (check != null) {
+      this.completionCheck = null;
+      check.run();
+    }
+    this.lock.lock();
+    try {
+      if (this.failure != null) {
+        throw this.failure;
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private class ResultIteratorImpl implements ResultIterator {
+    private Object[] next;
+    private boolean done;
+
+    @Override
+    public boolean hasNext() {
+      if (this.next != null) {
+        return true;
+      }
+      if (this.done) {
+        return false;
+      }
+      this.next = take();
+      if (this.next == null) {
+        this.done = true;
+        complete();
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public Object next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Object result = this.next[1];
+      this.next = null;
+      return result;
+    }
+
+    @Override
+    public void close() {
+      this.next = null;
+      this.done = true;
+      StreamingResultCollector.this.close();
+    }
+  }
+}
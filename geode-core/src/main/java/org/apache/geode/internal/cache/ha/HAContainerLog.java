@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.ha;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.geode.internal.cache.tier.sockets.ClientUpdateMessageImpl;
+
+/**
+ * An {@link HAContainerMap} that moves the serialized values of the events it holds into an
+ * {@link HAEventLog}, so that events queued for slow clients take up off-heap or mapped memory
+ * instead of heap. The events themselves, with their keys, event ids and client interest, stay on
+ * the heap.
+ *
+ * @since Geode 1.12
+ */
+public class HAContainerLog extends HAContainerMap {
+
+  private final HAEventLog log;
+
+  public HAContainerLog(ConcurrentHashMap containerMap, HAEventLog log) {
+    super(containerMap);
+    this.log = log;
+  }
+
+  HAEventLog getLog() {
+    return log;
+  }
+
+  @Override
+  public String getName() {
+    return "HAEventLog";
+  }
+
+  @Override
+  public void cleanUp() {
+    super.cleanUp();
+    log.close();
+  }
+
+  @Override
+  public void clear() {
+    // remove entries one at a time so that each value is released exactly once
+    for (Object key : keySet()) {
+      remove(key);
+    }
+  }
+
+  @Override
+  public Object put(Object key, Object value) {
+    moveValueToLog(value);
+    Object old = super.put(key, value);
+    if (old != value) {
+      releaseValue(old);
+    }
+    return old;
+  }
+
+  @Override
+  public Object putIfAbsent(Object key, Object value) {
+    boolean moved = moveValueToLog(value);
+    Object old = super.putIfAbsent(key, value);
+    if (old != null && moved) {
+      // the value was not added; it may still be in use by the caller
+      ((ClientUpdateMessageImpl) value).restoreValueFromLog();
+    }
+    return old;
+  }
+
+  @Override
+  public Object remove(Object key) {
+    Object old = super.remove(key);
+    releaseValue(old);
+    return old;
+  }
+
+  private boolean moveValueToLog(Object value) {
+    return value instanceof ClientUpdateMessageImpl
+        && ((ClientUpdateMessageImpl) value).moveValueToLog(log);
+  }
+
+  private void releaseValue(Object value) {
+    if (value instanceof ClientUpdateMessageImpl) {
+      ((ClientUpdateMessageImpl) value).releaseLoggedValue();
+    }
+  }
+}
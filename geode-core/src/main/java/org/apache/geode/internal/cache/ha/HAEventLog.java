@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.ha;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.GemFireIOException;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * An append-only log holding the serialized values of queued client events outside of the Java
+ * heap. The log is made of fixed size segments, each backed by either a direct buffer or a
+ * memory-mapped file. Values are only ever appended, and a segment is dropped once it is full,
+ * none of the values written to it are live anymore and no view of them is being sent.
+ *
+ * Dropping a segment frees its memory and deletes its file right away, so a released value can no
+ * longer be read. Values that are written out without being copied must be held with
+ * {@link Record#retainView()} until they have been sent.
+ *
+ * @since Geode 1.12
+ */
+public class HAEventLog {
+  private static final Logger logger = LogService.getLogger();
+
+  private final File directory;
+
+  private final int segmentSize;
+
+  private final List<Segment> segments = new ArrayList<>();
+
+  private Segment currentSegment;
+
+  private long liveBytes;
+
+  private boolean closed;
+
+  /**
+   * @param directory the directory to create memory-mapped segment files in, or null to keep
+   *        segments in direct buffers
+   * @param segmentSize the number of bytes of each segment
+   */
+  public HAEventLog(File directory, int segmentSize) {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("segmentSize must be positive: " + segmentSize);
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+  }
+
+  /**
+   * Appends the given bytes to the log.
+   *
+   * @return the record to read or release the bytes with
+   */
+  public synchronized Record append(byte[] bytes) {
+    if (closed) {
+      throw new IllegalStateException("HAEventLog has been closed");
+    }
+    Segment segment = currentSegment;
+    if (segment == null || segment.remaining() < bytes.length) {
+      if (segment != null) {
+        segment.sealed = true;
+        dropIfUnused(segment);
+      }
+      segment = createSegment(Math.max(segmentSize, bytes.length));
+      currentSegment = segment;
+    }
+    int offset = segment.position;
+    ByteBuffer buffer = segment.buffer.duplicate();
+    buffer.position(offset);
+    buffer.put(bytes);
+    segment.position += bytes.length;
+    segment.liveRecords++;
+    liveBytes += bytes.length;
+    return new Record(this, segment, offset, bytes.length);
+  }
+
+  /**
+   * Marks the bytes of the given record as no longer needed. Releasing a record more than once has
+   * no effect.
+   */
+  synchronized void release(Record record) {
+    if (record.released) {
+      return;
+    }
+    record.released = true;
+    liveBytes -= record.length;
+    Segment segment = record.segment;
+    segment.liveRecords--;
+    dropIfUnused(segment);
+  }
+
+  /**
+   * Drops all segments. Segments with views still being sent are dropped once those views have
+   * been released. Records appended before can no longer be read.
+   */
+  public synchronized void close() {
+    closed = true;
+    currentSegment = null;
+    for (Segment segment : new ArrayList<>(segments)) {
+      dropIfUnused(segment);
+    }
+    liveBytes = 0;
+  }
+
+  /** returns the number of segments currently allocated */
+  public synchronized int getSegmentCount() {
+    return segments.size();
+  }
+
+  /** returns the number of bytes held by records that have not been released */
+  public synchronized long getLiveBytes() {
+    return liveBytes;
+  }
+
+  private synchronized byte[] read(Record record) {
+    if (record.released || record.segment.dropped) {
+      return null;
+    }
+    byte[] bytes = new byte[record.length];
+    ByteBuffer buffer = record.segment.buffer.duplicate();
+    buffer.position(record.offset);
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private synchronized ByteBuffer retainView(Record record) {
+    Segment segment = record.segment;
+    if (record.released || segment.dropped) {
+      return null;
+    }
+    segment.views++;
+    ByteBuffer buffer = segment.buffer.duplicate();
+    buffer.position(record.offset);
+    buffer.limit(record.offset + record.length);
+    return buffer.slice().asReadOnlyBuffer();
+  }
+
+  private synchronized void releaseView(Record record) {
+    Segment segment = record.segment;
+    segment.views--;
+    dropIfUnused(segment);
+  }
+
+  private void dropIfUnused(Segment segment) {
+    if (segment.dropped || segment.views > 0) {
+      return;
+    }
+    if (closed || segment.sealed && segment.liveRecords == 0) {
+      drop(segment);
+    }
+  }
+
+  private void drop(Segment segment) {
+    segment.dropped = true;
+    segments.remove(segment);
+    freeBuffer(segment.buffer);
+    if (segment.file != null && !segment.file.delete()) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to delete HA event log segment {}", segment.file);
+      }
+      segment.file.deleteOnExit();
+    }
+  }
+
+  private Segment createSegment(int size) {
+    Segment segment;
+    if (directory == null) {
+      segment = new Segment(ByteBuffer.allocateDirect(size), null);
+    } else {
+      segment = mapSegmentFile(size);
+    }
+    segments.add(segment);
+    return segment;
+  }
+
+  private Segment mapSegmentFile(int size) {
+    File file = null;
+    try {
+      file = File.createTempFile("haEventLog", ".seg", directory);
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+        raf.setLength(size);
+        // the mapping stays valid after the file is closed; the file is deleted with its segment
+        return new Segment(raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size), file);
+      }
+    } catch (IOException e) {
+      if (file != null) {
+        file.delete();
+      }
+      throw new GemFireIOException("Unable to create HA event log segment in " + directory, e);
+    }
+  }
+
+  /**
+   * Gives the memory of a direct or mapped buffer back right away rather than when the buffer is
+   * collected. If the JVM does not allow that, the buffer is left to the garbage collector.
+   */
+  private static void freeBuffer(ByteBuffer buffer) {
+    try {
+      if (BufferFreer.INVOKE_CLEANER != null) {
+        BufferFreer.INVOKE_CLEANER.invoke(BufferFreer.UNSAFE, buffer);
+      } else if (BufferFreer.CLEANER != null) {
+        Object cleaner = BufferFreer.CLEANER.invoke(buffer);
+        if (cleaner != null) {
+          BufferFreer.CLEAN.invoke(cleaner);
+        }
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to free HA event log segment; leaving it to the garbage collector", e);
+      }
+    }
+  }
+
+  /**
+   * The reflective handles used to free buffers: {@code Unsafe.invokeCleaner} on Java 9 and later,
+   * or the buffer's {@code Cleaner} on Java 8.
+   */
+  private static class BufferFreer {
+    static final Object UNSAFE;
+    static final Method INVOKE_CLEANER;
+    static final Method CLEANER;
+    static final Method CLEAN;
+
+    static {
+      Object unsafe = null;
+      Method invokeCleaner = null;
+      Method cleaner = null;
+      Method clean = null;
+      try {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        try {
+          invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+          Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+          theUnsafe.setAccessible(true);
+          unsafe = theUnsafe.get(null);
+        } catch (NoSuchMethodException java8) {
+          cleaner = ByteBuffer.allocateDirect(1).getClass().getMethod("cleaner");
+          cleaner.setAccessible(true);
+          clean = cleaner.getReturnType().getMethod("clean");
+          clean.setAccessible(true);
+        }
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        unsafe = null;
+        invokeCleaner = null;
+        cleaner = null;
+        clean = null;
+      }
+      UNSAFE = unsafe;
+      INVOKE_CLEANER = invokeCleaner;
+      CLEANER = cleaner;
+      CLEAN = clean;
+    }
+  }
+
+  private static class Segment {
+    final ByteBuffer buffer;
+
+    /** the file the buffer maps, or null for a direct buffer */
+    final File file;
+
+    int position;
+
+    int liveRecords;
+
+    /** the number of views of this segment's records that are being sent */
+    int views;
+
+    boolean sealed;
+
+    boolean dropped;
+
+    Segment(ByteBuffer buffer, File file) {
+      this.buffer = buffer;
+      this.file = file;
+    }
+
+    int remaining() {
+      return buffer.capacity() - position;
+    }
+  }
+
+  /**
+   * The location of bytes appended to an {@link HAEventLog}. This is the only part of a logged
+   * value kept on the heap.
+   */
+  public static class Record {
+    private final HAEventLog log;
+
+    private final Segment segment;
+
+    private final int offset;
+
+    private final int length;
+
+    /** guarded by the log */
+    private boolean released;
+
+    Record(HAEventLog log, Segment segment, int offset, int length) {
+      this.log = log;
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public int getLength() {
+      return length;
+    }
+
+    /**
+     * returns a copy of the bytes of this record, or null if it has been released or its log
+     * closed
+     */
+    public byte[] read() {
+      return log.read(this);
+    }
+
+    /**
+     * Returns a read-only view of the bytes of this record that stays valid until it is given back
+     * with {@link #releaseView()}, or null if the record has been released or its log closed.
+     */
+    public ByteBuffer retainView() {
+      return log.retainView(this);
+    }
+
+    /**
+     * Gives back a view returned by {@link #retainView()}. The view must not be used afterwards.
+     */
+    public void releaseView() {
+      log.releaseView(this);
+    }
+
+    public void release() {
+      log.release(this);
+    }
+  }
+}
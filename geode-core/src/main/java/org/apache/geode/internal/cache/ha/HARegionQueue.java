@@ -1411,6 +1411,26 @@ public class HARegionQueue implements RegionQueue {
     return peek(batchSize, -1);
   }
 
+  /**
+   * Waits like {@link #peek()} until the queue has an event and then peeks like
+   * {@link #peek(int, int)}, so the batch starts at the head of the queue.
+   *
+   * @param batchSize The number of objects to peek from the queue
+   * @param timeToWait The number of milliseconds to wait for the batch to fill up
+   *
+   * @return The list of events peeked, which is empty if the queue had no events
+   */
+  public List peekBatch(int batchSize, int timeToWait) throws InterruptedException {
+    List peekedIds = (List) HARegionQueue.peekedEventsContext.get();
+    List previouslyPeekedIds = peekedIds == null ? null : new LinkedList(peekedIds);
+    if (peek() == null) {
+      return Collections.emptyList();
+    }
+    // forget the head peeked above; the batch peeks it again
+    HARegionQueue.peekedEventsContext.set(previouslyPeekedIds);
+    return peek(batchSize, timeToWait);
+  }
+
   /**
    * Return a batch of minimum specified size
    *
@@ -2494,6 +2514,49 @@ public class HARegionQueue implements RegionQueue {
       return next;
     }
 
+    /**
+     * Peeks the events of the batch one at a time like {@link #peek()}, since this queue takes
+     * every peeked event out of its available IDs and tracks it until the client acknowledges it.
+     */
+    @Override
+    public List peekBatch(int batchSize, int timeToWait) throws InterruptedException {
+      List batch = new ArrayList(batchSize);
+      Object event = peek();
+      if (event == null) {
+        return batch;
+      }
+      batch.add(event);
+      long end = System.currentTimeMillis() + timeToWait;
+      while (batch.size() < batchSize && waitForData(end)) {
+        event = peek();
+        if (event == null) {
+          break;
+        }
+        batch.add(event);
+      }
+      return batch;
+    }
+
+    /**
+     * Waits until the queue has an event available or the given time has passed.
+     *
+     * @param end the time in milliseconds after which to stop waiting
+     * @return true if the queue has an event available
+     */
+    private boolean waitForData(long end) throws InterruptedException {
+      acquireWriteLock();
+      try {
+        long remaining = end - System.currentTimeMillis();
+        while (internalIsEmpty() && remaining > 0) {
+          blockCond.await(remaining);
+          remaining = end - System.currentTimeMillis();
+        }
+        return !internalIsEmpty();
+      } finally {
+        releaseWriteLock();
+      }
+    }
+
     @Override
     protected void storePeekedID(Long id) {
       acquireWriteLock();
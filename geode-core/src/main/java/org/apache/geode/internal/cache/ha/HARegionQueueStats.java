@@ -333,6 +333,13 @@ public class HARegionQueueStats {
     this._stats.incLong(_eventsDispatched, 1);
   }
 
+  /**
+   * Increments the "eventsDispatched" stat by the given number of events.
+   */
+  public void incEventsDispatched(int count) {
+    this._stats.incLong(_eventsDispatched, count);
+  }
+
   /**
    * Returns the current value of the "numVoidRemovals" stat.
    *
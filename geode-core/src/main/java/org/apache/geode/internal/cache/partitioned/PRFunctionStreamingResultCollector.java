@@ -95,6 +95,9 @@ public class PRFunctionStreamingResultCollector extends FunctionStreamingResultC
     }
 
     this.resultCollected = true;
+    if (isStreaming()) {
+      return this.userRC.getResult();
+    }
     if (this.hasResult) {
       try {
         this.waitForCacheOrFunctionException(0);
@@ -233,6 +236,9 @@ public class PRFunctionStreamingResultCollector extends FunctionStreamingResultC
       throw new FunctionException("Result already collected");
     }
     this.resultCollected = true;
+    if (isStreaming()) {
+      return this.userRC.getResult(timeout, unit);
+    }
     if (this.hasResult) {
       try {
         long timeBefore = System.currentTimeMillis();
@@ -378,6 +384,7 @@ public class PRFunctionStreamingResultCollector extends FunctionStreamingResultC
             this.execution.addFailedNode(id.getId());
           }
           this.fites.add(fite);
+          failStreaming(fite);
         }
         checkIfDone();
       }
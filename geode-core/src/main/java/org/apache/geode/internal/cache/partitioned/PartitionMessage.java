@@ -66,6 +66,8 @@ import org.apache.geode.internal.serialization.DataSerializableFixedID;
 import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.SerializationContext;
 import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.internal.tracing.OperationTracer;
+import org.apache.geode.internal.tracing.TraceStage;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 /**
@@ -115,6 +117,11 @@ public abstract class PartitionMessage extends DistributionMessage
   protected static final short HAS_DELTA = (HAS_FILTER_INFO << 1);
   /** the unreserved flags start for child classes */
   protected static final short UNRESERVED_FLAGS_START = (HAS_DELTA << 1);
+  /**
+   * flag to indicate the message carries the id of a traced operation. This is the last bit of the
+   * compressed short, above all the flags of child classes.
+   */
+  private static final short HAS_TRACE_ID = (short) 0x8000;
 
   private InternalDistributedMember txMemberId = null;
 
@@ -128,6 +135,9 @@ public abstract class PartitionMessage extends DistributionMessage
   /* TODO [DISTTX] Convert into flag */
   protected boolean isTransactionDistributed = false;
 
+  /** the id of the traced operation this message is sent for, or zero */
+  private long traceId;
+
   public PartitionMessage() {}
 
 
@@ -141,6 +151,7 @@ public abstract class PartitionMessage extends DistributionMessage
       processor.enableSevereAlertProcessing();
     }
     initTxMemberId();
+    this.traceId = OperationTracer.currentTraceId();
   }
 
   public PartitionMessage(Collection<InternalDistributedMember> recipients, int regionId,
@@ -152,6 +163,7 @@ public abstract class PartitionMessage extends DistributionMessage
       processor.enableSevereAlertProcessing();
     }
     initTxMemberId();
+    this.traceId = OperationTracer.currentTraceId();
   }
 
 
@@ -181,6 +193,7 @@ public abstract class PartitionMessage extends DistributionMessage
     this.txUniqId = other.getTXUniqId();
     this.txMemberId = other.getTXOriginatorClient();
     this.isTransactionDistributed = other.isTransactionDistributed;
+    this.traceId = other.traceId;
   }
 
   @Override
@@ -294,6 +307,18 @@ public abstract class PartitionMessage extends DistributionMessage
    */
   @Override
   public void process(final ClusterDistributionManager dm) {
+    long traceStart = OperationTracer.resumeTrace(this.traceId);
+    if (traceStart != 0 && getTimestamp() != 0) {
+      OperationTracer.recordSpan(TraceStage.MESSAGE_QUEUE, getTimestamp(), traceStart);
+    }
+    try {
+      processMessage(dm);
+    } finally {
+      OperationTracer.endTrace(TraceStage.MESSAGE_PROCESSING, traceStart);
+    }
+  }
+
+  private void processMessage(final ClusterDistributionManager dm) {
     Throwable thr = null;
     boolean sendReply = true;
     PartitionedRegion pr = null;
@@ -544,6 +569,9 @@ public abstract class PartitionMessage extends DistributionMessage
     if (InternalDataSerializer.getVersionForDataStream(in).compareTo(Version.GFE_90) >= 0) {
       this.isTransactionDistributed = in.readBoolean();
     }
+    if ((this.flags & HAS_TRACE_ID) != 0) {
+      this.traceId = in.readLong();
+    }
   }
 
   /**
@@ -576,6 +604,12 @@ public abstract class PartitionMessage extends DistributionMessage
     super.toData(out, context);
     short compressedShort = 0;
     compressedShort = computeCompressedShort(compressedShort);
+    // only members of 1.12 or later know the trace id is there
+    boolean writeTraceId = this.traceId != 0
+        && InternalDataSerializer.getVersionForDataStream(out).compareTo(Version.GEODE_1_12_0) >= 0;
+    if (writeTraceId) {
+      compressedShort |= HAS_TRACE_ID;
+    }
     out.writeShort(compressedShort);
     if (this.processorId != 0)
       out.writeInt(this.processorId);
@@ -588,6 +622,9 @@ public abstract class PartitionMessage extends DistributionMessage
     if (InternalDataSerializer.getVersionForDataStream(out).compareTo(Version.GFE_90) >= 0) {
       out.writeBoolean(this.isTransactionDistributed);
     }
+    if (writeTraceId) {
+      out.writeLong(this.traceId);
+    }
   }
 
   /**
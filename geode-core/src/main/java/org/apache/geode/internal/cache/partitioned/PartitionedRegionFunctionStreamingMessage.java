@@ -37,9 +37,11 @@ import org.apache.geode.internal.cache.FunctionStreamingReplyMessage;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.PartitionedRegionDataStore;
 import org.apache.geode.internal.cache.execute.FunctionRemoteContext;
+import org.apache.geode.internal.cache.execute.FunctionStreamingCredits;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.SerializationContext;
+import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage {
@@ -53,14 +55,33 @@ public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage
 
   private FunctionRemoteContext context;
 
+  /**
+   * The number of results the caller accepts before returning credits, or zero if the results are
+   * not flow controlled.
+   */
+  private int streamingWindow;
+
+  private transient FunctionStreamingCredits credits;
+
   public PartitionedRegionFunctionStreamingMessage() {
     super();
   }
 
   public PartitionedRegionFunctionStreamingMessage(InternalDistributedMember recipient,
       int regionId, ReplyProcessor21 processor, FunctionRemoteContext context) {
+    this(recipient, regionId, processor, context, 0);
+  }
+
+  /**
+   * @param streamingWindow the number of results the caller accepts before returning credits, or
+   *        zero if the results are not flow controlled
+   */
+  public PartitionedRegionFunctionStreamingMessage(InternalDistributedMember recipient,
+      int regionId, ReplyProcessor21 processor, FunctionRemoteContext context,
+      int streamingWindow) {
     super(recipient, regionId, processor);
     this.context = context;
+    this.streamingWindow = streamingWindow;
   }
 
   public PartitionedRegionFunctionStreamingMessage(DataInput in)
@@ -96,13 +117,23 @@ public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage
     }
     PartitionedRegionDataStore ds = r.getDataStore();
     if (ds != null) {
+      if (this.streamingWindow > 0 && context.getFunction().hasResult()) {
+        this.credits =
+            FunctionStreamingCredits.register(getSender(), getProcessorId(), this.streamingWindow);
+      }
       // check if the routingKeyorKeys is null
       // if null call executeOnDataStore otherwise execute on LocalBuckets
-      ds.executeOnDataStore(context.getFilter(), context.getFunction(), context.getArgs(),
-          getProcessorId(), context.getBucketArray(), context.isReExecute(), this, startTime, null,
-          0);
+      try {
+        ds.executeOnDataStore(context.getFilter(), context.getFunction(), context.getArgs(),
+            getProcessorId(), context.getBucketArray(), context.isReExecute(), this, startTime,
+            null, 0);
+      } catch (RuntimeException | Error e) {
+        unregisterCredits();
+        throw e;
+      }
 
       if (!this.replyLastMsg && context.getFunction().hasResult()) {
+        unregisterCredits();
         sendReply(getSender(), getProcessorId(), dm,
             new ReplyException(new FunctionException(
                 String.format("The function, %s, did not send last result",
@@ -132,6 +163,9 @@ public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage
     }
     if (Thread.interrupted())
       throw new InterruptedException();
+    if (this.credits != null) {
+      this.credits.acquire(dm);
+    }
     int msgNum = this.replyMsgNum;
     this.replyLastMsg = lastResult;
 
@@ -157,6 +191,7 @@ public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage
       this.replyLastMsg = true;
     }
     if (this.replyLastMsg) {
+      unregisterCredits();
       if (pr != null && startTime > 0) {
         pr.getPrStats().endPartitionMessagesProcessing(startTime);
       }
@@ -168,6 +203,12 @@ public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage
     }
   }
 
+  private void unregisterCredits() {
+    if (this.credits != null) {
+      this.credits.unregister();
+    }
+  }
+
   @Override
   public int getDSFID() {
     return PR_FUNCTION_STREAMING_MESSAGE;
@@ -183,6 +224,9 @@ public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage
       DeserializationContext context) throws IOException, ClassNotFoundException {
     super.fromData(in, context);
     this.context = DataSerializer.readObject(in);
+    if (InternalDataSerializer.getVersionForDataStream(in).compareTo(Version.GEODE_1_12_0) >= 0) {
+      this.streamingWindow = in.readInt();
+    }
   }
 
   @Override
@@ -190,6 +234,9 @@ public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage
       SerializationContext context) throws IOException {
     super.toData(out, context);
     DataSerializer.writeObject(this.context, out);
+    if (InternalDataSerializer.getVersionForDataStream(out).compareTo(Version.GEODE_1_12_0) >= 0) {
+      out.writeInt(this.streamingWindow);
+    }
   }
 
 
@@ -403,9 +403,7 @@ public class GFSnapshot {
         return;
       }
 
-      for (Map.Entry<Integer, PdxType> entry : pdx.types().entrySet()) {
-        tr.addImportedType(entry.getKey(), entry.getValue());
-      }
+      tr.addImportedTypes(pdx.types());
     }
 
     private void checkPdxEnumCompatibility(TypeRegistry tr) {
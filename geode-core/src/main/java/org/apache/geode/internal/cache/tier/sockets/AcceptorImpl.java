@@ -90,6 +90,7 @@ import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier.CacheCli
 import org.apache.geode.internal.cache.tier.sockets.ClientHealthMonitor.ClientHealthMonitorProvider;
 import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
 import org.apache.geode.internal.logging.CoreLoggingExecutors;
+import org.apache.geode.internal.logging.VirtualThreadFactory;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.internal.security.SecurityService;
@@ -681,6 +682,16 @@ public class AcceptorImpl implements Acceptor, Runnable {
     };
     try {
       String threadName = "ServerConnection on port " + localPort + " Thread ";
+      if (VirtualThreadFactory.isEnabled()) {
+        if (isSelector()) {
+          return CoreLoggingExecutors.newVirtualThreadPool(threadName, threadInitializer,
+              commandWrapper, maxThreads, getStats().getCnxPoolHelper(), getThreadMonitorObj(),
+              null);
+        }
+        // each connection is served by a thread of its own until it is closed
+        return CoreLoggingExecutors.newVirtualThreadPool(threadName, threadInitializer,
+            commandWrapper, maxConnections, null, null, null);
+      }
       if (isSelector()) {
         return CoreLoggingExecutors.newThreadPoolWithUnlimitedFeed(threadName, threadInitializer,
             commandWrapper, maxThreads,
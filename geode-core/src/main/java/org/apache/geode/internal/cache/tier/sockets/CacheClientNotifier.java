@@ -19,6 +19,7 @@ import static org.apache.geode.distributed.ConfigurationProperties.SECURITY_CLIE
 
 import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -92,9 +93,11 @@ import org.apache.geode.internal.cache.InternalCacheEvent;
 import org.apache.geode.internal.cache.InternalRegion;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.RegionEventImpl;
+import org.apache.geode.internal.cache.ha.HAContainerLog;
 import org.apache.geode.internal.cache.ha.HAContainerMap;
 import org.apache.geode.internal.cache.ha.HAContainerRegion;
 import org.apache.geode.internal.cache.ha.HAContainerWrapper;
+import org.apache.geode.internal.cache.ha.HAEventLog;
 import org.apache.geode.internal.cache.ha.HARegionQueue;
 import org.apache.geode.internal.cache.ha.ThreadIdentifier;
 import org.apache.geode.internal.cache.tier.CommunicationMode;
@@ -2015,6 +2018,22 @@ public class CacheClientNotifier {
   private static final long CLIENT_PING_TASK_COUNTER =
       Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "serverToClientPingCounter", 3);
 
+  /**
+   * Where the values of queued client events are kept when the client queues are not overflowed:
+   * "heap" (the default), "offheap" for direct buffers, or "mmap" for memory-mapped files in the
+   * directory named by {@link #HA_EVENT_LOG_DIRECTORY}.
+   */
+  private static final String HA_EVENT_STORAGE =
+      System.getProperty(DistributionConfig.GEMFIRE_PREFIX + "subscription.queueStorage", "heap");
+
+  private static final String HA_EVENT_LOG_DIRECTORY =
+      System.getProperty(DistributionConfig.GEMFIRE_PREFIX + "subscription.queueStorageDirectory",
+          System.getProperty("java.io.tmpdir"));
+
+  private static final int HA_EVENT_LOG_SEGMENT_SIZE = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "subscription.queueStorageSegmentSize",
+      16 * 1024 * 1024);
+
   public long getLogFrequency() {
     return logFrequency;
   }
@@ -2044,6 +2063,12 @@ public class CacheClientNotifier {
               overflowAttributes.isDiskStore() ? overflowAttributes.getDiskStoreName()
                   : overflowAttributes.getOverflowDirectory(),
               overflowAttributes.isDiskStore())));
+    } else if ("offheap".equalsIgnoreCase(HA_EVENT_STORAGE)) {
+      haContainer = new HAContainerLog(new ConcurrentHashMap(),
+          new HAEventLog(null, HA_EVENT_LOG_SEGMENT_SIZE));
+    } else if ("mmap".equalsIgnoreCase(HA_EVENT_STORAGE)) {
+      haContainer = new HAContainerLog(new ConcurrentHashMap(),
+          new HAEventLog(new File(HA_EVENT_LOG_DIRECTORY), HA_EVENT_LOG_SEGMENT_SIZE));
     } else {
       haContainer = new HAContainerMap(new ConcurrentHashMap());
     }
@@ -85,6 +85,7 @@ import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.StateFlushOperation;
 import org.apache.geode.internal.cache.ha.HAContainerWrapper;
+import org.apache.geode.internal.cache.ha.HAEventLog;
 import org.apache.geode.internal.cache.ha.HARegionQueue;
 import org.apache.geode.internal.cache.ha.HARegionQueueAttributes;
 import org.apache.geode.internal.cache.ha.HARegionQueueStats;
@@ -285,6 +286,30 @@ public class CacheClientProxy implements ClientSession {
   protected static final boolean NOTIFY_REGION_ON_INTEREST =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "updateAccessTimeOnClientInterest");
 
+  /**
+   * The maximum number of subscription events sent to a client in one message. Values greater than
+   * one enable batched delivery to non-durable clients that support it.
+   */
+  @MutableForTesting
+  static int EVENT_BATCH_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "subscription.eventBatchSize", 1);
+
+  /**
+   * The number of milliseconds a dispatcher waits for a batch of subscription events to fill up.
+   * With the default of zero a batch holds the events that are already queued.
+   */
+  @MutableForTesting
+  static int EVENT_BATCH_TIME_INTERVAL = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "subscription.eventBatchTimeInterval", 0);
+
+  /**
+   * The number of bytes after which a batch of subscription events is sent even if more events of
+   * the same batch are still to be added.
+   */
+  private static final int EVENT_BATCH_MAXIMUM_BYTES = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "subscription.eventBatchMaximumBytes",
+          1024 * 1024);
+
   /**
    * The AcceptorImpl identifier to which the proxy is connected.
    */
@@ -2467,6 +2492,12 @@ public class CacheClientProxy implements ClientSession {
             }
             waitForResumption();
           }
+          if (isBatchingEvents()) {
+            if (!dispatchNextBatch()) {
+              break;
+            }
+            continue;
+          }
           try {
             clientMessage = (ClientMessage) this._messageQueue.peek();
           } catch (RegionDestroyedException skipped) {
@@ -2687,50 +2718,196 @@ public class CacheClientProxy implements ClientSession {
         logger.trace(LogMarker.BRIDGE_SERVER_VERBOSE, "Dispatching {}", clientMessage);
       }
       Message message = null;
+      HAEventLog.Record loggedValue = null;
+      try {
+        // byte[] latestValue =
+        // this._eventConflator.getLatestValue(clientMessage);
+
+        if (clientMessage instanceof ClientUpdateMessage) {
+          loggedValue = ((ClientUpdateMessageImpl) clientMessage).getValueRecord();
+          ByteBuffer loggedBytes = loggedValue == null ? null : loggedValue.retainView();
+          if (loggedBytes == null) {
+            message = createUpdateMessage((ClientUpdateMessageImpl) clientMessage,
+                loggedValue != null);
+            loggedValue = null;
+          } else {
+            message = ((ClientUpdateMessageImpl) clientMessage).getMessage(getProxy(), loggedBytes);
+          }
 
-      // byte[] latestValue =
-      // this._eventConflator.getLatestValue(clientMessage);
-
-      if (clientMessage instanceof ClientUpdateMessage) {
-        byte[] latestValue = (byte[]) ((ClientUpdateMessage) clientMessage).getValue();
-        if (logger.isTraceEnabled()) {
-          StringBuilder msg = new StringBuilder(100);
-          msg.append(this).append(": Using latest value: ").append(Arrays.toString(latestValue));
-          if (((ClientUpdateMessage) clientMessage).valueIsObject()) {
-            if (latestValue != null) {
-              msg.append(" (").append(deserialize(latestValue)).append(")");
-            }
-            msg.append(" for ").append(clientMessage);
+          if (AFTER_MESSAGE_CREATION_FLAG) {
+            ClientServerObserver bo = ClientServerObserverHolder.getInstance();
+            bo.afterMessageCreation(message);
           }
-          logger.trace(msg.toString());
+        } else {
+          message = clientMessage.getMessage(getProxy(), true /* notify */);
         }
 
-        message = ((ClientUpdateMessageImpl) clientMessage).getMessage(getProxy(), latestValue);
+        if (!this._proxy.isPaused()) {
+          sendMessage(message);
 
-        if (AFTER_MESSAGE_CREATION_FLAG) {
-          ClientServerObserver bo = ClientServerObserverHolder.getInstance();
-          bo.afterMessageCreation(message);
+          if (logger.isTraceEnabled()) {
+            logger.trace("{}: Dispatched {}", this, clientMessage);
+          }
+          isDispatched = true;
+        } else {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Message Dispatcher of a Paused CCProxy is trying to dispatch message");
+          }
+        }
+      } finally {
+        if (loggedValue != null) {
+          loggedValue.releaseView();
         }
-      } else {
-        message = clientMessage.getMessage(getProxy(), true /* notify */);
       }
+      if (isDispatched) {
+        this._messageQueue.getStatistics().incEventsDispatched();
+      }
+      return isDispatched;
+    }
 
-      if (!this._proxy.isPaused()) {
-        sendMessage(message);
-
-        if (logger.isTraceEnabled()) {
-          logger.trace("{}: Dispatched {}", this, clientMessage);
+    /**
+     * Peeks a batch of queued events, sends it to the client and removes it from the queue once it
+     * has been sent.
+     *
+     * @return false if the dispatcher has been stopped or its queue destroyed
+     */
+    private boolean dispatchNextBatch() throws IOException, InterruptedException {
+      List batch;
+      try {
+        batch = this._messageQueue.peekBatch(EVENT_BATCH_SIZE, EVENT_BATCH_TIME_INTERVAL);
+      } catch (RegionDestroyedException skipped) {
+        return false;
+      }
+      getStatistics().setQueueSize(this._messageQueue.size());
+      if (isStopped()) {
+        return false;
+      }
+      if (!batch.isEmpty()) {
+        long start = getStatistics().startTime();
+        boolean isDispatched = dispatchBatch(batch);
+        getStatistics().endMessages(start, batch.size());
+        if (isDispatched) {
+          this._messageQueue.remove();
+          for (Object message : batch) {
+            if (message instanceof ClientMarkerMessageImpl) {
+              getProxy().markerEnqueued = false;
+            }
+          }
         }
-        isDispatched = true;
       } else {
+        this._messageQueue.remove();
+      }
+      return true;
+    }
+
+    /**
+     * Returns true if events are sent to the client in batches. Batching is not used for durable
+     * clients since their queue tracks each peeked event until the client acknowledges it.
+     */
+    private boolean isBatchingEvents() {
+      return EVENT_BATCH_SIZE > 1 && !getProxy().isDurable()
+          && getProxy().getVersion().compareTo(ClientEventBatch.MINIMUM_CLIENT_VERSION) >= 0;
+    }
+
+    /**
+     * Sends a batch of messages to the client attached to this proxy. Batches larger than
+     * EVENT_BATCH_MAXIMUM_BYTES are split into several messages.
+     *
+     * @param clientMessages The <code>ClientMessage</code>s to send to the client
+     */
+    protected boolean dispatchBatch(List clientMessages) throws IOException {
+      if (this._proxy.isPaused()) {
         if (logger.isDebugEnabled()) {
-          logger.debug("Message Dispatcher of a Paused CCProxy is trying to dispatch message");
+          logger.debug("Message Dispatcher of a Paused CCProxy is trying to dispatch a batch");
         }
+        return false;
       }
-      if (isDispatched) {
-        this._messageQueue.getStatistics().incEventsDispatched();
+      ClientEventBatch batch = new ClientEventBatch();
+      for (Object clientMessage : clientMessages) {
+        if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER_VERBOSE)) {
+          logger.trace(LogMarker.BRIDGE_SERVER_VERBOSE, "Batching {}", clientMessage);
+        }
+        Message message;
+        HAEventLog.Record loggedValue = null;
+        try {
+          if (clientMessage instanceof ClientUpdateMessage) {
+            loggedValue = ((ClientUpdateMessageImpl) clientMessage).getValueRecord();
+            ByteBuffer loggedBytes = loggedValue == null ? null : loggedValue.retainView();
+            if (loggedBytes == null) {
+              message = createUpdateMessage((ClientUpdateMessageImpl) clientMessage,
+                  loggedValue != null);
+              loggedValue = null;
+            } else {
+              message =
+                  ((ClientUpdateMessageImpl) clientMessage).getMessage(getProxy(), loggedBytes);
+            }
+            if (AFTER_MESSAGE_CREATION_FLAG) {
+              ClientServerObserver bo = ClientServerObserverHolder.getInstance();
+              bo.afterMessageCreation(message);
+            }
+          } else {
+            message = ((ClientMessage) clientMessage).getMessage(getProxy(), true /* notify */);
+          }
+          if (message == null) {
+            continue;
+          }
+          // the batch copies the message's parts, so a logged value is only needed until then
+          batch.add(message);
+        } finally {
+          if (loggedValue != null) {
+            loggedValue.releaseView();
+          }
+        }
+        if (batch.getSizeInBytes() >= EVENT_BATCH_MAXIMUM_BYTES) {
+          sendBatch(batch);
+        }
       }
-      return isDispatched;
+      if (!batch.isEmpty()) {
+        sendBatch(batch);
+      }
+      if (logger.isTraceEnabled()) {
+        logger.trace("{}: Dispatched a batch of {} messages", this, clientMessages.size());
+      }
+      this._messageQueue.getStatistics().incEventsDispatched(clientMessages.size());
+      return true;
+    }
+
+    /**
+     * Creates the message for an event whose value is on the heap.
+     *
+     * @param wasLogged whether the value was held in an {@link HAEventLog} when the event was
+     *        peeked
+     * @return the message, or null if the logged value has been released since because the event
+     *         was removed from the queue
+     */
+    private Message createUpdateMessage(ClientUpdateMessageImpl clientMessage, boolean wasLogged)
+        throws IOException {
+      byte[] latestValue = (byte[]) clientMessage.getValue();
+      if (latestValue == null && wasLogged) {
+        // a value brought back onto the heap is set before its record is released, so the event
+        // is gone; sending it would deliver a null value to the client
+        if (logger.isTraceEnabled()) {
+          logger.trace("{}: Skipping {} since it was removed from the queue", this, clientMessage);
+        }
+        return null;
+      }
+      if (logger.isTraceEnabled()) {
+        StringBuilder msg = new StringBuilder(100);
+        msg.append(this).append(": Using latest value: ").append(Arrays.toString(latestValue));
+        if (clientMessage.valueIsObject()) {
+          if (latestValue != null) {
+            msg.append(" (").append(deserialize(latestValue)).append(")");
+          }
+          msg.append(" for ").append(clientMessage);
+        }
+        logger.trace(msg.toString());
+      }
+      return clientMessage.getMessage(getProxy(), latestValue);
+    }
+
+    private void sendBatch(ClientEventBatch batch) throws IOException {
+      sendMessage(batch.toMessage(getProxy().getVersion()));
+      batch.clear();
     }
 
     private void sendMessage(Message message) throws IOException {
@@ -355,6 +355,22 @@ public class CacheClientProxyStats implements MessageStats {
     this._stats.incLong(_messageProcessingTimeId, elapsed);
   }
 
+  /**
+   * Increments the "messagesProcessed" and "messageProcessingTime" stats for a batch of messages.
+   *
+   * @param start The start of the batch (which is decremented from the current time to determine
+   *        the message processing time).
+   * @param count The number of messages in the batch
+   */
+  public void endMessages(long start, int count) {
+    long ts = DistributionStats.getStatTime();
+
+    this._stats.incLong(_messagesProcessedId, count);
+
+    long elapsed = ts - start;
+    this._stats.incLong(_messageProcessingTimeId, elapsed);
+  }
+
   /**
    * Increments the "deltaMessagesSent" stats.
    */
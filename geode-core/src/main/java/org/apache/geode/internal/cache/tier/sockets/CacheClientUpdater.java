@@ -1612,86 +1612,7 @@ public class CacheClientUpdater extends LoggingThread implements ClientUpdater,
             continue;
           }
 
-          boolean isDeltaSent = false;
-          boolean isCreateOrUpdate = clientMessage.getMessageType() == MessageType.LOCAL_CREATE
-              || clientMessage.getMessageType() == MessageType.LOCAL_UPDATE;
-          if (isCreateOrUpdate) {
-            isDeltaSent = (Boolean) clientMessage.getPart(2).getObject();
-          }
-
-          // extract the eventId and verify if it is a duplicate event
-          // if it is a duplicate event, ignore
-          // @since GemFire 5.1
-          int numberOfParts = clientMessage.getNumberOfParts();
-          Part eid = clientMessage.getPart(numberOfParts - 1);
-
-          // TODO the message handling methods also deserialized the eventID - inefficient
-          EventID eventId = (EventID) eid.getObject();
-
-          // no need to verify if the instantiator msg is duplicate or not
-          if (clientMessage.getMessageType() != MessageType.REGISTER_INSTANTIATORS
-              && clientMessage.getMessageType() != MessageType.REGISTER_DATASERIALIZERS) {
-            if (this.qManager.getState().verifyIfDuplicate(eventId,
-                !(this.isDurableClient || isDeltaSent))) {
-              continue;
-            }
-          }
-
-          if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER_VERBOSE)) {
-            logger.trace(LogMarker.BRIDGE_SERVER_VERBOSE, "Processing event with id {}",
-                eventId.expensiveToString());
-          }
-
-          this.isOpCompleted = true;
-
-          // Process the message
-          switch (clientMessage.getMessageType()) {
-            case MessageType.LOCAL_CREATE:
-            case MessageType.LOCAL_UPDATE:
-              handleUpdate(clientMessage);
-              break;
-            case MessageType.LOCAL_INVALIDATE:
-              handleInvalidate(clientMessage);
-              break;
-            case MessageType.LOCAL_DESTROY:
-              handleDestroy(clientMessage);
-              break;
-            case MessageType.LOCAL_DESTROY_REGION:
-              handleDestroyRegion(clientMessage);
-              break;
-            case MessageType.CLEAR_REGION:
-              handleClearRegion(clientMessage);
-              break;
-            case MessageType.REGISTER_INSTANTIATORS:
-              handleRegisterInstantiator(clientMessage, eventId);
-              break;
-            case MessageType.REGISTER_DATASERIALIZERS:
-              handleRegisterDataSerializer(clientMessage, eventId);
-              break;
-            case MessageType.CLIENT_MARKER:
-              handleMarker(clientMessage);
-              break;
-            case MessageType.INVALIDATE_REGION:
-              handleInvalidateRegion(clientMessage);
-              break;
-            case MessageType.CLIENT_REGISTER_INTEREST:
-              handleRegisterInterest(clientMessage);
-              break;
-            case MessageType.CLIENT_UNREGISTER_INTEREST:
-              handleUnregisterInterest(clientMessage);
-              break;
-            case MessageType.TOMBSTONE_OPERATION:
-              handleTombstoneOperation(clientMessage);
-              break;
-            default:
-              logger.warn("{}: Received an unsupported message (type={})",
-                  new Object[] {this, MessageType.getString(clientMessage.getMessageType())});
-              break;
-          }
-
-          if (this.isOpCompleted && (this.isDurableClient || isDeltaSent)) {
-            this.qManager.getState().verifyIfDuplicate(eventId, true);
-          }
+          processEventMessage(clientMessage);
 
           // TODO we should maintain the client's "live" view of the server
           // but we don't because the server health monitor needs traffic
@@ -1764,6 +1685,106 @@ public class CacheClientUpdater extends LoggingThread implements ClientUpdater,
     }
   }
 
+  /**
+   * Processes an event message received from the server, or each event of a batch of events in
+   * the order the server sent them.
+   */
+  void processEventMessage(Message clientMessage) throws Exception {
+    if (clientMessage.getMessageType() == MessageType.CLIENT_EVENT_BATCH) {
+      for (Message eventMessage : ClientEventBatch.unpack(clientMessage)) {
+        processMessage(eventMessage);
+      }
+    } else {
+      processMessage(clientMessage);
+    }
+  }
+
+  /**
+   * Processes one event message, ignoring it if it is a duplicate of an event already processed.
+   */
+  private void processMessage(Message clientMessage) throws Exception {
+    boolean isDeltaSent = false;
+    boolean isCreateOrUpdate = clientMessage.getMessageType() == MessageType.LOCAL_CREATE
+        || clientMessage.getMessageType() == MessageType.LOCAL_UPDATE;
+    if (isCreateOrUpdate) {
+      isDeltaSent = (Boolean) clientMessage.getPart(2).getObject();
+    }
+
+    // extract the eventId and verify if it is a duplicate event
+    // if it is a duplicate event, ignore
+    // @since GemFire 5.1
+    int numberOfParts = clientMessage.getNumberOfParts();
+    Part eid = clientMessage.getPart(numberOfParts - 1);
+
+    // TODO the message handling methods also deserialized the eventID - inefficient
+    EventID eventId = (EventID) eid.getObject();
+
+    // no need to verify if the instantiator msg is duplicate or not
+    if (clientMessage.getMessageType() != MessageType.REGISTER_INSTANTIATORS
+        && clientMessage.getMessageType() != MessageType.REGISTER_DATASERIALIZERS) {
+      if (this.qManager.getState().verifyIfDuplicate(eventId,
+          !(this.isDurableClient || isDeltaSent))) {
+        return;
+      }
+    }
+
+    if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER_VERBOSE)) {
+      logger.trace(LogMarker.BRIDGE_SERVER_VERBOSE, "Processing event with id {}",
+          eventId.expensiveToString());
+    }
+
+    this.isOpCompleted = true;
+
+    // Process the message
+    switch (clientMessage.getMessageType()) {
+      case MessageType.LOCAL_CREATE:
+      case MessageType.LOCAL_UPDATE:
+        handleUpdate(clientMessage);
+        break;
+      case MessageType.LOCAL_INVALIDATE:
+        handleInvalidate(clientMessage);
+        break;
+      case MessageType.LOCAL_DESTROY:
+        handleDestroy(clientMessage);
+        break;
+      case MessageType.LOCAL_DESTROY_REGION:
+        handleDestroyRegion(clientMessage);
+        break;
+      case MessageType.CLEAR_REGION:
+        handleClearRegion(clientMessage);
+        break;
+      case MessageType.REGISTER_INSTANTIATORS:
+        handleRegisterInstantiator(clientMessage, eventId);
+        break;
+      case MessageType.REGISTER_DATASERIALIZERS:
+        handleRegisterDataSerializer(clientMessage, eventId);
+        break;
+      case MessageType.CLIENT_MARKER:
+        handleMarker(clientMessage);
+        break;
+      case MessageType.INVALIDATE_REGION:
+        handleInvalidateRegion(clientMessage);
+        break;
+      case MessageType.CLIENT_REGISTER_INTEREST:
+        handleRegisterInterest(clientMessage);
+        break;
+      case MessageType.CLIENT_UNREGISTER_INTEREST:
+        handleUnregisterInterest(clientMessage);
+        break;
+      case MessageType.TOMBSTONE_OPERATION:
+        handleTombstoneOperation(clientMessage);
+        break;
+      default:
+        logger.warn("{}: Received an unsupported message (type={})",
+            new Object[] {this, MessageType.getString(clientMessage.getMessageType())});
+        break;
+    }
+
+    if (this.isOpCompleted && (this.isDurableClient || isDeltaSent)) {
+      this.qManager.getState().verifyIfDuplicate(eventId, true);
+    }
+  }
+
   /**
    * Conditionally print a warning describing the failure
    * <p>
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.serialization.Version;
+
+/**
+ * Packs the messages of several subscription events into one {@link MessageType#CLIENT_EVENT_BATCH}
+ * message on the server, and unpacks them again in {@link CacheClientUpdater}.
+ *
+ * The first part of a batch message holds the number of events. Each following part holds one
+ * event message: its message type, its number of parts and, for every part, the part's type code,
+ * length and bytes.
+ *
+ * @since Geode 1.12
+ */
+class ClientEventBatch {
+
+  /** the oldest client version that understands event batches */
+  static final Version MINIMUM_CLIENT_VERSION = Version.GEODE_1_12_0;
+
+  private final List<byte[]> events = new ArrayList<>();
+
+  private final ByteBuffer scratchBuffer = ByteBuffer.allocate(1024);
+
+  private int sizeInBytes;
+
+  /**
+   * Copies the given message into this batch. The message may be cleared or reused afterwards.
+   */
+  void add(Message message) throws IOException {
+    int numberOfParts = message.getNumberOfParts();
+    try (HeapDataOutputStream hdos = new HeapDataOutputStream(Version.CURRENT)) {
+      hdos.writeInt(message.getMessageType());
+      hdos.writeInt(numberOfParts);
+      for (int i = 0; i < numberOfParts; i++) {
+        Part part = message.getPart(i);
+        hdos.writeByte(part.getTypeCode());
+        hdos.writeInt(part.getLength());
+        part.writeTo(hdos, scratchBuffer);
+        HeapDataOutputStream.flushStream(hdos, scratchBuffer);
+      }
+      byte[] event = hdos.toByteArray();
+      events.add(event);
+      sizeInBytes += event.length;
+    }
+  }
+
+  int size() {
+    return events.size();
+  }
+
+  boolean isEmpty() {
+    return events.isEmpty();
+  }
+
+  int getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  void clear() {
+    events.clear();
+    sizeInBytes = 0;
+  }
+
+  /**
+   * Returns a message carrying the events added to this batch.
+   */
+  Message toMessage(Version clientVersion) {
+    Message message = new Message(events.size() + 1, clientVersion);
+    message.setMessageType(MessageType.CLIENT_EVENT_BATCH);
+    message.setTransactionId(0);
+    message.addIntPart(events.size());
+    for (byte[] event : events) {
+      message.addBytesPart(event);
+    }
+    return message;
+  }
+
+  /**
+   * Returns the event messages carried by a {@link MessageType#CLIENT_EVENT_BATCH} message in the
+   * order they were added on the server.
+   */
+  static List<Message> unpack(Message batch) {
+    int numberOfEvents = batch.getPart(0).getInt();
+    List<Message> messages = new ArrayList<>(numberOfEvents);
+    for (int i = 1; i <= numberOfEvents; i++) {
+      ByteBuffer event = ByteBuffer.wrap(batch.getPart(i).getSerializedForm());
+      int messageType = event.getInt();
+      int numberOfParts = event.getInt();
+      Message message = new Message(numberOfParts, Version.CURRENT);
+      message.setMessageType(messageType);
+      for (int j = 0; j < numberOfParts; j++) {
+        byte typeCode = event.get();
+        int length = event.getInt();
+        byte[] bytes = null;
+        if (length > 0) {
+          bytes = new byte[length];
+          event.get(bytes);
+        }
+        message.getPart(j).init(bytes, typeCode);
+      }
+      messages.add(message);
+    }
+    return messages;
+  }
+}
@@ -18,6 +18,7 @@ package org.apache.geode.internal.cache.tier.sockets;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -31,8 +32,11 @@ import org.apache.geode.DataSerializer;
 import org.apache.geode.GemFireIOException;
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.annotations.VisibleForTesting;
+import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
 import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.Sendable;
 import org.apache.geode.internal.cache.CachedDeserializableFactory;
@@ -41,7 +45,9 @@ import org.apache.geode.internal.cache.EnumListenerEvent;
 import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.WrappedCallbackArgument;
+import org.apache.geode.internal.cache.ha.HAContainerLog;
 import org.apache.geode.internal.cache.ha.HAContainerRegion;
+import org.apache.geode.internal.cache.ha.HAEventLog;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.concurrent.ConcurrentHashSet;
@@ -51,6 +57,7 @@ import org.apache.geode.internal.serialization.DeserializationContext;
 import org.apache.geode.internal.serialization.SerializationContext;
 import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.internal.size.Sizeable;
+import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 
 
@@ -65,6 +72,17 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
   private static final long serialVersionUID = 7037106666445312400L;
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * System property that makes the dispatchers of all subscribed clients share the serialized form
+   * of an event's key, callback argument, version tag and event id. The parts are serialized once
+   * per client version instead of once per client.
+   */
+  public static final String SHARED_EVENT_SERIALIZATION_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "subscription.sharedEventSerialization";
+
+  @MutableForTesting
+  static boolean shareSerializedParts = Boolean.getBoolean(SHARED_EVENT_SERIALIZATION_PROPERTY);
+
   /**
    * The operation performed (e.g. AFTER_CREATE, AFTER_UPDATE, AFTER_DESTROY, AFTER_INVALIDATE,
    * AFTER_REGION_DESTROY)
@@ -82,9 +100,15 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
   private Object _keyOfInterest;
 
   /**
-   * The new value
+   * The new value, or null if the value has been moved to {@link #_valueRecord}
+   */
+  private volatile Object _value;
+
+  /**
+   * The location of the serialized value in an {@link HAEventLog}, if the value has been moved
+   * there by an {@link HAContainerLog}
    */
-  private Object _value;
+  private transient volatile HAEventLog.Record _valueRecord;
 
   /**
    * Whether the value is a serialized object or just a byte[]
@@ -148,6 +172,12 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
   private VersionTag versionTag;
 
+  /**
+   * The client-independent parts of this message serialized for the client versions it has been
+   * dispatched to. Only used when {@link #shareSerializedParts} is set.
+   */
+  private transient volatile SerializedParts serializedParts;
+
   /* added up all constants and form single value */
   private static final int CONSTANT_MEMORY_OVERHEAD;
 
@@ -224,9 +254,78 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     return this._operation;
   }
 
+  /**
+   * Returns the value of this message. A value held in an {@link HAEventLog} is copied onto the
+   * heap; dispatchers send it from the log through {@link #getValueRecord()} instead.
+   */
   @Override
   public Object getValue() {
-    return this._value;
+    Object value = this._value;
+    if (value == null) {
+      HAEventLog.Record record = this._valueRecord;
+      if (record != null) {
+        value = record.read();
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Returns the record of this message's value in an {@link HAEventLog}, or null if the value is
+   * on the heap.
+   */
+  public HAEventLog.Record getValueRecord() {
+    return this._valueRecord;
+  }
+
+  private byte[] getSerializedValue() throws IOException {
+    Object value = getValue();
+    if (!(value instanceof byte[])) {
+      value = CacheServerHelper.serialize(value);
+      this._value = value;
+    }
+    return (byte[]) value;
+  }
+
+  /**
+   * Moves the serialized value of this message into the given log.
+   *
+   * @return true if the value was moved, false if it was already logged or is not serialized
+   */
+  public synchronized boolean moveValueToLog(HAEventLog log) {
+    Object value = this._value;
+    if (this._valueRecord != null || !(value instanceof byte[])) {
+      return false;
+    }
+    // readers that see the value cleared are guaranteed to see the record
+    this._valueRecord = log.append((byte[]) value);
+    this._value = null;
+    return true;
+  }
+
+  /**
+   * Brings the value of this message back from its log onto the heap.
+   */
+  public synchronized void restoreValueFromLog() {
+    HAEventLog.Record record = this._valueRecord;
+    if (record != null) {
+      if (this._value == null) {
+        this._value = record.read();
+      }
+      this._valueRecord = null;
+      record.release();
+    }
+  }
+
+  /**
+   * Releases the space this message's value takes up in its log. A logged value can no longer be
+   * read afterwards, though views of it that are being sent stay valid until they are given back.
+   */
+  public void releaseLoggedValue() {
+    HAEventLog.Record record = this._valueRecord;
+    if (record != null) {
+      record.release();
+    }
   }
 
   @Override
@@ -272,13 +371,15 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
   @Override
   public Object getValueToConflate() {
-    return this._value;
+    return getValue();
   }
 
   @Override
-  public void setLatestValue(Object value) {
+  public synchronized void setLatestValue(Object value) {
     // does this also need to set _valueIsObject
     this._value = value;
+    releaseLoggedValue();
+    this._valueRecord = null;
   }
 
   /// End Conflatable interface methods ///
@@ -359,13 +460,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
    */
 
   protected Message getMessage(CacheClientProxy proxy, byte[] latestValue) throws IOException {
-    Version clientVersion = proxy.getVersion();
     byte[] serializedValue = null;
-    Message message = null;
-    boolean conflation = false;
-    conflation = (proxy.clientConflation == Handshake.CONFLATION_ON)
-        || (proxy.clientConflation == Handshake.CONFLATION_DEFAULT && this.shouldBeConflated());
-
     if (latestValue != null) {
       serializedValue = latestValue;
     } else {
@@ -380,6 +475,35 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         this._value = serializedValue = CacheServerHelper.serialize(latestValue);
       }
     }
+    return createMessage(proxy, serializedValue == null ? null : ByteBuffer.wrap(serializedValue),
+        latestValue);
+  }
+
+  /**
+   * Returns a <code>Message</code> that sends the given view of this message's value in its
+   * {@link HAEventLog} without copying it back onto the heap. The view must stay retained until the
+   * message has been sent.
+   *
+   * @param loggedValue a view returned by {@link HAEventLog.Record#retainView()}
+   */
+  Message getMessage(CacheClientProxy proxy, ByteBuffer loggedValue) throws IOException {
+    if (proxy.getVersion().compareTo(Version.GFE_61) < 0) {
+      // clients this old are rare enough to copy logged values for
+      byte[] bytes = new byte[loggedValue.remaining()];
+      loggedValue.duplicate().get(bytes);
+      return getMessage(proxy, bytes);
+    }
+    return createMessage(proxy, loggedValue, null);
+  }
+
+  private Message createMessage(CacheClientProxy proxy, ByteBuffer serializedValue,
+      byte[] latestValue) throws IOException {
+    Version clientVersion = proxy.getVersion();
+    Message message = null;
+    boolean conflation = false;
+    conflation = (proxy.clientConflation == Handshake.CONFLATION_ON)
+        || (proxy.clientConflation == Handshake.CONFLATION_DEFAULT && this.shouldBeConflated());
+
     if (clientVersion.compareTo(Version.GFE_70) >= 0) {
       message = getGFE70Message(proxy, serializedValue, conflation, clientVersion);
     } else if (clientVersion.compareTo(Version.GFE_65) >= 0) {
@@ -504,8 +628,8 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     return message;
   }
 
-  protected Message getGFE61Message(CacheClientProxy proxy, byte[] latestValue, boolean conflation,
-      Version clientVersion) throws IOException {
+  protected Message getGFE61Message(CacheClientProxy proxy, ByteBuffer latestValue,
+      boolean conflation, Version clientVersion) throws IOException {
     Message message = null;
     ClientProxyMembershipID proxyId = proxy.getProxyID();
 
@@ -579,12 +703,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
             proxy.getStatistics().incDeltaMessagesSent();
           } else {
             message.addObjPart(Boolean.FALSE);
-            byte[] l = latestValue;
+            ByteBuffer l = latestValue;
             if (l == null) {
-              if (!(this._value instanceof byte[])) {
-                this._value = CacheServerHelper.serialize(this._value);
-              }
-              l = (byte[]) this._value;
+              l = ByteBuffer.wrap(getSerializedValue());
             }
             // Add the value (which has already been serialized)
             message.addRawPart(l, (this._valueIsObject == 0x01));
@@ -668,9 +789,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     return message;
   }
 
-  protected Message getGFE65Message(CacheClientProxy proxy, byte[] p_latestValue,
+  protected Message getGFE65Message(CacheClientProxy proxy, ByteBuffer p_latestValue,
       boolean conflation, Version clientVersion) throws IOException {
-    byte[] latestValue = p_latestValue;
+    ByteBuffer latestValue = p_latestValue;
     Message message = null;
     ClientProxyMembershipID proxyId = proxy.getProxyID();
 
@@ -738,10 +859,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
           } else {
             message.addObjPart(Boolean.FALSE);
             if (latestValue == null) {
-              if (!(this._value instanceof byte[])) {
-                this._value = CacheServerHelper.serialize(this._value);
-              }
-              latestValue = (byte[]) this._value;
+              latestValue = ByteBuffer.wrap(getSerializedValue());
             }
             // Add the value (which has already been serialized)
             message.addRawPart(latestValue, (this._valueIsObject == 0x01));
@@ -829,11 +947,12 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
   }
 
 
-  protected Message getGFE70Message(CacheClientProxy proxy, byte[] p_latestValue,
+  protected Message getGFE70Message(CacheClientProxy proxy, ByteBuffer p_latestValue,
       boolean conflation, Version clientVersion) throws IOException {
-    byte[] latestValue = p_latestValue;
+    ByteBuffer latestValue = p_latestValue;
     Message message = null;
     ClientProxyMembershipID proxyId = proxy.getProxyID();
+    SerializedParts parts = null;
     // Add CQ info.
     int cqMsgParts = 0;
     boolean clientHasCq = this._hasCqs && (this.getCqs(proxyId) != null);
@@ -844,6 +963,10 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
     if (isCreate() || isUpdate()) {
       // Create or update event
+      if (this.versionTag != null) {
+        this.versionTag.setCanonicalIDs(proxy.getCache().getDistributionManager());
+      }
+      parts = getSerializedParts(clientVersion);
       if (this._clientInterestListInv != null && this._clientInterestListInv.contains(proxyId)) {
         // Client is registered for invalidates.
         if (cqMsgParts > 0) {
@@ -853,21 +976,21 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message = getMessage(7 + cqMsgParts, clientVersion);
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
         message.addStringPart(this._regionName, true);
-        message.addStringOrObjPart(this._keyOfInterest);
+        addKeyPart(message, parts);
       } else {
         // Notify by subscription - send the value
         message = getMessage(9 + cqMsgParts, clientVersion);
         if (isCreate()) {
           message.setMessageType(MessageType.LOCAL_CREATE);
           message.addStringPart(this._regionName, true);
-          message.addStringOrObjPart(this._keyOfInterest);
+          addKeyPart(message, parts);
           message.addObjPart(Boolean.FALSE); // NO delta
           // Add the value (which has already been serialized)
           message.addRawPart(latestValue, (this._valueIsObject == 0x01));
         } else {
           message.setMessageType(MessageType.LOCAL_UPDATE);
           message.addStringPart(this._regionName, true);
-          message.addStringOrObjPart(this._keyOfInterest);
+          addKeyPart(message, parts);
 
           if (this.deltaBytes != null && !conflation && !proxy.isMarkerEnqueued()
               && !proxy.getRegionsWithEmptyDataPolicy().containsKey(_regionName)) {
@@ -877,10 +1000,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
           } else {
             message.addObjPart(Boolean.FALSE);
             if (latestValue == null) {
-              if (!(this._value instanceof byte[])) {
-                this._value = CacheServerHelper.serialize(this._value);
-              }
-              latestValue = (byte[]) this._value;
+              latestValue = ByteBuffer.wrap(getSerializedValue());
             }
             // Add the value (which has already been serialized)
             message.addRawPart(latestValue, (this._valueIsObject == 0x01));
@@ -888,11 +1008,8 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         }
       }
 
-      message.addObjPart(this._callbackArgument);
-      if (this.versionTag != null) {
-        this.versionTag.setCanonicalIDs(proxy.getCache().getDistributionManager());
-      }
-      message.addObjPart(this.versionTag);
+      addObjPart(message, this._callbackArgument, parts == null ? null : parts.callbackArgument);
+      addObjPart(message, this.versionTag, parts == null ? null : parts.versionTag);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -904,6 +1021,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         this.addCqsToMessage(proxyId, message);
       }
     } else if (isDestroy() || isInvalidate()) {
+      parts = getSerializedParts(clientVersion);
       if (isDestroy()) {
         message = getMessage(7 + cqMsgParts, clientVersion);
         message.setMessageType(MessageType.LOCAL_DESTROY);
@@ -915,9 +1033,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
       }
       message.addStringPart(this._regionName, true);
-      message.addStringOrObjPart(this._keyOfInterest);
-      message.addObjPart(this._callbackArgument);
-      message.addObjPart(this.versionTag);
+      addKeyPart(message, parts);
+      addObjPart(message, this._callbackArgument, parts == null ? null : parts.callbackArgument);
+      addObjPart(message, this.versionTag, parts == null ? null : parts.versionTag);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -968,10 +1086,94 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     message.setTransactionId(0);
     // Add the EventId since 5.1 (used to prevent duplicate events
     // received on the client side after a failover)
-    message.addObjPart(this._eventIdentifier);
+    addObjPart(message, this._eventIdentifier, parts == null ? null : parts.eventIdentifier);
     return message;
   }
 
+  /**
+   * Returns the shared serialized parts of this message for the given client version, or null if
+   * sharing is disabled.
+   */
+  private SerializedParts getSerializedParts(Version clientVersion) throws IOException {
+    if (!shareSerializedParts) {
+      return null;
+    }
+    SerializedParts head = this.serializedParts;
+    for (SerializedParts parts = head; parts != null; parts = parts.next) {
+      if (parts.version.equals(clientVersion)) {
+        return parts;
+      }
+    }
+    SerializedParts parts = new SerializedParts(clientVersion, head);
+    if (this._keyOfInterest instanceof String) {
+      parts.key = serializeString((String) this._keyOfInterest);
+    } else {
+      parts.key = serializeObject(this._keyOfInterest, clientVersion);
+    }
+    parts.callbackArgument = serializeObject(this._callbackArgument, clientVersion);
+    parts.versionTag = serializeObject(this.versionTag, clientVersion);
+    parts.eventIdentifier = serializeObject(this._eventIdentifier, clientVersion);
+    // a concurrent dispatcher may have published parts for another version; losing its node
+    // only means that version is serialized again
+    this.serializedParts = parts;
+    return parts;
+  }
+
+  private void addKeyPart(Message message, SerializedParts parts) {
+    if (parts == null || parts.key == null) {
+      message.addStringOrObjPart(this._keyOfInterest);
+    } else {
+      message.addRawPart(parts.key, !(this._keyOfInterest instanceof String));
+    }
+  }
+
+  private static void addObjPart(Message message, Object value, byte[] serializedValue) {
+    if (serializedValue == null) {
+      message.addObjPart(value);
+    } else {
+      message.addRawPart(serializedValue, true);
+    }
+  }
+
+  private static byte[] serializeString(String value) {
+    try (HeapDataOutputStream hdos = new HeapDataOutputStream(value)) {
+      return hdos.toByteArray();
+    }
+  }
+
+  /**
+   * Serializes the value the same way {@link Message#addObjPart(Object)} would. Returns null for
+   * values that Message adds without serializing.
+   */
+  private static byte[] serializeObject(Object value, Version clientVersion) throws IOException {
+    if (value == null || value instanceof byte[] || value instanceof Boolean) {
+      return null;
+    }
+    Version version = clientVersion.equals(Version.CURRENT) ? null : clientVersion;
+    try (HeapDataOutputStream hdos = new HeapDataOutputStream(version)) {
+      BlobHelper.serializeTo(value, hdos);
+      return hdos.toByteArray();
+    }
+  }
+
+  /**
+   * The serialized client-independent parts of a message for one client version. Instances form a
+   * list since subscribed clients rarely run more than one or two versions.
+   */
+  private static class SerializedParts {
+    final Version version;
+    final SerializedParts next;
+    byte[] key;
+    byte[] callbackArgument;
+    byte[] versionTag;
+    byte[] eventIdentifier;
+
+    SerializedParts(Version version, SerializedParts next) {
+      this.version = version;
+      this.next = next;
+    }
+  }
+
   private static final ThreadLocal<Map<Integer, Message>> CACHED_MESSAGES =
       new ThreadLocal<Map<Integer, Message>>() {
         @Override
@@ -1202,8 +1404,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     buffer.append("ClientUpdateMessageImpl[").append("op=").append(this._operation)
         .append(";region=").append(this._regionName).append(";key=").append(this._keyOfInterest);
     if (logger.isTraceEnabled()) {
+      Object value = getValue();
       buffer.append(";value=").append(
-          (this._value instanceof byte[]) ? deserialize((byte[]) this._value) : this._value);
+          (value instanceof byte[]) ? deserialize((byte[]) value) : value);
     }
     buffer.append(";isObject=").append(_valueIsObject).append(";cbArg=")
         .append(this._callbackArgument).append(";memberId=").append(this._membershipId)
@@ -1226,10 +1429,11 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     out.writeByte(_operation.getEventCode());
     DataSerializer.writeString(_regionName, out);
     DataSerializer.writeObject(_keyOfInterest, out);
-    if (_value instanceof byte[]) {
-      DataSerializer.writeByteArray((byte[]) _value, out);
+    Object value = getValue();
+    if (value instanceof byte[]) {
+      DataSerializer.writeByteArray((byte[]) value, out);
     } else {
-      DataSerializer.writeByteArray(CacheServerHelper.serialize(_value), out);
+      DataSerializer.writeByteArray(CacheServerHelper.serialize(value), out);
     }
     out.writeByte(_valueIsObject);
     DataSerializer.writeObject(_membershipId, out);
@@ -1361,8 +1565,10 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     int size = CONSTANT_MEMORY_OVERHEAD;
 
     // The value (a byte[])
-    if (this._value != null) {
-      size += CachedDeserializableFactory.calcMemSize(this._value);
+    // a value moved to an HAEventLog does not take up heap
+    Object value = this._value;
+    if (value != null) {
+      size += CachedDeserializableFactory.calcMemSize(value);
     }
 
     // The sizeOf call gets the size of the input callback argument.
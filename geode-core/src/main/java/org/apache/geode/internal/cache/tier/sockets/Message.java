@@ -96,13 +96,15 @@ public class Message {
 
   private static final ThreadLocal<ByteBuffer> tlCommBuffer = new ThreadLocal<>();
 
-  // These two statics are fields shoved into the flags byte for transmission.
-  // The MESSAGE_IS_RETRY bit is stripped out during deserialization but the other
-  // is left in place
+  // These statics are fields shoved into the flags byte for transmission.
+  // The MESSAGE_IS_RETRY and MESSAGE_HAS_TRACE_PART bits are stripped out during
+  // deserialization but the other is left in place
   private static final byte MESSAGE_HAS_SECURE_PART = (byte) 0x02;
   private static final byte MESSAGE_IS_RETRY = (byte) 0x04;
+  private static final byte MESSAGE_HAS_TRACE_PART = (byte) 0x08;
 
   private static final byte MESSAGE_IS_RETRY_MASK = (byte) 0xFB;
+  private static final byte MESSAGE_HAS_TRACE_PART_MASK = (byte) 0xF7;
 
   private static final int DEFAULT_CHUNK_SIZE = 1024;
 
@@ -169,6 +171,12 @@ public class Message {
   Part securePart = null;
   private boolean isMetaRegion = false;
 
+  /**
+   * The id of the traced operation this message is sent for, or zero. It is sent in a part after
+   * the secure part, and only to members of version 1.12 or later.
+   */
+  private long traceId;
+
   private Version version;
 
   /**
@@ -261,6 +269,21 @@ public class Message {
     return this.isRetry;
   }
 
+  /**
+   * Sets the id of the traced operation this message is sent for. The receiver must be of version
+   * 1.12 or later unless the id is zero.
+   */
+  public void setTraceId(long traceId) {
+    this.traceId = traceId;
+  }
+
+  /**
+   * Returns the id of the traced operation this message was sent for, or zero if it is not traced.
+   */
+  public long getTraceId() {
+    return this.traceId;
+  }
+
   /* Sets size for HDOS chunk. */
   public void setChunkSize(int chunkSize) {
     this.chunkSize = chunkSize;
@@ -282,7 +305,7 @@ public class Message {
 
   public void addStringPart(String str, boolean enableCaching) {
     if (str == null) {
-      addRawPart(null, false);
+      addRawPart((byte[]) null, false);
       return;
     }
 
@@ -444,6 +467,17 @@ public class Message {
     this.currentPart++;
   }
 
+  /**
+   * Adds a new part to this message that refers to the remaining bytes of the given buffer instead
+   * of copying them. The buffer's contents must not change until this message has been sent.
+   */
+  public void addRawPart(ByteBuffer newPart, boolean isObject) {
+    this.messageModified = true;
+    Part part = this.partsList[this.currentPart];
+    part.setPartState(newPart, isObject);
+    this.currentPart++;
+  }
+
   public int getMessageType() {
     return this.messageType;
   }
@@ -491,6 +525,7 @@ public class Message {
 
   public void clear() {
     this.isRetry = false;
+    this.traceId = 0;
     int len = this.payloadLength;
     if (len != 0) {
       this.payloadLength = 0;
@@ -530,6 +565,9 @@ public class Message {
     if (this.isRetry) {
       flagsByte |= MESSAGE_IS_RETRY;
     }
+    if (this.traceId != 0) {
+      flagsByte |= MESSAGE_HAS_TRACE_PART;
+    }
     getCommBuffer().putInt(this.messageType).putInt(msgLen).putInt(this.numberOfParts)
         .putInt(this.transactionId).put(flagsByte);
   }
@@ -593,6 +631,14 @@ public class Message {
           totalPartLen += securityPart.getLength();
           partsToTransmit++;
         }
+        Part tracePart = null;
+        if (this.traceId != 0) {
+          tracePart = new Part();
+          tracePart.setLong(this.traceId);
+          headerLen += PART_HEADER_SIZE;
+          totalPartLen += tracePart.getLength();
+          partsToTransmit++;
+        }
 
         if (headerLen + totalPartLen > Integer.MAX_VALUE) {
           throw new MessageTooLargeException(
@@ -609,7 +655,14 @@ public class Message {
         commBuffer.clear();
         packHeaderInfoForSending(msgLen, securityPart != null);
         for (int i = 0; i < partsToTransmit; i++) {
-          Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+          Part part;
+          if (i < this.numberOfParts) {
+            part = this.partsList[i];
+          } else if (i == this.numberOfParts && securityPart != null) {
+            part = securityPart;
+          } else {
+            part = tracePart;
+          }
 
           if (commBuffer.remaining() < PART_HEADER_SIZE) {
             flushBuffer();
@@ -780,10 +833,12 @@ public class Message {
 
     this.isRetry = (bits & MESSAGE_IS_RETRY) != 0;
     bits &= MESSAGE_IS_RETRY_MASK;
+    boolean hasTracePart = (bits & MESSAGE_HAS_TRACE_PART) != 0;
+    bits &= MESSAGE_HAS_TRACE_PART_MASK;
     this.flags = bits;
     this.messageType = type;
 
-    readPayloadFields(numParts, len);
+    readPayloadFields(numParts, len, hasTracePart);
 
     // Set the header and payload fields only after receiving all the
     // socket data, providing better message consistency in the face
@@ -847,6 +902,12 @@ public class Message {
    * TODO: refactor overly long method readPayloadFields
    */
   void readPayloadFields(final int numParts, final int len) throws IOException {
+    readPayloadFields(numParts, len, false);
+  }
+
+  private void readPayloadFields(final int numParts, final int len, boolean hasTracePart)
+      throws IOException {
+    this.traceId = 0;
     if (len > 0 && numParts <= 0 || len <= 0 && numParts > 0) {
       throw new IOException(
           String.format("Part length ( %s ) and number of parts ( %s ) inconsistent",
@@ -880,9 +941,11 @@ public class Message {
     cb.flip();
 
     int readSecurePart = checkAndSetSecurityPart();
+    int readTracePart = hasTracePart ? 1 : 0;
+    Part tracePart = hasTracePart ? new Part() : null;
 
     int bytesRemaining = len;
-    for (int i = 0; i < numParts + readSecurePart
+    for (int i = 0; i < numParts + readSecurePart + readTracePart
         || readSecurePart == 1 && cb.remaining() > 0; i++) {
       int bytesReadThisTime = readPartChunk(bytesRemaining);
       bytesRemaining -= bytesReadThisTime;
@@ -891,6 +954,8 @@ public class Message {
 
       if (i < numParts) {
         part = this.partsList[i];
+      } else if (tracePart != null && i == numParts + readSecurePart) {
+        part = tracePart;
       } else {
         part = this.securePart;
       }
@@ -952,6 +1017,9 @@ public class Message {
       }
       part.init(partBytes, partType);
     }
+    if (tracePart != null) {
+      this.traceId = tracePart.getLong();
+    }
   }
 
   protected int checkAndSetSecurityPart() {
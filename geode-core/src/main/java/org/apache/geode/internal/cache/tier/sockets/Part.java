@@ -56,8 +56,8 @@ public class Part {
   private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
 
   /**
-   * The payload of this part. Could be null, a byte[] or a HeapDataOutputStream on the send side.
-   * Could be null, or a byte[] on the receiver side.
+   * The payload of this part. Could be null, a byte[], a HeapDataOutputStream, a StoredObject or a
+   * ByteBuffer on the send side. Could be null, or a byte[] on the receiver side.
    */
   private Object part;
 
@@ -146,6 +146,32 @@ public class Part {
     }
   }
 
+  /**
+   * Sets the payload of this part to the remaining bytes of the given buffer without copying them.
+   * The buffer's contents must not change until this part has been sent.
+   */
+  public void setPartState(ByteBuffer bb, boolean isObject) {
+    if (bb == null) {
+      setPartState((byte[]) null, isObject);
+      return;
+    }
+    if (isObject) {
+      this.typeCode = OBJECT_CODE;
+    } else if (bb.remaining() == 0) {
+      this.typeCode = EMPTY_BYTEARRAY_CODE;
+      this.part = EMPTY_BYTE_ARRAY;
+      return;
+    } else {
+      this.typeCode = BYTE_CODE;
+    }
+    if (bb.hasArray() && bb.arrayOffset() == 0 && bb.position() == 0
+        && bb.remaining() == bb.array().length) {
+      this.part = bb.array();
+    } else {
+      this.part = bb.slice();
+    }
+  }
+
   public byte getTypeCode() {
     return this.typeCode;
   }
@@ -161,6 +187,8 @@ public class Part {
       return ((byte[]) this.part).length;
     } else if (this.part instanceof StoredObject) {
       return ((StoredObject) this.part).getDataSize();
+    } else if (this.part instanceof ByteBuffer) {
+      return ((ByteBuffer) this.part).remaining();
     } else {
       return ((HeapDataOutputStream) this.part).size();
     }
@@ -396,6 +424,9 @@ public class Part {
             bytesToSend--;
           }
         }
+      } else if (this.part instanceof ByteBuffer) {
+        HeapDataOutputStream.writeByteBufferToStream(out, buf,
+            ((ByteBuffer) this.part).duplicate());
       } else {
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
         hdos.sendTo(out, buf);
@@ -426,6 +457,8 @@ public class Part {
             bytesToSend--;
           }
         }
+      } else if (this.part instanceof ByteBuffer) {
+        buf.put(((ByteBuffer) this.part).duplicate());
       } else {
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
         hdos.sendTo(buf);
@@ -492,6 +525,11 @@ public class Part {
             buf.clear();
           }
         }
+      } else if (this.part instanceof ByteBuffer) {
+        ByteBuffer bb = ((ByteBuffer) this.part).duplicate();
+        while (bb.remaining() > 0) {
+          sc.write(bb);
+        }
       } else {
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
         hdos.sendTo(sc, buf);
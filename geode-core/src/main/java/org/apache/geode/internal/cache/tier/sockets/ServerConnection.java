@@ -70,6 +70,8 @@ import org.apache.geode.internal.security.AuthorizeRequestPP;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.serialization.ByteArrayDataInput;
 import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.internal.tracing.OperationTracer;
+import org.apache.geode.internal.tracing.TraceStage;
 import org.apache.geode.internal.util.Breadcrumbs;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.security.AuthenticationFailedException;
@@ -845,7 +847,12 @@ public abstract class ServerConnection implements Runnable {
           }
         }
 
-        command.execute(message, this, securityService);
+        long traceStart = OperationTracer.resumeTrace(message.getTraceId());
+        try {
+          command.execute(message, this, securityService);
+        } finally {
+          OperationTracer.endTrace(TraceStage.SERVER_COMMAND, traceStart);
+        }
       }
     } finally {
       // Keep track of the fact that a message is no longer being
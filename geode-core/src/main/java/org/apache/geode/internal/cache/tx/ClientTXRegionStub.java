@@ -33,23 +33,49 @@ import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
 
 public class ClientTXRegionStub implements TXRegionStub {
 
-  // private final LocalRegion region;
+  private final InternalRegion region;
   private final ServerRegionDataAccess proxy;
 
+  /** the transaction this stub belongs to, or null */
+  private final ClientTXStateStub txStub;
+
   public ClientTXRegionStub(InternalRegion region) {
-    // this.region = region;
+    this(region, null);
+  }
+
+  public ClientTXRegionStub(InternalRegion region, ClientTXStateStub txStub) {
+    this.region = region;
     this.proxy = region.getServerProxy();
+    this.txStub = txStub;
+  }
+
+  /**
+   * Lets the transaction choose the server that hosts it before its first operation is sent.
+   */
+  private void routeOperation(Operation operation, Object key, Object value,
+      Object callbackArg) {
+    if (this.txStub != null) {
+      this.txStub.routeFirstOperation(this.region, operation, key, value, callbackArg);
+    }
+  }
+
+  private void routeOperation(EntryEventImpl event) {
+    routeOperation(event.getOperation(), event.getKey(), event.getRawNewValue(),
+        event.getCallbackArgument());
   }
 
 
   @Override
   public boolean containsKey(KeyInfo keyInfo) {
+    routeOperation(Operation.CONTAINS_KEY, keyInfo.getKey(), null, keyInfo.getCallbackArg());
     return proxy.containsKey(keyInfo.getKey());
   }
 
 
   @Override
   public boolean containsValueForKey(KeyInfo keyInfo) {
+    routeOperation(Operation.CONTAINS_VALUE_FOR_KEY, keyInfo.getKey(), null,
+        keyInfo.getCallbackArg());
     return proxy.containsValueForKey(keyInfo.getKey());
   }
 
@@ -60,6 +86,7 @@ public class ClientTXRegionStub implements TXRegionStub {
     if (event.getOperation().isLocal()) {
       throw new UnsupportedOperationInTransactionException();
     }
+    routeOperation(event);
     Object result = proxy.destroy(event.getKey(), expectedOldValue, event.getOperation(), event,
         event.getCallbackArgument());
     if (result instanceof EntryNotFoundException) {
@@ -73,12 +100,14 @@ public class ClientTXRegionStub implements TXRegionStub {
   public Object findObject(KeyInfo keyInfo, boolean isCreate, boolean generateCallbacks,
       Object value, boolean preferCD, ClientProxyMembershipID requestingClient,
       EntryEventImpl event) {
+    routeOperation(Operation.GET, keyInfo.getKey(), null, keyInfo.getCallbackArg());
     return proxy.get(keyInfo.getKey(), keyInfo.getCallbackArg(), event);
   }
 
 
   @Override
   public Entry<?, ?> getEntry(KeyInfo keyInfo, boolean allowTombstones) {
+    routeOperation(Operation.GET_ENTRY, keyInfo.getKey(), null, keyInfo.getCallbackArg());
     return proxy.getEntry(keyInfo.getKey());
   }
 
@@ -95,6 +124,7 @@ public class ClientTXRegionStub implements TXRegionStub {
     if (event.getOperation().isLocal()) {
       throw new UnsupportedOperationInTransactionException();
     }
+    routeOperation(event);
     proxy.invalidate(event);
 
   }
@@ -108,6 +138,7 @@ public class ClientTXRegionStub implements TXRegionStub {
       // this is a put all, ignore this!
       return true;
     }
+    routeOperation(event);
     Object result = null;
     try {
       result = proxy.put(event.getKey(), event.getRawNewValue(), event.getDeltaBytes(), event,
@@ -26,9 +26,12 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.GemFireException;
 import org.apache.geode.annotations.internal.MutableForTesting;
 import org.apache.geode.cache.CommitConflictException;
+import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.TransactionDataNodeHasDepartedException;
 import org.apache.geode.cache.TransactionException;
 import org.apache.geode.cache.TransactionInDoubtException;
+import org.apache.geode.cache.client.internal.ClientMetadataService;
+import org.apache.geode.cache.client.internal.InternalPool;
 import org.apache.geode.cache.client.internal.ServerRegionDataAccess;
 import org.apache.geode.cache.client.internal.ServerRegionProxy;
 import org.apache.geode.distributed.DistributedMember;
@@ -78,6 +81,12 @@ public class ClientTXStateStub extends TXStateStub {
 
   private ServerLocation serverAffinityLocation;
 
+  /**
+   * Whether the server hosting this transaction has been chosen, either by
+   * {@link #routeFirstOperation} or by the pool when it performed the first operation.
+   */
+  private boolean hostChosen;
+
   /** lock request for obtaining local locks */
   private TXLockRequest lockReq;
 
@@ -196,7 +205,44 @@ public class ClientTXStateStub extends TXStateStub {
 
   @Override
   protected TXRegionStub generateRegionStub(InternalRegion region) {
-    return new ClientTXRegionStub(region);
+    return new ClientTXRegionStub(region, this);
+  }
+
+  /**
+   * Pins this transaction to the server hosting the primary of the bucket of the key of its first
+   * operation, so that the server performs the operations of the transaction on its own data
+   * instead of forwarding them to the member hosting it. Operations on colocated regions with the
+   * same routing object are then performed by the same server. Does nothing after the first
+   * operation, if single hop is disabled for the pool, or if the primary is not known, in which
+   * case the pool chooses the server as usual.
+   */
+  void routeFirstOperation(InternalRegion region, Operation operation, Object key, Object value,
+      Object callbackArg) {
+    if (this.hostChosen) {
+      return;
+    }
+    this.hostChosen = true;
+    InternalPool pool = this.firstProxy.getPool();
+    if (key == null || !pool.getPRSingleHopEnabled()
+        || pool.getServerAffinityLocation() != null) {
+      return;
+    }
+    ClientMetadataService cms = this.cache.getClientMetadataService();
+    ServerLocation host;
+    // the metadata may have to be fetched from any server, so the thread must not have affinity
+    pool.releaseServerAffinity();
+    try {
+      host = cms.getTransactionHostLocation(region, operation, key, value, callbackArg);
+    } finally {
+      pool.setupServerAffinity(true);
+    }
+    if (host != null) {
+      pool.setServerAffinityLocation(host);
+      if (logger.isDebugEnabled()) {
+        logger.debug("TX: transaction {} is hosted by {}, the primary of the bucket of key {}",
+            getTransactionId(), host, key);
+      }
+    }
   }
 
   @Override
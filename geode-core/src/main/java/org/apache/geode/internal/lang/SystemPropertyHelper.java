@@ -56,6 +56,27 @@ public class SystemPropertyHelper {
    */
   public static final String EVICTION_SCAN_THRESHOLD_PERCENT = "EvictionScanThresholdPercent";
 
+  /**
+   * When set to "true" LRU regions evict with a policy that also takes into account how often
+   * entries are used (defaults to false). For more details see
+   * {@link org.apache.geode.internal.cache.eviction.TinyLFUList}.
+   *
+   * @since Geode 1.12
+   */
+  public static final String EVICTION_TINY_LFU = "EvictionTinyLFU";
+
+  /**
+   * The number of milliseconds between exchanges of the keys read in each bucket of a partitioned
+   * region with idle expiration. If greater than zero, idle expiration uses the reads exchanged this
+   * way instead of asking the other members for their last access time of each entry that is about
+   * to expire (defaults to 0). For more details see
+   * org.apache.geode.internal.cache.BucketAccessEpochs.
+   *
+   * @since Geode 1.12
+   */
+  public static final String IDLE_EXPIRATION_ACCESS_EXCHANGE_MILLIS =
+      "idleExpirationAccessExchangeMillis";
+
   public static final String EVICTION_SEARCH_MAX_ENTRIES = "lru.maxSearchEntries";
 
   public static final String EARLY_ENTRY_EVENT_SERIALIZATION = "earlyEntryEventSerialization";
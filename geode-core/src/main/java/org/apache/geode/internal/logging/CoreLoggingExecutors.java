@@ -35,6 +35,7 @@ import org.apache.geode.distributed.internal.PoolStatHelper;
 import org.apache.geode.distributed.internal.PooledExecutorWithDMStats;
 import org.apache.geode.distributed.internal.QueueStatHelper;
 import org.apache.geode.distributed.internal.SerialQueuedExecutorWithDMStats;
+import org.apache.geode.distributed.internal.VirtualThreadExecutorWithDMStats;
 import org.apache.geode.internal.ScheduledThreadPoolExecutorWithKeepAlive;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
 import org.apache.geode.logging.internal.executors.LoggingExecutors;
@@ -135,6 +136,22 @@ public class CoreLoggingExecutors {
         threadsMonitoring, GEMFIRE_PREFIX);
   }
 
+  /**
+   * Creates an executor that runs each task in a virtual thread, with at most maxConcurrency tasks
+   * running at the same time. Tasks beyond that are queued without limit.
+   *
+   * @throws UnsupportedOperationException if the JDK does not have virtual threads
+   */
+  public static ExecutorService newVirtualThreadPool(String threadName,
+      ThreadInitializer threadInitializer, CommandWrapper commandWrapper,
+      int maxConcurrency, PoolStatHelper poolStats,
+      ThreadsMonitoring threadsMonitoring, QueueStatHelper feedStats) {
+    ThreadFactory threadFactory =
+        new VirtualThreadFactory(threadName, threadInitializer, commandWrapper);
+    return new VirtualThreadExecutorWithDMStats(threadFactory, maxConcurrency, poolStats,
+        feedStats, threadsMonitoring);
+  }
+
   public static ExecutorService newThreadPoolWithSynchronousFeed(String threadName,
       CommandWrapper commandWrapper,
       int poolSize) {
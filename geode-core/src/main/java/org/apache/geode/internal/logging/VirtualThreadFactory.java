@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.logging;
+
+import static org.apache.geode.internal.lang.SystemPropertyHelper.GEMFIRE_PREFIX;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory.CommandWrapper;
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory.ThreadInitializer;
+import org.apache.geode.logging.internal.executors.LoggingUncaughtExceptionHandler;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * Creates virtual threads that log uncaught exceptions, like the platform threads of a
+ * {@link org.apache.geode.logging.internal.executors.LoggingThreadFactory}. Virtual threads are
+ * only available when running on a JDK that has them, so they are created reflectively.
+ *
+ * <p>
+ * Virtual threads are used instead of platform threads for message processing, function execution
+ * and client connections if the system property "gemfire.useVirtualThreads" is "true" and the JDK
+ * supports them. A virtual thread that blocks inside a synchronized block still holds on to its
+ * carrier thread.
+ *
+ * @since Geode 1.12
+ */
+public class VirtualThreadFactory implements ThreadFactory {
+  private static final Logger logger = LogService.getLogger();
+
+  public static final String USE_VIRTUAL_THREADS_PROPERTY = GEMFIRE_PREFIX + "useVirtualThreads";
+
+  /** Thread.ofVirtual(), or null if the JDK does not have virtual threads */
+  private static final Method OF_VIRTUAL;
+  /** Thread.Builder.name(String, long) */
+  private static final Method NAME;
+  /** Thread.Builder.factory() */
+  private static final Method FACTORY;
+
+  static {
+    Method ofVirtual = null;
+    Method name = null;
+    Method factory = null;
+    try {
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      name = builder.getMethod("name", String.class, long.class);
+      factory = builder.getMethod("factory");
+    } catch (ClassNotFoundException | NoSuchMethodException ignore) {
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    NAME = name;
+    FACTORY = factory;
+  }
+
+  private static final boolean ENABLED =
+      isEnabled(Boolean.getBoolean(USE_VIRTUAL_THREADS_PROPERTY));
+
+  private final ThreadFactory delegate;
+  private final ThreadInitializer threadInitializer;
+  private final CommandWrapper commandWrapper;
+
+  /**
+   * Create a factory that produces virtual threads that log uncaught exceptions
+   *
+   * @param baseName the base name will be included in every thread name
+   * @param threadInitializer if not null, will be invoked with the thread each time a thread is
+   *        created
+   * @param commandWrapper if not null, will be invoked by each thread created by this factory
+   * @throws UnsupportedOperationException if the JDK does not have virtual threads
+   */
+  public VirtualThreadFactory(String baseName, ThreadInitializer threadInitializer,
+      CommandWrapper commandWrapper) {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JDK");
+    }
+    try {
+      Object builder = OF_VIRTUAL.invoke(null);
+      builder = NAME.invoke(builder, baseName, 1L);
+      this.delegate = (ThreadFactory) FACTORY.invoke(builder);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new UnsupportedOperationException("Unable to create virtual threads", e);
+    }
+    this.threadInitializer = threadInitializer;
+    this.commandWrapper = commandWrapper;
+  }
+
+  /**
+   * Returns true if the JDK has virtual threads.
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Returns true if virtual threads should be used instead of platform threads for message
+   * processing, function execution and client connections.
+   */
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  static boolean isEnabled(boolean requested) {
+    if (requested && !isSupported()) {
+      logger.warn("{} is set but this JDK does not support virtual threads; using platform threads",
+          USE_VIRTUAL_THREADS_PROPERTY);
+      return false;
+    }
+    return requested;
+  }
+
+  @Override
+  public Thread newThread(Runnable runnable) {
+    Runnable commandToRun;
+    if (commandWrapper != null) {
+      commandToRun = () -> commandWrapper.invoke(runnable);
+    } else {
+      commandToRun = runnable;
+    }
+    Thread thread = delegate.newThread(commandToRun);
+    LoggingUncaughtExceptionHandler.setOnThread(thread);
+    if (threadInitializer != null) {
+      threadInitializer.initialize(thread);
+    }
+    return thread;
+  }
+}
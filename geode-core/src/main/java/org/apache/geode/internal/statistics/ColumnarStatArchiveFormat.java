@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+/**
+ * Defines constants of the columnar statistic archive format written by
+ * {@link ColumnarStatArchiveWriter} and read by {@link ColumnarStatArchiveReader}.
+ * <p>
+ * The archive starts with a header like that of a {@link StatArchiveFormat} archive. It is followed
+ * by resource type, resource instance and block records in the order they were written. Each block
+ * holds the samples taken during one time partition, stored as one column of values per statistic
+ * of each resource instance. Each column is delta encoded and compressed on its own, and the block
+ * starts with a directory of its columns sorted by resource instance id and statistic offset, so
+ * that a reader can seek to the column of one statistic without reading any other. When the archive
+ * is closed an index of all the types, instances and blocks is written at the end of the file,
+ * followed by a trailer pointing at the index. An archive without a trailer, such as one still
+ * being written, is read by scanning its records, skipping the bodies of the blocks.
+ *
+ * @since Geode 1.12
+ */
+public interface ColumnarStatArchiveFormat {
+  /**
+   * The extension of archive file names that selects the columnar format.
+   */
+  String COLUMNAR_ARCHIVE_EXTENSION = ".gfsc";
+
+  /**
+   * Identifies a columnar archive. Written at the start of the header and at the end of the
+   * trailer.
+   */
+  int COLUMNAR_ARCHIVE_MAGIC = 0x47465343;
+
+  /**
+   * COLUMNAR_ARCHIVE_VERSION identifies the format of the contents of the archive. It should be
+   * changed any time an incompatible change is made.
+   */
+  byte COLUMNAR_ARCHIVE_VERSION = 1;
+
+  /**
+   * Token defines a new resource type, in the same form as a
+   * {@link StatArchiveFormat#RESOURCE_TYPE_TOKEN} record.
+   */
+  byte COLUMNAR_RESOURCE_TYPE_TOKEN = 1;
+
+  /**
+   * Token defines a new resource instance.
+   */
+  byte COLUMNAR_RESOURCE_INSTANCE_TOKEN = 2;
+
+  /**
+   * Token starts a block of samples.
+   */
+  byte BLOCK_TOKEN = 3;
+
+  /**
+   * Token starts the index written when the archive is closed.
+   */
+  byte INDEX_TOKEN = 4;
+
+  /**
+   * The size of a block column directory entry: instance id, statistic offset, first sample,
+   * sample count, data offset and data length.
+   */
+  int COLUMN_ENTRY_SIZE = 4 + 2 + 4 + 4 + 4 + 4;
+
+  /**
+   * The statistic offset of the column of sample timestamps in a block directory.
+   */
+  int TIMESTAMP_COLUMN = 0xFFFF;
+
+  /**
+   * The resource instance id of the column of sample timestamps in a block directory. It sorts
+   * before the id of every resource instance.
+   */
+  int TIMESTAMP_COLUMN_INSTANCE = -1;
+
+  /**
+   * The size of the trailer: the offset of the index followed by the magic number.
+   */
+  int TRAILER_SIZE = 8 + 4;
+
+  static boolean isColumnarArchive(String archiveName) {
+    return archiveName.endsWith(COLUMNAR_ARCHIVE_EXTENSION);
+  }
+}
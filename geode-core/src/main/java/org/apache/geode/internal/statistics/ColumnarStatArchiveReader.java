@@ -0,0 +1,613 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.geode.GemFireIOException;
+
+/**
+ * Reads an archive written by {@link ColumnarStatArchiveWriter}. Opening the archive reads only its
+ * header and index. {@link #readSeries} then reads, for each block overlapping the requested time
+ * range, the block directory and the two compressed columns it needs.
+ *
+ * @since Geode 1.12
+ */
+public class ColumnarStatArchiveReader implements ColumnarStatArchiveFormat, Closeable {
+
+  private final File archiveName;
+  private final RandomAccessFile file;
+
+  private final long startTimeStamp;
+  private final long systemId;
+  private final long systemStartTimeStamp;
+  private final int timeZoneOffset;
+  private final String timeZoneName;
+  private final String systemDirectory;
+  private final String productVersion;
+  private final String osInfo;
+  private final String machineInfo;
+
+  private final Map<Integer, TypeInfo> types = new LinkedHashMap<>();
+  private final Map<Integer, InstanceInfo> instances = new LinkedHashMap<>();
+  private final List<BlockInfo> blocks = new ArrayList<>();
+
+  public ColumnarStatArchiveReader(File archiveName) throws IOException {
+    this.archiveName = archiveName;
+    this.file = new RandomAccessFile(archiveName, "r");
+    try {
+      if (this.file.readInt() != COLUMNAR_ARCHIVE_MAGIC) {
+        throw new GemFireIOException(
+            String.format("%s is not a columnar statistic archive", archiveName), null);
+      }
+      byte archiveVersion = this.file.readByte();
+      if (archiveVersion != COLUMNAR_ARCHIVE_VERSION) {
+        throw new GemFireIOException(
+            String.format("Unsupported archive version: %s .  The supported version is: %s .",
+                archiveVersion, COLUMNAR_ARCHIVE_VERSION),
+            null);
+      }
+      this.startTimeStamp = this.file.readLong();
+      this.systemId = this.file.readLong();
+      this.systemStartTimeStamp = this.file.readLong();
+      this.timeZoneOffset = this.file.readInt();
+      this.timeZoneName = this.file.readUTF();
+      this.systemDirectory = this.file.readUTF();
+      this.productVersion = this.file.readUTF();
+      this.osInfo = this.file.readUTF();
+      this.machineInfo = this.file.readUTF();
+      long headerEnd = this.file.getFilePointer();
+      if (!readIndex()) {
+        scanRecords(headerEnd);
+      }
+    } catch (IOException | RuntimeException ex) {
+      this.file.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Reads the index pointed at by the trailer.
+   *
+   * @return false if the archive has no trailer
+   */
+  private boolean readIndex() throws IOException {
+    long length = this.file.length();
+    if (length < TRAILER_SIZE) {
+      return false;
+    }
+    this.file.seek(length - TRAILER_SIZE);
+    long indexOffset = this.file.readLong();
+    if (this.file.readInt() != COLUMNAR_ARCHIVE_MAGIC || indexOffset < 0
+        || indexOffset >= length - TRAILER_SIZE) {
+      return false;
+    }
+    this.file.seek(indexOffset);
+    DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new RandomAccessFileInputStream(this.file), 32768));
+    if (in.readByte() != INDEX_TOKEN) {
+      return false;
+    }
+    int typeCount = in.readInt();
+    for (int i = 0; i < typeCount; i++) {
+      readResourceType(in);
+    }
+    int instanceCount = in.readInt();
+    for (int i = 0; i < instanceCount; i++) {
+      readResourceInstance(in);
+    }
+    int blockCount = in.readInt();
+    for (int i = 0; i < blockCount; i++) {
+      this.blocks.add(new BlockInfo(in.readLong(), in.readLong(), in.readLong()));
+    }
+    return true;
+  }
+
+  /**
+   * Reads the records of an archive without an index, stopping at the first incomplete one.
+   */
+  private void scanRecords(long offset) throws IOException {
+    this.types.clear();
+    this.instances.clear();
+    this.blocks.clear();
+    this.file.seek(offset);
+    DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new RandomAccessFileInputStream(this.file), 32768));
+    long length = this.file.length();
+    try {
+      while (offset < length) {
+        byte token = in.readByte();
+        switch (token) {
+          case COLUMNAR_RESOURCE_TYPE_TOKEN:
+            readResourceType(in);
+            break;
+          case COLUMNAR_RESOURCE_INSTANCE_TOKEN:
+            readResourceInstance(in);
+            break;
+          case BLOCK_TOKEN:
+            int bodyLength = in.readInt();
+            if (offset + 1 + 4 + bodyLength > length) {
+              return;
+            }
+            long firstMillis = in.readLong();
+            long lastMillis = in.readLong();
+            in.skipBytes(bodyLength - 16);
+            this.blocks.add(new BlockInfo(offset, firstMillis, lastMillis));
+            offset += 1 + 4 + bodyLength;
+            continue;
+          default:
+            // the index, or garbage left by a crash
+            return;
+        }
+        offset = this.file.getFilePointer() - in.available();
+      }
+    } catch (EOFException ignore) {
+      // the archive was not closed, so its last record may be incomplete
+    }
+  }
+
+  private void readResourceType(DataInput in) throws IOException {
+    int id = in.readInt();
+    String name = in.readUTF();
+    String description = in.readUTF();
+    int statCount = in.readUnsignedShort();
+    StatInfo[] stats = new StatInfo[statCount];
+    for (int i = 0; i < statCount; i++) {
+      String statName = in.readUTF();
+      byte typeCode = in.readByte();
+      boolean isCounter = in.readBoolean();
+      boolean largerBetter = in.readBoolean();
+      String units = in.readUTF();
+      String statDescription = in.readUTF();
+      stats[i] =
+          new StatInfo(i, statName, typeCode, isCounter, largerBetter, units, statDescription);
+    }
+    this.types.put(id, new TypeInfo(id, name, description, stats));
+  }
+
+  private void readResourceInstance(DataInput in) throws IOException {
+    int id = in.readInt();
+    String textId = in.readUTF();
+    long numericId = in.readLong();
+    int typeId = in.readInt();
+    TypeInfo type = this.types.get(typeId);
+    if (type == null) {
+      throw new GemFireIOException(String.format(
+          "ResourceType is missing for resourceTypeId %s", typeId), null);
+    }
+    this.instances.put(id, new InstanceInfo(id, textId, numericId, type));
+  }
+
+  public File getArchiveName() {
+    return this.archiveName;
+  }
+
+  /**
+   * Returns the time, in milliseconds since the epoch, the archive was created.
+   */
+  public long getStartTimeStamp() {
+    return this.startTimeStamp;
+  }
+
+  public long getSystemId() {
+    return this.systemId;
+  }
+
+  public long getSystemStartTimeStamp() {
+    return this.systemStartTimeStamp;
+  }
+
+  public int getTimeZoneOffset() {
+    return this.timeZoneOffset;
+  }
+
+  public String getTimeZoneName() {
+    return this.timeZoneName;
+  }
+
+  public String getSystemDirectory() {
+    return this.systemDirectory;
+  }
+
+  public String getProductVersion() {
+    return this.productVersion;
+  }
+
+  public String getOSInfo() {
+    return this.osInfo;
+  }
+
+  public String getMachineInfo() {
+    return this.machineInfo;
+  }
+
+  public Collection<TypeInfo> getTypes() {
+    return Collections.unmodifiableCollection(this.types.values());
+  }
+
+  public Collection<InstanceInfo> getInstances() {
+    return Collections.unmodifiableCollection(this.instances.values());
+  }
+
+  public int getBlockCount() {
+    return this.blocks.size();
+  }
+
+  /**
+   * Returns the time of the first sample in the archive, or zero if it has none.
+   */
+  public long getFirstSampleTime() {
+    return this.blocks.isEmpty() ? 0 : this.blocks.get(0).firstMillis;
+  }
+
+  /**
+   * Returns the time of the last sample in the archive, or zero if it has none.
+   */
+  public long getLastSampleTime() {
+    return this.blocks.isEmpty() ? 0 : this.blocks.get(this.blocks.size() - 1).lastMillis;
+  }
+
+  /**
+   * Reads the values of one statistic of a resource instance sampled in the given time range.
+   *
+   * @param startMillis the earliest sample time to include, in milliseconds since the epoch
+   * @param endMillis the latest sample time to include, in milliseconds since the epoch
+   * @throws IllegalArgumentException if the type of the instance has no such statistic
+   */
+  public Series readSeries(InstanceInfo instance, String statName, long startMillis,
+      long endMillis) throws IOException {
+    StatInfo stat = instance.getType().getStat(statName);
+    if (stat == null) {
+      throw new IllegalArgumentException(String.format("Statistic %s not found in type %s",
+          statName, instance.getType().getName()));
+    }
+    SeriesBuilder builder = new SeriesBuilder();
+    for (BlockInfo block : this.blocks) {
+      if (block.lastMillis < startMillis || block.firstMillis > endMillis) {
+        continue;
+      }
+      readBlockSeries(block, instance.getId(), stat, startMillis, endMillis, builder);
+    }
+    return builder.build();
+  }
+
+  private void readBlockSeries(BlockInfo block, int instanceId, StatInfo stat, long startMillis,
+      long endMillis, SeriesBuilder builder) throws IOException {
+    // skip the token, body length and block times
+    this.file.seek(block.offset + 1 + 4 + 8 + 8);
+    this.file.readInt(); // sample count
+    int entryCount = this.file.readInt();
+    long directoryOffset = this.file.getFilePointer();
+    long dataOffset = directoryOffset + (long) entryCount * COLUMN_ENTRY_SIZE;
+
+    ColumnEntry timeStampEntry = findColumn(directoryOffset, entryCount,
+        TIMESTAMP_COLUMN_INSTANCE, TIMESTAMP_COLUMN);
+    ColumnEntry statEntry = findColumn(directoryOffset, entryCount, instanceId, stat.getOffset());
+    if (timeStampEntry == null || statEntry == null) {
+      return;
+    }
+    long[] timeStamps = readColumn(dataOffset, timeStampEntry, false);
+    long[] values =
+        readColumn(dataOffset, statEntry, ColumnarStatColumn.isFloatingPoint(stat.getTypeCode()));
+    for (int i = 0; i < values.length; i++) {
+      long time = timeStamps[statEntry.firstSample + i];
+      if (time >= startMillis && time <= endMillis) {
+        builder.add(time, StatArchiveReader.bitsToDouble(stat.getTypeCode(), values[i]));
+      }
+    }
+  }
+
+  /**
+   * Binary searches the block directory for the column of a statistic.
+   */
+  private ColumnEntry findColumn(long directoryOffset, int entryCount, int instanceId,
+      int statOffset) throws IOException {
+    int low = 0;
+    int high = entryCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      this.file.seek(directoryOffset + (long) mid * COLUMN_ENTRY_SIZE);
+      int entryInstanceId = this.file.readInt();
+      int entryStatOffset = this.file.readUnsignedShort();
+      int compare = entryInstanceId != instanceId ? Integer.compare(entryInstanceId, instanceId)
+          : Integer.compare(entryStatOffset, statOffset);
+      if (compare < 0) {
+        low = mid + 1;
+      } else if (compare > 0) {
+        high = mid - 1;
+      } else {
+        return new ColumnEntry(this.file.readInt(), this.file.readInt(), this.file.readInt(),
+            this.file.readInt());
+      }
+    }
+    return null;
+  }
+
+  private long[] readColumn(long dataOffset, ColumnEntry entry, boolean xor) throws IOException {
+    byte[] compressed = new byte[entry.length];
+    this.file.seek(dataOffset + entry.offset);
+    this.file.readFully(compressed);
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      // each value takes at most ten bytes
+      byte[] data = new byte[Math.max(1, entry.count * 10)];
+      int size = 0;
+      while (!inflater.finished() && size < data.length) {
+        int n = inflater.inflate(data, size, data.length - size);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        size += n;
+      }
+      return ColumnarStatColumn.decode(data, entry.count, xor);
+    } catch (DataFormatException ex) {
+      throw new GemFireIOException(
+          String.format("Corrupt column in statistic archive %s", this.archiveName), ex);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.file.close();
+  }
+
+  /**
+   * A resource type defined in the archive.
+   */
+  public static class TypeInfo {
+    private final int id;
+    private final String name;
+    private final String description;
+    private final StatInfo[] stats;
+
+    TypeInfo(int id, String name, String description, StatInfo[] stats) {
+      this.id = id;
+      this.name = name;
+      this.description = description;
+      this.stats = stats;
+    }
+
+    public int getId() {
+      return this.id;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public String getDescription() {
+      return this.description;
+    }
+
+    public StatInfo[] getStats() {
+      return this.stats;
+    }
+
+    public StatInfo getStat(String statName) {
+      for (StatInfo stat : this.stats) {
+        if (stat.getName().equals(statName)) {
+          return stat;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * A statistic of a resource type defined in the archive.
+   */
+  public static class StatInfo {
+    private final int offset;
+    private final String name;
+    private final byte typeCode;
+    private final boolean isCounter;
+    private final boolean largerBetter;
+    private final String units;
+    private final String description;
+
+    StatInfo(int offset, String name, byte typeCode, boolean isCounter, boolean largerBetter,
+        String units, String description) {
+      this.offset = offset;
+      this.name = name;
+      this.typeCode = typeCode;
+      this.isCounter = isCounter;
+      this.largerBetter = largerBetter;
+      this.units = units;
+      this.description = description;
+    }
+
+    public int getOffset() {
+      return this.offset;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public byte getTypeCode() {
+      return this.typeCode;
+    }
+
+    public boolean isCounter() {
+      return this.isCounter;
+    }
+
+    public boolean isLargerBetter() {
+      return this.largerBetter;
+    }
+
+    public String getUnits() {
+      return this.units;
+    }
+
+    public String getDescription() {
+      return this.description;
+    }
+  }
+
+  /**
+   * A resource instance defined in the archive.
+   */
+  public static class InstanceInfo {
+    private final int id;
+    private final String name;
+    private final long numericId;
+    private final TypeInfo type;
+
+    InstanceInfo(int id, String name, long numericId, TypeInfo type) {
+      this.id = id;
+      this.name = name;
+      this.numericId = numericId;
+      this.type = type;
+    }
+
+    public int getId() {
+      return this.id;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public long getNumericId() {
+      return this.numericId;
+    }
+
+    public TypeInfo getType() {
+      return this.type;
+    }
+
+    @Override
+    public String toString() {
+      return this.type.getName() + ":" + this.name + "(" + this.numericId + ")";
+    }
+  }
+
+  /**
+   * The values of a statistic read from the archive and the times they were sampled at.
+   */
+  public static class Series {
+    private final long[] timeStamps;
+    private final double[] values;
+
+    Series(long[] timeStamps, double[] values) {
+      this.timeStamps = timeStamps;
+      this.values = values;
+    }
+
+    public int size() {
+      return this.values.length;
+    }
+
+    /**
+     * Returns the sample times in milliseconds since the epoch.
+     */
+    public long[] getTimeStamps() {
+      return this.timeStamps;
+    }
+
+    public double[] getValues() {
+      return this.values;
+    }
+  }
+
+  private static class SeriesBuilder {
+    private long[] timeStamps = new long[64];
+    private double[] values = new double[64];
+    private int size;
+
+    void add(long timeStamp, double value) {
+      if (this.size == this.values.length) {
+        this.timeStamps = Arrays.copyOf(this.timeStamps, this.size * 2);
+        this.values = Arrays.copyOf(this.values, this.size * 2);
+      }
+      this.timeStamps[this.size] = timeStamp;
+      this.values[this.size] = value;
+      this.size++;
+    }
+
+    Series build() {
+      return new Series(Arrays.copyOf(this.timeStamps, this.size),
+          Arrays.copyOf(this.values, this.size));
+    }
+  }
+
+  private static class BlockInfo {
+    private final long offset;
+    private final long firstMillis;
+    private final long lastMillis;
+
+    BlockInfo(long offset, long firstMillis, long lastMillis) {
+      this.offset = offset;
+      this.firstMillis = firstMillis;
+      this.lastMillis = lastMillis;
+    }
+  }
+
+  private static class ColumnEntry {
+    private final int firstSample;
+    private final int count;
+    private final int offset;
+    private final int length;
+
+    ColumnEntry(int firstSample, int count, int offset, int length) {
+      this.firstSample = firstSample;
+      this.count = count;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Reads a RandomAccessFile from its current position without moving a separate stream.
+   */
+  private static class RandomAccessFileInputStream extends InputStream {
+    private final RandomAccessFile file;
+
+    RandomAccessFileInputStream(RandomAccessFile file) {
+      this.file = file;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return this.file.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return this.file.read(b, off, len);
+    }
+  }
+}
@@ -0,0 +1,477 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.GemFireIOException;
+import org.apache.geode.InternalGemFireException;
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.NanoTimer;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.logging.internal.log4j.api.LogService;
+
+/**
+ * Writes statistic samples to an archive in the {@link ColumnarStatArchiveFormat}. Samples are
+ * collected in memory, one delta encoded column per statistic, until a block of
+ * {@link #BLOCK_SAMPLES_PROPERTY} samples is full. The block is then written with each column
+ * compressed on its own.
+ *
+ * @since Geode 1.12
+ */
+public class ColumnarStatArchiveWriter implements ColumnarStatArchiveFormat, StatArchiver {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The number of samples in each block. With the default sample rate of one second, a block holds
+   * five minutes of samples by default.
+   */
+  public static final String BLOCK_SAMPLES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "stats.columnar.blockSamples";
+
+  static final int DEFAULT_BLOCK_SAMPLES = 300;
+
+  private final StatArchiveDescriptor archiveDescriptor;
+  private final int blockSamples;
+  private final CountingOutputStream outStream;
+  private final DataOutputStream dataOut;
+  private final Deflater deflater = new Deflater();
+  private final byte[] deflateBuffer = new byte[8192];
+
+  private long initialDate;
+  private long initialMillisTimeStamp;
+  private long previousMillisTimeStamp;
+  private int sampleCount;
+
+  private final List<ResourceType> types = new ArrayList<>();
+  private final Map<Integer, ResourceInstance> instances = new LinkedHashMap<>();
+  private final Set<Integer> liveInstanceIds = new HashSet<>();
+  private final List<long[]> blocks = new ArrayList<>();
+
+  private ColumnarStatColumn blockTimeStamps;
+  private final Map<Integer, InstanceColumns> blockColumns = new TreeMap<>();
+  private int blockSampleCount;
+  private long blockFirstMillis;
+  private long blockLastMillis;
+
+  /**
+   * Opens a ColumnarStatArchiveWriter that will archive to the specified file.
+   *
+   * @throws GemFireIOException if <code>archiveName</code> can not be written to
+   */
+  public ColumnarStatArchiveWriter(StatArchiveDescriptor archiveDescriptor) {
+    this(archiveDescriptor, Integer.getInteger(BLOCK_SAMPLES_PROPERTY, DEFAULT_BLOCK_SAMPLES));
+  }
+
+  ColumnarStatArchiveWriter(StatArchiveDescriptor archiveDescriptor, int blockSamples) {
+    this.archiveDescriptor = archiveDescriptor;
+    this.blockSamples = Math.max(1, blockSamples);
+    try {
+      this.outStream = new CountingOutputStream(new BufferedOutputStream(
+          new FileOutputStream(archiveDescriptor.getArchiveName()), 32768));
+    } catch (IOException ex) {
+      throw new GemFireIOException(String.format("Could not open %s",
+          archiveDescriptor.getArchiveName()), ex);
+    }
+    this.dataOut = new DataOutputStream(this.outStream);
+    this.blockTimeStamps = new ColumnarStatColumn(false);
+  }
+
+  @Override
+  public String getArchiveName() {
+    return this.archiveDescriptor.getArchiveName();
+  }
+
+  @Override
+  public void initialize(long nanosTimeStamp) {
+    this.initialMillisTimeStamp = NanoTimer.nanosToMillis(nanosTimeStamp);
+    this.previousMillisTimeStamp = this.initialMillisTimeStamp;
+    this.initialDate = initInitialDate();
+    writeHeader();
+  }
+
+  protected long initInitialDate() {
+    return System.currentTimeMillis();
+  }
+
+  protected TimeZone getTimeZone() {
+    return Calendar.getInstance().getTimeZone();
+  }
+
+  protected String getOSInfo() {
+    return System.getProperty("os.name") + " " + System.getProperty("os.version");
+  }
+
+  protected String getMachineInfo() {
+    String machineInfo = System.getProperty("os.arch");
+    try {
+      String hostName = SocketCreator.getHostName(SocketCreator.getLocalHost());
+      machineInfo += " " + hostName;
+    } catch (UnknownHostException ignore) {
+    }
+    return machineInfo;
+  }
+
+  private void writeHeader() {
+    try {
+      this.dataOut.writeInt(COLUMNAR_ARCHIVE_MAGIC);
+      this.dataOut.writeByte(COLUMNAR_ARCHIVE_VERSION);
+      this.dataOut.writeLong(this.initialDate);
+      this.dataOut.writeLong(this.archiveDescriptor.getSystemId());
+      this.dataOut.writeLong(this.archiveDescriptor.getSystemStartTime());
+      TimeZone timeZone = getTimeZone();
+      this.dataOut.writeInt(timeZone.getRawOffset());
+      this.dataOut.writeUTF(timeZone.getID());
+      this.dataOut.writeUTF(this.archiveDescriptor.getSystemDirectoryPath());
+      this.dataOut.writeUTF(this.archiveDescriptor.getProductDescription());
+      this.dataOut.writeUTF(getOSInfo());
+      this.dataOut.writeUTF(getMachineInfo());
+    } catch (IOException ex) {
+      throw new GemFireIOException("Failed writing header to statistic archive", ex);
+    }
+  }
+
+  @Override
+  public void allocatedResourceType(ResourceType resourceType) {
+    if (logger.isTraceEnabled(LogMarker.STATISTICS_VERBOSE)) {
+      logger.trace(LogMarker.STATISTICS_VERBOSE,
+          "ColumnarStatArchiveWriter#allocatedResourceType resourceType={}", resourceType);
+    }
+    if (resourceType.getStatisticDescriptors().length >= TIMESTAMP_COLUMN) {
+      throw new InternalGemFireException(
+          String.format("Could not archive type %s because it had more than %s statistics.",
+              resourceType.getStatisticsType().getName(), TIMESTAMP_COLUMN - 1));
+    }
+    try {
+      this.dataOut.writeByte(COLUMNAR_RESOURCE_TYPE_TOKEN);
+      writeResourceType(resourceType, this.dataOut);
+    } catch (IOException ex) {
+      throw new GemFireIOException("Failed writing new resource type to statistic archive", ex);
+    }
+    this.types.add(resourceType);
+  }
+
+  private static void writeResourceType(ResourceType resourceType, DataOutput out)
+      throws IOException {
+    out.writeInt(resourceType.getId());
+    out.writeUTF(resourceType.getStatisticsType().getName());
+    out.writeUTF(resourceType.getStatisticsType().getDescription());
+    StatisticDescriptor[] stats = resourceType.getStatisticDescriptors();
+    out.writeShort(stats.length);
+    for (StatisticDescriptor stat : stats) {
+      out.writeUTF(stat.getName());
+      out.writeByte(((StatisticDescriptorImpl) stat).getTypeCode());
+      out.writeBoolean(stat.isCounter());
+      out.writeBoolean(stat.isLargerBetter());
+      out.writeUTF(stat.getUnit());
+      out.writeUTF(stat.getDescription());
+    }
+  }
+
+  @Override
+  public void allocatedResourceInstance(ResourceInstance resourceInstance) {
+    if (logger.isTraceEnabled(LogMarker.STATISTICS_VERBOSE)) {
+      logger.trace(LogMarker.STATISTICS_VERBOSE,
+          "ColumnarStatArchiveWriter#allocatedResourceInstance resourceInstance={}",
+          resourceInstance);
+    }
+    if (resourceInstance.getStatistics().isClosed()) {
+      return;
+    }
+    try {
+      this.dataOut.writeByte(COLUMNAR_RESOURCE_INSTANCE_TOKEN);
+      writeResourceInstance(resourceInstance, this.dataOut);
+    } catch (IOException ex) {
+      throw new GemFireIOException("Failed writing new resource instance to statistic archive",
+          ex);
+    }
+    this.instances.put(resourceInstance.getId(), resourceInstance);
+    this.liveInstanceIds.add(resourceInstance.getId());
+  }
+
+  private static void writeResourceInstance(ResourceInstance resourceInstance, DataOutput out)
+      throws IOException {
+    out.writeInt(resourceInstance.getId());
+    out.writeUTF(resourceInstance.getStatistics().getTextId());
+    out.writeLong(resourceInstance.getStatistics().getNumericId());
+    out.writeInt(resourceInstance.getResourceType().getId());
+  }
+
+  @Override
+  public void destroyedResourceInstance(ResourceInstance resourceInstance) {
+    // columns already collected for the instance are still written with the current block
+    this.liveInstanceIds.remove(resourceInstance.getId());
+  }
+
+  @Override
+  public void sampled(long nanosTimeStamp, List<ResourceInstance> resourceInstances) {
+    if (logger.isTraceEnabled(LogMarker.STATISTICS_VERBOSE)) {
+      logger.trace(LogMarker.STATISTICS_VERBOSE,
+          "ColumnarStatArchiveWriter#sampled nanosTimeStamp={}, resourceInstances={}",
+          nanosTimeStamp, resourceInstances);
+    }
+    long millisTimeStamp = NanoTimer.nanosToMillis(nanosTimeStamp);
+    StatArchiveWriter.calcDelta(this.previousMillisTimeStamp, millisTimeStamp);
+    this.previousMillisTimeStamp = millisTimeStamp;
+    long time = this.initialDate + (millisTimeStamp - this.initialMillisTimeStamp);
+
+    if (this.blockSampleCount == 0) {
+      this.blockFirstMillis = time;
+    }
+    this.blockLastMillis = time;
+    this.blockTimeStamps.append(time);
+    for (ResourceInstance ri : resourceInstances) {
+      if (!this.liveInstanceIds.contains(ri.getId()) || ri.getStatistics().isClosed()) {
+        continue;
+      }
+      long[] values = ri.getLatestStatValues();
+      if (values == null) {
+        continue;
+      }
+      InstanceColumns columns = this.blockColumns.get(ri.getId());
+      if (columns == null) {
+        columns = new InstanceColumns(ri, this.blockSampleCount);
+        this.blockColumns.put(ri.getId(), columns);
+      }
+      columns.append(values, this.blockSampleCount);
+    }
+    this.blockSampleCount++;
+    if (this.blockSampleCount >= this.blockSamples) {
+      try {
+        writeBlock();
+      } catch (IOException ex) {
+        throw new GemFireIOException("Failed writing sample to statistic archive", ex);
+      }
+    }
+    this.sampleCount++; // only inc after sample done w/o an exception thrown
+  }
+
+  /**
+   * Writes the samples collected so far as a block and starts a new one.
+   */
+  private void writeBlock() throws IOException {
+    List<int[]> directory = new ArrayList<>();
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    directory.add(compressColumn(TIMESTAMP_COLUMN_INSTANCE, TIMESTAMP_COLUMN, 0,
+        this.blockTimeStamps, data));
+    for (InstanceColumns columns : this.blockColumns.values()) {
+      for (int i = 0; i < columns.columns.length; i++) {
+        directory.add(compressColumn(columns.instanceId, i, columns.firstSample,
+            columns.columns[i], data));
+      }
+    }
+
+    long offset = this.outStream.getBytesWritten();
+    int bodyLength = 8 + 8 + 4 + 4 + directory.size() * COLUMN_ENTRY_SIZE + data.size();
+    this.dataOut.writeByte(BLOCK_TOKEN);
+    this.dataOut.writeInt(bodyLength);
+    this.dataOut.writeLong(this.blockFirstMillis);
+    this.dataOut.writeLong(this.blockLastMillis);
+    this.dataOut.writeInt(this.blockSampleCount);
+    this.dataOut.writeInt(directory.size());
+    for (int[] entry : directory) {
+      this.dataOut.writeInt(entry[0]);
+      this.dataOut.writeShort(entry[1]);
+      this.dataOut.writeInt(entry[2]);
+      this.dataOut.writeInt(entry[3]);
+      this.dataOut.writeInt(entry[4]);
+      this.dataOut.writeInt(entry[5]);
+    }
+    data.writeTo(this.dataOut);
+    this.dataOut.flush();
+    this.blocks.add(new long[] {offset, this.blockFirstMillis, this.blockLastMillis});
+
+    this.blockTimeStamps = new ColumnarStatColumn(false);
+    this.blockColumns.clear();
+    this.blockSampleCount = 0;
+  }
+
+  /**
+   * Compresses a column into the data of a block.
+   *
+   * @return the directory entry of the column
+   */
+  private int[] compressColumn(int instanceId, int statOffset, int firstSample,
+      ColumnarStatColumn column, ByteArrayOutputStream data) {
+    int dataOffset = data.size();
+    this.deflater.reset();
+    this.deflater.setInput(column.getBytes(), 0, column.getSize());
+    this.deflater.finish();
+    while (!this.deflater.finished()) {
+      int length = this.deflater.deflate(this.deflateBuffer);
+      data.write(this.deflateBuffer, 0, length);
+    }
+    return new int[] {instanceId, statOffset, firstSample, column.getCount(), dataOffset,
+        data.size() - dataOffset};
+  }
+
+  /**
+   * Writes the index of all types, instances and blocks, followed by the trailer.
+   */
+  private void writeIndex() throws IOException {
+    long indexOffset = this.outStream.getBytesWritten();
+    this.dataOut.writeByte(INDEX_TOKEN);
+    this.dataOut.writeInt(this.types.size());
+    for (ResourceType type : this.types) {
+      writeResourceType(type, this.dataOut);
+    }
+    this.dataOut.writeInt(this.instances.size());
+    for (ResourceInstance instance : this.instances.values()) {
+      writeResourceInstance(instance, this.dataOut);
+    }
+    this.dataOut.writeInt(this.blocks.size());
+    for (long[] block : this.blocks) {
+      this.dataOut.writeLong(block[0]);
+      this.dataOut.writeLong(block[1]);
+      this.dataOut.writeLong(block[2]);
+    }
+    this.dataOut.writeLong(indexOffset);
+    this.dataOut.writeInt(COLUMNAR_ARCHIVE_MAGIC);
+  }
+
+  /**
+   * Writes any samples not yet written and the index, and closes the archive file.
+   *
+   * @throws GemFireIOException if the archive file could not be closed.
+   */
+  @Override
+  public void close() {
+    try {
+      if (this.blockSampleCount > 0) {
+        writeBlock();
+      }
+      writeIndex();
+      this.dataOut.flush();
+    } catch (IOException ignore) {
+    } finally {
+      this.deflater.end();
+    }
+    try {
+      this.outStream.close();
+    } catch (IOException ex) {
+      throw new GemFireIOException("Could not close statArchiver file", ex);
+    }
+    if (getSampleCount() == 0) {
+      // If we are closing an empty file go ahead and delete it.
+      deleteFileIfPossible(new File(getArchiveName()));
+    }
+  }
+
+  @edu.umd.cs.findbugs.annotations.SuppressWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE",
+      justification = "Best effort attempt to delete a GFSC file without any samples.")
+  private static void deleteFileIfPossible(File file) {
+    file.delete();
+  }
+
+  /**
+   * Returns the number of bytes written so far to this archive, not counting the samples of the
+   * block being collected.
+   */
+  @Override
+  public long bytesWritten() {
+    return this.outStream.getBytesWritten();
+  }
+
+  @Override
+  public int getSampleCount() {
+    return this.sampleCount;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getName() + "@" + System.identityHashCode(this) + "{archiveName="
+        + this.archiveDescriptor.getArchiveName() + ", blockSamples=" + this.blockSamples
+        + ", sampleCount=" + this.sampleCount + "}";
+  }
+
+  /**
+   * The columns of the statistics of one resource instance in the current block.
+   */
+  private static class InstanceColumns {
+    private final int instanceId;
+    private final int firstSample;
+    private final ColumnarStatColumn[] columns;
+
+    InstanceColumns(ResourceInstance ri, int firstSample) {
+      this.instanceId = ri.getId();
+      this.firstSample = firstSample;
+      StatisticDescriptor[] stats = ri.getResourceType().getStatisticDescriptors();
+      this.columns = new ColumnarStatColumn[stats.length];
+      for (int i = 0; i < stats.length; i++) {
+        this.columns[i] = new ColumnarStatColumn(ColumnarStatColumn
+            .isFloatingPoint(((StatisticDescriptorImpl) stats[i]).getTypeCode()));
+      }
+    }
+
+    void append(long[] values, int sample) {
+      // repeat the previous values for any samples the instance missed, so rows stay aligned
+      int missed = sample - (this.firstSample + this.columns[0].getCount());
+      for (int i = 0; i < this.columns.length; i++) {
+        for (int j = 0; j < missed; j++) {
+          this.columns[i].repeat();
+        }
+        this.columns[i].append(values[i]);
+      }
+    }
+  }
+
+  private static class CountingOutputStream extends FilterOutputStream {
+    private long bytesWritten;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    long getBytesWritten() {
+      return this.bytesWritten;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      this.out.write(b);
+      this.bytesWritten++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      this.out.write(b, off, len);
+      this.bytesWritten += len;
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+import java.util.Arrays;
+
+/**
+ * A column of statistic values, or of sample timestamps, being encoded for a
+ * {@link ColumnarStatArchiveWriter} block. Each value is stored as the zigzag variable length
+ * encoding of its difference from the previous value, or for floating point statistics of the
+ * exclusive or of its bits with those of the previous value, so that unchanged values take a
+ * single zero byte and compress well.
+ *
+ * @since Geode 1.12
+ */
+class ColumnarStatColumn {
+  private final boolean xor;
+  private byte[] bytes = new byte[16];
+  private int size;
+  private long previous;
+  private int count;
+
+  /**
+   * @param xor true to encode the bits of floating point values, false to encode differences
+   */
+  ColumnarStatColumn(boolean xor) {
+    this.xor = xor;
+  }
+
+  static boolean isFloatingPoint(byte typeCode) {
+    return typeCode == StatArchiveFormat.FLOAT_CODE || typeCode == StatArchiveFormat.DOUBLE_CODE;
+  }
+
+  void append(long value) {
+    long encoded = this.xor ? value ^ this.previous : value - this.previous;
+    this.previous = value;
+    this.count++;
+    long v = (encoded << 1) ^ (encoded >> 63);
+    ensureCapacity(10);
+    while ((v & ~0x7FL) != 0) {
+      this.bytes[this.size++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    this.bytes[this.size++] = (byte) v;
+  }
+
+  /**
+   * Appends the previous value again, or zero if the column is empty.
+   */
+  void repeat() {
+    append(this.previous);
+  }
+
+  private void ensureCapacity(int needed) {
+    if (this.size + needed > this.bytes.length) {
+      this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + needed));
+    }
+  }
+
+  byte[] getBytes() {
+    return this.bytes;
+  }
+
+  int getSize() {
+    return this.size;
+  }
+
+  int getCount() {
+    return this.count;
+  }
+
+  /**
+   * Decodes the given number of values of a column.
+   */
+  static long[] decode(byte[] data, int count, boolean xor) {
+    long[] values = new long[count];
+    long previous = 0;
+    int pos = 0;
+    for (int i = 0; i < count; i++) {
+      long v = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = data[pos++];
+        v |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      long encoded = (v >>> 1) ^ -(v & 1);
+      previous = xor ? previous ^ encoded : previous + encoded;
+      values[i] = previous;
+    }
+    return values;
+  }
+}
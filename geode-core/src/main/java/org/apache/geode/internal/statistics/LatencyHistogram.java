@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records non-negative values, such as latencies in nanoseconds, into a fixed number of buckets
+ * whose width grows with the value, in the manner of an HDR histogram. Each power of two range is
+ * split into {@link #SUB_BUCKET_HALF_COUNT} linear buckets, so any value up to
+ * {@link Long#MAX_VALUE} is recorded with a relative error of at most 1/32 in
+ * {@link #BUCKET_COUNT} counters.
+ *
+ * <p>
+ * Recording is lock-free. Percentiles are read from a {@link Snapshot} of the counts, either of
+ * everything recorded so far or, through an {@link IntervalReader}, of what was recorded since that
+ * reader's previous snapshot.
+ *
+ * @since Geode 1.12
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+  static final int BUCKET_COUNT =
+      ((Long.SIZE - 1 - SUB_BUCKET_BITS) << (SUB_BUCKET_BITS - 1)) + SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /**
+   * Records the given value. Negative values, which a non-monotonic clock can produce, are recorded
+   * as zero.
+   */
+  public void record(long value) {
+    this.counts.incrementAndGet(indexOf(value));
+  }
+
+  /**
+   * Returns a snapshot of all the values recorded so far.
+   */
+  public Snapshot snapshot() {
+    long[] result = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      result[i] = this.counts.get(i);
+    }
+    return new Snapshot(result);
+  }
+
+  /**
+   * Returns a new reader of the values recorded between its snapshots. Each consumer of interval
+   * percentiles needs a reader of its own.
+   */
+  public IntervalReader newIntervalReader() {
+    return new IntervalReader();
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return value <= 0 ? 0 : (int) value;
+    }
+    int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+  }
+
+  /**
+   * Returns the highest value recorded in the bucket at the given index.
+   */
+  static long highestValueAt(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = (index >> (SUB_BUCKET_BITS - 1)) - 1;
+    long subBucket = index - (shift << (SUB_BUCKET_BITS - 1));
+    long next = (subBucket + 1) << shift;
+    return next < 0 ? Long.MAX_VALUE : next - 1;
+  }
+
+  /**
+   * Takes snapshots of the values recorded since its previous snapshot.
+   */
+  public class IntervalReader {
+    private final long[] previous = new long[BUCKET_COUNT];
+    private Snapshot latest;
+    private long latestTime;
+    private long totalCount;
+
+    private IntervalReader() {
+      // created by newIntervalReader
+    }
+
+    /**
+     * Returns a snapshot of the values recorded since the previous snapshot.
+     */
+    public synchronized Snapshot intervalSnapshot() {
+      long[] result = new long[BUCKET_COUNT];
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        long count = counts.get(i);
+        result[i] = count - this.previous[i];
+        this.previous[i] = count;
+      }
+      this.latest = new Snapshot(result);
+      this.latestTime = System.nanoTime();
+      this.totalCount += this.latest.getTotalCount();
+      return this.latest;
+    }
+
+    /**
+     * Returns the latest snapshot if it was taken less than the given time ago, otherwise takes a
+     * new one. Several gauges polled together use this to share one snapshot.
+     */
+    public synchronized Snapshot latestSnapshot(long maxAgeNanos) {
+      if (this.latest == null || System.nanoTime() - this.latestTime > maxAgeNanos) {
+        return intervalSnapshot();
+      }
+      return this.latest;
+    }
+
+    /**
+     * Returns the number of values in all the snapshots taken by this reader.
+     */
+    public synchronized long getTotalCount() {
+      return this.totalCount;
+    }
+  }
+
+  /**
+   * The bucket counts of a histogram at some point in time.
+   */
+  public static class Snapshot {
+    private final long[] counts;
+    private final long totalCount;
+
+    Snapshot(long[] counts) {
+      this.counts = counts;
+      long total = 0;
+      for (long count : counts) {
+        total += count;
+      }
+      this.totalCount = total;
+    }
+
+    public long getTotalCount() {
+      return this.totalCount;
+    }
+
+    /**
+     * Returns a snapshot of the values recorded between the given earlier snapshot of the same
+     * histogram and this one.
+     */
+    public Snapshot since(Snapshot earlier) {
+      long[] result = new long[this.counts.length];
+      for (int i = 0; i < this.counts.length; i++) {
+        result[i] = this.counts[i] - earlier.counts[i];
+      }
+      return new Snapshot(result);
+    }
+
+    /**
+     * Returns the highest value of the bucket holding the largest recorded value, or zero if nothing
+     * was recorded.
+     */
+    public long getMaxValue() {
+      for (int i = this.counts.length - 1; i >= 0; i--) {
+        if (this.counts[i] != 0) {
+          return highestValueAt(i);
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * Returns the value that the given percentage of recorded values are less than or equal to,
+     * within the precision of the buckets, or zero if nothing was recorded.
+     *
+     * @param percentile a percentage between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile) {
+      if (this.totalCount == 0) {
+        return 0;
+      }
+      double fraction = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+      long countAtPercentile = Math.max(1, (long) Math.ceil(fraction * this.totalCount));
+      long seen = 0;
+      for (int i = 0; i < this.counts.length; i++) {
+        seen += this.counts[i];
+        if (seen >= countAtPercentile) {
+          return highestValueAt(i);
+        }
+      }
+      return getMaxValue();
+    }
+  }
+}
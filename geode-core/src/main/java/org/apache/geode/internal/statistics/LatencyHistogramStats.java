@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+
+/**
+ * Publishes the percentiles of a {@link LatencyHistogram} as statistics of type
+ * "LatencyHistogram". The percentiles are those of the latencies recorded during the last sample
+ * interval. They are computed by statistic suppliers when the statistics are sampled, so they are
+ * archived and read back like any other gauge, and recording a latency never touches the
+ * statistics.
+ *
+ * @since Geode 1.12
+ */
+public class LatencyHistogramStats {
+  static final String OPERATIONS = "operations";
+  static final String INTERVAL_OPERATIONS = "intervalOperations";
+  static final String P50 = "p50";
+  static final String P90 = "p90";
+  static final String P99 = "p99";
+  static final String P999 = "p999";
+  static final String MAX = "max";
+
+  /**
+   * The suppliers of one sample all run within this time, so they share one interval snapshot.
+   */
+  static final long SNAPSHOT_MAX_AGE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+  private final LatencyHistogram.IntervalReader intervalReader = histogram.newIntervalReader();
+  private final Statistics statistics;
+
+  /**
+   * @param textId identifies the latencies recorded, for example "gets"
+   */
+  public LatencyHistogramStats(StatisticsFactory factory, String textId) {
+    StatisticsType type = createType(factory);
+    this.statistics = factory.createAtomicStatistics(type, textId);
+    this.statistics.setLongSupplier(OPERATIONS, () -> {
+      intervalReader.latestSnapshot(SNAPSHOT_MAX_AGE_NANOS);
+      return intervalReader.getTotalCount();
+    });
+    setPercentileSupplier(INTERVAL_OPERATIONS, LatencyHistogram.Snapshot::getTotalCount);
+    setPercentileSupplier(P50, snapshot -> snapshot.getValueAtPercentile(50.0));
+    setPercentileSupplier(P90, snapshot -> snapshot.getValueAtPercentile(90.0));
+    setPercentileSupplier(P99, snapshot -> snapshot.getValueAtPercentile(99.0));
+    setPercentileSupplier(P999, snapshot -> snapshot.getValueAtPercentile(99.9));
+    setPercentileSupplier(MAX, LatencyHistogram.Snapshot::getMaxValue);
+  }
+
+  private static StatisticsType createType(StatisticsFactory f) {
+    final String units = "nanoseconds";
+    return f.createType("LatencyHistogram",
+        "Percentiles of the latencies of an operation during the last sample interval.",
+        new StatisticDescriptor[] {
+            f.createLongCounter(OPERATIONS, "Total number of operations recorded.", "operations"),
+            f.createLongGauge(INTERVAL_OPERATIONS,
+                "Number of operations recorded during the last sample interval.", "operations"),
+            f.createLongGauge(P50, "Median latency during the last sample interval.", units,
+                false),
+            f.createLongGauge(P90, "90th percentile latency during the last sample interval.",
+                units, false),
+            f.createLongGauge(P99, "99th percentile latency during the last sample interval.",
+                units, false),
+            f.createLongGauge(P999, "99.9th percentile latency during the last sample interval.",
+                units, false),
+            f.createLongGauge(MAX, "Maximum latency during the last sample interval.", units,
+                false)});
+  }
+
+  private void setPercentileSupplier(String name, ToLongFunction<LatencyHistogram.Snapshot> f) {
+    this.statistics.setLongSupplier(name,
+        () -> f.applyAsLong(intervalReader.latestSnapshot(SNAPSHOT_MAX_AGE_NANOS)));
+  }
+
+  /**
+   * Records the latency of one operation.
+   */
+  public void record(long nanos) {
+    this.histogram.record(nanos);
+  }
+
+  public LatencyHistogram getHistogram() {
+    return this.histogram;
+  }
+
+  public Statistics getStats() {
+    return this.statistics;
+  }
+
+  public void close() {
+    this.statistics.close();
+  }
+}
@@ -37,7 +37,7 @@ import org.apache.geode.logging.internal.spi.LogFile;
  * <p/>
  * The StatArchiveHandler handles statistics samples by archiving them to a file. This handler
  * provides archive file rolling (file size limit) and removal (disk space limit). This handler
- * creates and uses an instance of {@link StatArchiveWriter} for the currently open archive file
+ * creates and uses an instance of {@link StatArchiver} for the currently open archive file
  * (unless archiving is disabled).
  *
  * @since GemFire 7.0
@@ -61,7 +61,7 @@ public class StatArchiveHandler implements SampleHandler {
   private volatile boolean disabledArchiving = false;
 
   /** The currently open writer/file. Protected by synchronization on this handler instance. */
-  private StatArchiveWriter archiver = null;
+  private StatArchiver archiver = null;
 
   /** Directory to contain archive files. */
   private File archiveDir = null;
@@ -93,7 +93,7 @@ public class StatArchiveHandler implements SampleHandler {
   }
 
   /**
-   * Closes any {@link StatArchiveWriter} currently in use by this handler.
+   * Closes any {@link StatArchiver} currently in use by this handler.
    *
    */
   public void close() throws GemFireException {
@@ -305,7 +305,7 @@ public class StatArchiveHandler implements SampleHandler {
           "StatArchiveHandler#changeArchiveFile newFile={}, nanosTimeStamp={}", newFile,
           nanosTimeStamp);
     }
-    StatArchiveWriter newArchiver = null;
+    StatArchiver newArchiver = null;
     boolean archiveClosed = false;
     if (newFile.getPath().equals("")) {
       // disable archiving
@@ -370,7 +370,7 @@ public class StatArchiveHandler implements SampleHandler {
             .setSystemStartTime(this.config.getSystemStartTime())
             .setSystemDirectoryPath(this.config.getSystemDirectoryPath())
             .setProductDescription(this.config.getProductDescription()).build();
-        newArchiver = new StatArchiveWriter(archiveDescriptor);
+        newArchiver = StatArchiver.create(archiveDescriptor);
         newArchiver.initialize(nanosTimeStamp);
       } catch (GemFireIOException ex) {
         logger.warn(LogMarker.STATISTICS_MARKER,
@@ -48,7 +48,7 @@ import org.apache.geode.logging.internal.log4j.api.LogService;
  * StatArchiveWriter provides APIs to write statistic snapshots to an archive file.
  *
  */
-public class StatArchiveWriter implements StatArchiveFormat, SampleHandler {
+public class StatArchiveWriter implements StatArchiveFormat, StatArchiver {
 
   private static final Logger logger = LogService.getLogger();
 
@@ -115,10 +115,12 @@ public class StatArchiveWriter implements StatArchiveFormat, SampleHandler {
     }
   }
 
+  @Override
   public String getArchiveName() {
     return this.archiveDescriptor.getArchiveName();
   }
 
+  @Override
   public void initialize(long nanosTimeStamp) {
     this.previousMillisTimeStamp = initPreviousMillisTimeStamp(nanosTimeStamp);
     this.initialDate = initInitialDate();
@@ -144,6 +146,7 @@ public class StatArchiveWriter implements StatArchiveFormat, SampleHandler {
    *
    * @throws GemFireIOException if the archive file could not be closed.
    */
+  @Override
   public void close() {
     try {
       this.dataOut.flush();
@@ -180,6 +183,7 @@ public class StatArchiveWriter implements StatArchiveFormat, SampleHandler {
    * Returns the number of bytes written so far to this archive. This does not take compression into
    * account.
    */
+  @Override
   public long bytesWritten() {
     return this.dataOut.getBytesWritten();
   }
@@ -523,6 +527,7 @@ public class StatArchiveWriter implements StatArchiveFormat, SampleHandler {
     this.sampleCount++; // only inc after sample done w/o an exception thrown
   }
 
+  @Override
   public int getSampleCount() {
     return this.sampleCount;
   }
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+/**
+ * Writes statistic samples to an archive file. {@link StatArchiveHandler} uses a
+ * {@link StatArchiveWriter} for ".gfs" and ".gz" archives and a {@link ColumnarStatArchiveWriter}
+ * for archives named with {@link ColumnarStatArchiveFormat#COLUMNAR_ARCHIVE_EXTENSION}.
+ *
+ * @since Geode 1.12
+ */
+public interface StatArchiver extends SampleHandler {
+
+  /**
+   * Writes the archive header. Must be called before any other notification.
+   */
+  void initialize(long nanosTimeStamp);
+
+  String getArchiveName();
+
+  int getSampleCount();
+
+  /**
+   * Returns the number of bytes written so far to this archive.
+   */
+  long bytesWritten();
+
+  /**
+   * Flushes all data to the archive file and closes it.
+   *
+   * @throws org.apache.geode.GemFireIOException if the archive file could not be closed.
+   */
+  void close();
+
+  /**
+   * Creates the archiver for the format of the archive named by the descriptor.
+   */
+  static StatArchiver create(StatArchiveDescriptor archiveDescriptor) {
+    if (ColumnarStatArchiveFormat.isColumnarArchive(archiveDescriptor.getArchiveName())) {
+      return new ColumnarStatArchiveWriter(archiveDescriptor);
+    }
+    return new StatArchiveWriter(archiveDescriptor);
+  }
+}
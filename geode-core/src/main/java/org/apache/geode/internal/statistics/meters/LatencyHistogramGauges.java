@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics.meters;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+import org.apache.geode.internal.statistics.LatencyHistogram;
+
+/**
+ * Binds the percentiles of a {@link LatencyHistogram} to a {@link MeterRegistry} as gauges named
+ * after the histogram with a "quantile" tag, plus a gauge of the maximum with the suffix ".max". The
+ * gauges report the latencies recorded in the last minute or so, in seconds, so that a new spike
+ * shows even after hours of traffic. The window moves forward with time rather than with reads,
+ * so any number of registries, such as the children of a composite registry, can poll them at
+ * their own pace without interfering.
+ *
+ * @since Geode 1.12
+ */
+public class LatencyHistogramGauges {
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  /**
+   * Gauges polled within this time of each other share one snapshot.
+   */
+  private static final long SNAPSHOT_MAX_AGE_NANOS = MILLISECONDS.toNanos(100);
+
+  /**
+   * A latency counts towards the gauges for at least this long.
+   */
+  static final long WINDOW_NANOS = SECONDS.toNanos(60);
+
+  /**
+   * How often the window moves forward, which is also how much longer than {@link #WINDOW_NANOS}
+   * a latency may count while the gauges are polled at least this often.
+   */
+  static final long WINDOW_STEP_NANOS = SECONDS.toNanos(10);
+
+  private static final String WINDOW_DESCRIPTION =
+      " Reported over the last 60 to 70 seconds when polled at least every 10 seconds.";
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private final MeterRegistry registry;
+  private final List<Gauge> gauges;
+
+  private LatencyHistogramGauges(MeterRegistry registry, List<Gauge> gauges) {
+    this.registry = registry;
+    this.gauges = gauges;
+  }
+
+  /**
+   * Registers the gauges of the given histogram with the registry.
+   */
+  public static LatencyHistogramGauges register(LatencyHistogram histogram, String name,
+      String description, Iterable<Tag> tags, MeterRegistry registry) {
+    return register(histogram, name, description, tags, registry, System::nanoTime);
+  }
+
+  static LatencyHistogramGauges register(LatencyHistogram histogram, String name,
+      String description, Iterable<Tag> tags, MeterRegistry registry, LongSupplier nanoClock) {
+    TimeWindow snapshots = new TimeWindow(histogram, nanoClock);
+    List<Gauge> gauges = new ArrayList<>();
+    for (double quantile : QUANTILES) {
+      double percentile = quantile * 100.0;
+      gauges.add(register(snapshots, name, description, Tags.of(tags).and("quantile",
+          Double.toString(quantile)), registry,
+          snapshot -> snapshot.getValueAtPercentile(percentile)));
+    }
+    gauges.add(register(snapshots, name + ".max", description, Tags.of(tags), registry,
+        LatencyHistogram.Snapshot::getMaxValue));
+    return new LatencyHistogramGauges(registry, Collections.unmodifiableList(gauges));
+  }
+
+  private static Gauge register(TimeWindow snapshots, String name,
+      String description, Iterable<Tag> tags, MeterRegistry registry,
+      ToLongFunction<LatencyHistogram.Snapshot> value) {
+    return Gauge.builder(name, snapshots,
+        s -> value.applyAsLong(s.windowSnapshot(SNAPSHOT_MAX_AGE_NANOS)) / NANOS_PER_SECOND)
+        .description(description + WINDOW_DESCRIPTION)
+        .tags(tags)
+        .baseUnit("seconds")
+        .register(registry);
+  }
+
+  public List<Gauge> getGauges() {
+    return this.gauges;
+  }
+
+  /**
+   * Removes the gauges from the registry.
+   */
+  public void remove() {
+    for (Gauge gauge : this.gauges) {
+      this.registry.remove(gauge);
+      gauge.close();
+    }
+  }
+
+  /**
+   * Keeps snapshots of all the values recorded so far, taken at most every
+   * {@link #WINDOW_STEP_NANOS}, to report what was recorded since the newest of them that is at
+   * least {@link #WINDOW_NANOS} old. The gauges of one histogram share its latest snapshot, so that
+   * polling all of them copies the counts once.
+   */
+  static class TimeWindow {
+    private final LatencyHistogram histogram;
+    private final LongSupplier nanoClock;
+
+    /** times of the checkpoints, oldest first */
+    private final List<Long> checkpointTimes = new ArrayList<>();
+
+    /** snapshots of all the values recorded so far at those times, null for none */
+    private final List<LatencyHistogram.Snapshot> checkpoints = new ArrayList<>();
+
+    private LatencyHistogram.Snapshot latest;
+    private long latestTime;
+
+    TimeWindow(LatencyHistogram histogram, LongSupplier nanoClock) {
+      this.histogram = histogram;
+      this.nanoClock = nanoClock;
+      // values recorded before the gauges were registered count until they age out
+      this.checkpointTimes.add(nanoClock.getAsLong());
+      this.checkpoints.add(null);
+    }
+
+    synchronized LatencyHistogram.Snapshot windowSnapshot(long maxAgeNanos) {
+      long now = this.nanoClock.getAsLong();
+      if (this.latest != null && now - this.latestTime <= maxAgeNanos) {
+        return this.latest;
+      }
+      LatencyHistogram.Snapshot current = this.histogram.snapshot();
+      if (now - this.checkpointTimes.get(this.checkpointTimes.size() - 1) >= WINDOW_STEP_NANOS) {
+        this.checkpointTimes.add(now);
+        this.checkpoints.add(current);
+      }
+      // the oldest checkpoint starts the window; it is dropped once the next one is a window old
+      while (this.checkpointTimes.size() > 1 && now - this.checkpointTimes.get(1) >= WINDOW_NANOS) {
+        this.checkpointTimes.remove(0);
+        this.checkpoints.remove(0);
+      }
+      LatencyHistogram.Snapshot start = this.checkpoints.get(0);
+      this.latest = start == null ? current : current.since(start);
+      this.latestTime = now;
+      return this.latest;
+    }
+  }
+}
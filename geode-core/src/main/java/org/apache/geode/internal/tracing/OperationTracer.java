@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tracing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.annotations.internal.MakeNotStatic;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Records timed spans of a sample of operations as they pass from a client to a server and on to
+ * the peers of the server. A client operation is chosen for tracing when it starts, and its trace
+ * id goes with the messages sent on its behalf, so each member records the spans of the stages it
+ * executes under the same id. Spans are kept in a ring buffer in memory and written to a CSV file
+ * in the export directory when the cache closes, to be merged with those of other members offline.
+ *
+ * <p>
+ * Tracing is off unless {@link #SAMPLE_RATE_PROPERTY} is set to a fraction greater than zero. While
+ * it is off, each method returns after reading one static field. The trace id of the operation a
+ * thread is working on is held in a thread local, and is zero if the operation is not traced.
+ *
+ * @since Geode 1.12
+ */
+public class OperationTracer {
+
+  /** The fraction, between 0 and 1, of client operations that are traced. */
+  public static final String SAMPLE_RATE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "tracing.sample-rate";
+
+  /** The number of spans kept in memory. */
+  public static final String BUFFER_SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "tracing.buffer-size";
+
+  /** The directory spans are exported to, by default the current directory. */
+  public static final String EXPORT_DIRECTORY_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "tracing.export-directory";
+
+  static final int DEFAULT_BUFFER_SIZE = 65536;
+
+  private static final ThreadLocal<long[]> currentTraceId =
+      ThreadLocal.withInitial(() -> new long[1]);
+
+  @MakeNotStatic
+  private static volatile OperationTracer tracer = createFromSystemProperties();
+
+  private final double sampleRate;
+  private final SpanBuffer spans;
+  private final long baseNanos = System.nanoTime();
+  private final long baseMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+
+  OperationTracer(double sampleRate, int bufferSize) {
+    this.sampleRate = sampleRate;
+    this.spans = new SpanBuffer(bufferSize);
+  }
+
+  private static OperationTracer createFromSystemProperties() {
+    double sampleRate;
+    try {
+      sampleRate = Double.parseDouble(System.getProperty(SAMPLE_RATE_PROPERTY, "0"));
+    } catch (NumberFormatException ignore) {
+      sampleRate = 0;
+    }
+    if (!(sampleRate > 0)) {
+      return null;
+    }
+    return new OperationTracer(Math.min(sampleRate, 1.0),
+        Integer.getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE));
+  }
+
+  /**
+   * Turns tracing on with the given sample rate, discarding any spans recorded so far, or off if
+   * the rate is not greater than zero.
+   */
+  public static void setSampleRate(double sampleRate, int bufferSize) {
+    tracer = sampleRate > 0 ? new OperationTracer(Math.min(sampleRate, 1.0), bufferSize) : null;
+  }
+
+  public static boolean isEnabled() {
+    return tracer != null;
+  }
+
+  /**
+   * Decides whether to trace an operation starting on this thread, and if so gives it a new trace
+   * id. Each call that returns non-zero must be matched by a call to {@link #endTrace}.
+   *
+   * @return the start time of the traced operation, or zero if it is not traced, including when
+   *         this thread is already working on a traced operation
+   */
+  public static long startTrace() {
+    OperationTracer t = tracer;
+    if (t == null) {
+      return 0;
+    }
+    long[] current = currentTraceId.get();
+    if (current[0] != 0) {
+      return 0;
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (random.nextDouble() >= t.sampleRate) {
+      return 0;
+    }
+    long traceId;
+    do {
+      traceId = random.nextLong();
+    } while (traceId == 0);
+    current[0] = traceId;
+    return startTime();
+  }
+
+  /**
+   * Continues, on this thread, the traced operation with the given id, which came with a message
+   * from another member. Each call that returns non-zero must be matched by a call to
+   * {@link #endTrace}.
+   *
+   * @return the start time of the work done for the operation, or zero if the id is zero or this
+   *         thread is already working on a traced operation
+   */
+  public static long resumeTrace(long traceId) {
+    if (traceId == 0 || tracer == null) {
+      return 0;
+    }
+    long[] current = currentTraceId.get();
+    if (current[0] != 0) {
+      return 0;
+    }
+    current[0] = traceId;
+    return startTime();
+  }
+
+  /**
+   * Records the span of a traced operation started by {@link #startTrace} or
+   * {@link #resumeTrace}, and clears the operation of this thread.
+   *
+   * @param startTime the value returned by startTrace or resumeTrace
+   */
+  public static void endTrace(TraceStage stage, long startTime) {
+    if (startTime == 0) {
+      return;
+    }
+    endSpan(stage, startTime);
+    currentTraceId.get()[0] = 0;
+  }
+
+  /**
+   * Returns the start time of a span of the operation this thread is working on, or zero if it is
+   * not traced.
+   */
+  public static long startSpan() {
+    if (tracer == null || currentTraceId.get()[0] == 0) {
+      return 0;
+    }
+    return startTime();
+  }
+
+  /**
+   * Records a span of the operation this thread is working on that started at the given time.
+   *
+   * @param startTime the value returned by {@link #startSpan}
+   */
+  public static void endSpan(TraceStage stage, long startTime) {
+    if (startTime == 0) {
+      return;
+    }
+    recordSpan(stage, startTime, System.nanoTime());
+  }
+
+  /**
+   * Records a span of the operation this thread is working on with the given start and end times,
+   * as returned by {@link System#nanoTime}.
+   */
+  public static void recordSpan(TraceStage stage, long startNanos, long endNanos) {
+    OperationTracer t = tracer;
+    if (t == null) {
+      return;
+    }
+    long traceId = currentTraceId.get()[0];
+    if (traceId == 0) {
+      return;
+    }
+    long startMicros = t.baseMicros + TimeUnit.NANOSECONDS.toMicros(startNanos - t.baseNanos);
+    t.spans.record(traceId, stage, Thread.currentThread().getId(), startMicros,
+        endNanos - startNanos);
+  }
+
+  /**
+   * Returns the trace id of the operation this thread is working on, or zero if it is not traced.
+   */
+  public static long currentTraceId() {
+    if (tracer == null) {
+      return 0;
+    }
+    return currentTraceId.get()[0];
+  }
+
+  private static long startTime() {
+    long now = System.nanoTime();
+    return now == 0 ? 1 : now;
+  }
+
+  /**
+   * Returns the spans in memory, oldest first.
+   */
+  public static List<Span> getSpans() {
+    OperationTracer t = tracer;
+    return t == null ? Collections.emptyList() : t.spans.getSpans();
+  }
+
+  /**
+   * Writes the spans in memory as CSV lines of trace id, stage, thread id, start time in
+   * microseconds since the epoch and duration in nanoseconds.
+   */
+  public static void export(Writer writer) throws IOException {
+    writer.write("traceId,stage,threadId,startMicros,durationNanos\n");
+    for (Span span : getSpans()) {
+      writer.write(Long.toHexString(span.getTraceId()) + ',' + span.getStage() + ','
+          + span.getThreadId() + ',' + span.getStartMicros() + ',' + span.getDurationNanos()
+          + '\n');
+    }
+  }
+
+  /**
+   * Writes the spans in memory to a file named after the given member in the export directory.
+   *
+   * @return the file written, or null if tracing is off
+   */
+  public static File exportToFile(String memberName) throws IOException {
+    if (tracer == null) {
+      return null;
+    }
+    File directory = new File(System.getProperty(EXPORT_DIRECTORY_PROPERTY, "."));
+    File file = new File(directory,
+        "trace-" + memberName.replaceAll("[^\\w.-]", "_") + '-' + System.currentTimeMillis()
+            + ".csv");
+    try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      export(writer);
+    }
+    return file;
+  }
+}
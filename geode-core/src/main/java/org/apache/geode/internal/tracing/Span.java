@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tracing;
+
+/**
+ * A timed stage of a traced operation.
+ *
+ * @since Geode 1.12
+ */
+public class Span {
+  private final long traceId;
+  private final TraceStage stage;
+  private final long threadId;
+  private final long startMicros;
+  private final long durationNanos;
+
+  Span(long traceId, TraceStage stage, long threadId, long startMicros, long durationNanos) {
+    this.traceId = traceId;
+    this.stage = stage;
+    this.threadId = threadId;
+    this.startMicros = startMicros;
+    this.durationNanos = durationNanos;
+  }
+
+  public long getTraceId() {
+    return this.traceId;
+  }
+
+  public TraceStage getStage() {
+    return this.stage;
+  }
+
+  public long getThreadId() {
+    return this.threadId;
+  }
+
+  /**
+   * Returns the wall clock time the span started at, in microseconds since the epoch.
+   */
+  public long getStartMicros() {
+    return this.startMicros;
+  }
+
+  public long getDurationNanos() {
+    return this.durationNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "Span[trace=" + Long.toHexString(this.traceId) + "; stage=" + this.stage + "; thread="
+        + this.threadId + "; startMicros=" + this.startMicros + "; durationNanos="
+        + this.durationNanos + "]";
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size ring of spans that any number of threads record into without locking. Once full,
+ * each new span overwrites the oldest one. A span being overwritten while it is read is skipped by
+ * the reader.
+ *
+ * @since Geode 1.12
+ */
+class SpanBuffer {
+  private final int mask;
+  private final long[] traceIds;
+  private final int[] stages;
+  private final long[] threadIds;
+  private final long[] startMicros;
+  private final long[] durationNanos;
+
+  /**
+   * The sequence number, plus one, of the span in each slot. Zero while the slot is empty or being
+   * written.
+   */
+  private final AtomicLongArray sequences;
+  private final AtomicLong nextSequence = new AtomicLong();
+
+  /**
+   * @param capacity the number of spans kept, rounded up to a power of two
+   */
+  SpanBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+    this.mask = size - 1;
+    this.traceIds = new long[size];
+    this.stages = new int[size];
+    this.threadIds = new long[size];
+    this.startMicros = new long[size];
+    this.durationNanos = new long[size];
+    this.sequences = new AtomicLongArray(size);
+  }
+
+  int capacity() {
+    return this.mask + 1;
+  }
+
+  void record(long traceId, TraceStage stage, long threadId, long startMicros,
+      long durationNanos) {
+    long sequence = this.nextSequence.getAndIncrement();
+    int slot = (int) sequence & this.mask;
+    this.sequences.set(slot, 0);
+    this.traceIds[slot] = traceId;
+    this.stages[slot] = stage.ordinal();
+    this.threadIds[slot] = threadId;
+    this.startMicros[slot] = startMicros;
+    this.durationNanos[slot] = durationNanos;
+    this.sequences.set(slot, sequence + 1);
+  }
+
+  /**
+   * Returns the spans currently in the buffer, oldest first.
+   */
+  List<Span> getSpans() {
+    TraceStage[] stageValues = TraceStage.values();
+    SortedMap<Long, Span> spans = new TreeMap<>();
+    for (int slot = 0; slot <= this.mask; slot++) {
+      long sequence = this.sequences.get(slot);
+      if (sequence == 0) {
+        continue;
+      }
+      Span span = new Span(this.traceIds[slot], stageValues[this.stages[slot]],
+          this.threadIds[slot], this.startMicros[slot], this.durationNanos[slot]);
+      if (this.sequences.get(slot) == sequence) {
+        spans.put(sequence, span);
+      }
+    }
+    return new ArrayList<>(spans.values());
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tracing;
+
+/**
+ * The stages of an operation that {@link OperationTracer} records spans for.
+ *
+ * @since Geode 1.12
+ */
+public enum TraceStage {
+  /** A client operation, from the first attempt until a server replied. */
+  CLIENT_OPERATION,
+  /** Serializing a client message and writing it to the server. */
+  CLIENT_SEND,
+  /** A server executing the command of a client message. */
+  SERVER_COMMAND,
+  /** A peer message waiting to be processed after it was received. */
+  MESSAGE_QUEUE,
+  /** A peer processing a message. */
+  MESSAGE_PROCESSING,
+  /** Waiting for the replies to a peer message, such as replication acks. */
+  REPLY_WAIT,
+  /** Waiting for the lock of a bucket or entry. */
+  LOCK_WAIT,
+  /** Writing an entry to disk. */
+  DISK_WRITE
+}
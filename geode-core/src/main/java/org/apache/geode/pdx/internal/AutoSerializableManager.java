@@ -2026,6 +2026,13 @@ public class AutoSerializableManager {
         optimizeFieldWrites = true;
       }
     }
+    if (optimizeFieldWrites) {
+      GeneratedPdxSerializer generated = autoClassInfo.getGeneratedSerializer();
+      if (generated != null) {
+        generated.write(w, obj);
+        return;
+      }
+    }
     for (PdxFieldWrapper f : autoClassInfo.getFields()) {
       // System.out.println("DEBUG writing field=" + f.getField().getName() + " offset=" +
       // ((PdxWriterImpl)writer).position());
@@ -2056,6 +2063,13 @@ public class AutoSerializableManager {
   private static final boolean USE_CONSTRUCTOR =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "autopdx.ignoreConstructor");
 
+  /**
+   * If true, the fields of each auto serialized class are written and read in order by a
+   * {@link GeneratedPdxSerializer} rather than by a call to each field's wrapper.
+   */
+  private static final boolean GENERATE_SERIALIZERS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "AutoSerializer.GENERATE_SERIALIZERS");
+
   /**
    * Using the given PdxReader, recreate the given object.
    *
@@ -2158,6 +2172,9 @@ public class AutoSerializableManager {
    *
    */
   public static class AutoClassInfo {
+    @Immutable
+    private static final Object NO_GENERATED_SERIALIZER = new Object();
+
     private final WeakReference<Class<?>> clazzRef;
     /**
      * The fields that describe the class
@@ -2178,6 +2195,12 @@ public class AutoSerializableManager {
      */
     private PdxType serializedType = null;
 
+    /**
+     * The serializer generated for the fields, or NO_GENERATED_SERIALIZER if none could be
+     * generated. Generated when first needed.
+     */
+    private volatile Object generatedSerializer;
+
     public AutoClassInfo(Class<?> clazz, List<PdxFieldWrapper> fields) {
       this.clazzRef = new WeakReference<Class<?>>(clazz);
       this.fields = fields;
@@ -2229,6 +2252,27 @@ public class AutoSerializableManager {
       return this.fields;
     }
 
+    /**
+     * Returns the serializer generated for the fields of this class, or null if serializers are not
+     * generated or the fields cannot be serialized by one.
+     */
+    GeneratedPdxSerializer getGeneratedSerializer() {
+      if (!GENERATE_SERIALIZERS) {
+        return null;
+      }
+      Object result = this.generatedSerializer;
+      if (result == null) {
+        Class<?> clazz = getInfoClass();
+        result = clazz == null ? null : GeneratedPdxSerializer.create(clazz, this.fields);
+        if (result == null) {
+          result = NO_GENERATED_SERIALIZER;
+        }
+        // a race here just generates the same serializer twice
+        this.generatedSerializer = result;
+      }
+      return result == NO_GENERATED_SERIALIZER ? null : (GeneratedPdxSerializer) result;
+    }
+
     public boolean matchesPdxType(PdxType t) {
       Integer pdxTypeId = Integer.valueOf(t.getTypeId());
       if (this.matchingPdxIds.contains(pdxTypeId)) {
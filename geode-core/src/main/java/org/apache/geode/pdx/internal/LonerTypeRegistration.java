@@ -175,6 +175,12 @@ public class LonerTypeRegistration implements TypeRegistration {
     this.delegate.addImportedType(typeId, importedType);
   }
 
+  @Override
+  public void addImportedTypes(Map<Integer, PdxType> importedTypes) {
+    initializeRegistry();
+    this.delegate.addImportedTypes(importedTypes);
+  }
+
   @Override
   public void addImportedEnum(int enumId, EnumInfo importedInfo) {
     initializeRegistry();
@@ -40,8 +40,8 @@ import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.serialization.DSCODE;
 import org.apache.geode.internal.tcp.ByteBufferInputStream;
 import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
-import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSourceFactory;
 import org.apache.geode.internal.util.Hex;
+import org.apache.geode.pdx.FieldType;
 import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.WritablePdxInstance;
@@ -87,14 +87,29 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
 
   private transient volatile int cachedHashCode = UNUSED_HASH_CODE;
 
+  /**
+   * Stands for a null String in {@link #cachedFieldValues}.
+   */
+  @Immutable
+  private static final Object NULL_FIELD_VALUE = new Object();
+
+  /**
+   * The values of the primitive and String fields read by {@link #getField(String)}, indexed by
+   * field index. These values are immutable so the same instance can be returned to every caller.
+   * Allocated when the first such field is read.
+   */
+  private transient volatile Object[] cachedFieldValues;
+
   private static final ThreadLocal<Boolean> pdxGetObjectInProgress = new ThreadLocal<Boolean>();
 
   public PdxInstanceImpl(PdxType pdxType, DataInput in, int len) {
     super(pdxType, createDis(in, len));
+    cacheFieldPositions();
   }
 
   protected PdxInstanceImpl(PdxReaderImpl original) {
     super(original);
+    cacheFieldPositions();
   }
 
   private static PdxInputStream createDis(DataInput in, int len) {
@@ -137,7 +152,51 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
 
   @Override
   public Object getField(String fieldName) {
-    return getUnmodifiableReader(fieldName).readField(fieldName);
+    if (!cachesFieldValues()) {
+      return getUnmodifiableReader(fieldName).readField(fieldName);
+    }
+    PdxField ft = getPdxType().getPdxField(fieldName);
+    if (ft == null || !isCacheableFieldType(ft.getFieldType())) {
+      return getUnmodifiableReader(fieldName).readField(fieldName);
+    }
+    Object[] values = this.cachedFieldValues;
+    if (values == null) {
+      values = new Object[getPdxType().getFieldCount()];
+      this.cachedFieldValues = values;
+    }
+    Object result = values[ft.getFieldIndex()];
+    if (result == null) {
+      result = getUnmodifiableReader(fieldName).readField(fieldName);
+      values[ft.getFieldIndex()] = result == null ? NULL_FIELD_VALUE : result;
+    } else if (result == NULL_FIELD_VALUE) {
+      result = null;
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if {@link #getField(String)} may remember the values it reads. Only instances whose
+   * bytes never change do.
+   */
+  protected boolean cachesFieldValues() {
+    return true;
+  }
+
+  private static boolean isCacheableFieldType(FieldType fieldType) {
+    switch (fieldType) {
+      case BOOLEAN:
+      case BYTE:
+      case CHAR:
+      case SHORT:
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case STRING:
+        return true;
+      default:
+        return false;
+    }
   }
 
   private PdxWriterImpl convertToTypeWithNoDeletedFields(PdxReaderImpl ur) {
@@ -282,10 +341,7 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
         case DOUBLE_ARRAY:
         case STRING_ARRAY:
         case ARRAY_OF_BYTE_ARRAYS: {
-          ByteSource buffer = ur.getRaw(ft);
-          if (!buffer.equals(ByteSourceFactory.create(ft.getFieldType().getDefaultBytes()))) {
-            hashCode = hashCode * 31 + buffer.hashCode();
-          }
+          hashCode = ur.addRawFieldHashCode(ft, hashCode);
           break;
         }
         case OBJECT_ARRAY: {
@@ -381,9 +437,7 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
         case DOUBLE_ARRAY:
         case STRING_ARRAY:
         case ARRAY_OF_BYTE_ARRAYS: {
-          ByteSource myBuffer = ur1.getRaw(myType);
-          ByteSource otherBuffer = ur2.getRaw(otherType);
-          if (!myBuffer.equals(otherBuffer)) {
+          if (!ur1.rawFieldEquals(myType, ur2, otherType)) {
             return false;
           }
         }
@@ -514,6 +568,7 @@ public class PdxInstanceImpl extends PdxReaderImpl implements InternalPdxInstanc
   protected void clearCachedState() {
     this.cachedHashCode = UNUSED_HASH_CODE;
     this.cachedObjectForm = null;
+    this.cachedFieldValues = null;
   }
 
   @Override
@@ -55,11 +55,20 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
   private final PdxType blobType;
   private final PdxInputStream dis;
   private transient PdxUnreadData readUnreadFieldsCalled;
+  /**
+   * The position of each field, indexed by field index, plus one so that zero means the position
+   * has not been computed yet. Null unless {@link #cacheFieldPositions()} was called. Only
+   * long-lived readers, such as {@link PdxInstanceImpl}, cache positions since a reader used for a
+   * single deserialization reads each field just once.
+   */
+  private transient int[] fieldPositions;
 
   protected PdxReaderImpl(PdxReaderImpl copy) {
     this.blobType = copy.blobType;
     this.dis = new PdxInputStream(copy.dis);
     this.readUnreadFieldsCalled = copy.getReadUnreadFieldsCalled();
+    // the copy reads the same bytes so it can share the positions computed so far
+    this.fieldPositions = copy.fieldPositions;
   }
 
   public PdxReaderImpl(PdxType pdxType, DataInput in, int len) throws IOException {
@@ -642,8 +651,27 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     }
   }
 
+  /**
+   * Remembers the position of each field once it has been computed, so that reading a variable
+   * length field, or a fixed width field that follows one, does not decode the offset table again.
+   */
+  protected void cacheFieldPositions() {
+    this.fieldPositions = new int[this.blobType.getFieldCount()];
+  }
+
   private int getPositionForField(PdxField ft) {
-    return getAbsolutePosition(ft);
+    int[] positions = this.fieldPositions;
+    int idx = ft.getFieldIndex();
+    if (positions == null || idx >= positions.length) {
+      return getAbsolutePosition(ft);
+    }
+    int pos = positions[idx] - 1;
+    if (pos < 0) {
+      // a racing reader computes the same position so no synchronization is needed
+      pos = getAbsolutePosition(ft);
+      positions[idx] = pos + 1;
+    }
+    return pos;
   }
 
   private int getAbsolutePosition(PdxField ft) {
@@ -881,15 +909,73 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     if (ft instanceof DefaultPdxField) {
       return ((DefaultPdxField) ft).getDefaultBytes();
     }
-    int startOffset = getAbsolutePosition(ft);
+    int startOffset = getPositionForField(ft);
+    return this.dis.slice(startOffset, getEndPosition(ft));
+  }
+
+  private int getEndPosition(PdxField ft) {
     int nextFieldIdx = ft.getFieldIndex() + 1;
-    int endOffset;
     if (nextFieldIdx >= getPdxType().getFieldCount()) {
-      endOffset = getOffsetToVlfTable();
-    } else {
-      endOffset = getAbsolutePosition(getPdxType().getPdxFieldByIndex(nextFieldIdx));
+      return getOffsetToVlfTable();
+    }
+    return getPositionForField(getPdxType().getPdxFieldByIndex(nextFieldIdx));
+  }
+
+  /**
+   * Adds the hash code of the serialized bytes of the given field to the given hash code, unless
+   * the field has its default value. The result is the same as hashing {@link #getRaw(PdxField)}
+   * but the bytes are read in place without creating a slice of them.
+   */
+  protected int addRawFieldHashCode(PdxField ft, int hashCode) {
+    if (ft instanceof DefaultPdxField) {
+      return hashCode;
     }
-    return this.dis.slice(startOffset, endOffset);
+    int start = getPositionForField(ft);
+    int end = getEndPosition(ft);
+    ByteBuffer defaultBytes = ft.getFieldType().getDefaultBytes();
+    if (rawBytesEqual(start, end, defaultBytes)) {
+      return hashCode;
+    }
+    int h = 1;
+    for (int i = end - 1; i >= start; i--) {
+      h = 31 * h + this.dis.readByte(i);
+    }
+    return hashCode * 31 + h;
+  }
+
+  /**
+   * Returns true if the serialized bytes of the given field equal those of the other reader's field.
+   * The bytes are compared in place without creating slices of them.
+   */
+  protected boolean rawFieldEquals(PdxField ft, PdxReaderImpl other, PdxField otherFt) {
+    if (ft instanceof DefaultPdxField || otherFt instanceof DefaultPdxField) {
+      return getRaw(ft).equals(other.getRaw(otherFt));
+    }
+    int start = getPositionForField(ft);
+    int end = getEndPosition(ft);
+    int otherStart = other.getPositionForField(otherFt);
+    int otherEnd = other.getEndPosition(otherFt);
+    if (end - start != otherEnd - otherStart) {
+      return false;
+    }
+    for (int i = start, j = otherStart; i < end; i++, j++) {
+      if (this.dis.readByte(i) != other.dis.readByte(j)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean rawBytesEqual(int start, int end, ByteBuffer bytes) {
+    if (end - start != bytes.remaining()) {
+      return false;
+    }
+    for (int i = start, j = bytes.position(); i < end; i++, j++) {
+      if (this.dis.readByte(i) != bytes.get(j)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
@@ -913,6 +999,9 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
 
   protected void basicSetBuffer(ByteBuffer bb) {
     this.dis.setBuffer(bb);
+    if (this.fieldPositions != null) {
+      cacheFieldPositions();
+    }
   }
 
   /**
@@ -925,6 +1014,11 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
   @Override
   public void orderedDeserialize(Object obj, AutoClassInfo ci) {
     PdxReaderImpl reader = prepForOrderedReading();
+    GeneratedPdxSerializer generated = ci.getGeneratedSerializer();
+    if (generated != null) {
+      generated.orderedRead(reader, obj);
+      return;
+    }
     for (PdxFieldWrapper f : ci.getFields()) {
       f.orderedDeserialize(reader, obj);
     }
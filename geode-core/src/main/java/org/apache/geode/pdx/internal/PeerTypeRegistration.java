@@ -18,9 +18,11 @@ package org.apache.geode.pdx.internal;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.Logger;
 
@@ -54,7 +56,6 @@ import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.InternalRegionArguments;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.TXStateProxy;
-import org.apache.geode.internal.util.concurrent.CopyOnWriteHashMap;
 import org.apache.geode.logging.internal.log4j.api.LogService;
 import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInitializationException;
@@ -93,7 +94,7 @@ public class PeerTypeRegistration implements TypeRegistration {
 
   private PeerTypeRegistrationReverseMap reverseMap = new PeerTypeRegistrationReverseMap();
 
-  private final Map<String, CopyOnWriteHashSet<PdxType>> classToType = new CopyOnWriteHashMap<>();
+  private final Map<String, CopyOnWriteHashSet<PdxType>> classToType = new ConcurrentHashMap<>();
 
   private volatile boolean typeRegistryInUse = false;
 
@@ -211,6 +212,8 @@ public class PeerTypeRegistration implements TypeRegistration {
 
     statistics.initialize();
 
+    preloadLocalAndReverseMaps();
+
     // If there is anything in the id to type registry,
     // we should validate our configuration now.
     // And send those types to any existing gateways.
@@ -219,6 +222,28 @@ public class PeerTypeRegistration implements TypeRegistration {
     }
   }
 
+  /**
+   * The listener is not invoked for the types this member got by GII or from disk. Add them to the
+   * local map and the pending reverse map in one pass now, rather than leaving them to be found by
+   * a scan of the whole region the first time a type is defined while holding the dlock.
+   */
+  private void preloadLocalAndReverseMaps() {
+    if (getIdToType().size() == 0) {
+      return;
+    }
+    TXStateProxy currentState = suspendTX();
+    try {
+      for (Map.Entry<Object, Object> entry : getIdToType().entrySet()) {
+        Object value = entry.getValue();
+        if (value != null) {
+          updateLocalAndReverseMaps(entry.getKey(), value);
+        }
+      }
+    } finally {
+      resumeTX(currentState);
+    }
+  }
+
   protected DistributedLockService getLockService() {
     if (dls != null) {
       return dls;
@@ -393,6 +418,10 @@ public class PeerTypeRegistration implements TypeRegistration {
   }
 
   private void updateRegion(Object k, Object v) {
+    updateRegion(Collections.singletonMap(k, v));
+  }
+
+  private void updateRegion(Map<Object, Object> entries) {
     Region<Object, Object> r = getIdToType();
     InternalCache cache = (InternalCache) r.getRegionService();
 
@@ -410,7 +439,9 @@ public class PeerTypeRegistration implements TypeRegistration {
       while (true) {
         txManager.begin();
         try {
-          r.put(k, v);
+          for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            r.put(entry.getKey(), entry.getValue());
+          }
           txManager.commit();
           return;
         } catch (TransactionException e) {
@@ -691,6 +722,11 @@ public class PeerTypeRegistration implements TypeRegistration {
     return types;
   }
 
+  @Override
+  public Map<Integer, PdxType> getLocalTypes() {
+    return types();
+  }
+
   @Override
   public Map<Integer, EnumInfo> enums() {
     // ugh, I don't think we can rely on the local map to contain all types
@@ -756,6 +792,42 @@ public class PeerTypeRegistration implements TypeRegistration {
     addRemoteType(typeId, importedType);
   }
 
+  /**
+   * Adds the types that are not in the region yet while holding the dlock once, in a single
+   * transaction.
+   */
+  @Override
+  public void addImportedTypes(Map<Integer, PdxType> importedTypes) {
+    verifyConfiguration();
+    TXStateProxy currentState = suspendTX();
+    Region<Object, Object> r = getIdToType();
+    try {
+      Map<Object, Object> newTypes = new LinkedHashMap<>();
+      for (Map.Entry<Integer, PdxType> entry : importedTypes.entrySet()) {
+        if (!r.containsKey(entry.getKey())) {
+          newTypes.put(entry.getKey(), entry.getValue());
+        }
+      }
+      if (newTypes.isEmpty()) {
+        return;
+      }
+      // These types could actually be for this distributed system,
+      // so we need to make sure they are published while holding
+      // the distributed lock.
+      lock();
+      try {
+        newTypes.keySet().removeIf(r::containsKey);
+        if (!newTypes.isEmpty()) {
+          updateRegion(newTypes);
+        }
+      } finally {
+        unlock();
+      }
+    } finally {
+      resumeTX(currentState);
+    }
+  }
+
   @Override
   public void addImportedEnum(int id, EnumInfo importedInfo) {
     addRemoteEnum(id, importedInfo);
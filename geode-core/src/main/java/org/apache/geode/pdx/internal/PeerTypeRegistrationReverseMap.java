@@ -15,9 +15,8 @@
 
 package org.apache.geode.pdx.internal;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.geode.annotations.VisibleForTesting;
 import org.apache.geode.cache.Region;
@@ -31,19 +30,19 @@ public class PeerTypeRegistrationReverseMap {
    * flush the pendingTypeToId map into typeToId. This design to guarantee that
    * when using the new pdxType, it should have been distributed to all members.
    */
-  private final Map<PdxType, Integer> pendingTypeToId =
-      Collections.synchronizedMap(new HashMap<>());
-  private final Map<EnumInfo, EnumId> pendingEnumToId =
-      Collections.synchronizedMap(new HashMap<>());
+  private final Map<PdxType, Integer> pendingTypeToId = new ConcurrentHashMap<>();
+  private final Map<EnumInfo, EnumId> pendingEnumToId = new ConcurrentHashMap<>();
 
   /**
    * This map serves two purposes. It lets us look up an id based on a type, if we previously
    * found that type in the region. And, if a type is present in this map, that means we read
    * the type while holding the dlock, which means the type was distributed to all members.
+   * Lookups do not lock, so that defining a type that is already known never waits on another
+   * thread.
    */
-  private final Map<PdxType, Integer> typeToId = Collections.synchronizedMap(new HashMap<>());
+  private final Map<PdxType, Integer> typeToId = new ConcurrentHashMap<>();
 
-  private final Map<EnumInfo, EnumId> enumToId = Collections.synchronizedMap(new HashMap<>());
+  private final Map<EnumInfo, EnumId> enumToId = new ConcurrentHashMap<>();
 
   void save(Object key, Object value) {
     if (value instanceof PdxType) {
@@ -93,13 +92,16 @@ public class PeerTypeRegistrationReverseMap {
   }
 
   void flushPendingReverseMap() {
-    if (!pendingTypeToId.isEmpty()) {
-      typeToId.putAll(pendingTypeToId);
-      pendingTypeToId.clear();
-    }
-    if (!pendingEnumToId.isEmpty()) {
-      enumToId.putAll(pendingEnumToId);
-      pendingEnumToId.clear();
+    flush(pendingTypeToId, typeToId);
+    flush(pendingEnumToId, enumToId);
+  }
+
+  private static <K, V> void flush(Map<K, V> pending, Map<K, V> reverseMap) {
+    // Remove each entry only once it has been moved, so that an entry saved by the listener
+    // while flushing stays pending rather than being cleared.
+    for (Map.Entry<K, V> entry : pending.entrySet()) {
+      reverseMap.put(entry.getKey(), entry.getValue());
+      pending.remove(entry.getKey(), entry.getValue());
     }
   }
 
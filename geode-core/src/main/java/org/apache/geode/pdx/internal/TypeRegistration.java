@@ -42,6 +42,12 @@ public interface TypeRegistration {
 
   void addImportedType(int typeId, PdxType importedType);
 
+  default void addImportedTypes(Map<Integer, PdxType> importedTypes) {
+    for (Map.Entry<Integer, PdxType> entry : importedTypes.entrySet()) {
+      addImportedType(entry.getKey(), entry.getValue());
+    }
+  }
+
   void initialize();
 
   void gatewaySenderStarted(GatewaySender gatewaySender);
@@ -67,6 +73,16 @@ public interface TypeRegistration {
    */
   Map<Integer, PdxType> types();
 
+  /**
+   * Returns the types that this member already has, if reading them does not require a remote
+   * call. The registry caches them when it is initialized.
+   *
+   * @return the types, or null if they are not available locally
+   */
+  default Map<Integer, PdxType> getLocalTypes() {
+    return null;
+  }
+
   /**
    * Returns the currently defined enums.
    *
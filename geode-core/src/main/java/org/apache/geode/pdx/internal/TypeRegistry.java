@@ -16,6 +16,7 @@ package org.apache.geode.pdx.internal;
 
 import static java.lang.Integer.valueOf;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
@@ -44,6 +45,9 @@ public class TypeRegistry {
   private static final boolean DISABLE_TYPE_REGISTRY =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "TypeRegistry.DISABLE_PDX_REGISTRY");
 
+  private static final boolean DISABLE_TYPE_PRELOAD =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "TypeRegistry.DISABLE_PRELOAD");
+
   private final Map<Integer, PdxType> idToType = new CopyOnWriteHashMap<>();
 
   private final Map<PdxType, Integer> typeToId = new CopyOnWriteHashMap<>();
@@ -113,7 +117,37 @@ public class TypeRegistry {
   public void initialize() {
     if (!this.cache.getPdxPersistent() || this.cache.getPdxDiskStore() == null
         || this.cache.findDiskStore(this.cache.getPdxDiskStore()) != null) {
-      this.distributedTypeRegistry.initialize();
+      initializeTypeRegistration();
+    }
+  }
+
+  private void initializeTypeRegistration() {
+    this.distributedTypeRegistry.initialize();
+    if (!DISABLE_TYPE_PRELOAD) {
+      preloadTypes();
+    }
+  }
+
+  /**
+   * Caches all the types the type registration already has, so that the first read of each one
+   * does not have to go to the registration. The map is copy-on-write, so they are added with
+   * one copy rather than one per type. Only the id to type map is preloaded; a type is added to
+   * the type to id map once the registration has confirmed that it was distributed to all members.
+   */
+  void preloadTypes() {
+    Map<Integer, PdxType> types = this.distributedTypeRegistry.getLocalTypes();
+    if (types == null || types.isEmpty()) {
+      return;
+    }
+    Map<Integer, PdxType> newIdToType = new HashMap<>();
+    for (Map.Entry<Integer, PdxType> entry : types.entrySet()) {
+      if (!this.idToType.containsKey(entry.getKey())) {
+        newIdToType.put(entry.getKey(), entry.getValue());
+      }
+    }
+    this.idToType.putAll(newIdToType);
+    if (logger.isDebugEnabled()) {
+      logger.debug("Preloaded {} types into the pdx type registry", newIdToType.size());
     }
   }
 
@@ -264,7 +298,7 @@ public class TypeRegistry {
   public void creatingDiskStore(DiskStore dsi) {
     if (this.cache.getPdxDiskStore() != null
         && dsi.getName().equals(this.cache.getPdxDiskStore())) {
-      this.distributedTypeRegistry.initialize();
+      initializeTypeRegistration();
     }
   }
 
@@ -515,6 +549,36 @@ public class TypeRegistry {
     }
   }
 
+  /**
+   * Like {@link #addImportedType(int, PdxType)} for all the types of a snapshot, adding the new
+   * ones to the type registration at once.
+   */
+  public void addImportedTypes(Map<Integer, PdxType> importedTypes) {
+    // check the types this member has all at once if it can, rather than one lookup per type
+    Map<Integer, PdxType> localTypes = this.distributedTypeRegistry.getLocalTypes();
+    for (Map.Entry<Integer, PdxType> entry : importedTypes.entrySet()) {
+      PdxType existing =
+          localTypes != null ? localTypes.get(entry.getKey()) : getType(entry.getKey());
+      if (existing != null && !existing.equals(entry.getValue())) {
+        throw new PdxSerializationException(
+            String.format(
+                "Detected conflicting PDX types during import:%s%sSnapshot data containing PDX types must be imported into an empty cache with no pre-existing type definitions. Allow the import to complete prior to inserting additional data into the cache.",
+                entry.getValue(), existing));
+      }
+    }
+
+    this.distributedTypeRegistry.addImportedTypes(importedTypes);
+    Map<PdxType, Integer> importedTypeToId = new HashMap<>();
+    for (Map.Entry<Integer, PdxType> entry : importedTypes.entrySet()) {
+      importedTypeToId.put(entry.getValue(), entry.getKey());
+      if (logger.isInfoEnabled()) {
+        logger.info("Importing type: {}", entry.getValue().toFormattedString());
+      }
+    }
+    this.idToType.putAll(importedTypes);
+    this.typeToId.putAll(importedTypeToId);
+  }
+
   public void addImportedEnum(int enumId, EnumInfo importedEnum) {
     EnumInfo existing = getEnumInfoById(enumId);
     if (existing != null && !existing.equals(importedEnum)) {
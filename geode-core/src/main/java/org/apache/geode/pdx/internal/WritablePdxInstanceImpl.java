@@ -44,6 +44,11 @@ public class WritablePdxInstanceImpl extends PdxInstanceImpl implements Writable
     clearCachedState();
   }
 
+  @Override
+  protected boolean cachesFieldValues() {
+    return false;
+  }
+
   /**
    * Flush pending writes if the given field is dirty.
    */
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ProcessorKeeper21Test {
+
+  @Test
+  public void putReturnsPositiveUniqueIds() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+    Set<Integer> ids = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      int id = keeper.put(new Object());
+      assertThat(id).isGreaterThan(0);
+      assertThat(ids.add(id)).isTrue();
+    }
+  }
+
+  @Test
+  public void retrieveReturnsProcessorUntilRemoved() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+    Object processor = new Object();
+    int id = keeper.put(processor);
+
+    assertThat(keeper.retrieve(id)).isSameAs(processor);
+
+    keeper.remove(id);
+
+    assertThat(keeper.retrieve(id)).isNull();
+  }
+
+  @Test
+  public void retrieveOfUnknownIdReturnsNull() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+
+    assertThat(keeper.retrieve(0)).isNull();
+    assertThat(keeper.retrieve(-1)).isNull();
+    assertThat(keeper.retrieve(12345)).isNull();
+    keeper.remove(12345);
+  }
+
+  @Test
+  public void removeOfStaleIdDoesNotRemoveProcessorInSameSlot() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+    int slots = ProcessorKeeper21.STRIPE_COUNT * ProcessorKeeper21.STRIPE_SIZE;
+    int first = keeper.put(new Object());
+    keeper.remove(first);
+    for (int i = 0; i < slots - 1; i++) {
+      keeper.remove(keeper.put(new Object()));
+    }
+    Object processor = new Object();
+    int id = keeper.put(processor);
+
+    assertThat(id).isEqualTo(first + slots);
+    keeper.remove(first);
+    assertThat(keeper.retrieve(first)).isNull();
+    assertThat(keeper.retrieve(id)).isSameAs(processor);
+  }
+
+  @Test
+  public void idOfSlotHeldByLiveProcessorIsSkipped() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+    int slots = ProcessorKeeper21.STRIPE_COUNT * ProcessorKeeper21.STRIPE_SIZE;
+    Object longLived = new Object();
+    int longLivedId = keeper.put(longLived);
+    for (int i = 0; i < slots - 1; i++) {
+      keeper.remove(keeper.put(new Object()));
+    }
+
+    int id = keeper.put(new Object());
+
+    assertThat(id).isEqualTo(longLivedId + slots + 1);
+    assertThat(keeper.retrieve(longLivedId)).isSameAs(longLived);
+    assertThat(keeper.retrieve(longLivedId + slots)).isNull();
+  }
+
+  @Test
+  public void processorsThatDoNotFitInTableAreKeptInOverflow() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+    int count = ProcessorKeeper21.STRIPE_COUNT * ProcessorKeeper21.STRIPE_SIZE + 10;
+    List<Object> processors = new ArrayList<>();
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Object processor = new Object();
+      processors.add(processor);
+      ids.add(keeper.put(processor));
+    }
+
+    assertThat(keeper.getOverflowSize()).isEqualTo(10);
+    for (int i = 0; i < count; i++) {
+      assertThat(keeper.retrieve(ids.get(i))).isSameAs(processors.get(i));
+    }
+
+    for (int id : ids) {
+      keeper.remove(id);
+    }
+    assertThat(keeper.getOverflowSize()).isZero();
+    for (int id : ids) {
+      assertThat(keeper.retrieve(id)).isNull();
+    }
+  }
+
+  @Test
+  public void weakReferencesDoNotKeepProcessorsAlive() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(true);
+    Object processor = new Object();
+    int id = keeper.put(processor);
+
+    assertThat(keeper.retrieve(id)).isSameAs(processor);
+  }
+
+  @Test
+  public void concurrentPutsReturnUniqueIds() throws Exception {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+    int threads = 8;
+    int putsPerThread = 10000;
+    Set<Integer> ids = ConcurrentHashMap.newKeySet();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < putsPerThread; i++) {
+            Object processor = new Object();
+            int id = keeper.put(processor);
+            assertThat(ids.add(id)).isTrue();
+            assertThat(keeper.retrieve(id)).isSameAs(processor);
+            keeper.remove(id);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(ids).hasSize(threads * putsPerThread);
+    assertThat(keeper.getOverflowSize()).isZero();
+  }
+}
@@ -14,10 +14,13 @@
  */
 package org.apache.geode.distributed.internal;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -27,11 +30,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.CancelCriterion;
+import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.test.junit.categories.MembershipTest;
 
@@ -86,4 +92,121 @@ public class ReplyProcessor21Test {
     verify(mockReplyProcessor21, times(1)).waitForRepliesUninterruptibly();
     verify(mockReplyProcessor21, times(1)).finished();
   }
+
+  @Test
+  public void repliesFutureCompletesWhenAllMembersHaveReplied() throws Exception {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    DistributionManager dm = mockDistributionManager(member);
+    ReplyProcessor21 rp = new ReplyProcessor21(dm, Arrays.asList(member));
+    int processorId = rp.getProcessorId();
+
+    CompletableFuture<Void> future = rp.getRepliesFuture();
+    assertThat(future).isNotDone();
+    assertThat(rp.getRepliesFuture()).isSameAs(future);
+
+    rp.process(replyFrom(member, null));
+
+    assertThat(future).isCompleted();
+    assertThat(ReplyProcessor21.getProcessor(processorId)).isNull();
+    verify(dm).removeMembershipListener(rp);
+  }
+
+  @Test
+  public void repliesFutureCompletesExceptionallyWithReplyException() throws Exception {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    DistributionManager dm = mockDistributionManager(member);
+    ReplyProcessor21 rp = new ReplyProcessor21(dm, Arrays.asList(member));
+    CompletableFuture<Void> future = rp.getRepliesFuture();
+    ReplyException replyException = new ReplyException(new IllegalStateException("remote"));
+
+    rp.process(replyFrom(member, replyException));
+
+    Throwable thrown = catchThrowable(future::get);
+    assertThat(thrown).isInstanceOf(ExecutionException.class).hasCause(replyException);
+  }
+
+  @Test
+  public void repliesFutureCompletesWhenMemberHasDeparted() throws Exception {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    DistributionManager dm = mockDistributionManager(member);
+    when(dm.addMembershipListenerAndGetDistributionManagerIds(any())).thenReturn(new HashSet());
+    ReplyProcessor21 rp = new ReplyProcessor21(dm, Arrays.asList(member));
+
+    assertThat(rp.getRepliesFuture()).isCompleted();
+  }
+
+  @Test
+  public void repliesFutureCompletesExceptionallyWhenCancelled() throws Exception {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    DistributionManager dm = mockDistributionManager(member);
+    CacheClosedException closed = new CacheClosedException("closed");
+    CancelCriterion cancelCriterion = dm.getCancelCriterion();
+    doThrow(closed).when(cancelCriterion).checkCancelInProgress(null);
+    ReplyProcessor21 rp = new ReplyProcessor21(dm, Arrays.asList(member));
+    CompletableFuture<Void> future = rp.getRepliesFuture();
+
+    rp.process(replyFrom(member, null));
+
+    Throwable thrown = catchThrowable(future::get);
+    assertThat(thrown).isInstanceOf(ExecutionException.class).hasCause(closed);
+  }
+
+  @Test
+  public void repliesFutureOfFinishedProcessorIsCompleted() throws Exception {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    DistributionManager dm = mockDistributionManager(member);
+    ReplyProcessor21 rp = new ReplyProcessor21(dm, Arrays.asList(member));
+    int processorId = rp.getProcessorId();
+
+    rp.process(replyFrom(member, null));
+
+    assertThat(rp.getRepliesFuture()).isCompleted();
+    assertThat(ReplyProcessor21.getProcessor(processorId)).isNull();
+  }
+
+  @Test
+  public void waitForRepliesReturnsWhenRepliedWhileWaiting() throws Exception {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    DistributionManager dm = mockDistributionManager(member);
+    ReplyProcessor21 rp = new ReplyProcessor21(dm, Arrays.asList(member));
+
+    Thread replier = new Thread(() -> rp.process(replyFrom(member, null)));
+    replier.start();
+
+    assertThat(rp.waitForReplies(WAIT_FOR_REPLIES_MILLIS * 30)).isTrue();
+    replier.join();
+  }
+
+  @Test
+  public void getRepliesFutureThrowsIfCleanedUp() throws Exception {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    DistributionManager dm = mockDistributionManager(member);
+    ReplyProcessor21 rp = new ReplyProcessor21(dm, Arrays.asList(member));
+    rp.cleanup();
+
+    Throwable thrown = catchThrowable(rp::getRepliesFuture);
+    assertThat(thrown).isInstanceOf(IllegalStateException.class);
+  }
+
+  private static DistributionManager mockDistributionManager(InternalDistributedMember member) {
+    DistributionManager dm = mock(DistributionManager.class);
+    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    DistributionConfig distributionConfig = mock(DistributionConfig.class);
+    when(distributionConfig.getAckWaitThreshold()).thenReturn(15);
+    when(system.getConfig()).thenReturn(distributionConfig);
+    when(dm.getStats()).thenReturn(mock(DMStats.class));
+    when(dm.getSystem()).thenReturn(system);
+    when(dm.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(dm.getDistributionManagerIds()).thenReturn(new HashSet<>(Arrays.asList(member)));
+    when(dm.addMembershipListenerAndGetDistributionManagerIds(any()))
+        .thenReturn(new HashSet<>(Arrays.asList(member)));
+    return dm;
+  }
+
+  private static ReplyMessage replyFrom(InternalDistributedMember member, ReplyException ex) {
+    ReplyMessage reply = new ReplyMessage();
+    reply.setSender(member);
+    reply.setException(ex);
+    return reply;
+  }
 }
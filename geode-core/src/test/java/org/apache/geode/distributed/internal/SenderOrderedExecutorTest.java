@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory;
+
+public class SenderOrderedExecutorTest {
+
+  private final PoolStatHelper poolStats = mock(PoolStatHelper.class);
+  private final ThrottledMemQueueStatHelper queueStats = mock(ThrottledMemQueueStatHelper.class);
+  private final SenderQueueStats senderStats = mock(SenderQueueStats.class);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private SenderOrderedExecutor executor;
+
+  @After
+  public void tearDown() throws Exception {
+    release.countDown();
+    if (executor != null) {
+      executor.shutdownNow();
+      executor.awaitTermination(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private SenderOrderedExecutor createExecutor(int workers) {
+    executor = new SenderOrderedExecutor(new LoggingThreadFactory("test "), workers, poolStats,
+        queueStats, null, sender -> senderStats, 0, 0, 0, 0);
+    return executor;
+  }
+
+  private Runnable blockingTask() {
+    return () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+
+  @Test
+  public void runsTasksOfEachSenderInOrderAndOneAtATime() throws Exception {
+    createExecutor(4);
+    int senders = 8;
+    int tasksPerSender = 1000;
+    List<List<Integer>> results = new ArrayList<>();
+    List<AtomicInteger> running = new ArrayList<>();
+    AtomicInteger overlaps = new AtomicInteger();
+    for (int s = 0; s < senders; s++) {
+      results.add(Collections.synchronizedList(new ArrayList<>()));
+      running.add(new AtomicInteger());
+    }
+
+    List<Thread> producers = new ArrayList<>();
+    for (int s = 0; s < senders; s++) {
+      int sender = s;
+      Thread producer = new Thread(() -> {
+        Executor senderExecutor = executor.getExecutor("sender" + sender);
+        for (int i = 0; i < tasksPerSender; i++) {
+          int value = i;
+          senderExecutor.execute(() -> {
+            if (running.get(sender).incrementAndGet() != 1) {
+              overlaps.incrementAndGet();
+            }
+            results.get(sender).add(value);
+            running.get(sender).decrementAndGet();
+          });
+        }
+      });
+      producers.add(producer);
+      producer.start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    await().untilAsserted(() -> {
+      for (List<Integer> result : results) {
+        assertThat(result).hasSize(tasksPerSender);
+      }
+    });
+    for (List<Integer> result : results) {
+      for (int i = 0; i < tasksPerSender; i++) {
+        assertThat(result.get(i)).isEqualTo(i);
+      }
+    }
+    assertThat(overlaps).hasValue(0);
+  }
+
+  @Test
+  public void idleWorkerStealsSenderOfBusyWorker() {
+    createExecutor(2);
+    SameHash busySender = new SameHash("busy");
+    SameHash otherSender = new SameHash("other");
+    AtomicInteger completed = new AtomicInteger();
+
+    executor.getExecutor(busySender).execute(blockingTask());
+    await().untilAsserted(() -> assertThat(executor.isActive()).isTrue());
+    executor.getExecutor(otherSender).execute(completed::incrementAndGet);
+
+    await().untilAsserted(() -> assertThat(completed).hasValue(1));
+    assertThat(executor.getStolenCount()).isPositive();
+  }
+
+  @Test
+  public void updatesQueueStatisticsOfEachTask() {
+    createExecutor(1);
+    AtomicInteger completed = new AtomicInteger();
+    Executor senderExecutor = executor.getExecutor("sender");
+
+    senderExecutor.execute(new SizeableRunnable(10) {
+      @Override
+      public void run() {
+        completed.incrementAndGet();
+      }
+    });
+
+    await().untilAsserted(() -> assertThat(completed).hasValue(1));
+    await().untilAsserted(() -> verify(poolStats).endJob());
+    verify(poolStats).startJob();
+    verify(queueStats).add();
+    verify(queueStats).addMem(10);
+    verify(queueStats).remove();
+    verify(queueStats).removeMem(10);
+    verify(senderStats).queued(10);
+    verify(senderStats).dequeued(eq(10), anyLong());
+  }
+
+  @Test
+  public void taskThatThrowsDoesNotStopLaterTasks() {
+    createExecutor(1);
+    AtomicInteger completed = new AtomicInteger();
+    Executor senderExecutor = executor.getExecutor("sender");
+
+    senderExecutor.execute(() -> {
+      throw new IllegalStateException("expected");
+    });
+    senderExecutor.execute(completed::incrementAndGet);
+
+    await().untilAsserted(() -> assertThat(completed).hasValue(1));
+  }
+
+  @Test
+  public void existingExecutorIsNullUntilCreated() {
+    createExecutor(1);
+
+    assertThat(executor.getExistingExecutor("sender")).isNull();
+    Executor senderExecutor = executor.getExecutor("sender");
+
+    assertThat(executor.getExistingExecutor("sender")).isSameAs(senderExecutor);
+  }
+
+  @Test
+  public void removeSenderClosesItsStatistics() {
+    createExecutor(1);
+    executor.getExecutor("sender");
+
+    executor.removeSender("sender");
+
+    assertThat(executor.getExistingExecutor("sender")).isNull();
+    verify(senderStats).close();
+  }
+
+  @Test
+  public void shutdownRunsQueuedTasksAndRejectsNewOnes() throws Exception {
+    createExecutor(1);
+    AtomicInteger completed = new AtomicInteger();
+    Executor senderExecutor = executor.getExecutor("sender");
+    senderExecutor.execute(blockingTask());
+    senderExecutor.execute(completed::incrementAndGet);
+
+    executor.shutdown();
+
+    assertThatThrownBy(() -> senderExecutor.execute(completed::incrementAndGet))
+        .isInstanceOf(RejectedExecutionException.class);
+    release.countDown();
+    assertThat(executor.awaitTermination(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS))
+        .isTrue();
+    assertThat(completed).hasValue(1);
+  }
+
+  @Test
+  public void throttlesSubmitterOfSenderWithFullQueue() {
+    executor = new SenderOrderedExecutor(new LoggingThreadFactory("test "), 1, poolStats,
+        queueStats, null, null, 1000, 100, 2, 1);
+    Executor senderExecutor = executor.getExecutor("sender");
+    senderExecutor.execute(blockingTask());
+    await().untilAsserted(() -> assertThat(executor.isActive()).isTrue());
+    senderExecutor.execute(() -> {
+    });
+    senderExecutor.execute(() -> {
+    });
+    assertThat(executor.getQueueSize("sender")).isEqualTo(2);
+
+    Thread submitter = new Thread(() -> senderExecutor.execute(() -> {
+    }));
+    submitter.start();
+
+    await().untilAsserted(() -> assertThat(submitter.getState()).isEqualTo(
+        Thread.State.TIMED_WAITING));
+    release.countDown();
+    await().untilAsserted(() -> assertThat(submitter.isAlive()).isFalse());
+    verify(queueStats, times(1)).incThrottleCount();
+  }
+
+  /**
+   * A sender whose queue has the same home worker as every other instance.
+   */
+  private static class SameHash {
+    private final String name;
+
+    SameHash(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+import org.apache.geode.logging.internal.executors.LoggingThreadFactory;
+
+public class VirtualThreadExecutorWithDMStatsTest {
+
+  private final PoolStatHelper poolStats = mock(PoolStatHelper.class);
+  private final QueueStatHelper queueStats = mock(QueueStatHelper.class);
+  private final ThreadsMonitoring threadsMonitoring = mock(ThreadsMonitoring.class);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private VirtualThreadExecutorWithDMStats executor;
+
+  @After
+  public void tearDown() throws Exception {
+    release.countDown();
+    if (executor != null) {
+      executor.shutdownNow();
+      executor.awaitTermination(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private VirtualThreadExecutorWithDMStats createExecutor(int maxConcurrency) {
+    executor = new VirtualThreadExecutorWithDMStats(new LoggingThreadFactory("test "),
+        maxConcurrency, poolStats, queueStats, threadsMonitoring);
+    return executor;
+  }
+
+  private Runnable blockingTask(AtomicInteger completed) {
+    return () -> {
+      try {
+        release.await();
+        completed.incrementAndGet();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+
+  @Test
+  public void runsAtMostMaxConcurrencyTasksAtOnce() {
+    createExecutor(2);
+    AtomicInteger completed = new AtomicInteger();
+
+    for (int i = 0; i < 5; i++) {
+      executor.execute(blockingTask(completed));
+    }
+
+    await().untilAsserted(() -> assertThat(executor.getActiveCount()).isEqualTo(2));
+    verify(queueStats, times(3)).add();
+    release.countDown();
+    await().untilAsserted(() -> assertThat(completed).hasValue(5));
+    await().untilAsserted(() -> assertThat(executor.getActiveCount()).isZero());
+    verify(queueStats, times(3)).remove();
+  }
+
+  @Test
+  public void uncappedExecutorRunsTasksThatWaitForTasksTheyExecute() {
+    createExecutor(Integer.MAX_VALUE);
+    AtomicInteger completed = new AtomicInteger();
+
+    for (int i = 0; i < 5; i++) {
+      executor.execute(() -> {
+        CountDownLatch nested = new CountDownLatch(1);
+        executor.execute(nested::countDown);
+        try {
+          nested.await();
+          completed.incrementAndGet();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+
+    await().untilAsserted(() -> assertThat(completed).hasValue(5));
+    verify(queueStats, never()).add();
+  }
+
+  @Test
+  public void notifiesStatsAndThreadMonitoringOfEachTask() {
+    createExecutor(1);
+    AtomicInteger completed = new AtomicInteger();
+
+    executor.execute(completed::incrementAndGet);
+    executor.execute(completed::incrementAndGet);
+
+    await().untilAsserted(() -> assertThat(executor.getActiveCount()).isZero());
+    assertThat(completed).hasValue(2);
+    verify(poolStats, times(2)).startJob();
+    verify(poolStats, times(2)).endJob();
+    verify(threadsMonitoring, times(2)).startMonitor(ThreadsMonitoring.Mode.PooledExecutor);
+    verify(threadsMonitoring, times(2)).endMonitor();
+  }
+
+  @Test
+  public void taskThatThrowsReleasesItsPermit() {
+    createExecutor(1);
+    AtomicInteger completed = new AtomicInteger();
+
+    executor.execute(() -> {
+      throw new IllegalStateException("expected");
+    });
+    executor.execute(completed::incrementAndGet);
+
+    await().untilAsserted(() -> assertThat(completed).hasValue(1));
+  }
+
+  @Test
+  public void shutdownRunsQueuedTasksAndRejectsNewOnes() throws Exception {
+    createExecutor(1);
+    AtomicInteger completed = new AtomicInteger();
+    executor.execute(blockingTask(completed));
+    executor.execute(blockingTask(completed));
+
+    executor.shutdown();
+
+    assertThatThrownBy(() -> executor.execute(completed::incrementAndGet))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(executor.isShutdown()).isTrue();
+    assertThat(executor.isTerminated()).isFalse();
+    release.countDown();
+    assertThat(executor.awaitTermination(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS))
+        .isTrue();
+    assertThat(completed).hasValue(2);
+  }
+
+  @Test
+  public void shutdownNowInterruptsRunningTasksAndReturnsQueuedTasks() throws Exception {
+    createExecutor(1);
+    AtomicInteger completed = new AtomicInteger();
+    executor.execute(blockingTask(completed));
+    Runnable queued = blockingTask(completed);
+    executor.execute(queued);
+
+    List<Runnable> notRun = executor.shutdownNow();
+
+    assertThat(notRun).containsExactly(queued);
+    verify(queueStats).remove(1);
+    assertThat(executor.awaitTermination(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS))
+        .isTrue();
+    assertThat(completed).hasValue(0);
+  }
+
+  @Test
+  public void awaitTerminationTimesOutWhileTasksRun() throws Exception {
+    createExecutor(1);
+    executor.execute(blockingTask(new AtomicInteger()));
+    executor.shutdown();
+
+    assertThat(executor.awaitTermination(10, TimeUnit.MILLISECONDS)).isFalse();
+  }
+}
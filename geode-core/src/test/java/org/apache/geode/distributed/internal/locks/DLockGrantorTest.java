@@ -23,6 +23,10 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.powermock.api.mockito.PowerMockito.when;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -36,6 +40,16 @@ public class DLockGrantorTest {
   private DistributionManager distributionManager;
   private DLockGrantor grantor;
 
+  private Set<DLockRemoteToken> heldTokens(InternalDistributedMember owner, String prefix,
+      int count, long leaseExpireTime) {
+    Set<DLockRemoteToken> tokens = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      tokens.add(DLockRemoteToken.create(prefix + i, new RemoteThread(owner, i), i + 1,
+          leaseExpireTime));
+    }
+    return tokens;
+  }
+
   @Before
   public void setup() {
     dLockService = mock(DLockService.class, RETURNS_DEEP_STUBS);
@@ -91,4 +105,73 @@ public class DLockGrantorTest {
     assertThat(spy.getMembersDepartedTimeRecords()).containsKey(owner);
   }
 
+  @Test
+  public void grantTokensAreFoundAcrossShards() throws Exception {
+    InternalDistributedMember owner = mock(InternalDistributedMember.class);
+    Set<InternalDistributedMember> members = new HashSet<>();
+    members.add(owner);
+    when(distributionManager.getDistributionManagerIds()).thenReturn(members);
+
+    grantor.initializeHeldLocks(owner, heldTokens(owner, "lock-", 100, Long.MAX_VALUE));
+
+    assertThat(grantor.getGrantTokens()).hasSize(100);
+    for (int i = 0; i < 100; i++) {
+      DLockGrantor.DLockGrantToken grantToken = grantor.getGrantToken("lock-" + i);
+      assertThat(grantToken).isNotNull();
+      assertThat(grantToken.getOwner()).isSameAs(owner);
+    }
+  }
+
+  @Test
+  public void departureOfOwnerReleasesAndRemovesItsGrantTokensInEveryShard() throws Exception {
+    InternalDistributedMember owner = mock(InternalDistributedMember.class);
+    Set<InternalDistributedMember> members = new HashSet<>();
+    members.add(owner);
+    when(distributionManager.getDistributionManagerIds()).thenReturn(members);
+    grantor.initializeHeldLocks(owner, heldTokens(owner, "lock-", 50, Long.MAX_VALUE));
+    grantor.makeReady(true);
+
+    grantor.handleDepartureOf(owner);
+
+    assertThat(grantor.getGrantTokens()).isEmpty();
+  }
+
+  @Test
+  public void onlyGrantTokensWhoseLeaseExpiredAreDue() throws Exception {
+    InternalDistributedMember owner = mock(InternalDistributedMember.class);
+    Set<InternalDistributedMember> members = new HashSet<>();
+    members.add(owner);
+    when(distributionManager.getDistributionManagerIds()).thenReturn(members);
+    when(distributionManager.cacheTimeMillis()).thenReturn(1000L);
+    grantor.initializeHeldLocks(owner, heldTokens(owner, "short-", 10, 5000));
+    grantor.initializeHeldLocks(owner, heldTokens(owner, "long-", 20, 9000));
+
+    assertThat(grantor.nextGrantDeadline()).isEqualTo(5000);
+    assertThat(grantor.pollDueGrants()).isEmpty();
+
+    when(distributionManager.cacheTimeMillis()).thenReturn(5000L);
+    Collection due = grantor.pollDueGrants();
+
+    assertThat(due).hasSize(10);
+    assertThat(grantor.nextGrantDeadline()).isEqualTo(9000);
+  }
+
+  @Test
+  public void expiredGrantTokensAreReleasedAndRemovedWhenDue() throws Exception {
+    InternalDistributedMember owner = mock(InternalDistributedMember.class);
+    Set<InternalDistributedMember> members = new HashSet<>();
+    members.add(owner);
+    when(distributionManager.getDistributionManagerIds()).thenReturn(members);
+    when(distributionManager.cacheTimeMillis()).thenReturn(1000L);
+    grantor.initializeHeldLocks(owner, heldTokens(owner, "short-", 10, 5000));
+    grantor.makeReady(true);
+
+    when(distributionManager.cacheTimeMillis()).thenReturn(6000L);
+    Collection due = grantor.pollDueGrants();
+    grantor.expireAndGrantLocks(due.iterator());
+    grantor.removeUnusedGrants(due.iterator());
+
+    assertThat(grantor.getGrantTokens()).isEmpty();
+    assertThat(grantor.nextGrantDeadline()).isEqualTo(Long.MAX_VALUE);
+  }
 }
@@ -15,9 +15,15 @@
 package org.apache.geode.distributed.internal.locks;
 
 import static org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID.system;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.After;
 import org.junit.Before;
@@ -26,12 +32,14 @@ import org.junit.Test;
 import org.apache.geode.distributed.ConfigurationProperties;
 import org.apache.geode.distributed.DistributedLockService;
 import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.LockNotHeldException;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 
 public class DLockServiceJUnitTest {
 
   DistributedSystem system;
   DistributedLockService lockService;
+  ExecutorService executor;
 
   @Before
   public void setup() {
@@ -44,6 +52,9 @@ public class DLockServiceJUnitTest {
 
   @After
   public void teardown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
     if (system != null) {
       system.disconnect();
     }
@@ -57,4 +68,68 @@ public class DLockServiceJUnitTest {
     lockService.unlock("MyLock");
     assertThat(lockService.isHeldByCurrentThread("MyLock")).isFalse();
   }
+
+  @Test
+  public void unlockCachesLeaseThatSameThreadLocksAgain() {
+    DLockService dls = (DLockService) lockService;
+    dls.setLeaseCaching(true);
+    assertThat(dls.lock("MyLock", 0, -1)).isTrue();
+    DLockToken token = dls.getToken("MyLock");
+    int leaseId = leaseIdOf(token);
+
+    dls.unlock("MyLock");
+
+    assertThat(dls.isHeldByCurrentThread("MyLock")).isFalse();
+    synchronized (token) {
+      assertThat(token.isLeaseCached()).isTrue();
+    }
+    assertThat(dls.lock("MyLock", 0, -1)).isTrue();
+    assertThat(dls.isHeldByCurrentThread("MyLock")).isTrue();
+    assertThat(leaseIdOf(token)).isEqualTo(leaseId);
+    dls.unlock("MyLock");
+  }
+
+  @Test
+  public void unlockOfCachedLeaseThrowsLockNotHeld() {
+    DLockService dls = (DLockService) lockService;
+    dls.setLeaseCaching(true);
+    assertThat(dls.lock("MyLock", 0, -1)).isTrue();
+    dls.unlock("MyLock");
+
+    assertThatThrownBy(() -> dls.unlock("MyLock")).isInstanceOf(LockNotHeldException.class);
+  }
+
+  @Test
+  public void otherThreadLocksAfterReleasingCachedLease() throws Exception {
+    DLockService dls = (DLockService) lockService;
+    dls.setLeaseCaching(true);
+    assertThat(dls.lock("MyLock", 0, -1)).isTrue();
+    dls.unlock("MyLock");
+    executor = Executors.newSingleThreadExecutor();
+
+    Future<Boolean> locked = executor.submit(() -> dls.lock("MyLock", 0, -1));
+
+    assertThat(locked.get(30, SECONDS)).isTrue();
+    assertThat(dls.lock("MyLock", 0, -1)).isFalse();
+  }
+
+  @Test
+  public void waitingRequestRevokesLeaseSoUnlockReleasesIt() throws Exception {
+    DLockService dls = (DLockService) lockService;
+    dls.setLeaseCaching(true);
+    assertThat(dls.lock("MyLock", 0, -1)).isTrue();
+    executor = Executors.newSingleThreadExecutor();
+
+    Future<Boolean> locked = executor.submit(() -> dls.lock("MyLock", 30_000, -1));
+    await().until(() -> dls.getGrantor().getGrantToken("MyLock").hasWaitingRequests());
+    dls.unlock("MyLock");
+
+    assertThat(locked.get(30, SECONDS)).isTrue();
+  }
+
+  private static int leaseIdOf(DLockToken token) {
+    synchronized (token) {
+      return token.getLeaseId();
+    }
+  }
 }
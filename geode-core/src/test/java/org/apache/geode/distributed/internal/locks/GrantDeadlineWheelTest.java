@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class GrantDeadlineWheelTest {
+
+  private final GrantDeadlineWheel<String> wheel = new GrantDeadlineWheel<>(10, 8);
+
+  @Test
+  public void requiresPositiveTick() {
+    assertThatThrownBy(() -> new GrantDeadlineWheel<String>(0, 8))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void pollDueReturnsOnlyItemsWhoseDeadlinePassed() {
+    wheel.pollDue(1000);
+    wheel.schedule("a", 1015);
+    wheel.schedule("b", 1040);
+
+    assertThat(wheel.pollDue(1010)).isEmpty();
+    assertThat(wheel.pollDue(1015)).containsExactly("a");
+    assertThat(wheel.pollDue(1039)).isEmpty();
+    assertThat(wheel.pollDue(1045)).containsExactly("b");
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  public void itemDueLaterInTheCurrentTickIsNotSkipped() {
+    wheel.pollDue(1000);
+    wheel.schedule("a", 1008);
+
+    assertThat(wheel.pollDue(1005)).isEmpty();
+    assertThat(wheel.pollDue(1008)).containsExactly("a");
+  }
+
+  @Test
+  public void itemBeyondOneRotationStaysUntilItsDeadline() {
+    wheel.pollDue(1000);
+    // one rotation is 8 slots of 10 millis
+    wheel.schedule("a", 1205);
+
+    assertThat(wheel.pollDue(1050)).isEmpty();
+    assertThat(wheel.pollDue(1125)).isEmpty();
+    assertThat(wheel.pollDue(1204)).isEmpty();
+    assertThat(wheel.pollDue(1205)).containsExactly("a");
+  }
+
+  @Test
+  public void pollAfterLongPauseVisitsEverySlot() {
+    wheel.pollDue(1000);
+    wheel.schedule("a", 1015);
+    wheel.schedule("b", 1075);
+
+    assertThat(wheel.pollDue(5000)).containsExactlyInAnyOrder("a", "b");
+  }
+
+  @Test
+  public void itemsScheduledBeforeFirstPollAreFound() {
+    wheel.schedule("a", 995);
+    wheel.schedule("b", 2000);
+
+    assertThat(wheel.pollDue(1000)).containsExactly("a");
+    assertThat(wheel.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void deadlineAlreadyPassedIsDueOnNextPoll() {
+    wheel.pollDue(1000);
+    wheel.schedule("a", 900);
+
+    assertThat(wheel.pollDue(1000)).containsExactly("a");
+  }
+
+  @Test
+  public void keepsOnlyTheEarliestDeadline() {
+    wheel.pollDue(1000);
+    assertThat(wheel.schedule("a", 1050)).isTrue();
+    assertThat(wheel.schedule("a", 1060)).isFalse();
+    assertThat(wheel.schedule("a", 1020)).isTrue();
+
+    assertThat(wheel.pollDue(1020)).containsExactly("a");
+    assertThat(wheel.pollDue(1100)).isEmpty();
+  }
+
+  @Test
+  public void neverIsNotScheduled() {
+    assertThat(wheel.schedule("a", Long.MAX_VALUE)).isFalse();
+    assertThat(wheel.size()).isZero();
+    assertThat(wheel.nextDeadline()).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void nextDeadlineIsTheEarliestDeadlineInTheRotation() {
+    wheel.pollDue(1000);
+    wheel.schedule("a", 1200);
+    wheel.schedule("b", 1047);
+    wheel.schedule("c", 1043);
+
+    assertThat(wheel.nextDeadline()).isEqualTo(1043);
+  }
+
+  @Test
+  public void nextDeadlineIsEndOfRotationWhenAllItemsAreBeyondIt() {
+    wheel.pollDue(1000);
+    wheel.schedule("a", 1205);
+
+    assertThat(wheel.nextDeadline()).isEqualTo(1080);
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.distributed.internal.membership.gms.api.MemberIdentifier;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class GMSMembershipViewDeltaJUnitTest {
+
+  private List<MemberIdentifier> members;
+  private GMSMembershipView base;
+
+  @Before
+  public void setUp() throws Exception {
+    members = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      MemberIdentifier mbr = new InternalDistributedMember(SocketCreator.getLocalHost(), 1000 + i);
+      mbr.setVmViewId(i < 5 ? 1 : 2);
+      members.add(mbr);
+    }
+    base = new GMSMembershipView(members.get(0), 2, new ArrayList<>(members));
+    for (MemberIdentifier mbr : members) {
+      base.setFailureDetectionPort(mbr, mbr.getMembershipPort() + 1);
+    }
+  }
+
+  private GMSMembershipView createNextView() throws Exception {
+    MemberIdentifier joiner = new InternalDistributedMember(SocketCreator.getLocalHost(), 2000);
+    joiner.setVmViewId(3);
+    List<MemberIdentifier> viewMembers = new ArrayList<>(members);
+    viewMembers.remove(members.get(3));
+    viewMembers.remove(members.get(7));
+    viewMembers.add(joiner);
+    GMSMembershipView view = new GMSMembershipView(members.get(0), 3, viewMembers,
+        new HashSet<>(Collections.singleton(members.get(7))),
+        new HashSet<>(Collections.singleton(members.get(3))));
+    view.setFailureDetectionPorts(base);
+    view.setFailureDetectionPort(joiner, 2001);
+    view.setFailureDetectionPort(members.get(1), 1500);
+    return view;
+  }
+
+  private void assertSameView(GMSMembershipView actual, GMSMembershipView expected) {
+    assertThat(actual.getViewId()).isEqualTo(expected.getViewId());
+    assertThat(actual.getCreator()).isEqualTo(expected.getCreator());
+    assertThat(actual.getMembers()).isEqualTo(expected.getMembers());
+    assertThat(actual.getShutdownMembers()).isEqualTo(expected.getShutdownMembers());
+    assertThat(actual.getCrashedMembers()).isEqualTo(expected.getCrashedMembers());
+    for (int i = 0; i < expected.size(); i++) {
+      MemberIdentifier mbr = expected.getMembers().get(i);
+      assertThat(actual.getMembers().get(i).getVmViewId()).isEqualTo(mbr.getVmViewId());
+      assertThat(actual.getFailureDetectionPort(mbr))
+          .isEqualTo(expected.getFailureDetectionPort(mbr));
+      assertThat(actual.getPublicKey(mbr)).isEqualTo(expected.getPublicKey(mbr));
+    }
+  }
+
+  @Test
+  public void applyToBaseReproducesView() throws Exception {
+    GMSMembershipView view = createNextView();
+
+    GMSMembershipView result = GMSMembershipViewDelta.create(base, view).apply(base);
+
+    assertSameView(result, view);
+  }
+
+  @Test
+  public void applyToOtherViewReturnsNull() throws Exception {
+    GMSMembershipViewDelta delta = GMSMembershipViewDelta.create(base, createNextView());
+
+    GMSMembershipView otherViewId = new GMSMembershipView(base, 1);
+    List<MemberIdentifier> otherMembers = new ArrayList<>(members);
+    Collections.swap(otherMembers, 1, 2);
+    GMSMembershipView otherMembersView = new GMSMembershipView(members.get(0), 2, otherMembers);
+
+    assertThat(delta.isBasedOn(base)).isTrue();
+    assertThat(delta.apply(otherViewId)).isNull();
+    assertThat(delta.apply(otherMembersView)).isNull();
+    assertThat(delta.apply(null)).isNull();
+  }
+
+  @Test
+  public void applyToBaseWithOtherIncarnationOfMemberReturnsNull() throws Exception {
+    GMSMembershipViewDelta delta = GMSMembershipViewDelta.create(base, createNextView());
+    List<MemberIdentifier> otherMembers = new ArrayList<>(members);
+    MemberIdentifier restarted =
+        new InternalDistributedMember(SocketCreator.getLocalHost(), 1004);
+    restarted.setVmViewId(2);
+    otherMembers.set(4, restarted);
+
+    assertThat(delta.apply(new GMSMembershipView(members.get(0), 2, otherMembers))).isNull();
+  }
+
+  @Test
+  public void changedPublicKeysAreApplied() throws Exception {
+    base.setPublicKey(members.get(1), new byte[] {1});
+    base.setPublicKey(members.get(2), new byte[] {2});
+    GMSMembershipView view = createNextView();
+    view.setPublicKey(members.get(1), new byte[] {1});
+    view.setPublicKey(members.get(2), new byte[] {3});
+    view.setPublicKey(view.getMembers().get(view.size() - 1), new byte[] {4});
+
+    GMSMembershipView result = GMSMembershipViewDelta.create(base, view).apply(base);
+
+    assertThat((byte[]) result.getPublicKey(members.get(1))).containsExactly(1);
+    assertThat((byte[]) result.getPublicKey(members.get(2))).containsExactly(3);
+    assertThat((byte[]) result.getPublicKey(view.getMembers().get(view.size() - 1)))
+        .containsExactly(4);
+    assertThat(result.getPublicKey(members.get(4))).isNull();
+  }
+
+  @Test
+  public void installViewMessageCarriesDeltaToCurrentVersion() throws Exception {
+    GMSMembershipView view = createNextView();
+    InstallViewMessage full = new InstallViewMessage(view, null, true);
+    InstallViewMessage delta = new InstallViewMessage(view,
+        GMSMembershipViewDelta.create(base, view), null, true);
+
+    HeapDataOutputStream fullOut = new HeapDataOutputStream(Version.CURRENT);
+    full.toData(fullOut, InternalDataSerializer.createSerializationContext(fullOut));
+    HeapDataOutputStream deltaOut = new HeapDataOutputStream(Version.CURRENT);
+    delta.toData(deltaOut, InternalDataSerializer.createSerializationContext(deltaOut));
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(deltaOut.toByteArray()));
+    InstallViewMessage result = new InstallViewMessage();
+    result.fromData(in, InternalDataSerializer.createDeserializationContext(in));
+
+    assertThat(deltaOut.size()).isLessThan(fullOut.size());
+    assertThat(result.getView()).isNull();
+    assertThat(result.isPreparing()).isTrue();
+    assertSameView(result.getDelta().apply(base), view);
+  }
+
+  @Test
+  public void installViewMessageCarriesFullViewToOlderVersion() throws Exception {
+    GMSMembershipView view = createNextView();
+    InstallViewMessage delta = new InstallViewMessage(view,
+        GMSMembershipViewDelta.create(base, view), null, false);
+
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.GEODE_1_11_0);
+    delta.toData(out, InternalDataSerializer.createSerializationContext(out));
+    byte[] bytes = out.toByteArray();
+    HeapDataOutputStream currentOut = new HeapDataOutputStream(Version.CURRENT);
+    new InstallViewMessage(view, null, false).toData(currentOut,
+        InternalDataSerializer.createSerializationContext(currentOut));
+
+    // the current version adds only the flag that tells full views from deltas
+    assertThat(currentOut.size()).isEqualTo(bytes.length + 1);
+    assertThat(Arrays.copyOfRange(currentOut.toByteArray(), 9, currentOut.size()))
+        .isEqualTo(Arrays.copyOfRange(bytes, 8, bytes.length));
+  }
+}
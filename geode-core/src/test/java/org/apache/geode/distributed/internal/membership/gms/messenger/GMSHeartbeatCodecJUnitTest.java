@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messenger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jgroups.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.distributed.internal.membership.gms.GMSMembershipView;
+import org.apache.geode.distributed.internal.membership.gms.api.MemberIdentifier;
+import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class GMSHeartbeatCodecJUnitTest {
+
+  private List<MemberIdentifier> members;
+  private GMSHeartbeatCodec codec;
+
+  @Before
+  public void setUp() throws Exception {
+    members = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      MemberIdentifier mbr = new InternalDistributedMember(SocketCreator.getLocalHost(), 1000 + i);
+      mbr.setVmViewId(i + 1);
+      mbr.getMemberData().setUUID(UUID.randomUUID());
+      members.add(mbr);
+    }
+    codec = new GMSHeartbeatCodec();
+    codec.installView(new GMSMembershipView(members.get(0), 3, new ArrayList<>(members)));
+  }
+
+  @Test
+  public void heartbeatIsDecodedWithSenderOfView() {
+    byte[] buffer = new byte[GMSHeartbeatCodec.LENGTH + 3];
+    System.arraycopy(codec.encode(42, members.get(1)), 0, buffer, 3, GMSHeartbeatCodec.LENGTH);
+
+    assertThat(codec.isHeartbeat(buffer, 3, GMSHeartbeatCodec.LENGTH)).isTrue();
+    assertThat(codec.getRequestId(buffer, 3)).isEqualTo(42);
+    assertThat(codec.getSender(buffer, 3)).isSameAs(members.get(1));
+  }
+
+  @Test
+  public void periodicHeartbeatIsReused() {
+    byte[] first = codec.encode(-1, members.get(0));
+
+    assertThat(codec.encode(-1, members.get(0))).isSameAs(first);
+    assertThat(codec.getRequestId(first, 0)).isEqualTo(-1);
+    assertThat(codec.encode(-1, members.get(1))).isNotSameAs(first);
+    assertThat(codec.encode(7, members.get(1))).isNotSameAs(codec.encode(7, members.get(1)));
+  }
+
+  @Test
+  public void heartbeatFromMemberNotInViewHasNoSender() throws Exception {
+    MemberIdentifier stranger = new InternalDistributedMember(SocketCreator.getLocalHost(), 2000);
+    MemberIdentifier restarted = new InternalDistributedMember(SocketCreator.getLocalHost(), 1001);
+    restarted.setVmViewId(2);
+    restarted.getMemberData().setUUID(UUID.randomUUID());
+
+    assertThat(codec.getSender(codec.encode(-1, stranger), 0)).isNull();
+    assertThat(codec.getSender(codec.encode(-1, restarted), 0)).isNull();
+  }
+
+  @Test
+  public void heartbeatIsDecodedWithSenderSharingUuidBitsWithOthers() throws Exception {
+    List<MemberIdentifier> noUuids = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      MemberIdentifier mbr = new InternalDistributedMember(SocketCreator.getLocalHost(), 1000 + i);
+      mbr.setVmViewId(i + 1);
+      noUuids.add(mbr);
+    }
+    codec.installView(new GMSMembershipView(noUuids.get(0), 3, noUuids));
+
+    for (MemberIdentifier mbr : noUuids) {
+      assertThat(codec.getSender(codec.encode(-1, mbr), 0)).isSameAs(mbr);
+    }
+  }
+
+  @Test
+  public void addressOfViewMemberIsReused() throws Exception {
+    JGAddress address = codec.getAddress(members.get(2));
+    MemberIdentifier stranger = new InternalDistributedMember(SocketCreator.getLocalHost(), 2000);
+
+    assertThat(codec.getAddress(members.get(2))).isSameAs(address);
+    assertThat(address.getVmViewId()).isEqualTo(3);
+    assertThat(codec.getAddress(stranger)).isEqualTo(new JGAddress(stranger));
+  }
+
+  @Test
+  public void otherMessagesAreNotHeartbeats() {
+    byte[] heartbeat = codec.encode(-1, members.get(0));
+
+    assertThat(codec.isHeartbeat(heartbeat, 0, heartbeat.length - 1)).isFalse();
+    assertThat(codec.isHeartbeat(new byte[GMSHeartbeatCodec.LENGTH], 0, GMSHeartbeatCodec.LENGTH))
+        .isFalse();
+    assertThat(codec.isHeartbeat(new byte[] {'p', 'i', 'n', 'g'}, 0, 4)).isFalse();
+  }
+}
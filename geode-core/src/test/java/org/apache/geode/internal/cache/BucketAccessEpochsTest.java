@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class BucketAccessEpochsTest {
+
+  @Test
+  public void takeLocalEpochReturnsNullIfNothingWasRead() {
+    BucketAccessEpochs epochs = new BucketAccessEpochs();
+
+    assertThat(epochs.takeLocalEpoch(100)).isNull();
+  }
+
+  @Test
+  public void keysReadLocallyAreFoundInTheEpochSentToOthers() {
+    BucketAccessEpochs sender = new BucketAccessEpochs();
+    sender.takeLocalEpoch(10_000);
+    for (int i = 0; i < 100; i++) {
+      sender.recordAccess("key" + i);
+    }
+    long[] bitmap = sender.takeLocalEpoch(10_000);
+
+    assertThat(bitmap.length * 64).isLessThanOrEqualTo(100 * BucketAccessEpochs.BITS_PER_KEY * 2);
+    assertThat(sender.takeLocalEpoch(10_000)).isNull();
+
+    BucketAccessEpochs receiver = new BucketAccessEpochs();
+    receiver.addRemoteEpoch(1000, bitmap, 0);
+    for (int i = 0; i < 100; i++) {
+      assertThat(receiver.getLatestRemoteAccessTime("key" + i)).isEqualTo(1000);
+    }
+    int falsePositives = 0;
+    for (int i = 100; i < 10_100; i++) {
+      if (receiver.getLatestRemoteAccessTime("key" + i) != 0) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives).isLessThan(500);
+  }
+
+  @Test
+  public void readRecordedWhileEpochIsTakenIsNotLost() throws Exception {
+    BucketAccessEpochs epochs = new BucketAccessEpochs();
+    int reads = 10_000;
+    Thread reader = new Thread(() -> {
+      for (int i = 0; i < reads; i++) {
+        epochs.recordAccess("key" + i);
+      }
+    });
+    Set<Integer> found = new HashSet<>();
+    List<long[]> taken = new ArrayList<>();
+
+    reader.start();
+    while (reader.isAlive()) {
+      long[] bitmap = epochs.takeLocalEpoch(reads);
+      if (bitmap != null) {
+        taken.add(bitmap);
+      }
+    }
+    reader.join();
+    long[] last = epochs.takeLocalEpoch(reads);
+    if (last != null) {
+      taken.add(last);
+    }
+
+    for (int i = 0; i < reads; i++) {
+      for (long[] bitmap : taken) {
+        if (contains(bitmap, "key" + i)) {
+          found.add(i);
+          break;
+        }
+      }
+    }
+    assertThat(found).hasSize(reads);
+  }
+
+  @Test
+  public void latestEpochContainingKeyIsReturned() {
+    BucketAccessEpochs epochs = new BucketAccessEpochs();
+    epochs.addRemoteEpoch(2000, bitmapOf("a", "b"), 0);
+    epochs.addRemoteEpoch(1000, bitmapOf("a", "c"), 0);
+
+    assertThat(epochs.getLatestRemoteAccessTime("a")).isEqualTo(2000);
+    assertThat(epochs.getLatestRemoteAccessTime("c")).isEqualTo(1000);
+  }
+
+  @Test
+  public void epochsOlderThanOldestEndTimeAreDropped() {
+    BucketAccessEpochs epochs = new BucketAccessEpochs();
+    epochs.addRemoteEpoch(1000, bitmapOf("a"), 0);
+    epochs.addRemoteEpoch(5000, bitmapOf("b"), 2000);
+
+    assertThat(epochs.getRemoteEpochCount()).isOne();
+    assertThat(epochs.getLatestRemoteAccessTime("a")).isZero();
+    assertThat(epochs.getLatestRemoteAccessTime("b")).isEqualTo(5000);
+  }
+
+  @Test
+  public void mergedEpochsStillContainTheirKeysAtTheNewerTime() {
+    BucketAccessEpochs epochs = new BucketAccessEpochs();
+    for (int i = 0; i < BucketAccessEpochs.MAX_EPOCHS + 10; i++) {
+      epochs.addRemoteEpoch(i * 1000L, bitmapOf("key" + i), 0);
+    }
+
+    assertThat(epochs.getRemoteEpochCount()).isEqualTo(BucketAccessEpochs.MAX_EPOCHS);
+    for (int i = 0; i < BucketAccessEpochs.MAX_EPOCHS + 10; i++) {
+      assertThat(epochs.getLatestRemoteAccessTime("key" + i)).isGreaterThanOrEqualTo(i * 1000L);
+    }
+  }
+
+  @Test
+  public void orOfDifferentSizesContainsKeysOfBoth() {
+    long[] small = bitmapOfSize(64, "a");
+    long[] large = bitmapOfSize(1024, "b");
+
+    long[] result = BucketAccessEpochs.or(small, large);
+
+    assertThat(result).hasSize(large.length);
+    assertThat(contains(result, "a")).isTrue();
+    assertThat(contains(result, "b")).isTrue();
+  }
+
+  private static long[] bitmapOf(Object... keys) {
+    return bitmapOfSize(256, keys);
+  }
+
+  private static long[] bitmapOfSize(int bits, Object... keys) {
+    long[] bitmap = new long[bits / 64];
+    for (Object key : keys) {
+      int index = BucketAccessEpochs.indexOf(key, bits);
+      bitmap[index >>> 6] |= 1L << index;
+    }
+    return bitmap;
+  }
+
+  private static boolean contains(long[] bitmap, Object key) {
+    int index = BucketAccessEpochs.indexOf(key, bitmap.length * 64);
+    return (bitmap[index >>> 6] & (1L << index)) != 0;
+  }
+}
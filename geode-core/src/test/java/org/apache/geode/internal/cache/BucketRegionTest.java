@@ -578,4 +578,15 @@ public class BucketRegionTest {
     verify(partitionedRegion).invokePutCallbacks(EnumListenerEvent.AFTER_CREATE, event,
         true, false);
   }
+
+  @Test
+  public void remoteAccessEpochIsIgnoredIfReadsAreNotExchanged() {
+    BucketRegion bucketRegion = new BucketRegion(regionName, regionAttributes, partitionedRegion,
+        cache, internalRegionArgs, disabledClock());
+
+    bucketRegion.addRemoteAccessEpoch(1000L, new long[1]);
+
+    assertThat(bucketRegion.getAccessEpochs()).isNull();
+    assertThat(bucketRegion.getRemoteAccessDelay()).isZero();
+  }
 }
@@ -62,7 +62,9 @@ import org.junit.Test;
 import org.apache.geode.Statistics;
 import org.apache.geode.StatisticsFactory;
 import org.apache.geode.StatisticsType;
+import org.apache.geode.internal.statistics.StatisticsImpl;
 import org.apache.geode.internal.statistics.StatisticsManager;
+import org.apache.geode.internal.statistics.StatisticsRegistry;
 import org.apache.geode.internal.statistics.StripedStatisticsImpl;
 
 /**
@@ -121,6 +123,25 @@ public class CachePerfStatsTest {
     assertThat(cachePerfStats.getPuts()).isNegative();
   }
 
+  @Test
+  public void endGetAndEndPutRecordLatenciesWhenHistogramsAreEnabled() {
+    StatisticsRegistry registry = new StatisticsRegistry("test", 0);
+    cachePerfStats.enableLatencyHistograms(registry, null);
+
+    cachePerfStats.endGet(CLOCK_TIME - 3, false);
+    cachePerfStats.endPut(CLOCK_TIME - 7, false);
+    cachePerfStats.endPut(CLOCK_TIME - 5, true);
+
+    Statistics gets = registry.findStatisticsByTextId("cacheGets")[0];
+    Statistics puts = registry.findStatisticsByTextId("cachePuts")[0];
+    ((StatisticsImpl) gets).updateSuppliedValues();
+    ((StatisticsImpl) puts).updateSuppliedValues();
+    assertThat(gets.getLong("operations")).isEqualTo(1L);
+    assertThat(gets.getLong("max")).isEqualTo(3L);
+    assertThat(puts.getLong("operations")).isEqualTo(2L);
+    assertThat(puts.getLong("max")).isEqualTo(7L);
+  }
+
   @Test
   public void getGetsDelegatesToStatistics() {
     statistics.incLong(getsId, Long.MAX_VALUE);
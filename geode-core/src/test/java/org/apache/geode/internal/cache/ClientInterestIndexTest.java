@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class ClientInterestIndexTest {
+
+  private final ClientInterestIndex index = new ClientInterestIndex();
+
+  @Test
+  public void literalPrefixStopsAtMetaCharacters() {
+    assertThat(ClientInterestIndex.literalPrefix("order-.*")).isEqualTo("order-");
+    assertThat(ClientInterestIndex.literalPrefix("order-[0-9]+")).isEqualTo("order-");
+    assertThat(ClientInterestIndex.literalPrefix("orders*")).isEqualTo("order");
+    assertThat(ClientInterestIndex.literalPrefix("orders?x")).isEqualTo("order");
+    assertThat(ClientInterestIndex.literalPrefix("orders{0,2}")).isEqualTo("order");
+    assertThat(ClientInterestIndex.literalPrefix("orders+")).isEqualTo("orders");
+    assertThat(ClientInterestIndex.literalPrefix("a|b")).isEmpty();
+    assertThat(ClientInterestIndex.literalPrefix("(?i)order")).isEmpty();
+    assertThat(ClientInterestIndex.literalPrefix("\\d+")).isEmpty();
+  }
+
+  @Test
+  public void literalPrefixKeepsSurrogatePairsTogether() {
+    assertThat(ClientInterestIndex.literalPrefix("a😀*")).isEqualTo("a");
+  }
+
+  @Test
+  public void matchesRegisteredKeys() {
+    index.addKey(1L, "k1");
+    index.addKeys(2L, Arrays.asList("k1", 7));
+
+    assertThat(index.addInterestedClients("k1", null)).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(index.addInterestedClients(7, null)).containsExactly(2L);
+    assertThat(index.addInterestedClients("k2", null)).isNull();
+  }
+
+  @Test
+  public void matchesPatternsRegardlessOfPrefixLength() {
+    addPattern(1L, "order-.*");
+    addPattern(2L, "order-1.*");
+    addPattern(3L, ".*-1");
+    addPattern(4L, "cust.*");
+
+    assertThat(index.addInterestedClients("order-1", null)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    assertThat(index.addInterestedClients("order-2", null)).containsExactly(1L);
+    assertThat(index.addInterestedClients("order-", null)).containsExactly(1L);
+    assertThat(index.addInterestedClients("customer", null)).containsExactly(4L);
+    assertThat(index.addInterestedClients("other", null)).isNull();
+  }
+
+  @Test
+  public void patternsAreNotMatchedAgainstNonStringKeys() {
+    addPattern(1L, ".*1");
+
+    assertThat(index.addInterestedClients(1, null)).isNull();
+  }
+
+  @Test
+  public void literalPatternsMatchOnlyTheirOwnText() {
+    addPattern(1L, "order-1");
+
+    assertThat(index.getPatternCount()).isZero();
+    assertThat(index.addInterestedClients("order-1", null)).containsExactly(1L);
+    assertThat(index.addInterestedClients("order-10", null)).isNull();
+  }
+
+  @Test
+  public void patternIsSharedUntilLastClientUnregisters() {
+    addPattern(1L, "order-.*");
+    addPattern(2L, "order-.*");
+    assertThat(index.getPatternCount()).isEqualTo(1);
+
+    index.removePattern(1L, "order-.*");
+    assertThat(index.addInterestedClients("order-1", null)).containsExactly(2L);
+
+    index.removePattern(2L, "order-.*");
+    assertThat(index.getPatternCount()).isZero();
+    assertThat(index.addInterestedClients("order-1", null)).isNull();
+  }
+
+  @Test
+  public void removingKeysStopsMatching() {
+    index.addKeys(1L, Arrays.asList("k1", "k2"));
+    index.addKey(2L, "k1");
+
+    index.removeKeys(1L, Arrays.asList("k1", "k2"));
+
+    assertThat(index.addInterestedClients("k1", null)).containsExactly(2L);
+    assertThat(index.addInterestedClients("k2", null)).isNull();
+  }
+
+  @Test
+  public void clearRemovesAllInterest() {
+    index.addKey(1L, "k1");
+    addPattern(1L, "k.*");
+
+    index.clear();
+
+    assertThat(index.addInterestedClients("k1", null)).isNull();
+  }
+
+  private void addPattern(Long clientID, String regex) {
+    index.addPattern(clientID, regex, Pattern.compile(regex));
+  }
+}
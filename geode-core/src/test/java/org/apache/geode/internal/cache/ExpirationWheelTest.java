@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExpirationWheelTest {
+  private static final long TICK = 10;
+
+  private ExpirationWheel wheel;
+
+  private long start;
+
+  @Before
+  public void setup() {
+    start = System.currentTimeMillis();
+    wheel = new ExpirationWheel(TICK, 4, 100, null);
+  }
+
+  @Test
+  public void taskIsDueOnceItsDeadlineHasPassed() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    long deadline = start + 5000;
+    wheel.schedule(task, deadline);
+
+    assertThat(wheel.advance(deadline - TICK - 1)).isEmpty();
+    assertThat(wheel.size()).isOne();
+    assertThat(wheel.advance(deadline + TICK - 1)).containsExactly(task);
+    assertThat(wheel.size()).isZero();
+    assertThat(wheel.advance(deadline + 10 * TICK)).isEmpty();
+  }
+
+  @Test
+  public void taskOnHigherLevelIsNotDueEarly() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    long deadline = start + TimeUnit.HOURS.toMillis(3);
+    wheel.schedule(task, deadline);
+
+    assertThat(wheel.advance(start + TimeUnit.HOURS.toMillis(1))).isEmpty();
+    assertThat(wheel.advance(deadline - TICK - 1)).isEmpty();
+    assertThat(wheel.advance(deadline + TICK - 1)).containsExactly(task);
+  }
+
+  @Test
+  public void tasksBecomeDueInDeadlineOrderAcrossAdvances() {
+    List<ExpiryTask> tasks = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ExpiryTask task = mock(ExpiryTask.class);
+      tasks.add(task);
+      wheel.schedule(task, start + (i + 1) * 1000L);
+    }
+
+    List<ExpiryTask> due = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      due.addAll(wheel.advance(start + (i + 1) * 1000L + TICK));
+      assertThat(due).hasSize(i + 1);
+    }
+    assertThat(due).containsExactlyElementsOf(tasks);
+  }
+
+  @Test
+  public void taskPastItsDeadlineIsDueImmediately() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    wheel.schedule(task, start - 1000);
+
+    assertThat(wheel.advance(start)).containsExactly(task);
+  }
+
+  @Test
+  public void cancelledTaskIsNotDue() {
+    ExpiryTask cancelled = mock(ExpiryTask.class);
+    ExpiryTask kept = mock(ExpiryTask.class);
+    wheel.schedule(cancelled, start + 1000);
+    wheel.schedule(kept, start + 1000);
+
+    assertThat(ExpirationWheel.cancel(cancelled)).isTrue();
+    assertThat(ExpirationWheel.cancel(cancelled)).isFalse();
+    assertThat(wheel.size()).isOne();
+    assertThat(wheel.advance(start + 2000)).containsExactly(kept);
+    assertThat(ExpirationWheel.cancel(kept)).isFalse();
+  }
+
+  @Test
+  public void taskCannotBeScheduledTwice() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    wheel.schedule(task, start + 1000);
+
+    assertThatThrownBy(() -> wheel.schedule(task, start + 2000))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void cancelledTaskCannotBeScheduled() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    task.wheelCancelled = true;
+
+    assertThatThrownBy(() -> wheel.schedule(task, start + 1000))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  public void stoppedWheelRejectsTasks() {
+    wheel.stop();
+
+    assertThatThrownBy(() -> wheel.schedule(mock(ExpiryTask.class), start + 1000))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void batchesGroupTasksByRegion() {
+    wheel = new ExpirationWheel(TICK, 1, 2, null);
+    LocalRegion region1 = mock(LocalRegion.class);
+    LocalRegion region2 = mock(LocalRegion.class);
+    ExpiryTask task1 = createTask(region1);
+    ExpiryTask task2 = createTask(region2);
+    ExpiryTask task3 = createTask(region1);
+    ExpiryTask task4 = createTask(region1);
+
+    List<List<ExpiryTask>> batches =
+        wheel.toBatches(Arrays.asList(task1, task2, task3, task4));
+
+    assertThat(batches).containsExactly(Arrays.asList(task1, task3), Arrays.asList(task2),
+        Arrays.asList(task4));
+  }
+
+  private ExpiryTask createTask(LocalRegion region) {
+    ExpiryTask task = mock(ExpiryTask.class);
+    when(task.getLocalRegion()).thenReturn(region);
+    return task;
+  }
+}
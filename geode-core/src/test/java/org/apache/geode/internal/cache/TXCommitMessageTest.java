@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -21,13 +22,24 @@ import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.util.HashSet;
 
 import org.junit.Test;
 
 import org.apache.geode.CancelCriterion;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Operation;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.cache.TXCommitMessage.RegionCommit;
+import org.apache.geode.internal.cache.TXCommitMessage.RegionCommit.FarSideEntryOp;
+import org.apache.geode.internal.cache.versions.VMVersionTag;
+import org.apache.geode.internal.cache.versions.VersionTag;
+import org.apache.geode.internal.serialization.Version;
 
 public class TXCommitMessageTest {
 
@@ -57,4 +69,125 @@ public class TXCommitMessageTest {
     verify(processor, timeout(60000)).waitForRepliesUninterruptibly();
   }
 
+  @Test
+  public void compactEncodingIsUsedWithCurrentVersion() {
+    assertThat(TXCommitMessage.useCompactEncoding(Version.CURRENT)).isTrue();
+    assertThat(TXCommitMessage.useCompactEncoding(Version.GEODE_1_11_0)).isFalse();
+  }
+
+  @Test
+  public void compactEntryOpOmitsSharedVersionMember() throws Exception {
+    InternalDistributedMember shared = new InternalDistributedMember("localhost", 1);
+    byte[] value = new byte[] {1, 2, 3};
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject("key", out);
+    RegionCommit.writeCompactEntryOp(out, Operation.UPDATE, RegionCommit.VALUE_IS_TOKEN_OR_BYTES,
+        5, 12, null, null, versionTag(shared, shared), shared, true, 42L);
+    DataSerializer.writeObject(value, out);
+
+    FarSideEntryOp entryOp = read(out.toByteArray(), shared);
+
+    assertThat(entryOp.key).isEqualTo("key");
+    assertThat(entryOp.op).isEqualTo(Operation.UPDATE);
+    assertThat(entryOp.modSerialNum).isEqualTo(5);
+    assertThat(entryOp.eventOffset).isEqualTo(12);
+    assertThat(entryOp.callbackArg).isNull();
+    assertThat(entryOp.didDestroy).isFalse();
+    assertThat(entryOp.value).isEqualTo(value);
+    VersionTag tag = entryOp.getVersionTag();
+    assertThat(tag.getEntryVersion()).isEqualTo(3);
+    assertThat(tag.getRegionVersion()).isEqualTo(17L);
+    assertThat(tag.getMemberID()).isEqualTo(shared);
+    assertThat(tag.getPreviousMemberID()).isEqualTo(shared);
+  }
+
+  @Test
+  public void compactEntryOpKeepsVersionMembersThatAreNotShared() throws Exception {
+    InternalDistributedMember shared = new InternalDistributedMember("localhost", 1);
+    InternalDistributedMember previous = new InternalDistributedMember("localhost", 2);
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject("key", out);
+    RegionCommit.writeCompactEntryOp(out, Operation.DESTROY, 0, 1, 2, "callback", null,
+        versionTag(shared, previous), shared, true, -1L);
+
+    FarSideEntryOp entryOp = read(out.toByteArray(), shared);
+
+    assertThat(entryOp.op).isEqualTo(Operation.DESTROY);
+    assertThat(entryOp.callbackArg).isEqualTo("callback");
+    assertThat(entryOp.getVersionTag().getMemberID()).isEqualTo(shared);
+    assertThat(entryOp.getVersionTag().getPreviousMemberID()).isEqualTo(previous);
+  }
+
+  @Test
+  public void compactEntryOpIsSmallerThanLegacyEntryOp() throws Exception {
+    InternalDistributedMember shared = new InternalDistributedMember("localhost", 1);
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject("key", out);
+    RegionCommit.writeCompactEntryOp(out, Operation.UPDATE, RegionCommit.VALUE_IS_TOKEN_OR_BYTES,
+        5, 12, null, null, versionTag(shared, shared), shared, true, 42L);
+    DataSerializer.writeObject(new byte[] {1, 2, 3}, out);
+    int compactSize = out.size();
+    FarSideEntryOp entryOp = read(out.toByteArray(), shared);
+
+    HeapDataOutputStream legacy = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject("key", legacy);
+    entryOp.toData(legacy, false, true, true);
+
+    assertThat(compactSize).isLessThan(legacy.size());
+  }
+
+  @Test
+  public void compactRegionPathOfBucketIsPartitionedRegionPathAndBucketId() throws Exception {
+    BucketRegion bucket = mock(BucketRegion.class);
+    PartitionedRegion partitionedRegion = mock(PartitionedRegion.class);
+    when(bucket.getId()).thenReturn(7);
+    when(bucket.getPartitionedRegion()).thenReturn(partitionedRegion);
+    when(partitionedRegion.getFullPath()).thenReturn("/orders");
+    TXCommitMessage message = new TXCommitMessage();
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    new RegionCommit(message, bucket, 0).toData(out, null, true, true);
+
+    RegionCommit regionCommit = new RegionCommit(message);
+    regionCommit.fromData(input(out.toByteArray()), true, true);
+
+    assertThat(regionCommit.getRegionPath())
+        .isEqualTo(PartitionedRegionHelper.getBucketFullPath("/orders", 7));
+    assertThat(regionCommit.getParentRegionPath()).isEqualTo("/orders");
+  }
+
+  @Test
+  public void compactRegionPathOfRegionIsItsPath() throws Exception {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/customers");
+    TXCommitMessage message = new TXCommitMessage();
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    new RegionCommit(message, region, 0).toData(out, null, true, true);
+
+    RegionCommit regionCommit = new RegionCommit(message);
+    regionCommit.fromData(input(out.toByteArray()), true, true);
+
+    assertThat(regionCommit.getRegionPath()).isEqualTo("/customers");
+    assertThat(regionCommit.getParentRegionPath()).isNull();
+  }
+
+  private static VersionTag versionTag(InternalDistributedMember member,
+      InternalDistributedMember previousMember) {
+    VersionTag<InternalDistributedMember> tag = new VMVersionTag();
+    tag.setEntryVersion(3);
+    tag.setRegionVersion(17L);
+    tag.setMemberID(member);
+    tag.setPreviousMemberID(previousMember);
+    return tag;
+  }
+
+  private static FarSideEntryOp read(byte[] bytes, InternalDistributedMember sharedMember)
+      throws IOException, ClassNotFoundException {
+    FarSideEntryOp entryOp = new RegionCommit(new TXCommitMessage()).new FarSideEntryOp();
+    entryOp.fromCompactData(input(bytes), true, sharedMember);
+    return entryOp;
+  }
+
+  private static DataInputStream input(byte[] bytes) {
+    return new DataInputStream(new ByteArrayInputStream(bytes));
+  }
 }
@@ -14,10 +14,16 @@
  */
 package org.apache.geode.internal.cache;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import org.junit.Test;
 
+import org.apache.geode.cache.CommitConflictException;
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.cache.versions.VersionStamp;
 
 public class TXEntryStateUnitTest {
 
@@ -34,4 +40,81 @@ public class TXEntryStateUnitTest {
         TXEntryState.getOpNloadCreate() - TXEntryState.getOpCreate());
   }
 
+  @Test
+  public void versionCheckPassesIfEntryIsUnchanged() {
+    Object value = new Object();
+    VersionStamp stamp = versionStamp(3, 17L);
+    RegionEntry entry = regionEntry(value, stamp);
+    InternalRegion region = region("key", entry);
+    TXEntryState txEntryState = writtenEntry(entry, value);
+
+    txEntryState.checkVersionForConflict(region, "key");
+  }
+
+  @Test
+  public void versionCheckThrowsIfEntryVersionChanged() {
+    Object value = new Object();
+    VersionStamp stamp = versionStamp(3, 17L);
+    RegionEntry entry = regionEntry(value, stamp);
+    InternalRegion region = region("key", entry);
+    TXEntryState txEntryState = writtenEntry(entry, value);
+    when(stamp.getEntryVersion()).thenReturn(4);
+    when(stamp.getRegionVersion()).thenReturn(18L);
+
+    assertThatThrownBy(() -> txEntryState.checkVersionForConflict(region, "key"))
+        .isInstanceOf(CommitConflictException.class).hasMessageContaining("version change");
+  }
+
+  @Test
+  public void versionCheckThrowsIfValueChanged() {
+    Object value = new Object();
+    RegionEntry entry = regionEntry(value, versionStamp(3, 17L));
+    InternalRegion region = region("key", entry);
+    TXEntryState txEntryState = writtenEntry(entry, value);
+    when(entry.getTransformedValue()).thenReturn(new Object());
+
+    assertThatThrownBy(() -> txEntryState.checkVersionForConflict(region, "key"))
+        .isInstanceOf(CommitConflictException.class);
+  }
+
+  @Test
+  public void versionCheckOfUnversionedEntryOnlyChecksValue() {
+    Object value = new Object();
+    RegionEntry entry = regionEntry(value, null);
+    InternalRegion region = region("key", entry);
+    TXEntryState txEntryState = writtenEntry(entry, value);
+    VersionStamp stamp = versionStamp(4, 18L);
+    when(entry.getVersionStamp()).thenReturn(stamp);
+
+    txEntryState.checkVersionForConflict(region, "key");
+  }
+
+  private static VersionStamp versionStamp(int entryVersion, long regionVersion) {
+    VersionStamp stamp = mock(VersionStamp.class);
+    VersionSource member = mock(VersionSource.class);
+    when(stamp.getEntryVersion()).thenReturn(entryVersion);
+    when(stamp.getRegionVersion()).thenReturn(regionVersion);
+    when(stamp.getMemberID()).thenReturn(member);
+    return stamp;
+  }
+
+  private static RegionEntry regionEntry(Object value, VersionStamp stamp) {
+    RegionEntry entry = mock(RegionEntry.class);
+    when(entry.getTransformedValue()).thenReturn(value);
+    when(entry.getVersionStamp()).thenReturn(stamp);
+    return entry;
+  }
+
+  private static InternalRegion region(Object key, RegionEntry entry) {
+    InternalRegion region = mock(InternalRegion.class);
+    when(region.basicGetEntry(key)).thenReturn(entry);
+    return region;
+  }
+
+  private static TXEntryState writtenEntry(RegionEntry entry, Object value) {
+    TXEntryState txEntryState =
+        new TXEntryState(entry, value, value, mock(TXRegionState.class), false);
+    txEntryState.updateForWrite(1);
+    return txEntryState;
+  }
 }
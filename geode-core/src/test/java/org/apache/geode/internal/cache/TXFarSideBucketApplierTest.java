@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.TXCommitMessage.RegionCommit;
+import org.apache.geode.internal.cache.TXCommitMessage.RegionCommit.FarSideEntryOp;
+
+public class TXFarSideBucketApplierTest {
+
+  private ExecutorService executor;
+  private RegionCommit bucket1;
+  private RegionCommit bucket2;
+  private List<RegionCommit> regions;
+  private Map<RegionCommit, List<Integer>> appliedOps;
+  private Map<RegionCommit, Set<Thread>> applyingThreads;
+  private List<Exception> exceptions;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+    bucket1 = regionCommit(true);
+    bucket2 = regionCommit(true);
+    regions = new ArrayList<>();
+    regions.add(bucket1);
+    regions.add(bucket2);
+    appliedOps = new ConcurrentHashMap<>();
+    applyingThreads = new ConcurrentHashMap<>();
+    exceptions = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void createReturnsNullIfThereAreFewerOpsThanMinimum() {
+    List<FarSideEntryOp> ops = ops(10, null);
+
+    assertThat(TXFarSideBucketApplier.create(ops, regions, 11, 4)).isNull();
+    assertThat(TXFarSideBucketApplier.create(ops, regions, 10, 4)).isNotNull();
+  }
+
+  @Test
+  public void createReturnsNullIfParallelApplyIsDisabled() {
+    List<FarSideEntryOp> ops = ops(10, null);
+
+    assertThat(TXFarSideBucketApplier.create(ops, regions, 0, 4)).isNull();
+    assertThat(TXFarSideBucketApplier.create(ops, regions, 1, 1)).isNull();
+  }
+
+  @Test
+  public void createReturnsNullIfARegionCannotBeAppliedInParallel() {
+    RegionCommit region = regionCommit(false);
+    regions.add(region);
+    List<FarSideEntryOp> ops = ops(10, null);
+
+    assertThat(TXFarSideBucketApplier.create(ops, regions, 1, 4)).isNull();
+  }
+
+  @Test
+  public void createReturnsNullIfAllOpsAreInOneBucket() {
+    List<FarSideEntryOp> ops = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ops.add(op(bucket1, i, null));
+    }
+
+    assertThat(TXFarSideBucketApplier.create(ops, regions, 1, 4)).isNull();
+  }
+
+  @Test
+  public void appliesOpsOfEachBucketInOrderOnOneThread() {
+    List<EntryEventImpl> events = new ArrayList<>();
+    List<FarSideEntryOp> ops = ops(1000, events);
+    List<EntryEventImpl> pendingCallbacks = new ArrayList<>();
+
+    TXFarSideBucketApplier.create(ops, regions, 1, 3).apply(executor, pendingCallbacks,
+        exceptions::add);
+
+    assertThat(appliedOps.get(bucket1)).hasSize(500).isSorted();
+    assertThat(appliedOps.get(bucket2)).hasSize(500).isSorted();
+    assertThat(applyingThreads.get(bucket1)).hasSize(1);
+    assertThat(applyingThreads.get(bucket2)).hasSize(1);
+    assertThat(pendingCallbacks).containsExactlyElementsOf(events);
+    assertThat(exceptions).isEmpty();
+  }
+
+  @Test
+  public void callingThreadAppliesAllBucketsIfExecutorRejectsTasks() {
+    List<FarSideEntryOp> ops = ops(100, null);
+
+    TXFarSideBucketApplier.create(ops, regions, 1, 3).apply(runnable -> {
+      throw new RejectedExecutionException();
+    }, new ArrayList<>(), exceptions::add);
+
+    assertThat(appliedOps.get(bucket1)).hasSize(50);
+    assertThat(appliedOps.get(bucket2)).hasSize(50);
+    assertThat(applyingThreads.get(bucket1)).containsExactly(Thread.currentThread());
+    assertThat(applyingThreads.get(bucket2)).containsExactly(Thread.currentThread());
+  }
+
+  @Test
+  public void exceptionsAreHandledAfterAllOpsAreApplied() {
+    List<FarSideEntryOp> ops = ops(100, null);
+    RuntimeException exception = new RuntimeException();
+    doAnswer(invocation -> {
+      throw exception;
+    }).when(ops.get(10)).process(any());
+
+    TXFarSideBucketApplier.create(ops, regions, 1, 3).apply(executor, new ArrayList<>(),
+        e -> {
+          assertThat(appliedOps.get(bucket1).size() + appliedOps.get(bucket2).size())
+              .isEqualTo(99);
+          exceptions.add(e);
+        });
+
+    assertThat(exceptions).containsExactly(exception);
+  }
+
+  private static RegionCommit regionCommit(boolean canApplyInParallel) {
+    RegionCommit regionCommit = mock(RegionCommit.class);
+    when(regionCommit.canApplyInParallel()).thenReturn(canApplyInParallel);
+    return regionCommit;
+  }
+
+  /**
+   * Returns ops alternating between the two buckets, each of which adds a callback event to the
+   * given list if it is not null.
+   */
+  private List<FarSideEntryOp> ops(int count, List<EntryEventImpl> events) {
+    List<FarSideEntryOp> ops = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      EntryEventImpl event = null;
+      if (events != null) {
+        event = mock(EntryEventImpl.class);
+        events.add(event);
+      }
+      ops.add(op(i % 2 == 0 ? bucket1 : bucket2, i, event));
+    }
+    return ops;
+  }
+
+  @SuppressWarnings("unchecked")
+  private FarSideEntryOp op(RegionCommit regionCommit, int position, EntryEventImpl event) {
+    FarSideEntryOp op = mock(FarSideEntryOp.class);
+    when(op.getRegionCommit()).thenReturn(regionCommit);
+    doAnswer(invocation -> {
+      appliedOps.computeIfAbsent(regionCommit, k -> Collections.synchronizedList(new ArrayList<>()))
+          .add(position);
+      applyingThreads
+          .computeIfAbsent(regionCommit, k -> Collections.synchronizedSet(new HashSet<>()))
+          .add(Thread.currentThread());
+      if (event != null) {
+        ((List<EntryEventImpl>) invocation.getArgument(0)).add(event);
+      }
+      return null;
+    }).when(op).process(any());
+    return op;
+  }
+}
@@ -19,6 +19,7 @@ import static org.apache.geode.internal.statistics.StatisticsClockFactory.disabl
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -298,4 +299,86 @@ public class TXStateTest {
     verify(regionState1).cleanup(region1);
   }
 
+  @Test
+  public void singleBucketTransactionIsCommittedOptimistically() {
+    TXState txState = new TXState(txStateProxy, false, disabledClock());
+    BucketRegion bucket = primaryBucket();
+    TXRegionState txRegionState = changedRegionState();
+    txState.regions.put(bucket, txRegionState);
+
+    assertThat(txState.lockForOptimisticCommit()).isTrue();
+
+    verify(bucket).lockForOptimisticCommit();
+    verify(txRegionState).checkForVersionConflicts(bucket);
+    assertThat(txState.locks).isNotNull();
+  }
+
+  @Test
+  public void transactionWithChangesInTwoBucketsIsNotCommittedOptimistically() {
+    TXState txState = new TXState(txStateProxy, false, disabledClock());
+    BucketRegion bucket1 = primaryBucket();
+    BucketRegion bucket2 = primaryBucket();
+    txState.regions.put(bucket1, changedRegionState());
+    txState.regions.put(bucket2, changedRegionState());
+
+    assertThat(txState.lockForOptimisticCommit()).isFalse();
+
+    verify(bucket1, never()).lockForOptimisticCommit();
+    verify(bucket2, never()).lockForOptimisticCommit();
+    assertThat(txState.locks).isNull();
+  }
+
+  @Test
+  public void transactionIsNotCommittedOptimisticallyWhileBucketHasReservedCommits() {
+    TXState txState = new TXState(txStateProxy, false, disabledClock());
+    BucketRegion bucket = primaryBucket();
+    when(bucket.lockForOptimisticCommit()).thenReturn(false);
+    TXRegionState txRegionState = changedRegionState();
+    txState.regions.put(bucket, txRegionState);
+
+    assertThat(txState.lockForOptimisticCommit()).isFalse();
+
+    verify(txRegionState, never()).checkForVersionConflicts(any());
+  }
+
+  @Test
+  public void optimisticCommitThrowsIfVersionCheckFails() {
+    TXState txState = new TXState(txStateProxy, false, disabledClock());
+    BucketRegion bucket = primaryBucket();
+    TXRegionState txRegionState = changedRegionState();
+    doThrow(exception).when(txRegionState).checkForVersionConflicts(bucket);
+    txState.regions.put(bucket, txRegionState);
+
+    assertThatThrownBy(() -> txState.lockForOptimisticCommit()).isSameAs(exception);
+  }
+
+  @Test
+  public void reservedCommitPreventsOptimisticCommitsUntilCleanup() {
+    TXState txState = new TXState(txStateProxy, false, disabledClock());
+    BucketRegion bucket = primaryBucket();
+    txState.regions.put(bucket, changedRegionState());
+
+    txState.reserveAndCheck();
+
+    verify(bucket).beginReservedCommit();
+    verify(bucket, never()).endReservedCommit();
+
+    txState.doCleanup();
+
+    verify(bucket).endReservedCommit();
+  }
+
+  private static BucketRegion primaryBucket() {
+    BucketRegion bucket = mock(BucketRegion.class, RETURNS_DEEP_STUBS);
+    when(bucket.getConcurrencyChecksEnabled()).thenReturn(true);
+    when(bucket.getBucketAdvisor().isPrimary()).thenReturn(true);
+    when(bucket.lockForOptimisticCommit()).thenReturn(true);
+    return bucket;
+  }
+
+  private static TXRegionState changedRegionState() {
+    TXRegionState txRegionState = mock(TXRegionState.class);
+    when(txRegionState.hasEntryMods()).thenReturn(true);
+    return txRegionState;
+  }
 }
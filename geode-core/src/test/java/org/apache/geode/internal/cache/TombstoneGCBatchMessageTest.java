@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.ReplyProcessor21;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.serialization.DeserializationContext;
+import org.apache.geode.internal.serialization.SerializationContext;
+import org.apache.geode.internal.serialization.Version;
+
+public class TombstoneGCBatchMessageTest {
+  private DistributionManager dm;
+  private InternalDistributedMember member1;
+  private InternalDistributedMember member2;
+
+  @Before
+  public void setup() {
+    dm = mock(DistributionManager.class);
+    member1 = member(Version.CURRENT);
+    member2 = member(Version.CURRENT);
+  }
+
+  @Test
+  public void regionsAreCoalescedIntoOneMessagePerRecipient() {
+    TombstoneGCBatchMessage.Batch batch = new TombstoneGCBatchMessage.Batch(dm);
+
+    assertThat(batch.add(region("/a", member1, member2), null)).isTrue();
+    assertThat(batch.add(region("/b", member1), null)).isTrue();
+    batch.send();
+
+    ArgumentCaptor<DistributionMessage> captor =
+        ArgumentCaptor.forClass(DistributionMessage.class);
+    verify(dm, times(2)).putOutgoing(captor.capture());
+    List<DistributionMessage> messages = captor.getAllValues();
+    for (DistributionMessage message : messages) {
+      TombstoneGCBatchMessage batchMessage = (TombstoneGCBatchMessage) message;
+      if (batchMessage.getRecipients()[0] == member1) {
+        assertThat(batchMessage.getRegionPaths()).containsExactly("/a", "/b");
+      } else {
+        assertThat(batchMessage.getRegionPaths()).containsExactly("/a");
+      }
+    }
+  }
+
+  @Test
+  public void regionWithOldMemberIsNotAdded() {
+    TombstoneGCBatchMessage.Batch batch = new TombstoneGCBatchMessage.Batch(dm);
+
+    assertThat(batch.add(region("/a", member1, member(Version.GEODE_1_11_0)), null)).isFalse();
+    batch.send();
+
+    verify(dm, never()).putOutgoing(any());
+  }
+
+  @Test
+  public void messageForNoAckRegionsDoesNotExpectReply() {
+    TombstoneGCBatchMessage.Batch batch = new TombstoneGCBatchMessage.Batch(dm);
+
+    batch.add(region("/a", member1), null);
+    batch.send();
+
+    ArgumentCaptor<DistributionMessage> captor =
+        ArgumentCaptor.forClass(DistributionMessage.class);
+    verify(dm).putOutgoing(captor.capture());
+    assertThat(captor.getValue().getProcessorId()).isZero();
+  }
+
+  @Test
+  public void sendWaitsForRepliesIfAnyRegionHasAckScope() {
+    dm = mock(DistributionManager.class, RETURNS_DEEP_STUBS);
+    when(dm.addMembershipListenerAndGetDistributionManagerIds(any()))
+        .thenReturn(new HashSet<>(Arrays.asList(member1, member2)));
+    doAnswer(invocation -> {
+      DistributionMessage message = invocation.getArgument(0);
+      ReplyMessage reply = new ReplyMessage();
+      reply.setProcessorId(message.getProcessorId());
+      reply.setSender(message.getRecipients()[0]);
+      ReplyProcessor21.getProcessor(message.getProcessorId()).process(reply);
+      return null;
+    }).when(dm).putOutgoing(any());
+    DistributedRegion ackRegion = region("/b", member2);
+    when(ackRegion.getScope().isAck()).thenReturn(true);
+    TombstoneGCBatchMessage.Batch batch = new TombstoneGCBatchMessage.Batch(dm);
+
+    batch.add(region("/a", member1), null);
+    batch.add(ackRegion, null);
+    batch.send();
+
+    ArgumentCaptor<DistributionMessage> captor =
+        ArgumentCaptor.forClass(DistributionMessage.class);
+    verify(dm, times(2)).putOutgoing(captor.capture());
+    assertThat(captor.getAllValues()).allSatisfy(
+        message -> assertThat(message.getProcessorId()).isNotZero());
+    assertThat(ReplyProcessor21.getProcessor(captor.getValue().getProcessorId())).isNull();
+  }
+
+  @Test
+  public void messageSurvivesSerialization() throws Exception {
+    Map<VersionSource, Long> gcVersions =
+        Collections.singletonMap(new DiskStoreID(1, 2), 7L);
+    DistributedRegion region = region("/a", member1);
+    when(region.getVersionVector().getTombstoneGCVector()).thenReturn(gcVersions);
+    EventID eventID = new EventID(new byte[] {1, 2, 3}, 4, 5);
+    TombstoneGCBatchMessage.Batch batch = new TombstoneGCBatchMessage.Batch(dm);
+    batch.add(region, eventID);
+    batch.add(region("/b", member1), null);
+    batch.send();
+    ArgumentCaptor<TombstoneGCBatchMessage> captor =
+        ArgumentCaptor.forClass(TombstoneGCBatchMessage.class);
+    verify(dm).putOutgoing(captor.capture());
+    TombstoneGCBatchMessage message = captor.getValue();
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    message.toData(new DataOutputStream(bytes), mock(SerializationContext.class));
+    TombstoneGCBatchMessage copy = new TombstoneGCBatchMessage();
+    copy.fromData(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+        mock(DeserializationContext.class));
+
+    assertThat(copy.getProcessorId()).isEqualTo(message.getProcessorId());
+    assertThat(copy.getRegionPaths()).containsExactly("/a", "/b");
+    assertThat(copy.getRegionGCVersions().get(0)).isEqualTo(gcVersions);
+    assertThat(copy.getEventIDs()).containsExactly(eventID, null);
+  }
+
+  private static InternalDistributedMember member(Version version) {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    when(member.getVersionObject()).thenReturn(version);
+    return member;
+  }
+
+  private static DistributedRegion region(String path, InternalDistributedMember... recipients) {
+    DistributedRegion region = mock(DistributedRegion.class, RETURNS_DEEP_STUBS);
+    when(region.getFullPath()).thenReturn(path);
+    when(region.getCacheDistributionAdvisor().adviseInvalidateRegion())
+        .thenReturn(new HashSet<>(Arrays.asList(recipients)));
+    when(region.getVersionVector().getTombstoneGCVector()).thenReturn(Collections.emptyMap());
+    return region;
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.distributed.internal.CacheTime;
+import org.apache.geode.internal.cache.TombstoneService.Tombstone;
+import org.apache.geode.internal.cache.versions.VersionTag;
+
+public class TombstoneServiceTest {
+  private ExecutorService executor;
+  private TombstoneService.ReplicateTombstoneSweeper sweeper;
+
+  @Before
+  public void setup() {
+    executor = mock(ExecutorService.class);
+    sweeper = new TombstoneService.ReplicateTombstoneSweeper(mock(CacheTime.class),
+        mock(CachePerfStats.class), mock(CancelCriterion.class), executor);
+  }
+
+  @After
+  public void tearDown() {
+    TombstoneService.EXPIRED_TOMBSTONE_SLICE_SIZE =
+        TombstoneService.EXPIRED_TOMBSTONE_SLICE_SIZE_DEFAULT;
+  }
+
+  @Test
+  public void takeExpiredSliceTakesOldestTombstonesOfEachRegionUpToLimit() {
+    DistributedRegion region1 = region();
+    DistributedRegion region2 = region();
+    Tombstone first = expire(region1, "a", 1);
+    Tombstone second = expire(region1, "b", 2);
+    Tombstone third = expire(region2, "c", 3);
+    Tombstone fourth = expire(region2, "d", 4);
+
+    Map<DistributedRegion, List<Tombstone>> slice = sweeper.takeExpiredSlice(3);
+
+    assertThat(slice).containsOnlyKeys(region1, region2);
+    assertThat(slice.get(region1)).containsExactly(first, second);
+    assertThat(slice.get(region2)).containsExactly(third);
+    assertThat(sweeper.getScheduledTombstoneCount()).isEqualTo(1);
+    assertThat(sweeper.takeExpiredSlice(3).get(region2)).containsExactly(fourth);
+    assertThat(sweeper.takeExpiredSlice(3)).isEmpty();
+  }
+
+  @Test
+  public void unfinishedRegionGoesToTheBackOfTheLine() {
+    DistributedRegion region1 = region();
+    DistributedRegion region2 = region();
+    expire(region1, "a", 1);
+    expire(region1, "b", 2);
+    expire(region2, "c", 3);
+
+    sweeper.takeExpiredSlice(1);
+
+    assertThat(sweeper.takeExpiredSlice(2)).containsOnlyKeys(region2, region1);
+  }
+
+  @Test
+  public void batchIsExpiredInSlicesThatWaitForThePreviousSliceToBeDistributed() {
+    TombstoneService.EXPIRED_TOMBSTONE_SLICE_SIZE = 2;
+    DistributedRegion region = region();
+    expire(region, "a", 1);
+    expire(region, "b", 2);
+    expire(region, "c", 3);
+
+    sweeper.startBatchExpiration();
+
+    ArgumentCaptor<Runnable> distribution = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).execute(distribution.capture());
+    verify(region.getRegionMap(), times(2)).removeTombstone(any(), any(), any(Boolean.class),
+        any(Boolean.class));
+    assertThat(sweeper.getScheduledTombstoneCount()).isEqualTo(1);
+
+    sweeper.expireSlice();
+    sweeper.sleepTime = 1000;
+    sweeper.beforeSleepChecks();
+
+    verify(executor, times(1)).execute(any());
+    assertThat(sweeper.sleepTime).isEqualTo(10);
+
+    distribution.getValue().run();
+    verify(region).distributeTombstoneGC(anySet(), any());
+    sweeper.beforeSleepChecks();
+
+    assertThat(sweeper.sleepTime).isZero();
+
+    sweeper.expireSlice();
+
+    verify(executor, times(2)).execute(any());
+    assertThat(sweeper.getScheduledTombstoneCount()).isZero();
+  }
+
+  @Test
+  public void sweeperSleepsNormallyOnceBatchIsDone() {
+    DistributedRegion region = region();
+    expire(region, "a", 1);
+    sweeper.startBatchExpiration();
+    ArgumentCaptor<Runnable> distribution = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).execute(distribution.capture());
+    distribution.getValue().run();
+
+    sweeper.sleepTime = 1000;
+    sweeper.beforeSleepChecks();
+
+    assertThat(sweeper.sleepTime).isEqualTo(1000);
+  }
+
+  private Tombstone expire(DistributedRegion region, String key, long regionVersion) {
+    RegionEntry entry = mock(RegionEntry.class);
+    when(entry.getKey()).thenReturn(key);
+    VersionTag versionTag = mock(VersionTag.class);
+    when(versionTag.getRegionVersionLowBytes()).thenReturn((int) regionVersion);
+    Tombstone tombstone = new Tombstone(entry, region, versionTag);
+    sweeper.expireTombstone(tombstone);
+    return tombstone;
+  }
+
+  private static DistributedRegion region() {
+    return mock(DistributedRegion.class, RETURNS_DEEP_STUBS);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class FrequencySketchTest {
+
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  @Test
+  public void emptySketchEstimatesZero() {
+    assertThat(sketch.frequency("key")).isZero();
+    sketch.increment("key");
+    assertThat(sketch.frequency("key")).isZero();
+  }
+
+  @Test
+  public void countsUses() {
+    sketch.ensureCapacity(64);
+
+    for (int i = 0; i < 5; i++) {
+      sketch.increment("key");
+    }
+
+    assertThat(sketch.frequency("key")).isEqualTo(5);
+    assertThat(sketch.frequency("other")).isLessThan(5);
+  }
+
+  @Test
+  public void countsSaturateAtFifteen() {
+    sketch.ensureCapacity(64);
+
+    for (int i = 0; i < 20; i++) {
+      sketch.increment(42);
+    }
+
+    assertThat(sketch.frequency(42)).isEqualTo(15);
+  }
+
+  @Test
+  public void resetHalvesCounts() {
+    sketch.ensureCapacity(64);
+    for (int i = 0; i < 8; i++) {
+      sketch.increment("key");
+    }
+
+    sketch.reset();
+
+    assertThat(sketch.frequency("key")).isEqualTo(4);
+  }
+
+  @Test
+  public void countsAgeAfterSampleSizeIncrements() {
+    sketch.ensureCapacity(8);
+    for (int i = 0; i < 10; i++) {
+      sketch.increment("key");
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      sketch.increment(i);
+    }
+
+    assertThat(sketch.frequency("key")).isLessThan(10);
+  }
+
+  @Test
+  public void wideningKeepsCounts() {
+    sketch.ensureCapacity(8);
+    for (int i = 0; i < 3; i++) {
+      sketch.increment("key");
+    }
+    int other = sketch.frequency("other");
+
+    sketch.ensureCapacity(16);
+    sketch.ensureCapacity(1024);
+
+    assertThat(sketch.frequency("key")).isEqualTo(3);
+    assertThat(sketch.frequency("other")).isEqualTo(other);
+    sketch.increment("key");
+    assertThat(sketch.frequency("key")).isEqualTo(4);
+  }
+}
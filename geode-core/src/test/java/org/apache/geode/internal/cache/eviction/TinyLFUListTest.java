@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TinyLFUListTest {
+
+  private EvictionController controller;
+
+  @Before
+  public void setup() {
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(mock(EvictionCounters.class));
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    TinyLFUList list = new TinyLFUList(controller);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void evictsEveryEntryOnce() {
+    TinyLFUList list = new TinyLFUList(controller);
+    List<KeyedNode> nodes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      KeyedNode node = createNode("key" + i);
+      nodes.add(node);
+      list.appendEntry(node);
+    }
+
+    List<EvictableEntry> evicted = new ArrayList<>();
+    for (EvictableEntry entry = list.getEvictableEntry(); entry != null; entry =
+        list.getEvictableEntry()) {
+      evicted.add(entry);
+    }
+
+    assertThat(evicted).containsExactlyInAnyOrderElementsOf(nodes);
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void destroyedEntryIsNotEvicted() {
+    TinyLFUList list = new TinyLFUList(controller);
+    KeyedNode destroyed = createNode("destroyed");
+    KeyedNode kept = createNode("kept");
+    list.appendEntry(destroyed);
+    list.appendEntry(kept);
+
+    list.destroyEntry(destroyed);
+
+    assertThat(list.size()).isOne();
+    assertThat(list.getEvictableEntry()).isSameAs(kept);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void scanDoesNotFlushFrequentlyUsedEntries() {
+    TinyLFUList list = new TinyLFUList(controller);
+    int capacity = 100;
+    List<KeyedNode> hotNodes = new ArrayList<>();
+    for (int i = 0; i < capacity / 2; i++) {
+      KeyedNode node = createNode("hot" + i);
+      hotNodes.add(node);
+      list.appendEntry(node);
+    }
+    // the hot keys have been used repeatedly before
+    for (int round = 0; round < 3; round++) {
+      for (KeyedNode node : hotNodes) {
+        KeyedNode earlierUse = createNode(node.key);
+        list.appendEntry(earlierUse);
+        list.destroyEntry(earlierUse);
+      }
+    }
+
+    for (int i = 0; i < capacity * 10; i++) {
+      for (KeyedNode node : hotNodes) {
+        node.recentlyUsed = node.recentlyUsed || i % 10 == 0;
+      }
+      list.appendEntry(createNode("scan" + i));
+      while (list.size() > capacity) {
+        list.getEvictableEntry();
+      }
+    }
+
+    int hotEntriesLeft = 0;
+    for (KeyedNode node : hotNodes) {
+      if (node.next() != null) {
+        hotEntriesLeft++;
+      }
+    }
+    assertThat(hotEntriesLeft).isGreaterThan(hotNodes.size() / 2);
+  }
+
+  private KeyedNode createNode(Object key) {
+    KeyedNode node = mock(KeyedNode.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+    node.key = key;
+    return node;
+  }
+
+  abstract static class KeyedNode extends LinkableEvictionNode implements EvictableEntry {
+    Object key;
+
+    boolean recentlyUsed;
+
+    @Override
+    public Object getKey() {
+      return key;
+    }
+
+    @Override
+    public boolean isRecentlyUsed() {
+      return recentlyUsed;
+    }
+
+    @Override
+    public void unsetRecentlyUsed() {
+      recentlyUsed = false;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+
+public class FunctionStreamingCreditsTest {
+
+  private final InternalDistributedMember caller = mock(InternalDistributedMember.class);
+  private final DistributionManager dm = mock(DistributionManager.class);
+  private FunctionStreamingCredits credits;
+
+  @After
+  public void tearDown() {
+    if (credits != null) {
+      credits.unregister();
+    }
+  }
+
+  @Test
+  public void acquireTakesCreditsOfWindow() throws Exception {
+    credits = FunctionStreamingCredits.register(caller, 1, 2);
+
+    credits.acquire(dm);
+    credits.acquire(dm);
+
+    assertThat(credits.availableCredits()).isZero();
+  }
+
+  @Test
+  public void grantReturnsCreditsToRegisteredExecution() throws Exception {
+    credits = FunctionStreamingCredits.register(caller, 1, 1);
+    credits.acquire(dm);
+
+    FunctionStreamingCredits.grant(caller, 1, 3);
+    FunctionStreamingCredits.grant(caller, 2, 5);
+
+    assertThat(credits.availableCredits()).isEqualTo(3);
+  }
+
+  @Test
+  public void acquireWaitsForGrant() throws Exception {
+    when(dm.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(dm.isCurrentMember(caller)).thenReturn(true);
+    credits = FunctionStreamingCredits.register(caller, 1, 1);
+    credits.acquire(dm);
+
+    CompletableFuture<Void> acquired = CompletableFuture.runAsync(() -> {
+      try {
+        credits.acquire(dm);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    assertThat(acquired).isNotDone();
+    FunctionStreamingCredits.grant(caller, 1, 1);
+
+    acquired.join();
+  }
+
+  @Test
+  public void acquireThrowsWhenCallerDeparted() throws Exception {
+    when(dm.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(dm.isCurrentMember(caller)).thenReturn(false);
+    credits = FunctionStreamingCredits.register(caller, 1, 0);
+
+    assertThatThrownBy(() -> credits.acquire(dm)).isInstanceOf(FunctionException.class);
+  }
+
+  @Test
+  public void cancelWakesWaitingSender() throws Exception {
+    when(dm.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(dm.isCurrentMember(caller)).thenReturn(true);
+    credits = FunctionStreamingCredits.register(caller, 1, 0);
+
+    CompletableFuture<Void> acquired = CompletableFuture.runAsync(() -> {
+      try {
+        credits.acquire(dm);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    assertThat(acquired).isNotDone();
+    FunctionStreamingCredits.cancel(caller, 1);
+
+    assertThatThrownBy(acquired::join).hasCauseInstanceOf(FunctionException.class)
+        .hasMessageContaining("closed the results");
+    assertThatThrownBy(() -> credits.acquire(dm)).isInstanceOf(FunctionException.class);
+  }
+
+  @Test
+  public void acquireThrowsIfNoCreditIsReturnedInTime() {
+    when(dm.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(dm.isCurrentMember(caller)).thenReturn(true);
+    credits = FunctionStreamingCredits.register(caller, 1, 0, 10);
+
+    assertThatThrownBy(() -> credits.acquire(dm)).isInstanceOf(FunctionException.class)
+        .hasMessageContaining("did not consume results within 10 ms");
+  }
+
+  @Test
+  public void unregisterRemovesExecution() {
+    credits = FunctionStreamingCredits.register(caller, 1, 1);
+    int registered = FunctionStreamingCredits.getRegisteredCount();
+
+    credits.unregister();
+
+    assertThat(FunctionStreamingCredits.getRegisteredCount()).isEqualTo(registered - 1);
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.internal.cache.execute.util.SynchronizedResultCollector;
+
+public class StreamingResultCollectorTest {
+
+  private final DistributedMember member1 = mock(DistributedMember.class);
+  private final DistributedMember member2 = mock(DistributedMember.class);
+
+  @Test
+  public void iteratorReturnsResultsInArrivalOrder() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    collector.addResult(member1, "a");
+    collector.addResult(member2, "b");
+    collector.addResult(member1, "c");
+    collector.endResults();
+
+    assertThat(collector.getResult()).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  public void hasNextWaitsForNextResult() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    Iterator<Object> iterator = collector.getResult();
+
+    CompletableFuture<Object> next = CompletableFuture.supplyAsync(iterator::next);
+    assertThat(next).isNotDone();
+    collector.addResult(member1, "a");
+
+    assertThat(next.join()).isEqualTo("a");
+  }
+
+  @Test
+  public void resultsAfterEndAreIgnored() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    collector.addResult(member1, "a");
+    collector.endResults();
+    collector.addResult(member1, "b");
+
+    assertThat(collector.getResult()).containsExactly("a");
+  }
+
+  @Test
+  public void iteratorThrowsFailureAfterResultsReceivedBeforeIt() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    collector.addResult(member1, "a");
+    collector.fail(new IllegalStateException("boom"));
+    Iterator<Object> iterator = collector.getResult();
+
+    assertThat(iterator.next()).isEqualTo("a");
+    assertThatThrownBy(iterator::hasNext).isInstanceOf(FunctionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test
+  public void completionCheckRunsOnceAtEnd() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    AtomicInteger checks = new AtomicInteger();
+    collector.setCompletionCheck(checks::incrementAndGet);
+    collector.addResult(member1, "a");
+    collector.endResults();
+    Iterator<Object> iterator = collector.getResult();
+
+    iterator.next();
+    assertThat(checks).hasValue(0);
+    assertThat(iterator.hasNext()).isFalse();
+    assertThat(iterator.hasNext()).isFalse();
+    assertThat(checks).hasValue(1);
+  }
+
+  @Test
+  public void getResultTwiceThrows() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    collector.getResult();
+
+    assertThatThrownBy(collector::getResult).isInstanceOf(FunctionException.class);
+  }
+
+  @Test
+  public void clearResultsBeforeConsumptionDropsResults() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    collector.addResult(member1, "a");
+    collector.endResults();
+    collector.clearResults();
+    collector.addResult(member1, "b");
+    collector.endResults();
+
+    assertThat(collector.getResult()).containsExactly("b");
+  }
+
+  @Test
+  public void clearResultsAfterConsumptionFailsStream() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    collector.addResult(member1, "a");
+    collector.addResult(member1, "b");
+    Iterator<Object> iterator = collector.getResult();
+    iterator.next();
+
+    collector.clearResults();
+
+    assertThat(iterator.next()).isEqualTo("b");
+    assertThatThrownBy(iterator::hasNext).isInstanceOf(FunctionException.class);
+  }
+
+  @Test
+  public void consumptionIsReportedPerMemberInBatchesOfHalfTheWindow() {
+    StreamingResultCollector collector = new StreamingResultCollector(4);
+    StreamingResultCollector.ConsumptionListener listener =
+        mock(StreamingResultCollector.ConsumptionListener.class);
+    collector.setConsumptionListener(listener);
+    for (int i = 0; i < 3; i++) {
+      collector.addResult(member1, i);
+      collector.addResult(member2, i);
+    }
+    collector.endResults();
+
+    List<Object> results = new ArrayList<>();
+    collector.getResult().forEachRemaining(results::add);
+
+    assertThat(results).hasSize(6);
+    verify(listener).resultsConsumed(member1, 2);
+    verify(listener).resultsConsumed(member2, 2);
+    verifyNoMoreInteractions(listener);
+  }
+
+  @Test
+  public void awaitCapacityWaitsUntilResultsAreConsumed() {
+    StreamingResultCollector collector = new StreamingResultCollector(2);
+    collector.addResult(member1, "a");
+    collector.addResult(member1, "b");
+    Iterator<Object> iterator = collector.getResult();
+
+    CompletableFuture<Void> producer = CompletableFuture.runAsync(collector::awaitCapacity);
+    assertThat(producer).isNotDone();
+    iterator.next();
+
+    await().untilAsserted(() -> assertThat(producer).isDone());
+  }
+
+  @Test
+  public void awaitCapacityDoesNotWaitInCreatorThread() {
+    StreamingResultCollector collector = new StreamingResultCollector(1);
+    collector.addResult(member1, "a");
+    collector.addResult(member1, "b");
+
+    assertThat(collector.awaitCapacity()).isTrue();
+  }
+
+  @Test
+  public void awaitCapacityFailsStreamIfResultsAreNotConsumedInTime() {
+    StreamingResultCollector collector = new StreamingResultCollector(1, 10);
+    collector.addResult(member1, "a");
+    Iterator<Object> iterator = collector.getResult();
+
+    CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(collector::awaitCapacity);
+
+    assertThat(producer.join()).isFalse();
+    assertThat(iterator.next()).isEqualTo("a");
+    assertThatThrownBy(iterator::hasNext).isInstanceOf(FunctionException.class)
+        .hasMessageContaining("not consumed within 10 ms");
+  }
+
+  @Test
+  public void closeWakesWaitingProducerAndDropsResults() {
+    StreamingResultCollector collector = new StreamingResultCollector(1);
+    collector.addResult(member1, "a");
+    StreamingResultCollector.ResultIterator iterator = collector.getResult();
+    CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(collector::awaitCapacity);
+    assertThat(producer).isNotDone();
+
+    iterator.close();
+
+    assertThat(producer.join()).isFalse();
+    collector.addResult(member1, "b");
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test
+  public void closeBeforeEndNotifiesCancellationListenerOnce() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    Runnable listener = mock(Runnable.class);
+    collector.setCancellationListener(listener);
+    collector.addResult(member1, "a");
+
+    try (StreamingResultCollector.ResultIterator iterator = collector.getResult()) {
+      assertThat(iterator.next()).isEqualTo("a");
+    }
+    collector.close();
+
+    verify(listener).run();
+    assertThat(collector.isClosed()).isTrue();
+  }
+
+  @Test
+  public void closeAfterEndDoesNotNotifyCancellationListenerOrRunCompletionCheck() {
+    StreamingResultCollector collector = new StreamingResultCollector(10);
+    Runnable listener = mock(Runnable.class);
+    Runnable completionCheck = mock(Runnable.class);
+    collector.setCancellationListener(listener);
+    collector.setCompletionCheck(completionCheck);
+    collector.addResult(member1, "a");
+    collector.endResults();
+
+    StreamingResultCollector.ResultIterator iterator = collector.getResult();
+    iterator.close();
+
+    assertThat(iterator.hasNext()).isFalse();
+    verifyNoMoreInteractions(listener, completionCheck);
+  }
+
+  @Test
+  public void fromUnwrapsWrappingCollectors() {
+    StreamingResultCollector collector = new StreamingResultCollector(1);
+
+    assertThat(StreamingResultCollector.from(new SynchronizedResultCollector(collector)))
+        .isSameAs(collector);
+    assertThat(StreamingResultCollector.from(new DefaultResultCollector())).isNull();
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.ha;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.internal.cache.EnumListenerEvent;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.tier.sockets.ClientUpdateMessageImpl;
+import org.apache.geode.internal.cache.tier.sockets.HAEventWrapper;
+
+public class HAEventLogTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void appendedBytesCanBeRead() {
+    HAEventLog log = new HAEventLog(null, 16);
+
+    HAEventLog.Record first = log.append(new byte[] {1, 2, 3});
+    HAEventLog.Record second = log.append(new byte[] {4, 5});
+
+    assertThat(first.read()).containsExactly(1, 2, 3);
+    assertThat(second.read()).containsExactly(4, 5);
+    assertThat(log.getLiveBytes()).isEqualTo(5);
+    assertThat(log.getSegmentCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void fullSegmentIsDroppedOnceAllItsRecordsAreReleased() {
+    HAEventLog log = new HAEventLog(null, 8);
+    HAEventLog.Record first = log.append(new byte[6]);
+    HAEventLog.Record second = log.append(new byte[6]);
+    assertThat(log.getSegmentCount()).isEqualTo(2);
+
+    first.release();
+    first.release();
+
+    assertThat(log.getSegmentCount()).isEqualTo(1);
+    assertThat(log.getLiveBytes()).isEqualTo(6);
+    assertThat(first.read()).isNull();
+    assertThat(second.read()).hasSize(6);
+  }
+
+  @Test
+  public void retainedViewKeepsItsSegmentUntilItIsReleased() {
+    HAEventLog log = new HAEventLog(null, 8);
+    HAEventLog.Record first = log.append(new byte[] {1, 2, 3, 4, 5, 6});
+    ByteBuffer view = first.retainView();
+    log.append(new byte[6]);
+
+    first.release();
+
+    assertThat(log.getSegmentCount()).isEqualTo(2);
+    assertThat(view.isReadOnly()).isTrue();
+    byte[] bytes = new byte[view.remaining()];
+    view.get(bytes);
+    assertThat(bytes).containsExactly(1, 2, 3, 4, 5, 6);
+    assertThat(first.retainView()).isNull();
+
+    first.releaseView();
+
+    assertThat(log.getSegmentCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void valuesLargerThanASegmentGetTheirOwnSegment() {
+    HAEventLog log = new HAEventLog(null, 4);
+
+    HAEventLog.Record record = log.append(new byte[] {1, 2, 3, 4, 5, 6});
+
+    assertThat(record.read()).containsExactly(1, 2, 3, 4, 5, 6);
+  }
+
+  @Test
+  public void memoryMappedSegmentsAreReadableAndDeletedOnClose() throws Exception {
+    HAEventLog log = new HAEventLog(temporaryFolder.getRoot(), 1024);
+
+    HAEventLog.Record record = log.append(new byte[] {7, 8, 9});
+
+    assertThat(record.read()).containsExactly(7, 8, 9);
+    assertThat(temporaryFolder.getRoot().list()).hasSize(1);
+    log.close();
+    assertThat(record.read()).isNull();
+    assertThat(log.getSegmentCount()).isZero();
+    assertThat(temporaryFolder.getRoot().list()).isEmpty();
+  }
+
+  @Test
+  public void memoryMappedSegmentFileIsDeletedWhenSegmentIsDropped() throws Exception {
+    HAEventLog log = new HAEventLog(temporaryFolder.getRoot(), 8);
+    HAEventLog.Record first = log.append(new byte[6]);
+    log.append(new byte[6]);
+    assertThat(temporaryFolder.getRoot().list()).hasSize(2);
+
+    first.release();
+
+    assertThat(temporaryFolder.getRoot().list()).hasSize(1);
+  }
+
+  @Test
+  public void appendAfterCloseThrows() {
+    HAEventLog log = new HAEventLog(null, 16);
+    log.close();
+
+    assertThatThrownBy(() -> log.append(new byte[1])).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void containerMovesValuesToTheLogAndReleasesThemOnRemove() {
+    HAEventLog log = new HAEventLog(null, 1024);
+    HAContainerLog container = new HAContainerLog(new ConcurrentHashMap(), log);
+    ClientUpdateMessageImpl message = createMessage();
+    HAEventWrapper wrapper = new HAEventWrapper(message);
+
+    assertThat(container.putIfAbsent(wrapper, message)).isNull();
+
+    assertThat(log.getLiveBytes()).isEqualTo(3);
+    assertThat(message.getSizeInBytes()).isLessThan(createMessage().getSizeInBytes());
+    assertThat((byte[]) ((ClientUpdateMessageImpl) container.get(wrapper)).getValue())
+        .containsExactly(1, 2, 3);
+
+    container.remove(wrapper);
+
+    assertThat(log.getLiveBytes()).isZero();
+    assertThat(message.getValue()).isNull();
+  }
+
+  @Test
+  public void containerReleasesValuesOnClear() {
+    HAEventLog log = new HAEventLog(null, 1024);
+    HAContainerLog container = new HAContainerLog(new ConcurrentHashMap(), log);
+    ClientUpdateMessageImpl first = createMessage(4);
+    ClientUpdateMessageImpl second = createMessage(5);
+    container.putIfAbsent(new HAEventWrapper(first), first);
+    container.putIfAbsent(new HAEventWrapper(second), second);
+    assertThat(log.getLiveBytes()).isEqualTo(6);
+
+    container.clear();
+
+    assertThat(container.isEmpty()).isTrue();
+    assertThat(log.getLiveBytes()).isZero();
+  }
+
+  @Test
+  public void latestValueReplacesLoggedValue() {
+    HAEventLog log = new HAEventLog(null, 1024);
+    ClientUpdateMessageImpl message = createMessage();
+    message.moveValueToLog(log);
+
+    message.setLatestValue(new byte[] {4, 5});
+
+    assertThat(message.getValueRecord()).isNull();
+    assertThat(log.getLiveBytes()).isZero();
+    assertThat((byte[]) message.getValue()).containsExactly(4, 5);
+  }
+
+  @Test
+  public void containerRestoresValueThatWasNotAdded() {
+    HAEventLog log = new HAEventLog(null, 1024);
+    HAContainerLog container = new HAContainerLog(new ConcurrentHashMap(), log);
+    ClientUpdateMessageImpl message = createMessage();
+    ClientUpdateMessageImpl duplicate = createMessage();
+    container.putIfAbsent(new HAEventWrapper(message), message);
+
+    assertThat(container.putIfAbsent(new HAEventWrapper(duplicate), duplicate)).isSameAs(message);
+
+    assertThat(log.getLiveBytes()).isEqualTo(3);
+    assertThat(duplicate.getSizeInBytes()).isEqualTo(createMessage().getSizeInBytes());
+  }
+
+  private ClientUpdateMessageImpl createMessage() {
+    return createMessage(4);
+  }
+
+  private ClientUpdateMessageImpl createMessage(long sequenceId) {
+    LocalRegion localRegion = mock(LocalRegion.class);
+    when(localRegion.getFullPath()).thenReturn("/regionName");
+    return new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_UPDATE, localRegion, 42,
+        new byte[] {1, 2, 3}, (byte) 0x01, null, null,
+        new EventID(new byte[] {1, 2}, 3, sequenceId));
+  }
+}
@@ -16,11 +16,15 @@ package org.apache.geode.internal.cache.tier.sockets;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.SocketException;
+import java.util.Map;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -29,10 +33,16 @@ import org.apache.geode.CancelCriterion;
 import org.apache.geode.cache.client.internal.Endpoint;
 import org.apache.geode.cache.client.internal.EndpointManager;
 import org.apache.geode.cache.client.internal.QueueManager;
+import org.apache.geode.cache.client.internal.QueueStateImpl;
+import org.apache.geode.cache.client.internal.QueueStateImpl.SequenceIdAndExpirationObject;
 import org.apache.geode.distributed.DistributedSystem;
 import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.ha.ThreadIdentifier;
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.ClientSideHandshake;
 import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
 
 @Category({ClientSubscriptionTest.class})
@@ -81,4 +91,83 @@ public class CacheClientUpdaterJUnitTest {
     // The endpoint should be reported as having crashed
     verify(endpointManager).serverCrashed(endpoint);
   }
+
+  @Test
+  public void eventsOfBatchAreFilteredForDuplicatesAndRecordedForAcknowledgement()
+      throws Exception {
+    QueueManager queueManager = mock(QueueManager.class);
+    QueueStateImpl queueState = spy(new QueueStateImpl(queueManager));
+    doNothing().when(queueState).processMarker();
+    when(queueManager.getState()).thenReturn(queueState);
+    CacheClientUpdater clientUpdater = createUnconnectedUpdater(queueManager);
+
+    byte[] memberId = new byte[] {1, 2, 3};
+    ClientEventBatch batch = new ClientEventBatch();
+    batch.add(createMarker(new EventID(memberId, 1, 5)));
+    batch.add(createMarker(new EventID(memberId, 1, 4)));
+    batch.add(createMarker(new EventID(memberId, 1, 6)));
+    batch.add(createMarker(new EventID(memberId, 2, 1)));
+
+    clientUpdater.processEventMessage(batch.toMessage(Version.CURRENT));
+
+    // the second event is older than the first one of its thread so it is a duplicate
+    verify(queueState, times(3)).processMarker();
+    Map sequenceIds = queueState.getThreadIdToSequenceIdMap();
+    assertThat(sequenceIds).hasSize(2);
+    assertThat(((SequenceIdAndExpirationObject) sequenceIds.get(new ThreadIdentifier(memberId, 1)))
+        .getSequenceId()).isEqualTo(6);
+    assertThat(((SequenceIdAndExpirationObject) sequenceIds.get(new ThreadIdentifier(memberId, 2)))
+        .getSequenceId()).isEqualTo(1);
+  }
+
+  @Test
+  public void eventsRedeliveredInLaterBatchAreDuplicates() throws Exception {
+    QueueManager queueManager = mock(QueueManager.class);
+    QueueStateImpl queueState = spy(new QueueStateImpl(queueManager));
+    doNothing().when(queueState).processMarker();
+    when(queueManager.getState()).thenReturn(queueState);
+    CacheClientUpdater clientUpdater = createUnconnectedUpdater(queueManager);
+
+    byte[] memberId = new byte[] {1, 2, 3};
+    ClientEventBatch batch = new ClientEventBatch();
+    batch.add(createMarker(new EventID(memberId, 1, 1)));
+    batch.add(createMarker(new EventID(memberId, 1, 2)));
+    clientUpdater.processEventMessage(batch.toMessage(Version.CURRENT));
+    batch.clear();
+    batch.add(createMarker(new EventID(memberId, 1, 2)));
+    batch.add(createMarker(new EventID(memberId, 1, 3)));
+    clientUpdater.processEventMessage(batch.toMessage(Version.CURRENT));
+
+    verify(queueState, times(3)).processMarker();
+    assertThat(((SequenceIdAndExpirationObject) queueState.getThreadIdToSequenceIdMap()
+        .get(new ThreadIdentifier(memberId, 1))).getSequenceId()).isEqualTo(3);
+  }
+
+  private Message createMarker(EventID eventId) {
+    Message message = new Message(1, Version.CURRENT);
+    message.setMessageType(MessageType.CLIENT_MARKER);
+    message.setTransactionId(0);
+    message.addObjPart(eventId);
+    return message;
+  }
+
+  private CacheClientUpdater createUnconnectedUpdater(QueueManager queueManager)
+      throws Exception {
+    ClientSideHandshake handshake = mock(ClientSideHandshake.class);
+    when(handshake.isDurable()).thenReturn(Boolean.FALSE);
+    DistributedSystem distributedSystem = mock(DistributedSystem.class);
+    CancelCriterion cancelCriterion = mock(CancelCriterion.class);
+    when(distributedSystem.getCancelCriterion()).thenReturn(cancelCriterion);
+    SocketCreator socketCreator = mock(SocketCreator.class);
+    when(socketCreator.connectForClient(any(String.class), any(Integer.class),
+        any(Integer.class), any(Integer.class))).thenThrow(new SocketException("ouch"));
+    CacheClientUpdater.StatisticsProvider statisticsProvider = mock(
+        CacheClientUpdater.StatisticsProvider.class);
+    when(statisticsProvider.createStatistics(any(), any()))
+        .thenReturn(mock(CacheClientUpdater.CCUStats.class));
+
+    return new CacheClientUpdater("testUpdater", new ServerLocation("localhost", 1234), false,
+        distributedSystem, handshake, queueManager, mock(EndpointManager.class),
+        mock(Endpoint.class), 10000, socketCreator, statisticsProvider);
+  }
 }
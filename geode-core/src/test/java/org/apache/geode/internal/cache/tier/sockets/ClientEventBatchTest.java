@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.serialization.Version;
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+
+@Category({ClientSubscriptionTest.class})
+public class ClientEventBatchTest {
+
+  @Test
+  public void unpackReturnsTheAddedMessagesInOrder() throws Exception {
+    ClientEventBatch batch = new ClientEventBatch();
+    batch.add(createMessage(MessageType.LOCAL_UPDATE, "key1", new byte[] {1, 2, 3}));
+    batch.add(createMessage(MessageType.LOCAL_DESTROY, "key2", null));
+
+    assertThat(batch.size()).isEqualTo(2);
+    assertThat(batch.getSizeInBytes()).isPositive();
+
+    Message batchMessage = batch.toMessage(Version.CURRENT);
+    assertThat(batchMessage.getMessageType()).isEqualTo(MessageType.CLIENT_EVENT_BATCH);
+
+    List<Message> messages = ClientEventBatch.unpack(batchMessage);
+
+    assertThat(messages).hasSize(2);
+    Message update = messages.get(0);
+    assertThat(update.getMessageType()).isEqualTo(MessageType.LOCAL_UPDATE);
+    assertThat(update.getNumberOfParts()).isEqualTo(3);
+    assertThat(update.getPart(0).getString()).isEqualTo("key1");
+    assertThat(update.getPart(1).getSerializedForm()).containsExactly(1, 2, 3);
+    assertThat(update.getPart(2).getObject()).isEqualTo(Boolean.TRUE);
+
+    Message destroy = messages.get(1);
+    assertThat(destroy.getMessageType()).isEqualTo(MessageType.LOCAL_DESTROY);
+    assertThat(destroy.getPart(0).getString()).isEqualTo("key2");
+    assertThat(destroy.getPart(1).getSerializedForm()).isNull();
+  }
+
+  @Test
+  public void clearEmptiesTheBatch() throws Exception {
+    ClientEventBatch batch = new ClientEventBatch();
+    batch.add(createMessage(MessageType.LOCAL_UPDATE, "key1", new byte[] {1}));
+
+    batch.clear();
+
+    assertThat(batch.isEmpty()).isTrue();
+    assertThat(batch.getSizeInBytes()).isZero();
+    assertThat(ClientEventBatch.unpack(batch.toMessage(Version.CURRENT))).isEmpty();
+  }
+
+  private Message createMessage(int messageType, String key, byte[] value) {
+    Message message = new Message(3, Version.CURRENT);
+    message.setMessageType(messageType);
+    message.addStringPart(key);
+    message.addBytesPart(value);
+    message.addObjPart(Boolean.TRUE);
+    return message;
+  }
+}
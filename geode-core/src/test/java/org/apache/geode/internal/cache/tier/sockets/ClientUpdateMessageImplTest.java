@@ -21,7 +21,11 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -29,7 +33,9 @@ import org.apache.geode.CopyHelper;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.DurableClientAttributes;
 import org.apache.geode.internal.cache.EnumListenerEvent;
+import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.internal.statistics.StatisticsClock;
 import org.apache.geode.test.fake.Fakes;
 
@@ -103,6 +109,50 @@ public class ClientUpdateMessageImplTest implements Serializable {
         .isTrue();
   }
 
+  @Test
+  public void sharedSerializationProducesIdenticalParts() throws Exception {
+    ClientUpdateMessageImpl clientUpdateMessageImpl = getTestUpdateMessage();
+    CacheClientProxy cacheClientProxy = mock(CacheClientProxy.class);
+    when(cacheClientProxy.getVersion()).thenReturn(Version.CURRENT);
+    when(cacheClientProxy.getProxyID()).thenReturn(mock(ClientProxyMembershipID.class));
+    byte[] value = new byte[] {1, 2, 3};
+
+    List<byte[]> unsharedParts = getPartBytes(clientUpdateMessageImpl, cacheClientProxy, value);
+    boolean shareSerializedParts = ClientUpdateMessageImpl.shareSerializedParts;
+    ClientUpdateMessageImpl.shareSerializedParts = true;
+    try {
+      List<byte[]> sharedParts = getPartBytes(clientUpdateMessageImpl, cacheClientProxy, value);
+      List<byte[]> reusedParts = getPartBytes(clientUpdateMessageImpl, cacheClientProxy, value);
+
+      assertThat(sharedParts).containsExactlyElementsOf(unsharedParts);
+      assertThat(reusedParts).containsExactlyElementsOf(unsharedParts);
+    } finally {
+      ClientUpdateMessageImpl.shareSerializedParts = shareSerializedParts;
+    }
+  }
+
+  private List<byte[]> getPartBytes(ClientUpdateMessageImpl clientUpdateMessageImpl,
+      CacheClientProxy cacheClientProxy, byte[] value) throws Exception {
+    Message message = clientUpdateMessageImpl.getMessage(cacheClientProxy, value);
+    List<byte[]> parts = new ArrayList<>();
+    for (int i = 0; i < message.getNumberOfParts(); i++) {
+      Part part = message.getPart(i);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      bytes.write(part.getTypeCode());
+      part.writeTo(bytes, ByteBuffer.allocate(part.getLength()));
+      parts.add(bytes.toByteArray());
+    }
+    return parts;
+  }
+
+  private ClientUpdateMessageImpl getTestUpdateMessage() {
+    LocalRegion localRegion = mock(LocalRegion.class);
+    when(localRegion.getFullPath()).thenReturn("/regionName");
+    return new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_UPDATE, localRegion, 42,
+        new byte[] {1, 2, 3}, (byte) 0x01, "callbackArgument", null,
+        new EventID(new byte[] {1, 2}, 3, 4));
+  }
+
   private ClientUpdateMessageImpl getTestClientUpdateMessage() {
     LocalRegion localRegion = mock(LocalRegion.class);
     String regionName = "regionName";
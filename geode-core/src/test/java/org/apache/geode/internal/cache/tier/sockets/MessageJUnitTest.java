@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -23,6 +24,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -35,6 +38,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.serialization.Version;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 
@@ -107,6 +111,49 @@ public class MessageJUnitTest {
     }
   }
 
+  @Test
+  public void traceIdIsSentAfterTheSecurePart() throws Exception {
+    Message sent = new Message(2, Version.CURRENT);
+    sent.setMessageType(MessageType.PUT);
+    sent.addStringPart("key");
+    sent.addStringPart("value");
+    sent.setSecurePart(new byte[] {1, 2, 3});
+    sent.setTraceId(0x1234567890L);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    sent.setComms(mock(Socket.class), null, out, ByteBuffer.allocate(1000),
+        mock(MessageStats.class));
+    sent.send();
+
+    Message received = new Message(2, Version.CURRENT);
+    received.setComms(mock(Socket.class), new ByteArrayInputStream(out.toByteArray()), null,
+        ByteBuffer.allocate(1000), mock(MessageStats.class));
+    received.receive();
+
+    assertEquals(2, received.getNumberOfParts());
+    assertEquals("value", received.getPart(1).getString());
+    assertArrayEquals(new byte[] {1, 2, 3}, received.getSecureBytes());
+    assertEquals(0x1234567890L, received.getTraceId());
+  }
+
+  @Test
+  public void traceIdIsZeroWhenNotSent() throws Exception {
+    Message sent = new Message(1, Version.CURRENT);
+    sent.setMessageType(MessageType.PUT);
+    sent.addStringPart("key");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    sent.setComms(mock(Socket.class), null, out, ByteBuffer.allocate(1000),
+        mock(MessageStats.class));
+    sent.send();
+
+    Message received = new Message(1, Version.CURRENT);
+    received.setComms(mock(Socket.class), new ByteArrayInputStream(out.toByteArray()), null,
+        ByteBuffer.allocate(1000), mock(MessageStats.class));
+    received.receive();
+
+    assertEquals("key", received.getPart(0).getString());
+    assertEquals(0, received.getTraceId());
+  }
+
   /**
    * geode-1468: Message should clear the chunks in its Parts when performing cleanup.
    */
@@ -20,6 +20,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
@@ -76,4 +77,37 @@ public class PartTest {
     assertThatThrownBy(() -> part.getCachedString())
         .hasMessageContaining("expected String part to be of type BYTE, part =");
   }
+
+  @Test
+  public void bufferPartIsWrittenWithoutBeingCopied() throws Exception {
+    ByteBuffer direct = ByteBuffer.allocateDirect(8);
+    direct.put(new byte[] {1, 2, 3, 4, 5});
+    direct.flip();
+    direct.position(1);
+    Part part = new Part();
+    part.setPartState(direct.asReadOnlyBuffer(), true);
+
+    ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+    ByteBuffer scratch = ByteBuffer.allocate(2);
+    part.writeTo(streamed, scratch);
+    scratch.flip();
+    streamed.write(scratch.array(), 0, scratch.limit());
+    ByteBuffer buffered = ByteBuffer.allocate(4);
+    part.writeTo(buffered);
+
+    assertThat(part.isObject()).isTrue();
+    assertThat(part.getLength()).isEqualTo(4);
+    assertThat(streamed.toByteArray()).containsExactly(2, 3, 4, 5);
+    assertThat(buffered.array()).containsExactly(2, 3, 4, 5);
+  }
+
+  @Test
+  public void wholeHeapBufferPartKeepsItsArray() {
+    byte[] bytes = {1, 2, 3};
+    Part part = new Part();
+
+    part.setPartState(ByteBuffer.wrap(bytes), false);
+
+    assertThat(part.getSerializedForm()).isSameAs(bytes);
+  }
 }
@@ -21,7 +21,10 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.Before;
@@ -32,10 +35,13 @@ import org.apache.geode.CancelCriterion;
 import org.apache.geode.CancelException;
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.cache.CacheClosedException;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.client.internal.ClientMetadataService;
 import org.apache.geode.cache.client.internal.InternalPool;
 import org.apache.geode.cache.client.internal.ServerRegionProxy;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.TXCommitMessage;
@@ -120,4 +126,77 @@ public class ClientTXStateStubTest {
     order.verify(serverRegionProxy).commit(anyInt());
     order.verify(internalPool).releaseServerAffinity();
   }
+
+  @Test
+  public void firstOperationIsRoutedToPrimaryOfBucket() {
+    ClientMetadataService cms = mock(ClientMetadataService.class);
+    ServerLocation primary = new ServerLocation("host", 1234);
+    when(cache.getClientMetadataService()).thenReturn(cms);
+    when(internalPool.getPRSingleHopEnabled()).thenReturn(true);
+    when(cms.getTransactionHostLocation(region, Operation.UPDATE, "key", "value", null))
+        .thenReturn(primary);
+    ClientTXStateStub stub = new ClientTXStateStub(cache, dm, stateProxy, target, region);
+
+    stub.routeFirstOperation(region, Operation.UPDATE, "key", "value", null);
+
+    InOrder order = inOrder(internalPool, cms);
+    order.verify(internalPool).releaseServerAffinity();
+    order.verify(cms).getTransactionHostLocation(region, Operation.UPDATE, "key", "value", null);
+    order.verify(internalPool).setupServerAffinity(true);
+    order.verify(internalPool).setServerAffinityLocation(primary);
+  }
+
+  @Test
+  public void onlyFirstOperationIsRouted() {
+    ClientMetadataService cms = mock(ClientMetadataService.class);
+    when(cache.getClientMetadataService()).thenReturn(cms);
+    when(internalPool.getPRSingleHopEnabled()).thenReturn(true);
+    when(cms.getTransactionHostLocation(any(), any(), any(), any(), any()))
+        .thenReturn(new ServerLocation("host", 1234));
+    ClientTXStateStub stub = new ClientTXStateStub(cache, dm, stateProxy, target, region);
+
+    stub.routeFirstOperation(region, Operation.UPDATE, "key1", "value", null);
+    stub.routeFirstOperation(region, Operation.UPDATE, "key2", "value", null);
+
+    verify(cms, times(1)).getTransactionHostLocation(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void firstOperationIsNotRoutedIfSingleHopIsDisabled() {
+    ClientMetadataService cms = mock(ClientMetadataService.class);
+    when(cache.getClientMetadataService()).thenReturn(cms);
+    when(internalPool.getPRSingleHopEnabled()).thenReturn(false);
+    ClientTXStateStub stub = new ClientTXStateStub(cache, dm, stateProxy, target, region);
+
+    stub.routeFirstOperation(region, Operation.UPDATE, "key", "value", null);
+
+    verify(cms, never()).getTransactionHostLocation(any(), any(), any(), any(), any());
+    verify(internalPool, never()).setServerAffinityLocation(any());
+  }
+
+  @Test
+  public void firstOperationIsNotRoutedIfTransactionIsAlreadyHosted() {
+    ClientMetadataService cms = mock(ClientMetadataService.class);
+    when(cache.getClientMetadataService()).thenReturn(cms);
+    when(internalPool.getPRSingleHopEnabled()).thenReturn(true);
+    when(internalPool.getServerAffinityLocation()).thenReturn(new ServerLocation("host", 1234));
+    ClientTXStateStub stub = new ClientTXStateStub(cache, dm, stateProxy, target, region);
+
+    stub.routeFirstOperation(region, Operation.UPDATE, "key", "value", null);
+
+    verify(cms, never()).getTransactionHostLocation(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void firstOperationIsLeftToPoolIfPrimaryIsUnknown() {
+    ClientMetadataService cms = mock(ClientMetadataService.class);
+    when(cache.getClientMetadataService()).thenReturn(cms);
+    when(internalPool.getPRSingleHopEnabled()).thenReturn(true);
+    ClientTXStateStub stub = new ClientTXStateStub(cache, dm, stateProxy, target, region);
+
+    stub.routeFirstOperation(region, Operation.UPDATE, "key", "value", null);
+
+    verify(internalPool, times(2)).setupServerAffinity(true);
+    verify(internalPool, never()).setServerAffinityLocation(any());
+  }
 }
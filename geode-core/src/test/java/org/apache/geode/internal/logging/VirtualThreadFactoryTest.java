@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import org.apache.geode.logging.internal.executors.LoggingUncaughtExceptionHandler;
+
+public class VirtualThreadFactoryTest {
+
+  @Test
+  public void isSupportedWhenJdkHasThreadBuilder() {
+    boolean hasBuilder;
+    try {
+      Class.forName("java.lang.Thread$Builder");
+      hasBuilder = true;
+    } catch (ClassNotFoundException e) {
+      hasBuilder = false;
+    }
+
+    assertThat(VirtualThreadFactory.isSupported()).isEqualTo(hasBuilder);
+  }
+
+  @Test
+  public void isNotEnabledUnlessRequested() {
+    assertThat(VirtualThreadFactory.isEnabled(false)).isFalse();
+    assertThat(VirtualThreadFactory.isEnabled(true)).isEqualTo(VirtualThreadFactory.isSupported());
+  }
+
+  @Test
+  public void constructorThrowsIfNotSupported() {
+    assumeFalse(VirtualThreadFactory.isSupported());
+
+    assertThatThrownBy(() -> new VirtualThreadFactory("test ", null, null))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void createsNamedThreadsThatRunWrappedCommand() throws Exception {
+    assumeTrue(VirtualThreadFactory.isSupported());
+    AtomicReference<Thread> initialized = new AtomicReference<>();
+    AtomicReference<String> ran = new AtomicReference<>();
+    VirtualThreadFactory factory = new VirtualThreadFactory("test ", initialized::set,
+        command -> {
+          ran.set("wrapped");
+          command.run();
+        });
+
+    Thread thread = factory.newThread(() -> ran.set(ran.get() + " command"));
+
+    assertThat(thread.getName()).isEqualTo("test 1");
+    assertThat(thread.isDaemon()).isTrue();
+    assertThat(initialized.get()).isSameAs(thread);
+    assertThat(thread.getUncaughtExceptionHandler())
+        .isSameAs(LoggingUncaughtExceptionHandler.getInstance());
+    thread.start();
+    thread.join();
+    assertThat(ran.get()).isEqualTo("wrapped command");
+  }
+}
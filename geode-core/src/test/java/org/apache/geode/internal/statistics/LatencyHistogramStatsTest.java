@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import org.apache.geode.Statistics;
+
+public class LatencyHistogramStatsTest {
+
+  @Test
+  public void percentilesOfTheLastIntervalAreSampled() {
+    StatisticsRegistry registry = new StatisticsRegistry("test", 0);
+    LatencyHistogramStats latencies = new LatencyHistogramStats(registry, "gets");
+    Statistics stats = latencies.getStats();
+    for (int i = 1; i <= 100; i++) {
+      latencies.record(i);
+    }
+
+    ((StatisticsImpl) stats).updateSuppliedValues();
+
+    assertThat(stats.getTextId()).isEqualTo("gets");
+    assertThat(stats.getLong(LatencyHistogramStats.OPERATIONS)).isEqualTo(100);
+    assertThat(stats.getLong(LatencyHistogramStats.INTERVAL_OPERATIONS)).isEqualTo(100);
+    assertThat(stats.getLong(LatencyHistogramStats.P50)).isEqualTo(50);
+    assertThat(stats.getLong(LatencyHistogramStats.P99)).isEqualTo(99);
+    // values over 64 are recorded in buckets two wide
+    assertThat(stats.getLong(LatencyHistogramStats.MAX)).isEqualTo(101);
+  }
+
+  @Test
+  public void operationsAccumulateAcrossIntervals() throws InterruptedException {
+    StatisticsRegistry registry = new StatisticsRegistry("test", 0);
+    LatencyHistogramStats latencies = new LatencyHistogramStats(registry, "puts");
+    Statistics stats = latencies.getStats();
+    latencies.record(10);
+    ((StatisticsImpl) stats).updateSuppliedValues();
+    Thread.sleep(2 * LatencyHistogramStats.SNAPSHOT_MAX_AGE_NANOS / 1_000_000);
+    latencies.record(20);
+    latencies.record(30);
+
+    ((StatisticsImpl) stats).updateSuppliedValues();
+
+    assertThat(stats.getLong(LatencyHistogramStats.OPERATIONS)).isEqualTo(3);
+    assertThat(stats.getLong(LatencyHistogramStats.INTERVAL_OPERATIONS)).isEqualTo(2);
+    assertThat(stats.getLong(LatencyHistogramStats.MAX)).isEqualTo(30);
+  }
+}
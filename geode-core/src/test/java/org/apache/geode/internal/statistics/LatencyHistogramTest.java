@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void everyValueIsInABucketWhoseHighestValueIsWithinPrecision() {
+    int previousIndex = -1;
+    for (long value = 0; value < 100_000; value++) {
+      int index = LatencyHistogram.indexOf(value);
+      assertThat(index).isBetween(previousIndex, previousIndex + 1);
+      long highest = LatencyHistogram.highestValueAt(index);
+      assertThat(highest).isGreaterThanOrEqualTo(value);
+      assertThat((double) highest).isCloseTo(value, within(value / 32.0 + 1));
+      previousIndex = index;
+    }
+  }
+
+  @Test
+  public void largestValuesFitInTheBuckets() {
+    int index = LatencyHistogram.indexOf(Long.MAX_VALUE);
+
+    assertThat(index).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+    assertThat(LatencyHistogram.highestValueAt(index)).isEqualTo(Long.MAX_VALUE);
+    assertThat(LatencyHistogram.indexOf(-5)).isZero();
+  }
+
+  @Test
+  public void percentilesAreWithinPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10_000; value++) {
+      histogram.record(value * 1000);
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    assertThat(snapshot.getTotalCount()).isEqualTo(10_000);
+    assertThat((double) snapshot.getValueAtPercentile(50)).isCloseTo(5_000_000,
+        within(5_000_000 / 32.0));
+    assertThat((double) snapshot.getValueAtPercentile(99)).isCloseTo(9_900_000,
+        within(9_900_000 / 32.0));
+    assertThat((double) snapshot.getValueAtPercentile(99.9)).isCloseTo(9_990_000,
+        within(9_990_000 / 32.0));
+    assertThat((double) snapshot.getMaxValue()).isCloseTo(10_000_000, within(10_000_000 / 32.0));
+  }
+
+  @Test
+  public void snapshotSinceAnEarlierOneHoldsTheValuesRecordedInBetween() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(40);
+    LatencyHistogram.Snapshot earlier = histogram.snapshot();
+    histogram.record(10);
+    histogram.record(20);
+
+    LatencyHistogram.Snapshot between = histogram.snapshot().since(earlier);
+
+    assertThat(between.getTotalCount()).isEqualTo(2);
+    assertThat(between.getMaxValue()).isEqualTo(20);
+  }
+
+  @Test
+  public void emptySnapshotHasZeroPercentiles() {
+    LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+    assertThat(snapshot.getTotalCount()).isZero();
+    assertThat(snapshot.getValueAtPercentile(99)).isZero();
+    assertThat(snapshot.getMaxValue()).isZero();
+  }
+
+  @Test
+  public void intervalSnapshotHasOnlyValuesRecordedSinceThePreviousOne() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    LatencyHistogram.IntervalReader reader = histogram.newIntervalReader();
+    histogram.record(1_000_000);
+    reader.intervalSnapshot();
+    histogram.record(10);
+    histogram.record(20);
+
+    LatencyHistogram.Snapshot snapshot = reader.intervalSnapshot();
+
+    assertThat(snapshot.getTotalCount()).isEqualTo(2);
+    assertThat(snapshot.getMaxValue()).isEqualTo(20);
+    assertThat(reader.getTotalCount()).isEqualTo(3);
+    assertThat(histogram.snapshot().getTotalCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void latestSnapshotIsReusedUntilItIsTooOld() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    LatencyHistogram.IntervalReader reader = histogram.newIntervalReader();
+    histogram.record(10);
+
+    LatencyHistogram.Snapshot first = reader.latestSnapshot(Long.MAX_VALUE);
+    histogram.record(20);
+
+    assertThat(reader.latestSnapshot(Long.MAX_VALUE)).isSameAs(first);
+    assertThat(reader.latestSnapshot(-1).getMaxValue()).isEqualTo(20);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.statistics.meters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import org.apache.geode.internal.statistics.LatencyHistogram;
+
+public class LatencyHistogramGaugesTest {
+
+  @Test
+  public void gaugesReportQuantilesInSeconds() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    LatencyHistogramGauges gauges = LatencyHistogramGauges.register(histogram, "my.latency",
+        "my description", Tags.of("region", "r"), registry);
+
+    assertThat(registry.get("my.latency").tag("quantile", "0.5").tag("region", "r").gauge()
+        .value()).isEqualTo(50 / 1e9);
+    assertThat(registry.get("my.latency").tag("quantile", "0.99").gauge().value())
+        .isEqualTo(99 / 1e9);
+    assertThat(registry.get("my.latency.max").gauge().value()).isEqualTo(101 / 1e9);
+    assertThat(gauges.getGauges()).hasSize(5);
+  }
+
+  @Test
+  public void gaugesPolledByEachChildOfACompositeRegistryReportTheSameValues()
+      throws InterruptedException {
+    MeterRegistry first = new SimpleMeterRegistry();
+    MeterRegistry second = new SimpleMeterRegistry();
+    CompositeMeterRegistry registry = new CompositeMeterRegistry();
+    registry.add(first);
+    registry.add(second);
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(40);
+
+    LatencyHistogramGauges.register(histogram, "my.latency", "my description", Tags.empty(),
+        registry);
+
+    assertThat(first.get("my.latency.max").gauge().value()).isEqualTo(40 / 1e9);
+    histogram.record(10);
+    // let the shared snapshot expire, so the next poll reads the histogram again
+    Thread.sleep(200);
+    assertThat(second.get("my.latency.max").gauge().value()).isEqualTo(40 / 1e9);
+    assertThat(first.get("my.latency").tag("quantile", "0.5").gauge().value())
+        .isEqualTo(10 / 1e9);
+  }
+
+  @Test
+  public void latenciesAgeOutOfTheWindow() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    LatencyHistogram histogram = new LatencyHistogram();
+    AtomicLong nanoTime = new AtomicLong();
+    LatencyHistogramGauges.register(histogram, "my.latency", "my description", Tags.empty(),
+        registry, nanoTime::get);
+    Gauge max = registry.get("my.latency.max").gauge();
+    for (int i = 0; i < 100; i++) {
+      histogram.record(40);
+    }
+
+    nanoTime.addAndGet(LatencyHistogramGauges.WINDOW_STEP_NANOS);
+    assertThat(max.value()).isEqualTo(40 / 1e9);
+    nanoTime.addAndGet(LatencyHistogramGauges.WINDOW_NANOS);
+    histogram.record(10);
+
+    assertThat(max.value()).isEqualTo(10 / 1e9);
+    assertThat(registry.get("my.latency").tag("quantile", "0.99").gauge().value())
+        .isEqualTo(10 / 1e9);
+    nanoTime.addAndGet(
+        LatencyHistogramGauges.WINDOW_NANOS - LatencyHistogramGauges.WINDOW_STEP_NANOS);
+    assertThat(max.value()).isEqualTo(10 / 1e9);
+    nanoTime.addAndGet(LatencyHistogramGauges.WINDOW_STEP_NANOS);
+    assertThat(max.value()).isZero();
+  }
+
+  @Test
+  public void descriptionStatesTheWindow() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    LatencyHistogramGauges.register(new LatencyHistogram(), "my.latency", "My description.",
+        Tags.empty(), registry);
+
+    assertThat(registry.get("my.latency.max").gauge().getId().getDescription())
+        .startsWith("My description.").contains("60 to 70 seconds");
+  }
+
+  @Test
+  public void removeUnregistersTheGauges() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    LatencyHistogramGauges gauges = LatencyHistogramGauges.register(new LatencyHistogram(),
+        "my.latency", "my description", Tags.empty(), registry);
+
+    gauges.remove();
+
+    assertThat(registry.getMeters()).isEmpty();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class OperationTracerTest {
+
+  @After
+  public void tearDown() {
+    OperationTracer.setSampleRate(0, 0);
+  }
+
+  @Test
+  public void nothingIsTracedWhenDisabled() {
+    long start = OperationTracer.startTrace();
+
+    assertThat(start).isZero();
+    assertThat(OperationTracer.currentTraceId()).isZero();
+    assertThat(OperationTracer.startSpan()).isZero();
+    assertThat(OperationTracer.getSpans()).isEmpty();
+  }
+
+  @Test
+  public void spansOfATracedOperationShareItsTraceId() {
+    OperationTracer.setSampleRate(1.0, 16);
+
+    long start = OperationTracer.startTrace();
+    long traceId = OperationTracer.currentTraceId();
+    long spanStart = OperationTracer.startSpan();
+    OperationTracer.endSpan(TraceStage.CLIENT_SEND, spanStart);
+    OperationTracer.endTrace(TraceStage.CLIENT_OPERATION, start);
+
+    assertThat(start).isNotZero();
+    assertThat(traceId).isNotZero();
+    assertThat(OperationTracer.currentTraceId()).isZero();
+    assertThat(OperationTracer.getSpans()).extracting(Span::getStage)
+        .containsExactly(TraceStage.CLIENT_SEND, TraceStage.CLIENT_OPERATION);
+    assertThat(OperationTracer.getSpans()).extracting(Span::getTraceId).containsOnly(traceId);
+  }
+
+  @Test
+  public void nestedOperationsAreNotTracedSeparately() {
+    OperationTracer.setSampleRate(1.0, 16);
+
+    long outer = OperationTracer.startTrace();
+    long traceId = OperationTracer.currentTraceId();
+    long inner = OperationTracer.startTrace();
+    long resumed = OperationTracer.resumeTrace(traceId + 1);
+    OperationTracer.endTrace(TraceStage.CLIENT_OPERATION, inner);
+
+    assertThat(inner).isZero();
+    assertThat(resumed).isZero();
+    assertThat(OperationTracer.currentTraceId()).isEqualTo(traceId);
+    OperationTracer.endTrace(TraceStage.CLIENT_OPERATION, outer);
+  }
+
+  @Test
+  public void resumedTraceKeepsTheTraceIdOfTheSender() {
+    OperationTracer.setSampleRate(1.0, 16);
+
+    long start = OperationTracer.resumeTrace(42);
+    OperationTracer.recordSpan(TraceStage.MESSAGE_QUEUE, start - 1000, start);
+    OperationTracer.endTrace(TraceStage.MESSAGE_PROCESSING, start);
+
+    assertThat(OperationTracer.getSpans()).extracting(Span::getTraceId).containsOnly(42L);
+    assertThat(OperationTracer.getSpans().get(0).getDurationNanos()).isEqualTo(1000);
+    assertThat(OperationTracer.resumeTrace(0)).isZero();
+  }
+
+  @Test
+  public void exportWritesOneLinePerSpan() throws Exception {
+    OperationTracer.setSampleRate(1.0, 16);
+    long start = OperationTracer.resumeTrace(0xabc);
+    OperationTracer.endTrace(TraceStage.SERVER_COMMAND, start);
+
+    StringWriter writer = new StringWriter();
+    OperationTracer.export(writer);
+
+    String[] lines = writer.toString().split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).isEqualTo("traceId,stage,threadId,startMicros,durationNanos");
+    assertThat(lines[1]).startsWith("abc,SERVER_COMMAND," + Thread.currentThread().getId() + ",");
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class SpanBufferTest {
+
+  @Test
+  public void capacityIsRoundedUpToAPowerOfTwo() {
+    assertThat(new SpanBuffer(1000).capacity()).isEqualTo(1024);
+    assertThat(new SpanBuffer(1024).capacity()).isEqualTo(1024);
+    assertThat(new SpanBuffer(0).capacity()).isEqualTo(2);
+  }
+
+  @Test
+  public void spansAreReturnedOldestFirst() {
+    SpanBuffer buffer = new SpanBuffer(8);
+    buffer.record(1, TraceStage.CLIENT_OPERATION, 10, 100, 1000);
+    buffer.record(1, TraceStage.CLIENT_SEND, 10, 101, 500);
+
+    List<Span> spans = buffer.getSpans();
+
+    assertThat(spans).extracting(Span::getStage).containsExactly(TraceStage.CLIENT_OPERATION,
+        TraceStage.CLIENT_SEND);
+    Span first = spans.get(0);
+    assertThat(first.getTraceId()).isEqualTo(1);
+    assertThat(first.getThreadId()).isEqualTo(10);
+    assertThat(first.getStartMicros()).isEqualTo(100);
+    assertThat(first.getDurationNanos()).isEqualTo(1000);
+  }
+
+  @Test
+  public void newSpansOverwriteTheOldestOnceFull() {
+    SpanBuffer buffer = new SpanBuffer(4);
+    for (int i = 0; i < 10; i++) {
+      buffer.record(i, TraceStage.DISK_WRITE, 1, i, i);
+    }
+
+    assertThat(buffer.getSpans()).extracting(Span::getTraceId).containsExactly(6L, 7L, 8L, 9L);
+  }
+}
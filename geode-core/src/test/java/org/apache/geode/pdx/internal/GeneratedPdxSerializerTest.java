@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.AutoSerializableManager.AutoClassInfo;
+import org.apache.geode.pdx.internal.AutoSerializableManager.PdxFieldWrapper;
+
+public class GeneratedPdxSerializerTest {
+  /** DSCODE, length and type id */
+  private static final int HEADER_SIZE = 9;
+
+  private AutoClassInfo classInfo;
+  private PdxType pdxType;
+  private Domain domain;
+
+  @Before
+  public void setUp() {
+    ReflectionBasedAutoSerializer serializer =
+        new ReflectionBasedAutoSerializer(Domain.class.getName());
+    classInfo = ((AutoSerializableManager) serializer.getManager()).getClassInfo(Domain.class);
+    domain = new Domain();
+    domain.intField = 37;
+    domain.longField = -5L;
+    domain.booleanField = true;
+    domain.charField = 'x';
+    domain.doubleField = 1.5;
+    domain.stringField = "value";
+    domain.otherStringField = null;
+    domain.intArrayField = new int[] {1, 2, 3};
+    pdxType = defineType(classInfo, domain);
+  }
+
+  @Test
+  public void generatedSerializerWritesTheSameBytesAsTheFieldWrappers() {
+    GeneratedPdxSerializer generated = GeneratedPdxSerializer.create(Domain.class,
+        classInfo.getFields());
+
+    assertThat(generated).isNotNull();
+    assertThat(write(generated, domain)).isEqualTo(write(null, domain));
+  }
+
+  @Test
+  public void generatedSerializerReadsWhatItWrote() throws IOException {
+    GeneratedPdxSerializer generated = GeneratedPdxSerializer.create(Domain.class,
+        classInfo.getFields());
+    byte[] bytes = write(generated, domain);
+    PdxReaderImpl reader = new PdxReaderImpl(pdxType, new DataInputStream(
+        new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE)),
+        bytes.length - HEADER_SIZE);
+    Domain result = new Domain();
+
+    generated.orderedRead(reader, result);
+
+    assertThat(result).isEqualToComparingFieldByField(domain);
+  }
+
+  @Test
+  public void noSerializerIsGeneratedForFieldsThatTransformTheirValues() {
+    ReflectionBasedAutoSerializer serializer =
+        new ReflectionBasedAutoSerializer(Domain.class.getName()) {
+          @Override
+          public boolean transformFieldValue(Field f, Class<?> clazz) {
+            return f.getName().equals("intArrayField");
+          }
+        };
+    AutoClassInfo transformingClassInfo =
+        ((AutoSerializableManager) serializer.getManager()).getClassInfo(Domain.class);
+
+    assertThat(GeneratedPdxSerializer.create(Domain.class, transformingClassInfo.getFields()))
+        .isNull();
+  }
+
+  private static PdxType defineType(AutoClassInfo classInfo, Object obj) {
+    PdxType type = new PdxType(obj.getClass().getName(), true);
+    PdxWriterImpl writer = new PdxWriterImpl(type, null, new PdxOutputStream());
+    for (PdxFieldWrapper field : classInfo.getFields()) {
+      field.serialize(writer, obj, false);
+    }
+    type.initialize(writer);
+    return type;
+  }
+
+  private byte[] write(GeneratedPdxSerializer generated, Object obj) {
+    PdxOutputStream out = new PdxOutputStream();
+    PdxWriterImpl writer = new PdxWriterImpl(pdxType, out);
+    if (generated != null) {
+      generated.write(writer, obj);
+    } else {
+      for (PdxFieldWrapper field : classInfo.getFields()) {
+        field.serialize(writer, obj, true);
+      }
+    }
+    writer.completeByteStreamGeneration();
+    return out.toByteArray();
+  }
+
+  public static class Domain {
+    private int intField;
+    private long longField;
+    private boolean booleanField;
+    private char charField;
+    private double doubleField;
+    private String stringField;
+    private String otherStringField;
+    private int[] intArrayField;
+  }
+}
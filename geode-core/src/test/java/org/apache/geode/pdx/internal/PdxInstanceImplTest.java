@@ -18,7 +18,9 @@ import static org.apache.commons.lang3.StringUtils.substringAfter;
 import static org.apache.geode.distributed.internal.locks.GrantorRequestProcessor.GrantorRequestContext;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -42,6 +44,7 @@ import org.apache.geode.distributed.internal.membership.InternalDistributedMembe
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.pdx.FieldType;
 import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.WritablePdxInstance;
 import org.apache.geode.test.junit.categories.SerializationTest;
 
 @Category({SerializationTest.class})
@@ -333,6 +336,57 @@ public class PdxInstanceImplTest {
     assertEquals(true, instance.isIdentityField(booleanArrayField.getFieldName()));
   }
 
+  @Test
+  public void testGetFieldReturnsSameValueOnEachRead() {
+    Object string = instance.getField(stringField.getFieldName());
+    Object longValue = instance.getField(longField.getFieldName());
+
+    assertEquals("MOOF!", string);
+    assertEquals(42L, longValue);
+    assertSame(string, instance.getField(stringField.getFieldName()));
+    assertSame(longValue, instance.getField(longField.getFieldName()));
+    assertNotSame(instance.getField(intArrayField.getFieldName()),
+        instance.getField(intArrayField.getFieldName()));
+  }
+
+  @Test
+  public void testGetFieldOfWriterSeesModifiedValue() {
+    assertEquals("MOOF!", instance.getField(stringField.getFieldName()));
+
+    WritablePdxInstance writer = instance.createWriter();
+    assertEquals("MOOF!", writer.getField(stringField.getFieldName()));
+    writer.setField(stringField.getFieldName(), "WOOF!");
+    writer.setField(intField.getFieldName(), 38);
+
+    assertEquals("WOOF!", writer.getField(stringField.getFieldName()));
+    assertEquals(38, writer.getField(intField.getFieldName()));
+    assertEquals(42L, writer.getField(longField.getFieldName()));
+    assertEquals("MOOF!", instance.getField(stringField.getFieldName()));
+    assertEquals(37, instance.getField(intField.getFieldName()));
+  }
+
+  @Test
+  public void testRawFieldHashCodeIsHashCodeOfRawBytes() {
+    PdxInstanceImpl pdxInstance = (PdxInstanceImpl) instance;
+    for (PdxField field : pdxType.getFields()) {
+      assertEquals(field.getFieldName(), 31 + pdxInstance.getRaw(field).hashCode(),
+          pdxInstance.addRawFieldHashCode(field, 1));
+    }
+  }
+
+  @Test
+  public void testRawFieldEqualsComparesRawBytes() {
+    PdxInstanceImpl pdxInstance = (PdxInstanceImpl) instance;
+    WritablePdxInstanceImpl copy = (WritablePdxInstanceImpl) instance.createWriter();
+    copy.setField(longField.getFieldName(), 43L);
+    PdxReaderImpl copyReader = copy.getUnmodifiableReader();
+
+    for (PdxField field : pdxType.getFields()) {
+      assertEquals(field.getFieldName(), field != longField,
+          pdxInstance.rawFieldEquals(field, copyReader, field));
+    }
+  }
+
   private static class SerializableObject implements Serializable {
     String name;
 
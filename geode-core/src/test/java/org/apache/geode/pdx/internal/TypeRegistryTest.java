@@ -21,6 +21,9 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -133,4 +136,16 @@ public class TypeRegistryTest {
 
     assertThat(result).isSameAs(existingType);
   }
+
+  @Test
+  public void preloadTypesCachesOnlyTheIdsOfTheLocalTypesOfTheTypeRegistration() {
+    Map<Integer, PdxType> localTypes = new HashMap<>();
+    localTypes.put(37, newType);
+    when(typeRegistration.getLocalTypes()).thenReturn(localTypes);
+
+    typeRegistry.preloadTypes();
+
+    assertThat(typeRegistry.getIdToType().get(37)).isSameAs(newType);
+    assertThat(typeRegistry.getTypeToId()).doesNotContainKey(newType);
+  }
 }
@@ -813,6 +813,10 @@ public interface DataSerializableFixedID extends SerializationVersions, BasicSer
   short GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_MESSAGE = 2181;
   short GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY = 2182;
   short ABORT_BACKUP_REQUEST = 2183;
+  short BUCKET_ACCESS_EPOCH_MESSAGE = 2184;
+  short TOMBSTONE_GC_BATCH_MESSAGE = 2185;
+  short FUNCTION_STREAMING_CREDIT_MESSAGE = 2186;
+  short DLOCK_REVOKE_LEASE_MESSAGE = 2187;
 
   // NOTE, codes > 65535 will take 4 bytes to serialize
 